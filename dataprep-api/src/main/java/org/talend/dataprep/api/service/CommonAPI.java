@@ -27,6 +27,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.talend.daikon.exception.error.ErrorCode;
 import org.talend.dataprep.api.service.command.QueueStatusCommand;
@@ -120,29 +121,33 @@ public class CommonAPI extends APIService {
     }
 
     /**
-     * Get the async method status
+     * Get the async method status (waiting at most <code>wait</code> ms for the method to finish).
      */
     @RequestMapping(value = "/api/{service}/queue/{id}", method = GET, produces = APPLICATION_JSON_VALUE)
     @ApiOperation(value = "Get async method status.")
     @Timed
     public AsyncExecutionMessage getQueue(
             @PathVariable(value = "service") @ApiParam(name = "service", value = "service name") String service,
-            @PathVariable(value = "id") @ApiParam(name = "id", value = "queue id.") String id) {
-        HystrixCommand<AsyncExecutionMessage> queueStatusCommand =
-                getCommand(QueueStatusCommand.class, GenericCommand.ServiceType.valueOf(service.toUpperCase()), id);
+            @PathVariable(value = "id") @ApiParam(name = "id", value = "queue id.") String id,
+            @RequestParam(value = "wait", defaultValue = "0") @ApiParam(name = "wait",
+                    value = "Maximum time (in ms) to wait for the end of the method.") long wait) {
+        HystrixCommand<AsyncExecutionMessage> queueStatusCommand = getCommand(QueueStatusCommand.class,
+                GenericCommand.ServiceType.valueOf(service.toUpperCase()), id, wait);
         return queueStatusCommand.execute();
     }
 
     /**
-     * Get the async method status
+     * Get the async method status (waiting at most <code>wait</code> ms for the method to finish).
      */
     @RequestMapping(value = "/api/queue/{id}", method = GET, produces = APPLICATION_JSON_VALUE)
     @ApiOperation(value = "Get async method status.")
     @Timed
-    public AsyncExecutionMessage
-            getQueue(@PathVariable(value = "id") @ApiParam(name = "id", value = "queue id.") String id) {
+    public AsyncExecutionMessage getQueue(
+            @PathVariable(value = "id") @ApiParam(name = "id", value = "queue id.") String id,
+            @RequestParam(value = "wait", defaultValue = "0") @ApiParam(name = "wait",
+                    value = "Maximum time (in ms) to wait for the end of the method.") long wait) {
         HystrixCommand<AsyncExecutionMessage> queueStatusCommand =
-                getCommand(QueueStatusCommand.class, GenericCommand.ServiceType.FULLRUN, id);
+                getCommand(QueueStatusCommand.class, GenericCommand.ServiceType.FULLRUN, id, wait);
         return queueStatusCommand.execute();
     }
 
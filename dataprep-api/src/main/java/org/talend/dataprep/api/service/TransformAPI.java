@@ -12,20 +12,18 @@
 
 package org.talend.dataprep.api.service;
 
-import com.netflix.hystrix.HystrixCommand;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.talend.dataprep.api.action.ActionForm;
 import org.talend.dataprep.api.service.api.DynamicParamsInput;
-import org.talend.dataprep.api.service.command.common.AsyncGet;
-import org.talend.dataprep.api.service.command.preparation.PreparationGetContent;
 import org.talend.dataprep.api.service.command.transformation.*;
 import org.talend.dataprep.command.CommandHelper;
 import org.talend.dataprep.command.GenericCommand;
@@ -35,7 +33,6 @@ import javax.validation.Valid;
 import java.io.InputStream;
 import java.util.stream.Stream;
 
-import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 import static org.talend.dataprep.command.CommandHelper.toStream;
@@ -43,9 +40,6 @@ import static org.talend.dataprep.command.CommandHelper.toStream;
 @RestController
 public class TransformAPI extends APIService {
 
-    @Autowired
-    private CommonAPI commonAPI;
-
     /**
      * Get all the possible actions for a given column.
      *
@@ -113,20 +107,9 @@ public class TransformAPI extends APIService {
     public ResponseEntity<StreamingResponseBody> suggestActionParams(
             @ApiParam(value = "Transformation name.") @PathVariable("action") final String action, @ApiParam(
                     value = "Suggested dynamic transformation input (preparation id or dataset id") @Valid final DynamicParamsInput dynamicParamsInput) {
-        // get preparation/dataset content
-        HystrixCommand<InputStream> inputData;
-        final String preparationId = dynamicParamsInput.getPreparationId();
-        if (isNotBlank(preparationId)) {
-            inputData = new AsyncGet<>(
-                    () -> getCommand(PreparationGetContent.class, preparationId, dynamicParamsInput.getStepId()),
-                    commonAPI);
-        } else {
-            inputData = datasetClient.getDataSetGetCommand(dynamicParamsInput.getDatasetId(), false, false);
-        }
-
-        // get params, passing content in the body
+        // transformation service reads the preparation/dataset content by itself
         final GenericCommand<InputStream> getActionDynamicParams =
-                getCommand(SuggestActionParams.class, inputData, action, dynamicParamsInput.getColumnId());
+                getCommand(SuggestActionParams.class, action, dynamicParamsInput);
         return CommandHelper.toStreaming(getActionDynamicParams);
     }
 
@@ -135,11 +118,13 @@ public class TransformAPI extends APIService {
      */
     @RequestMapping(value = "/api/transform/dictionary", method = GET, produces = APPLICATION_JSON_VALUE)
     @ApiOperation(value = "Get current dictionary (as serialized object).",
-            notes = "Returns a DQ dictionary serialized usin Java serialization and GZIP-ed.")
+            notes = "Returns a DQ dictionary serialized usin Java serialization and GZIP-ed (or 304 if the dictionary "
+                    + "matches the If-None-Match header).")
     @Timed
-    public StreamingResponseBody getDictionary() {
-        // get preparation/dataset content
-        HystrixCommand<InputStream> dictionaryCommand = getCommand(DictionaryCommand.class);
+    public ResponseEntity<StreamingResponseBody> getDictionary(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // forward the ETag check to the transformation service
+        final GenericCommand<InputStream> dictionaryCommand = getCommand(DictionaryCommand.class, ifNoneMatch);
         return CommandHelper.toStreaming(dictionaryCommand);
     }
 
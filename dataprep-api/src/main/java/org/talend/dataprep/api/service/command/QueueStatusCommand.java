@@ -30,10 +30,19 @@ import static org.springframework.beans.factory.config.BeanDefinition.SCOPE_PROT
 @Scope(SCOPE_PROTOTYPE)
 public class QueueStatusCommand extends GenericCommand<AsyncExecutionMessage> {
 
-    private QueueStatusCommand(ServiceType service, String idQueue) {
+    /**
+     * @param service the service that runs the async method.
+     * @param idQueue the async execution id.
+     * @param wait maximum time (in ms) the service may wait for the end of the execution before answering (0 to get
+     * current status).
+     */
+    private QueueStatusCommand(ServiceType service, String idQueue, long wait) {
         super(ASYNC_GROUP);
         execute(() -> {
             final String serviceUrl = getServiceUrl(service);
+            if (wait > 0) {
+                return new HttpGet(serviceUrl + "/queue/" + idQueue + "?wait=" + wait);
+            }
             return new HttpGet(serviceUrl + "/queue/" + idQueue);
         });
         on(HttpStatus.OK).then((request, response) -> {
@@ -37,6 +37,9 @@ public class AsyncGet<T> extends HystrixCommand<T> {
 
     private static final TimeUnit WAIT_TIME_UNIT = TimeUnit.MINUTES;
 
+    /** Maximum time (in ms) of a single long-poll request on async method status url. */
+    private static final long LONG_POLL_WAIT = TimeUnit.SECONDS.toMillis(30);
+
     private final Supplier<GenericCommand<T>> commandSupplier;
 
     private CommonAPI commonAPI;
@@ -79,10 +82,13 @@ public class AsyncGet<T> extends HystrixCommand<T> {
     }
 
     /**
-     * Ping (100 times max) async method status url in order to wait the end of the execution
+     * Long-poll async method status url in order to wait the end of the execution: service answers as soon as the
+     * execution is finished (or after {@link #LONG_POLL_WAIT} if still running).
      *
      * @param group
      * @param asyncMethodStatusUrl
+     * @param retryDelaySeconds delay between two requests if service answers before the end of the execution without
+     * waiting (service without long-poll support).
      * @return the status of the async execution (is likely DONE or FAILED)
      */
     private AsyncExecution waitForAsyncMethodToFinish(HystrixCommandGroupKey group, String asyncMethodStatusUrl,
@@ -95,14 +101,23 @@ public class AsyncGet<T> extends HystrixCommand<T> {
             GenericCommand.ServiceType service = getServiceFromGroup(group);
             boolean isAsyncMethodRunning;
             do {
-                executionStatus = commonAPI.getQueue(service.name(), execId);
+                final long remaining =
+                        WAIT_TIME_UNIT.toMillis(WAIT_TIME) - waitTimeStopWatch.elapsed(TimeUnit.MILLISECONDS);
+                final long wait = Math.max(1, Math.min(LONG_POLL_WAIT, remaining));
+                final Stopwatch requestStopWatch = Stopwatch.createStarted();
+                executionStatus = commonAPI.getQueue(service.name(), execId, wait);
                 AsyncExecution.Status asyncStatus = executionStatus.getStatus();
                 isAsyncMethodRunning = RUNNING.equals(asyncStatus) || NEW.equals(asyncStatus);
 
-                try {
-                    TimeUnit.SECONDS.sleep(retryDelaySeconds);
-                } catch (InterruptedException e) {
-                    LOGGER.error("cannot sleep", e);
+                if (isAsyncMethodRunning && requestStopWatch.elapsed(TimeUnit.MILLISECONDS) < wait) {
+                    // service did not wait: don't flood it with requests
+                    try {
+                        TimeUnit.SECONDS.sleep(retryDelaySeconds);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        LOGGER.error("cannot sleep", e);
+                        break;
+                    }
                 }
             } while (isAsyncMethodRunning && waitTimeStopWatch.elapsed(WAIT_TIME_UNIT) < WAIT_TIME);
         } else {
@@ -106,6 +106,19 @@ public abstract class PreviewAbstract extends GenericCommand<InputStream> {
                 preparationId, serializeIds(tdpIds), sourceType);
     }
 
+    /**
+     * Set the preparation step whose content is the starting state of the preview, so that only the actions added
+     * after this step are applied on its cached content.
+     *
+     * @param referenceStepId the id of the step that matches the base actions of the preview.
+     */
+    protected void setReferenceStep(String referenceStepId) {
+        if (parameters == null) {
+            throw new IllegalStateException("Missing preview context.");
+        }
+        parameters.setReferenceStepId(referenceStepId);
+    }
+
     /**
      * Serialize the list of integer to json string.
      *
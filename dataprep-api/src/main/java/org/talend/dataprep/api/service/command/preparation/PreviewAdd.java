@@ -82,6 +82,10 @@ public class PreviewAdd extends PreviewAbstract {
         // execute transformation preview with content and the 2 transformations
         setContext(originalActions, modifiedActions, dataSetId, addParameters.getPreparationId(),
                 addParameters.getTdpIds(), addParameters.getSourceType());
+        if (preparation != null) {
+            // base actions are the head actions: preview only needs to apply the added ones on head content
+            setReferenceStep(preparation.getHeadId());
+        }
         return super.run();
     }
 
@@ -88,6 +88,8 @@ public class PreviewDiff extends PreviewAbstract {
         // execute transformation preview with content and the 2 transformations
         setContext(originalActions.values(), previewActions.values(), dataSetId, input.getPreparationId(),
                 input.getTdpIds(), input.getSourceType());
+        final String currentStepId = input.getCurrentStepId();
+        setReferenceStep("head".equalsIgnoreCase(currentStepId) ? preparation.getHeadId() : currentStepId);
         return super.run();
     }
 
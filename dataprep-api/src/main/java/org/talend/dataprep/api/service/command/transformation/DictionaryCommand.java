@@ -12,8 +12,10 @@
 
 package org.talend.dataprep.api.service.command.transformation;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.http.client.methods.HttpGet;
 import org.springframework.context.annotation.Scope;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.talend.dataprep.command.GenericCommand;
@@ -21,6 +23,7 @@ import org.talend.dataprep.command.GenericCommand;
 import java.io.InputStream;
 
 import static org.springframework.beans.factory.config.BeanDefinition.SCOPE_PROTOTYPE;
+import static org.talend.dataprep.command.Defaults.emptyStream;
 import static org.talend.dataprep.command.Defaults.pipeStream;
 
 @Component
@@ -29,14 +32,21 @@ public class DictionaryCommand extends GenericCommand<InputStream> {
 
     /**
      * Protected constructor.
+     *
+     * @param ifNoneMatch the ETag of the dictionary the caller already has (may be null).
      */
-    protected DictionaryCommand() {
+    protected DictionaryCommand(String ifNoneMatch) {
         super(TRANSFORM_GROUP);
         execute(() -> {
             final String uri = transformationServiceUrl + "/dictionary";
-            return new HttpGet(uri);
+            final HttpGet get = new HttpGet(uri);
+            if (StringUtils.isNotBlank(ifNoneMatch)) {
+                get.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+            }
+            return get;
         });
         on(HttpStatus.OK).then(pipeStream());
+        on(HttpStatus.NOT_MODIFIED).then(emptyStream());
     }
 
 }
@@ -13,32 +13,54 @@
 
 package org.talend.dataprep.api.service.command.transformation;
 
-import com.netflix.hystrix.HystrixCommand;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.InputStreamEntity;
-import org.springframework.context.annotation.Scope;
-import org.springframework.http.HttpStatus;
-import org.springframework.stereotype.Component;
-import org.talend.dataprep.api.service.command.common.ChainedCommand;
+import static org.springframework.beans.factory.config.BeanDefinition.SCOPE_PROTOTYPE;
+import static org.talend.dataprep.command.Defaults.pipeStream;
 
 import java.io.InputStream;
+import java.net.URISyntaxException;
 
-import static org.springframework.beans.factory.config.BeanDefinition.SCOPE_PROTOTYPE;
-import static org.talend.dataprep.command.Defaults.pipeStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.URIBuilder;
+import org.springframework.context.annotation.Scope;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.talend.dataprep.api.service.api.DynamicParamsInput;
+import org.talend.dataprep.command.GenericCommand;
+import org.talend.dataprep.exception.TDPException;
+import org.talend.dataprep.exception.error.CommonErrorCodes;
 
+/**
+ * Get the dynamic parameters of an action: the transformation service reads the data set or preparation content
+ * itself (content is not sent through this service).
+ */
 @Component
 @Scope(SCOPE_PROTOTYPE)
-public class SuggestActionParams extends ChainedCommand<InputStream, InputStream> {
+public class SuggestActionParams extends GenericCommand<InputStream> {
 
-    private SuggestActionParams(final HystrixCommand<InputStream> content, final String action, final String columnId) {
-        super(content);
+    /**
+     * Constructor.
+     *
+     * @param action the action name.
+     * @param input the data set or preparation (and step) and the column to get the parameters for.
+     */
+    private SuggestActionParams(final String action, final DynamicParamsInput input) {
+        super(GenericCommand.TRANSFORM_GROUP);
         execute(() -> {
-            final String uri =
-                    transformationServiceUrl + "/transform/suggest/" + action + "/params?columnId=" + columnId;
-            final HttpPost getParametersCall = new HttpPost(uri);
-            final InputStreamEntity entity = new InputStreamEntity(getInput());
-            getParametersCall.setEntity(entity);
-            return getParametersCall;
+            try {
+                final URIBuilder uriBuilder =
+                        new URIBuilder(transformationServiceUrl + "/transform/suggest/" + action + "/params");
+                uriBuilder.addParameter("columnId", input.getColumnId());
+                if (StringUtils.isNotBlank(input.getPreparationId())) {
+                    uriBuilder.addParameter("preparationId", input.getPreparationId());
+                    uriBuilder.addParameter("stepId", input.getStepId());
+                } else {
+                    uriBuilder.addParameter("datasetId", input.getDatasetId());
+                }
+                return new HttpGet(uriBuilder.build());
+            } catch (URISyntaxException e) {
+                throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+            }
         });
         on(HttpStatus.OK).then(pipeStream());
     }
@@ -75,7 +75,6 @@ import org.talend.dataprep.api.preparation.Action;
 import org.talend.dataprep.api.preparation.AppendStep;
 import org.talend.dataprep.api.preparation.MixedContentMap;
 import org.talend.dataprep.api.preparation.Preparation;
-import org.talend.dataprep.api.preparation.PreparationActions;
 import org.talend.dataprep.api.preparation.PreparationDTO;
 import org.talend.dataprep.api.preparation.PreparationListItemDTO;
 import org.talend.dataprep.api.preparation.Step;
@@ -87,6 +86,7 @@ import org.talend.dataprep.cache.ContentCache;
 import org.talend.dataprep.cache.ContentCacheKey;
 import org.talend.dataprep.exception.TdpExceptionDto;
 import org.talend.dataprep.preparation.store.PersistentStep;
+import org.talend.dataprep.preparation.store.StepActionsResolver;
 import org.talend.dataprep.security.Security;
 import org.talend.dataprep.transformation.actions.date.ComputeTimeSince;
 import org.talend.dataprep.transformation.actions.text.Trim;
@@ -111,6 +111,9 @@ public class PreparationAPITest extends ApiServiceTestBase {
     @Autowired
     private CacheKeyGenerator cacheKeyGenerator;
 
+    @Autowired
+    private StepActionsResolver stepActionsResolver;
+
     // ------------------------------------------------------------------------------------------------------------------
     // -----------------------------------------------------GETTER-------------------------------------------------------
     // ------------------------------------------------------------------------------------------------------------------
@@ -1206,9 +1209,7 @@ public class PreparationAPITest extends ApiServiceTestBase {
     }
 
     private List<Action> getActions(String id) {
-        final String content = preparationRepository.get(id, PersistentStep.class).getContent();
-        final PreparationActions preparationActions = preparationRepository.get(content, PreparationActions.class);
-        return preparationActions.getActions();
+        return stepActionsResolver.getActions(preparationRepository.get(id, PersistentStep.class));
     }
 
     /**
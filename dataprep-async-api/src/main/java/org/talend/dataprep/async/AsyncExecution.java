@@ -338,6 +338,11 @@ public class AsyncExecution implements Comparable<AsyncExecution> {
         @JsonInclude(value = JsonInclude.Include.NON_DEFAULT, content = JsonInclude.Include.NON_DEFAULT)
         private long endDate;
 
+        /** Time (in ms) spent in executor queue before start. */
+        @JsonProperty("wait")
+        @JsonInclude(value = JsonInclude.Include.NON_DEFAULT, content = JsonInclude.Include.NON_DEFAULT)
+        private long waitTime;
+
         public long getCreationDate() {
             return creationDate;
         }
@@ -362,9 +367,18 @@ public class AsyncExecution implements Comparable<AsyncExecution> {
             this.endDate = endDate;
         }
 
+        public long getWaitTime() {
+            return waitTime;
+        }
+
+        public void setWaitTime(long waitTime) {
+            this.waitTime = waitTime;
+        }
+
         @Override
         public String toString() {
-            return "Time{" + "creationDate=" + creationDate + ", startDate=" + startDate + ", endDate=" + endDate + '}';
+            return "Time{" + "creationDate=" + creationDate + ", startDate=" + startDate + ", endDate=" + endDate
+                    + ", waitTime=" + waitTime + '}';
         }
     }
 }
@@ -20,6 +20,8 @@ import org.talend.dataprep.async.conditional.ConditionalTest;
 import org.talend.dataprep.async.generator.AnnotationExecutionIdGenerator;
 import org.talend.dataprep.async.generator.AnnotationGroupIdGenerator;
 import org.talend.dataprep.async.generator.ExecutionIdGenerator;
+import org.talend.dataprep.async.priority.DefaultPriorityClassifier;
+import org.talend.dataprep.async.priority.PriorityClassifier;
 import org.talend.dataprep.async.result.EmptyUrlGenerator;
 import org.talend.dataprep.async.result.ResultUrlGenerator;
 
@@ -75,6 +77,13 @@ public @interface AsyncOperation {
      */
     Class<? extends ResultUrlGenerator> resultUrlGenerator() default EmptyUrlGenerator.class;
 
+    /**
+     * Spring bean class used to classify the operation (interactive, sample export, full export...) for scheduling.
+     *
+     * @return The class used to classify the operation.
+     */
+    Class<? extends PriorityClassifier> priorityClassifier() default DefaultPriorityClassifier.class;
+
     /**
      * Default class needed to set a default value to the groupIdGeneratorBean.
      */
@@ -0,0 +1,28 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.async.priority;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Default priority classifier: operations are considered as {@link ExecutionPriority#FULL_EXPORT full exports} unless
+ * told otherwise.
+ */
+@Component
+public class DefaultPriorityClassifier implements PriorityClassifier {
+
+    @Override
+    public ExecutionPriority classify(Object... args) {
+        return ExecutionPriority.FULL_EXPORT;
+    }
+}
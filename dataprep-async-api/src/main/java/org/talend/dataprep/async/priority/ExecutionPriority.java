@@ -0,0 +1,28 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.async.priority;
+
+/**
+ * Classes of asynchronous work, from the most to the least latency sensitive. The executor shares its threads between
+ * classes according to their weight, so a class can't starve the others.
+ *
+ * @see PriorityClassifier
+ */
+public enum ExecutionPriority {
+    /** Work a user is waiting for in the UI (e.g. preparation metadata computation). */
+    INTERACTIVE,
+    /** Export of a sample (preparation head). */
+    SAMPLE_EXPORT,
+    /** Export of a full dataset. */
+    FULL_EXPORT
+}
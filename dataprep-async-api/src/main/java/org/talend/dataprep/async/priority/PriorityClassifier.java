@@ -0,0 +1,21 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.async.priority;
+
+/**
+ * Classifies an asynchronous operation from its {@link org.talend.dataprep.async.AsyncParameter parameters}.
+ */
+public interface PriorityClassifier {
+
+    ExecutionPriority classify(Object... args);
+}
@@ -32,6 +32,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.talend.daikon.exception.TalendRuntimeException;
 import org.talend.dataprep.async.conditional.ConditionalTest;
 import org.talend.dataprep.async.generator.ExecutionIdGenerator;
+import org.talend.dataprep.async.priority.ExecutionPriority;
+import org.talend.dataprep.async.priority.PriorityClassifier;
 import org.talend.dataprep.async.repository.ManagedTaskRepository;
 import org.talend.dataprep.async.result.ResultUrlGenerator;
 import org.talend.dataprep.exception.TDPException;
@@ -124,9 +126,10 @@ public class AsyncAspect {
         @SuppressWarnings("unchecked")
         final AsyncExecution future;
         if (resumeExistingAsyncExecution) {
-            future = executor.resume(toCallable(pjp), getExecutionId(pjp), getResultUrl(pjp));
+            future = executor.resume(toCallable(pjp), getExecutionId(pjp), getResultUrl(pjp), getPriority(pjp));
         } else {
-            future = executor.queue(toCallable(pjp), getExecutionId(pjp), getGroupId(pjp), getResultUrl(pjp));
+            future = executor.queue(toCallable(pjp), getExecutionId(pjp), getGroupId(pjp), getResultUrl(pjp),
+                    getPriority(pjp));
         }
         return future;
     }
@@ -264,4 +267,23 @@ public class AsyncAspect {
         return resultUrlGenerator.generateResultUrl(args);
     }
 
+    /**
+     * Return the scheduling priority of the asynchronous method by calling the priorityClassifier defined on the
+     * annotation.
+     *
+     * @param pjp pjp the proceeding join point.
+     * @return the scheduling priority of the asynchronous method.
+     */
+    private ExecutionPriority getPriority(ProceedingJoinPoint pjp) {
+        MethodSignature ms = (MethodSignature) pjp.getSignature();
+        Method m = ms.getMethod();
+        final AsyncOperation asyncOperationAnnotation = m.getAnnotation(AsyncOperation.class);
+
+        Class<? extends PriorityClassifier> classifierClass = asyncOperationAnnotation.priorityClassifier();
+
+        final PriorityClassifier classifier = applicationContext.getBean(classifierClass);
+        Object[] args = AnnotationUtils.extractAsyncParameter(pjp);
+        return classifier.classify(args);
+    }
+
 }
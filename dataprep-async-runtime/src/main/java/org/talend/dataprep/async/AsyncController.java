@@ -21,11 +21,14 @@ import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.talend.dataprep.async.repository.ManagedTaskRepository;
 import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.exception.error.TransformationErrorCodes;
@@ -44,17 +47,48 @@ public class AsyncController {
     @Autowired
     private ManagedTaskRepository repository;
 
+    @Autowired
+    private AsyncExecutionWaiter waiter;
+
+    @Autowired
+    private AsyncExecutionStatistics statistics;
+
+    /** Maximum wait time (in ms) accepted by {@link #await(String, long)}. */
+    @Value("${async.queue.max-wait:30000}")
+    private long maxWait;
+
     @GetMapping(path = "/{id}")
     public AsyncExecution get(@PathVariable("id") String id) {
         LOGGER.debug("Get execution {}", id);
         return repository.get(id);
     }
 
+    /**
+     * Long-poll version of {@link #get(String)}: the response is sent as soon as the execution is finished, or after
+     * <code>wait</code> ms (capped to <code>async.queue.max-wait</code>) with the execution current state.
+     *
+     * @param id the execution id.
+     * @param wait the maximum wait time (in ms).
+     */
+    @GetMapping(path = "/{id}", params = "wait")
+    public DeferredResult<AsyncExecution> await(@PathVariable("id") String id, @RequestParam("wait") long wait) {
+        LOGGER.debug("Wait for execution {} (at most {} ms)", id, wait);
+        return waiter.await(id, Math.max(0, Math.min(wait, maxWait)));
+    }
+
     @GetMapping
     public Stream<AsyncExecution> list() {
         return repository.list();
     }
 
+    /**
+     * @return The retention and eviction counters (per tenant) of the execution repository.
+     */
+    @GetMapping(path = "/statistics")
+    public AsyncExecutionStatistics getStatistics() {
+        return statistics;
+    }
+
     @DeleteMapping(path = "/{id}")
     public AsyncExecution cancel(@PathVariable("id") String id) {
         LOGGER.debug("Cancel execution {}", id);
@@ -0,0 +1,34 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.async;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event published when an {@link AsyncExecution execution} is finished (done, failed or cancelled) and saved in
+ * repository.
+ */
+public class AsyncExecutionCompletedEvent extends ApplicationEvent {
+
+    /**
+     * @param execution the finished execution.
+     */
+    public AsyncExecutionCompletedEvent(AsyncExecution execution) {
+        super(execution);
+    }
+
+    @Override
+    public AsyncExecution getSource() {
+        return (AsyncExecution) super.getSource();
+    }
+}
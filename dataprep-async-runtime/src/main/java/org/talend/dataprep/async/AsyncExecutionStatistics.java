@@ -0,0 +1,122 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.async;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Retention and eviction counters of the {@link org.talend.dataprep.async.repository.ManagedTaskRepository execution
+ * repository}, grouped by tenant. Only repositories that keep executions in memory report these counters.
+ */
+@Component
+public class AsyncExecutionStatistics {
+
+    private final ConcurrentMap<String, Counters> tenants = new ConcurrentHashMap<>();
+
+    private Counters of(String tenantId) {
+        return tenants.computeIfAbsent(tenantId, k -> new Counters());
+    }
+
+    /**
+     * Updates the number of executions retained for a tenant.
+     *
+     * @param tenantId The tenant id.
+     * @param running The number of executions not finished yet.
+     * @param finished The number of finished (done, failed or cancelled) executions.
+     */
+    public void retained(String tenantId, long running, long finished) {
+        final Counters counters = of(tenantId);
+        counters.running = running;
+        counters.finished = finished;
+    }
+
+    /**
+     * Counts a finished execution evicted once its retention is elapsed.
+     */
+    public void expired(String tenantId) {
+        of(tenantId).expirations.incrementAndGet();
+    }
+
+    /**
+     * Counts a finished execution evicted to keep the repository under its size limits.
+     */
+    public void evicted(String tenantId) {
+        of(tenantId).evictions.incrementAndGet();
+    }
+
+    /**
+     * @return The counters per tenant (sorted by tenant id).
+     */
+    public Map<String, Counters> getTenants() {
+        return new TreeMap<>(tenants);
+    }
+
+    public long getRunning() {
+        return tenants.values().stream().mapToLong(Counters::getRunning).sum();
+    }
+
+    public long getFinished() {
+        return tenants.values().stream().mapToLong(Counters::getFinished).sum();
+    }
+
+    public long getExpirations() {
+        return tenants.values().stream().mapToLong(Counters::getExpirations).sum();
+    }
+
+    public long getEvictions() {
+        return tenants.values().stream().mapToLong(Counters::getEvictions).sum();
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void reset() {
+        tenants.clear();
+    }
+
+    /**
+     * Counters for a tenant.
+     */
+    public static class Counters {
+
+        private volatile long running;
+
+        private volatile long finished;
+
+        private final AtomicLong expirations = new AtomicLong();
+
+        private final AtomicLong evictions = new AtomicLong();
+
+        public long getRunning() {
+            return running;
+        }
+
+        public long getFinished() {
+            return finished;
+        }
+
+        public long getExpirations() {
+            return expirations.get();
+        }
+
+        public long getEvictions() {
+            return evictions.get();
+        }
+    }
+}
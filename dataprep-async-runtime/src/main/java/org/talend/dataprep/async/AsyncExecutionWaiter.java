@@ -0,0 +1,159 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.async;
+
+import static org.talend.dataprep.async.AsyncExecution.Status.NEW;
+import static org.talend.dataprep.async.AsyncExecution.Status.RUNNING;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.talend.dataprep.async.repository.ManagedTaskRepository;
+
+/**
+ * Long-poll support for {@link AsyncExecution executions}: callers wait for the {@link AsyncExecutionCompletedEvent
+ * completion event} of an execution instead of polling its status.
+ * <p>
+ * Completion events are only published in the process that runs the execution: pending waits are also checked against
+ * the {@link ManagedTaskRepository repository} periodically (see <code>execution.wait.check.period</code>), so waits on
+ * other processes (remote execution store) end at most one period after the execution.
+ */
+@Component
+public class AsyncExecutionWaiter {
+
+    /** This class' logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncExecutionWaiter.class);
+
+    @Autowired
+    private ManagedTaskRepository repository;
+
+    /** Period (in ms) of the repository checks of the pending waits. */
+    @Value("${execution.wait.check.period:1000}")
+    private long checkPeriod;
+
+    /** Pending waits per execution id. */
+    private final Map<String, Queue<DeferredResult<AsyncExecution>>> waiters = new ConcurrentHashMap<>();
+
+    /** Runs the repository checks of the pending waits. */
+    private ScheduledExecutorService checker;
+
+    @PostConstruct
+    public void init() {
+        checker = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "async-execution-waiter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::checkPending, checkPeriod, checkPeriod, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for the end of an execution.
+     *
+     * @param id the execution id.
+     * @param timeout the maximum wait time (in ms).
+     * @return a result set with the execution as soon as it is finished, or with its current state once
+     * <code>timeout</code> is elapsed.
+     */
+    public DeferredResult<AsyncExecution> await(String id, long timeout) {
+        final DeferredResult<AsyncExecution> result = new DeferredResult<>(timeout);
+        if (timeout <= 0) {
+            // No wait (a 0 timeout would mean no timeout at all for the servlet container).
+            result.setResult(repository.get(id));
+            return result;
+        }
+        result.onTimeout(() -> {
+            remove(id, result);
+            result.setResult(repository.get(id));
+        });
+        result.onCompletion(() -> remove(id, result));
+        waiters.computeIfAbsent(id, k -> new ConcurrentLinkedQueue<>()).add(result);
+
+        // Execution may have finished before wait was registered.
+        final AsyncExecution execution = repository.get(id);
+        if (execution == null || isFinished(execution)) {
+            remove(id, result);
+            result.setResult(execution);
+        }
+        return result;
+    }
+
+    @EventListener
+    public void onCompletion(AsyncExecutionCompletedEvent event) {
+        final AsyncExecution execution = event.getSource();
+        release(execution.getId(), execution);
+    }
+
+    private void release(String id, AsyncExecution execution) {
+        final Queue<DeferredResult<AsyncExecution>> pending = waiters.remove(id);
+        if (pending != null) {
+            LOGGER.debug("Notify {} waiter(s) of execution {} end ({}).", pending.size(), id,
+                    execution == null ? null : execution.getStatus());
+            pending.forEach(result -> result.setResult(execution));
+        }
+    }
+
+    /**
+     * Ends the pending waits of the executions the repository reports as finished (or unknown), in case their
+     * completion event was published in another process.
+     */
+    void checkPending() {
+        for (String id : waiters.keySet()) {
+            try {
+                final AsyncExecution execution = repository.get(id);
+                if (execution == null || isFinished(execution)) {
+                    release(id, execution);
+                }
+            } catch (Exception e) {
+                LOGGER.debug("Unable to check status of execution {}.", id, e);
+            }
+        }
+    }
+
+    /**
+     * @param execution an execution.
+     * @return <code>true</code> if execution is no longer running.
+     */
+    static boolean isFinished(AsyncExecution execution) {
+        return execution.getStatus() != NEW && execution.getStatus() != RUNNING;
+    }
+
+    private void remove(String id, DeferredResult<AsyncExecution> result) {
+        waiters.computeIfPresent(id, (k, pending) -> {
+            pending.remove(result);
+            return pending.isEmpty() ? null : pending;
+        });
+    }
+}
@@ -0,0 +1,359 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.async;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.lang3.StringUtils;
+import org.talend.dataprep.async.priority.ExecutionPriority;
+
+/**
+ * Task queue of the managed task engine that dispatches tasks with weighted fairness instead of FIFO order.
+ * <ul>
+ * <li>Between {@link ExecutionPriority priorities}: each priority gets a share of dispatches proportional to its weight
+ * (stride scheduling), so full exports can't starve interactive work and still progress when interactive work is
+ * queued.</li>
+ * <li>Between tenants of a priority: tenants are served in turn (round robin), so a tenant's batch of exports does not
+ * delay other tenants' exports.</li>
+ * </ul>
+ * Tasks are classified with {@link Prioritized}, other tasks are considered as {@link ExecutionPriority#FULL_EXPORT}
+ * of a default tenant.
+ * <p>
+ * Admission is limited: {@link #offer(Runnable)} returns <code>false</code> (and the thread pool rejects the task) when
+ * the queue holds <code>maxSize</code> tasks, or <code>maxSizePerTenant</code> tasks for the tenant and priority of the
+ * task.
+ */
+public class FairTaskQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    /** Tenant of tasks without tenant id. */
+    private static final String DEFAULT_TENANT = "default";
+
+    /** Pass increment for a priority of weight 1. */
+    private static final long STRIDE = 1 << 20;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private final Map<ExecutionPriority, PriorityTasks> queues = new EnumMap<>(ExecutionPriority.class);
+
+    private final int maxSize;
+
+    private final int maxSizePerTenant;
+
+    /** Number of queued tasks (guarded by lock). */
+    private int size;
+
+    /** Pass of the last dispatched priority (guarded by lock). */
+    private long pass;
+
+    /**
+     * @param weights The weight of each priority (a priority without weight has weight 1).
+     * @param maxSize The maximum number of queued tasks.
+     * @param maxSizePerTenant The maximum number of queued tasks for a tenant and priority.
+     */
+    public FairTaskQueue(Map<ExecutionPriority, Integer> weights, int maxSize, int maxSizePerTenant) {
+        for (ExecutionPriority priority : ExecutionPriority.values()) {
+            final int weight = Math.max(1, weights.getOrDefault(priority, 1));
+            queues.put(priority, new PriorityTasks(STRIDE / weight));
+        }
+        this.maxSize = maxSize;
+        this.maxSizePerTenant = maxSizePerTenant;
+    }
+
+    private static ExecutionPriority getPriority(Runnable task) {
+        if (task instanceof Prioritized && ((Prioritized) task).getPriority() != null) {
+            return ((Prioritized) task).getPriority();
+        }
+        return ExecutionPriority.FULL_EXPORT;
+    }
+
+    private static String getTenantId(Runnable task) {
+        if (task instanceof Prioritized) {
+            return StringUtils.defaultIfEmpty(((Prioritized) task).getTenantId(), DEFAULT_TENANT);
+        }
+        return DEFAULT_TENANT;
+    }
+
+    @Override
+    public boolean offer(Runnable task) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        lock.lock();
+        try {
+            if (size >= maxSize) {
+                return false;
+            }
+            final PriorityTasks queue = queues.get(getPriority(task));
+            final String tenantId = getTenantId(task);
+            ArrayDeque<Runnable> tenantTasks = queue.tenants.get(tenantId);
+            if (tenantTasks != null && tenantTasks.size() >= maxSizePerTenant) {
+                return false;
+            }
+            if (queue.size == 0) {
+                // An idle priority does not accumulate dispatches.
+                queue.pass = Math.max(queue.pass, pass);
+            }
+            if (tenantTasks == null) {
+                tenantTasks = new ArrayDeque<>();
+                queue.tenants.put(tenantId, tenantTasks);
+            }
+            tenantTasks.add(task);
+            queue.size++;
+            size++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable task, long timeout, TimeUnit unit) {
+        return offer(task);
+    }
+
+    /**
+     * Same as {@link #add(Object)}: admission limits are not waited for.
+     */
+    @Override
+    public void put(Runnable task) {
+        add(task);
+    }
+
+    /**
+     * @return The priority queue to dispatch from (lock must be held and queue must not be empty).
+     */
+    private PriorityTasks next() {
+        PriorityTasks next = null;
+        for (PriorityTasks queue : queues.values()) {
+            if (queue.size > 0 && (next == null || queue.pass < next.pass)) {
+                next = queue;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * @return The next task to execute (lock must be held and queue must not be empty).
+     */
+    private Runnable dequeue() {
+        final PriorityTasks queue = next();
+        pass = queue.pass;
+        queue.pass += queue.stride;
+
+        final String tenantId = queue.tenants.keySet().iterator().next();
+        final ArrayDeque<Runnable> tenantTasks = queue.tenants.remove(tenantId);
+        final Runnable task = tenantTasks.poll();
+        if (!tenantTasks.isEmpty()) {
+            // Tenant's next task comes after the other tenants' ones.
+            queue.tenants.put(tenantId, tenantTasks);
+        }
+        queue.size--;
+        size--;
+        return task;
+    }
+
+    @Override
+    public Runnable poll() {
+        lock.lock();
+        try {
+            return size == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable peek() {
+        lock.lock();
+        try {
+            return size == 0 ? null : next().tenants.values().iterator().next().peek();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object task) {
+        if (!(task instanceof Runnable)) {
+            return false;
+        }
+        lock.lock();
+        try {
+            final PriorityTasks queue = queues.get(getPriority((Runnable) task));
+            final String tenantId = getTenantId((Runnable) task);
+            final ArrayDeque<Runnable> tenantTasks = queue.tenants.get(tenantId);
+            if (tenantTasks == null || !tenantTasks.remove(task)) {
+                return false;
+            }
+            if (tenantTasks.isEmpty()) {
+                queue.tenants.remove(tenantId);
+            }
+            queue.size--;
+            size--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return maxSize - size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> collection) {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> collection, int maxElements) {
+        lock.lock();
+        try {
+            int count = 0;
+            while (size > 0 && count < maxElements) {
+                collection.add(dequeue());
+                count++;
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return An iterator on a snapshot of the queued tasks (in no particular order).
+     */
+    @Override
+    public Iterator<Runnable> iterator() {
+        final List<Runnable> snapshot = new ArrayList<>();
+        lock.lock();
+        try {
+            queues.values().forEach(queue -> queue.tenants.values().forEach(snapshot::addAll));
+        } finally {
+            lock.unlock();
+        }
+        final Iterator<Runnable> iterator = snapshot.iterator();
+        return new Iterator<Runnable>() {
+
+            private Runnable current;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Runnable next() {
+                current = iterator.next();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                FairTaskQueue.this.remove(current);
+            }
+        };
+    }
+
+    /**
+     * A task that knows its priority and tenant.
+     */
+    public interface Prioritized {
+
+        ExecutionPriority getPriority();
+
+        String getTenantId();
+    }
+
+    /**
+     * Tasks of a priority, per tenant (in dispatch order).
+     */
+    private static class PriorityTasks {
+
+        /** Pass increment on each dispatch (lower for heavier priorities). */
+        private final long stride;
+
+        private final LinkedHashMap<String, ArrayDeque<Runnable>> tenants = new LinkedHashMap<>();
+
+        /** Virtual time of the next dispatch (the priority with the lowest pass is dispatched first). */
+        private long pass;
+
+        /** Number of tasks. */
+        private int size;
+
+        private PriorityTasks(long stride) {
+            this.stride = stride;
+        }
+    }
+}
@@ -16,6 +16,8 @@ import java.lang.reflect.Method;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
 
+import org.talend.dataprep.async.priority.ExecutionPriority;
+
 /**
  * Interface for asynchronous managed task executor. This interface is responsible for the runtime part of asynchronous
  * execution (i.e. it does <b>not</b> store metric or information relative to the execution itself).
@@ -33,6 +35,19 @@ public interface ManagedTaskExecutor {
      */
     AsyncExecution resume(ManagedTaskCallable task, String executionId, AsyncExecutionResult result);
 
+    /**
+     * Resume a previously queued task with a new callable and a scheduling priority.
+     *
+     * @param task the task to execute.
+     * @param executionId the execution id of the task to resume.
+     * @param priority the priority of the task (executors may ignore it).
+     * @return the AsyncExecution that enables caller to monitor the execution.
+     */
+    default AsyncExecution resume(ManagedTaskCallable task, String executionId, AsyncExecutionResult result,
+            ExecutionPriority priority) {
+        return resume(task, executionId, result);
+    }
+
     /**
      * Queue a task to execute.
      *
@@ -43,6 +58,20 @@ public interface ManagedTaskExecutor {
      */
     AsyncExecution queue(ManagedTaskCallable task, String executionId, String groupId, AsyncExecutionResult result);
 
+    /**
+     * Queue a task to execute with a scheduling priority.
+     *
+     * @param task the task to execute.
+     * @param executionId the execution id to used in order to register the task
+     * @param groupId the task group id.
+     * @param priority the priority of the task (executors may ignore it).
+     * @return the AsyncExecution that enables caller to monitor the execution.
+     */
+    default AsyncExecution queue(ManagedTaskCallable task, String executionId, String groupId,
+            AsyncExecutionResult result, ExecutionPriority priority) {
+        return queue(task, executionId, groupId, result);
+    }
+
     /**
      * Cancel (stop) the task that matches the given task id.
      *
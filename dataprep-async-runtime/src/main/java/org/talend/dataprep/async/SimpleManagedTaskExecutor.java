@@ -20,6 +20,7 @@ import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -27,11 +28,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.util.concurrent.ListenableFuture;
 import org.springframework.util.concurrent.ListenableFutureCallback;
+import org.springframework.util.concurrent.ListenableFutureTask;
 import org.talend.daikon.exception.ExceptionContext;
+import org.talend.dataprep.async.priority.ExecutionPriority;
 import org.talend.dataprep.async.progress.ExecutionContext;
 import org.talend.dataprep.async.repository.ManagedTaskRepository;
 import org.talend.dataprep.exception.TDPException;
@@ -42,6 +47,9 @@ import org.talend.dataprep.transformation.pipeline.Signal;
 /**
  * Managed task executor based on a local thread pool.
  *
+ * Tasks are submitted with their {@link ExecutionPriority priority} and tenant, so the thread pool queue can dispatch
+ * them fairly (see {@link FairTaskQueue}). The time a task waits for a thread is reported in
+ * {@link AsyncExecution.Time#getWaitTime()}.
  */
 @Component
 @ConditionalOnProperty(name = "execution.executor.local", matchIfMissing = true)
@@ -62,11 +70,21 @@ public class SimpleManagedTaskExecutor implements ManagedTaskExecutor {
     @Autowired
     private Security security;
 
+    /** Publishes completion of executions (see {@link AsyncExecutionWaiter}). */
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
     /** List of tasks to run. */
     private final Map<String, ListenableFuture> futures = new ConcurrentHashMap<>();
 
     @Override
     public AsyncExecution resume(ManagedTaskCallable task, String executionId, AsyncExecutionResult resultUrl) {
+        return resume(task, executionId, resultUrl, ExecutionPriority.FULL_EXPORT);
+    }
+
+    @Override
+    public AsyncExecution resume(ManagedTaskCallable task, String executionId, AsyncExecutionResult resultUrl,
+            ExecutionPriority priority) {
         LOGGER.debug("Resuming execution '{}' from repository '{}'", executionId, repository);
         final AsyncExecution execution = repository.get(executionId);
         if (execution == null) {
@@ -86,9 +104,7 @@ public class SimpleManagedTaskExecutor implements ManagedTaskExecutor {
 
         execution.setResult(resultUrl);
 
-        ListenableFuture future = delegate.submitListenable(wrapper);
-        future.addCallback(new AsyncListenableFutureCallback(execution));
-        futures.put(execution.getId(), future);
+        submit(wrapper, execution, priority);
 
         LOGGER.debug("Execution {} resumed for execution.", execution.getId());
         return execution;
@@ -98,8 +114,17 @@ public class SimpleManagedTaskExecutor implements ManagedTaskExecutor {
      * @see ManagedTaskExecutor#queue(ManagedTaskCallable, String, String, AsyncExecutionResult)
      */
     @Override
-    public synchronized AsyncExecution queue(final ManagedTaskCallable task, String executionId, String groupId,
+    public AsyncExecution queue(final ManagedTaskCallable task, String executionId, String groupId,
             AsyncExecutionResult resultUrl) {
+        return queue(task, executionId, groupId, resultUrl, ExecutionPriority.FULL_EXPORT);
+    }
+
+    /**
+     * @see ManagedTaskExecutor#queue(ManagedTaskCallable, String, String, AsyncExecutionResult, ExecutionPriority)
+     */
+    @Override
+    public synchronized AsyncExecution queue(final ManagedTaskCallable task, String executionId, String groupId,
+            AsyncExecutionResult resultUrl, ExecutionPriority priority) {
 
         // Create async execution
         final AsyncExecution asyncExecution =
@@ -118,14 +143,39 @@ public class SimpleManagedTaskExecutor implements ManagedTaskExecutor {
 
         asyncExecution.setResult(resultUrl);
 
-        ListenableFuture future = delegate.submitListenable(wrapper);
-        future.addCallback(new AsyncListenableFutureCallback(asyncExecution));
-        futures.put(asyncExecution.getId(), future);
+        submit(wrapper, asyncExecution, priority);
 
-        LOGGER.debug("Execution {} queued for execution.", asyncExecution.getId());
+        LOGGER.debug("Execution {} queued for execution ({}).", asyncExecution.getId(), priority);
         return asyncExecution;
     }
 
+    /**
+     * Submit the task to the thread pool, the execution is marked as failed if thread pool does not accept it (too many
+     * waiting tasks).
+     *
+     * @param task the task to submit.
+     * @param asyncExecution the matching async execution monitor.
+     * @param priority the priority of the task.
+     */
+    private void submit(Callable task, AsyncExecution asyncExecution, ExecutionPriority priority) {
+        final ManagedTask future = new ManagedTask(task, priority, asyncExecution.getTenantId());
+        future.addCallback(new AsyncListenableFutureCallback(asyncExecution));
+        futures.put(asyncExecution.getId(), future);
+        try {
+            delegate.execute(future);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Execution {} rejected ({}, tenant: {}).", asyncExecution.getId(), priority,
+                    asyncExecution.getTenantId());
+            final TDPException exception = new TDPException(TransformationErrorCodes.EXECUTION_QUEUE_FULL, e);
+            futures.remove(asyncExecution.getId());
+            asyncExecution.setException(exception);
+            asyncExecution.updateExecutionState(AsyncExecution.Status.FAILED);
+            repository.save(asyncExecution);
+            publisher.publishEvent(new AsyncExecutionCompletedEvent(asyncExecution));
+            throw exception;
+        }
+    }
+
     /**
      * Wrap the given task with progress information and update execution in the repository.
      *
@@ -134,7 +184,9 @@ public class SimpleManagedTaskExecutor implements ManagedTaskExecutor {
      * @return the tasks wrapped with progress information.
      */
     private Callable wrapTaskWithProgressInformation(Callable task, AsyncExecution asyncExecution) {
+        final long queued = System.currentTimeMillis();
         return () -> {
+            asyncExecution.getTime().setWaitTime(System.currentTimeMillis() - queued);
             asyncExecution.updateExecutionState(AsyncExecution.Status.RUNNING);
             repository.save(asyncExecution);
             try {
@@ -174,16 +226,27 @@ public class SimpleManagedTaskExecutor implements ManagedTaskExecutor {
             try {
                 final Optional<ListenableFuture> futureToCancel = ofNullable(futures.get(id));
                 futureToCancel.ifPresent(tListenableFuture -> tListenableFuture.cancel(true));
+                futureToCancel.filter(Runnable.class::isInstance).ifPresent(this::removeFromQueue);
             } catch (CancellationException e) {
                 LOGGER.debug("Cancel task {} exception.", id, e);
             } finally {
                 asyncExecution.updateExecutionState(AsyncExecution.Status.CANCELLED);
                 repository.save(asyncExecution);
+                publisher.publishEvent(new AsyncExecutionCompletedEvent(asyncExecution));
             }
         }
         return asyncExecution;
     }
 
+    /**
+     * Remove a cancelled task from the thread pool queue (if still waiting), so it no longer counts in queue limits.
+     */
+    private void removeFromQueue(ListenableFuture future) {
+        if (delegate instanceof ThreadPoolTaskExecutor) {
+            ((ThreadPoolTaskExecutor) delegate).getThreadPoolExecutor().remove((Runnable) future);
+        }
+    }
+
     /**
      * @see ManagedTaskExecutor#stop(String)
      */
@@ -197,6 +260,7 @@ public class SimpleManagedTaskExecutor implements ManagedTaskExecutor {
             // update and save the async execution
             asyncTask.updateExecutionState(DONE);
             repository.save(asyncTask);
+            publisher.publishEvent(new AsyncExecutionCompletedEvent(asyncTask));
         }
         return asyncTask;
     }
@@ -235,6 +299,7 @@ public class SimpleManagedTaskExecutor implements ManagedTaskExecutor {
                 } finally {
                     futures.remove(asyncExecution.getId());
                     repository.save(asyncExecution);
+                    publisher.publishEvent(new AsyncExecutionCompletedEvent(asyncExecution));
                 }
             }
         }
@@ -255,8 +320,35 @@ public class SimpleManagedTaskExecutor implements ManagedTaskExecutor {
                 } finally {
                     futures.remove(asyncExecution.getId());
                     repository.save(asyncExecution);
+                    publisher.publishEvent(new AsyncExecutionCompletedEvent(asyncExecution));
                 }
             }
         }
     }
+
+    /**
+     * A managed task with its priority and tenant, for the thread pool queue.
+     */
+    private static class ManagedTask<T> extends ListenableFutureTask<T> implements FairTaskQueue.Prioritized {
+
+        private final ExecutionPriority priority;
+
+        private final String tenantId;
+
+        ManagedTask(Callable<T> callable, ExecutionPriority priority, String tenantId) {
+            super(callable);
+            this.priority = priority;
+            this.tenantId = tenantId;
+        }
+
+        @Override
+        public ExecutionPriority getPriority() {
+            return priority;
+        }
+
+        @Override
+        public String getTenantId() {
+            return tenantId;
+        }
+    }
 }
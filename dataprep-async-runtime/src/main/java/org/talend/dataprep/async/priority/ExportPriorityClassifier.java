@@ -0,0 +1,39 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.async.priority;
+
+import static org.talend.dataprep.api.export.ExportParameters.SourceType.HEAD;
+
+import org.apache.commons.lang3.Validate;
+import org.springframework.stereotype.Component;
+import org.talend.dataprep.api.export.ExportParameters;
+
+/**
+ * Return {@link ExecutionPriority#SAMPLE_EXPORT} for exports of preparation head, {@link ExecutionPriority#FULL_EXPORT}
+ * otherwise.
+ */
+@Component
+public class ExportPriorityClassifier implements PriorityClassifier {
+
+    @Override
+    public ExecutionPriority classify(Object... args) {
+
+        // check pre-condition
+        Validate.notNull(args);
+        Validate.isTrue(args.length == 1);
+        Validate.isInstanceOf(ExportParameters.class, args[0]);
+
+        final ExportParameters.SourceType from = ((ExportParameters) args[0]).getFrom();
+        return from == null || from == HEAD ? ExecutionPriority.SAMPLE_EXPORT : ExecutionPriority.FULL_EXPORT;
+    }
+}
@@ -12,11 +12,17 @@
 
 package org.talend.dataprep.configuration;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.AsyncListenableTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.talend.dataprep.async.FairTaskQueue;
+import org.talend.dataprep.async.priority.ExecutionPriority;
 
 /**
  * Async aspect configuration.
@@ -27,12 +33,40 @@ public class AsyncConfiguration {
     @Value("${async.operation.concurrent.run:5}")
     private int maxConcurrentRuns;
 
+    @Value("${async.operation.weight.interactive:8}")
+    private int interactiveWeight;
+
+    @Value("${async.operation.weight.sample-export:4}")
+    private int sampleExportWeight;
+
+    @Value("${async.operation.weight.full-export:1}")
+    private int fullExportWeight;
+
+    /** Maximum number of operations waiting for execution. */
+    @Value("${async.operation.queue.max-size:10000}")
+    private int maxQueueSize;
+
+    /** Maximum number of operations of a tenant (and priority) waiting for execution. */
+    @Value("${async.operation.queue.max-size-per-tenant:1000}")
+    private int maxQueueSizePerTenant;
+
     /**
-     * @return the 'engine' (thread pool) that runs behind the ManagedTaskExecutor.
+     * @return the 'engine' (thread pool) that runs behind the ManagedTaskExecutor. Waiting operations are dispatched
+     * with weighted fairness between priorities and tenants (see {@link FairTaskQueue}).
      */
     @Bean(name = "managedTaskEngine")
     public AsyncListenableTaskExecutor getManagedTaskExecutorEngine() {
-        final ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+        final Map<ExecutionPriority, Integer> weights = new EnumMap<>(ExecutionPriority.class);
+        weights.put(ExecutionPriority.INTERACTIVE, interactiveWeight);
+        weights.put(ExecutionPriority.SAMPLE_EXPORT, sampleExportWeight);
+        weights.put(ExecutionPriority.FULL_EXPORT, fullExportWeight);
+        final ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor() {
+
+            @Override
+            protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+                return new FairTaskQueue(weights, maxQueueSize, maxQueueSizePerTenant);
+            }
+        };
         threadPoolTaskExecutor.setCorePoolSize(maxConcurrentRuns);
         threadPoolTaskExecutor.setMaxPoolSize(maxConcurrentRuns);
         threadPoolTaskExecutor.setWaitForTasksToCompleteOnShutdown(false);
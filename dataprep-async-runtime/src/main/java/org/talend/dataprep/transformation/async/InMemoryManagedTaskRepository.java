@@ -12,24 +12,74 @@
 
 package org.talend.dataprep.transformation.async;
 
+import static org.talend.dataprep.async.AsyncExecution.Status.NEW;
+import static org.talend.dataprep.async.AsyncExecution.Status.RUNNING;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.talend.dataprep.async.AsyncExecution;
+import org.talend.dataprep.async.AsyncExecutionStatistics;
 import org.talend.dataprep.async.repository.ManagedTaskRepository;
 
 /**
- * In-Memory implementation for the ManagedTaskRepository (only for tests)
+ * In-Memory implementation for the ManagedTaskRepository.
+ * <p>
+ * Finished (done, failed or cancelled) executions are kept <code>execution.store.in-memory.retention</code> ms after
+ * they are saved as finished. The repository also keeps at most <code>execution.store.in-memory.max-size</code>
+ * executions, and at most <code>execution.store.in-memory.max-size-per-tenant</code> per tenant: when a limit is
+ * exceeded, the oldest finished executions of the tenant with the most executions are evicted first, so a busy tenant
+ * does not evict the history of the others. Executions that are not finished are never evicted.
+ *
+ * @see AsyncExecutionStatistics
  */
 @Component
 @ConditionalOnProperty(name = "execution.store", havingValue = "in-memory", matchIfMissing = true)
 public class InMemoryManagedTaskRepository implements ManagedTaskRepository {
 
-    private Map<String, AsyncExecution> executions = new ConcurrentHashMap<>();
+    /** This class' logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(InMemoryManagedTaskRepository.class);
+
+    /** Tenant of executions without tenant id. */
+    private static final String DEFAULT_TENANT = "default";
+
+    /** Retention (in ms) of finished executions. */
+    @Value("${execution.store.in-memory.retention:3600000}")
+    private long retention;
+
+    /** Maximum number of executions in repository. */
+    @Value("${execution.store.in-memory.max-size:10000}")
+    private int maxSize;
+
+    /** Maximum number of executions in repository for a tenant. */
+    @Value("${execution.store.in-memory.max-size-per-tenant:1000}")
+    private int maxSizePerTenant;
+
+    @Autowired
+    private AsyncExecutionStatistics statistics;
+
+    private final Map<String, AsyncExecution> executions = new ConcurrentHashMap<>();
+
+    /** Execution ids per group id. */
+    private final Map<String, Set<String>> groups = new ConcurrentHashMap<>();
+
+    /** Executions per tenant id (guarded by this). */
+    private final Map<String, Tenant> tenants = new HashMap<>();
 
     @Override
     public AsyncExecution get(String id) {
@@ -38,7 +88,11 @@ public class InMemoryManagedTaskRepository implements ManagedTaskRepository {
 
     @Override
     public Stream<AsyncExecution> list(String groupId) {
-        return executions.values().stream().filter((task) -> StringUtils.equals(task.getGroup(), groupId));
+        final Set<String> ids = groups.get(StringUtils.defaultString(groupId));
+        if (ids == null) {
+            return Stream.empty();
+        }
+        return ids.stream().map(executions::get).filter(Objects::nonNull);
     }
 
     @Override
@@ -47,18 +101,137 @@ public class InMemoryManagedTaskRepository implements ManagedTaskRepository {
     }
 
     @Override
-    public void remove(String id) {
-        executions.remove(id);
+    public synchronized void remove(String id) {
+        final AsyncExecution execution = executions.remove(id);
+        if (execution != null) {
+            unindex(execution);
+        }
     }
 
     @Override
-    public void save(AsyncExecution asyncExecution) {
-        executions.put(asyncExecution.getId(), asyncExecution);
+    public synchronized void save(AsyncExecution asyncExecution) {
+        final String id = asyncExecution.getId();
+        final AsyncExecution previous = executions.put(id, asyncExecution);
+        if (previous != null && previous != asyncExecution) {
+            unindex(previous);
+        }
+        groups.computeIfAbsent(StringUtils.defaultString(asyncExecution.getGroup()),
+                k -> ConcurrentHashMap.newKeySet()).add(id);
+        final Tenant tenant = tenants.computeIfAbsent(getTenantId(asyncExecution), Tenant::new);
+        tenant.ids.add(id);
+        if (isFinished(asyncExecution)) {
+            tenant.finished.putIfAbsent(id, System.currentTimeMillis());
+        } else {
+            tenant.finished.remove(id);
+        }
+        evict();
     }
 
     @Override
-    public void clear() {
+    public synchronized void clear() {
         executions.clear();
+        groups.clear();
+        tenants.keySet().forEach(tenantId -> statistics.retained(tenantId, 0, 0));
+        tenants.clear();
+    }
+
+    /**
+     * Evicts expired executions (in addition to the evictions performed on each save, so memory is released when no
+     * execution is saved).
+     */
+    @Scheduled(fixedDelayString = "${execution.store.in-memory.clean-up-delay:60000}")
+    public synchronized void evict() {
+        final long now = System.currentTimeMillis();
+        for (Tenant tenant : tenants.values()) {
+            // Finished executions are ordered by end: stop at the first that is not expired.
+            final Iterator<Map.Entry<String, Long>> iterator = tenant.finished.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<String, Long> finished = iterator.next();
+                if (finished.getValue() + retention > now) {
+                    break;
+                }
+                iterator.remove();
+                evict(tenant, finished.getKey());
+                statistics.expired(tenant.id);
+            }
+            while (tenant.ids.size() > maxSizePerTenant && !tenant.finished.isEmpty()) {
+                evictOldest(tenant);
+            }
+        }
+        while (executions.size() > maxSize) {
+            final Tenant largest = tenants.values().stream() //
+                    .filter(tenant -> !tenant.finished.isEmpty()) //
+                    .max((tenant1, tenant2) -> Integer.compare(tenant1.ids.size(), tenant2.ids.size())) //
+                    .orElse(null);
+            if (largest == null) {
+                LOGGER.warn("{} executions in repository (max {}), but none is finished.", executions.size(),
+                        maxSize);
+                break;
+            }
+            evictOldest(largest);
+        }
+        tenants.values().removeIf(tenant -> {
+            statistics.retained(tenant.id, tenant.ids.size() - tenant.finished.size(), tenant.finished.size());
+            return tenant.ids.isEmpty();
+        });
+    }
+
+    private void evictOldest(Tenant tenant) {
+        final Iterator<String> iterator = tenant.finished.keySet().iterator();
+        final String id = iterator.next();
+        iterator.remove();
+        evict(tenant, id);
+        statistics.evicted(tenant.id);
+    }
+
+    private void evict(Tenant tenant, String id) {
+        LOGGER.debug("Evict execution {} of tenant '{}'.", id, tenant.id);
+        tenant.ids.remove(id);
+        final AsyncExecution execution = executions.remove(id);
+        if (execution != null) {
+            removeFromGroup(execution);
+        }
+    }
+
+    private void unindex(AsyncExecution execution) {
+        removeFromGroup(execution);
+        final Tenant tenant = tenants.get(getTenantId(execution));
+        if (tenant != null) {
+            tenant.ids.remove(execution.getId());
+            tenant.finished.remove(execution.getId());
+        }
+    }
+
+    private void removeFromGroup(AsyncExecution execution) {
+        groups.computeIfPresent(StringUtils.defaultString(execution.getGroup()), (k, ids) -> {
+            ids.remove(execution.getId());
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static String getTenantId(AsyncExecution execution) {
+        return StringUtils.defaultIfEmpty(execution.getTenantId(), DEFAULT_TENANT);
     }
 
+    private static boolean isFinished(AsyncExecution execution) {
+        return execution.getStatus() != NEW && execution.getStatus() != RUNNING;
+    }
+
+    /**
+     * Executions of a tenant.
+     */
+    private static class Tenant {
+
+        private final String id;
+
+        /** Ids of all executions of the tenant. */
+        private final Set<String> ids = new HashSet<>();
+
+        /** Finished executions of the tenant (with the time they were saved as finished), in end order. */
+        private final LinkedHashMap<String, Long> finished = new LinkedHashMap<>();
+
+        private Tenant(String id) {
+            this.id = id;
+        }
+    }
 }
@@ -0,0 +1,90 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.talend.dataprep.async.repository.ManagedTaskRepository;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncExecutionWaiterTest {
+
+    @Mock
+    private ManagedTaskRepository repository;
+
+    @InjectMocks
+    private AsyncExecutionWaiter waiter;
+
+    @Test
+    public void shouldAnswerOnCompletion() {
+        // given
+        final AsyncExecution execution = new AsyncExecution();
+        execution.updateExecutionState(AsyncExecution.Status.RUNNING);
+        when(repository.get(execution.getId())).thenReturn(execution);
+        final DeferredResult<AsyncExecution> result = waiter.await(execution.getId(), 10000);
+        assertFalse(result.hasResult());
+
+        // when
+        execution.updateExecutionState(AsyncExecution.Status.DONE);
+        waiter.onCompletion(new AsyncExecutionCompletedEvent(execution));
+
+        // then
+        assertTrue(result.hasResult());
+        assertEquals(AsyncExecution.Status.DONE, ((AsyncExecution) result.getResult()).getStatus());
+    }
+
+    @Test
+    public void shouldAnswerWhenFinishedInAnotherProcess() {
+        // given
+        final AsyncExecution running = new AsyncExecution();
+        running.updateExecutionState(AsyncExecution.Status.RUNNING);
+        when(repository.get(running.getId())).thenReturn(running);
+        final DeferredResult<AsyncExecution> result = waiter.await(running.getId(), 10000);
+        assertFalse(result.hasResult());
+
+        // when (no completion event in this process)
+        final AsyncExecution done = new AsyncExecution();
+        done.setId(running.getId());
+        done.updateExecutionState(AsyncExecution.Status.DONE);
+        when(repository.get(running.getId())).thenReturn(done);
+        waiter.checkPending();
+
+        // then
+        assertTrue(result.hasResult());
+        assertEquals(AsyncExecution.Status.DONE, ((AsyncExecution) result.getResult()).getStatus());
+    }
+
+    @Test
+    public void shouldAnswerImmediatelyWhenAlreadyFinished() {
+        // given
+        final AsyncExecution execution = new AsyncExecution();
+        execution.updateExecutionState(AsyncExecution.Status.FAILED);
+        when(repository.get(execution.getId())).thenReturn(execution);
+
+        // when
+        final DeferredResult<AsyncExecution> result = waiter.await(execution.getId(), 10000);
+
+        // then
+        assertTrue(result.hasResult());
+        assertEquals(execution, result.getResult());
+    }
+}
@@ -0,0 +1,201 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.talend.dataprep.async.priority.ExecutionPriority.FULL_EXPORT;
+import static org.talend.dataprep.async.priority.ExecutionPriority.INTERACTIVE;
+import static org.talend.dataprep.async.priority.ExecutionPriority.SAMPLE_EXPORT;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.talend.dataprep.async.priority.ExecutionPriority;
+
+public class FairTaskQueueTest {
+
+    private static FairTaskQueue queue(int maxSize, int maxSizePerTenant) {
+        final Map<ExecutionPriority, Integer> weights = new EnumMap<>(ExecutionPriority.class);
+        weights.put(INTERACTIVE, 4);
+        weights.put(SAMPLE_EXPORT, 2);
+        weights.put(FULL_EXPORT, 1);
+        return new FairTaskQueue(weights, maxSize, maxSizePerTenant);
+    }
+
+    private static List<String> dispatchAll(FairTaskQueue queue) {
+        final List<String> names = new ArrayList<>();
+        Runnable task;
+        while ((task = queue.poll()) != null) {
+            names.add(task.toString());
+        }
+        return names;
+    }
+
+    @Test
+    public void shouldServeTenantsInTurn() {
+        // given
+        final FairTaskQueue queue = queue(100, 100);
+        for (int i = 0; i < 3; i++) {
+            queue.offer(new Task(FULL_EXPORT, "busy", "busy" + i));
+        }
+        queue.offer(new Task(FULL_EXPORT, "quiet", "quiet0"));
+
+        // when
+        final List<String> dispatched = dispatchAll(queue);
+
+        // then
+        assertEquals("[busy0, quiet0, busy1, busy2]", dispatched.toString());
+    }
+
+    @Test
+    public void shouldShareDispatchesByWeight() {
+        // given
+        final FairTaskQueue queue = queue(100, 100);
+        for (int i = 0; i < 10; i++) {
+            queue.offer(new Task(FULL_EXPORT, "tenant", "full" + i));
+        }
+        for (int i = 0; i < 10; i++) {
+            queue.offer(new Task(INTERACTIVE, "tenant", "interactive" + i));
+        }
+
+        // when
+        final List<String> dispatched = dispatchAll(queue).subList(0, 10);
+
+        // then
+        assertEquals(8, dispatched.stream().filter(name -> name.startsWith("interactive")).count());
+        assertEquals(2, dispatched.stream().filter(name -> name.startsWith("full")).count());
+    }
+
+    @Test
+    public void shouldNotStarveFullExports() {
+        // given
+        final FairTaskQueue queue = queue(100, 100);
+        queue.offer(new Task(FULL_EXPORT, "tenant", "full"));
+
+        // when
+        final List<String> dispatched = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            queue.offer(new Task(INTERACTIVE, "tenant", "interactive" + i));
+            dispatched.add(queue.poll().toString());
+        }
+
+        // then
+        assertTrue(dispatched.contains("full"));
+    }
+
+    @Test
+    public void shouldLimitAdmission() {
+        // given
+        final FairTaskQueue queue = queue(3, 2);
+
+        // when
+        final boolean first = queue.offer(new Task(FULL_EXPORT, "tenant", "full0"));
+        final boolean second = queue.offer(new Task(FULL_EXPORT, "tenant", "full1"));
+        final boolean overTenant = queue.offer(new Task(FULL_EXPORT, "tenant", "full2"));
+        final boolean otherPriority = queue.offer(new Task(SAMPLE_EXPORT, "tenant", "sample0"));
+        final boolean overTotal = queue.offer(new Task(SAMPLE_EXPORT, "other", "sample1"));
+
+        // then
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(overTenant);
+        assertTrue(otherPriority);
+        assertFalse(overTotal);
+        assertEquals(3, queue.size());
+    }
+
+    @Test
+    public void shouldRemoveTask() throws Exception {
+        // given
+        final FairTaskQueue queue = queue(100, 100);
+        final Task task = new Task(SAMPLE_EXPORT, "tenant", "sample");
+        queue.offer(task);
+
+        // when
+        final boolean removed = queue.remove(task);
+
+        // then
+        assertTrue(removed);
+        assertEquals(0, queue.size());
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldRunTasksInThreadPool() throws Exception {
+        // given
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, queue(100, 100));
+        final List<String> executed = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            final String name = "task" + i;
+            executor.execute(new Task(FULL_EXPORT, "tenant", name) {
+
+                @Override
+                public void run() {
+                    synchronized (executed) {
+                        executed.add(name);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+
+        // then
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(5, executed.size());
+    }
+
+    private static class Task implements Runnable, FairTaskQueue.Prioritized {
+
+        private final ExecutionPriority priority;
+
+        private final String tenantId;
+
+        private final String name;
+
+        private Task(ExecutionPriority priority, String tenantId, String name) {
+            this.priority = priority;
+            this.tenantId = tenantId;
+            this.name = name;
+        }
+
+        @Override
+        public void run() {
+            // Nothing to do.
+        }
+
+        @Override
+        public ExecutionPriority getPriority() {
+            return priority;
+        }
+
+        @Override
+        public String getTenantId() {
+            return tenantId;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
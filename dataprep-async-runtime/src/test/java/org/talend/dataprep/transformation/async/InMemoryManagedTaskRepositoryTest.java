@@ -0,0 +1,136 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.transformation.async;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.talend.dataprep.async.AsyncExecution;
+import org.talend.dataprep.async.AsyncExecutionStatistics;
+
+public class InMemoryManagedTaskRepositoryTest {
+
+    private final InMemoryManagedTaskRepository repository = new InMemoryManagedTaskRepository();
+
+    private final AsyncExecutionStatistics statistics = new AsyncExecutionStatistics();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(repository, "statistics", statistics);
+        ReflectionTestUtils.setField(repository, "retention", 3600000L);
+        ReflectionTestUtils.setField(repository, "maxSize", 10);
+        ReflectionTestUtils.setField(repository, "maxSizePerTenant", 5);
+    }
+
+    private AsyncExecution execution(String group, String tenantId, AsyncExecution.Status status) {
+        final AsyncExecution execution = new AsyncExecution(group);
+        execution.setTenantId(tenantId);
+        execution.updateExecutionState(status);
+        repository.save(execution);
+        return execution;
+    }
+
+    @Test
+    public void shouldListExecutionsOfGroup() {
+        // given
+        final AsyncExecution execution1 = execution("group1", "tenant", AsyncExecution.Status.RUNNING);
+        execution("group2", "tenant", AsyncExecution.Status.RUNNING);
+
+        // when
+        final List<AsyncExecution> executions = repository.list("group1").collect(toList());
+
+        // then
+        assertEquals(1, executions.size());
+        assertEquals(execution1, executions.get(0));
+        assertEquals(0, repository.list("unknown").count());
+    }
+
+    @Test
+    public void shouldExpireFinishedExecutions() {
+        // given
+        ReflectionTestUtils.setField(repository, "retention", 0L);
+        final AsyncExecution running = execution("group", "tenant", AsyncExecution.Status.RUNNING);
+
+        // when
+        final AsyncExecution done = execution("group", "tenant", AsyncExecution.Status.DONE);
+
+        // then
+        assertNotNull(repository.get(running.getId()));
+        assertNull(repository.get(done.getId()));
+        assertEquals(1, repository.list("group").count());
+        assertEquals(1, statistics.getExpirations());
+        assertEquals(1, statistics.getRunning());
+        assertEquals(0, statistics.getFinished());
+    }
+
+    @Test
+    public void shouldEvictOldestFinishedExecutionsOfTenant() {
+        // given
+        final AsyncExecution oldest = execution("group", "tenant", AsyncExecution.Status.DONE);
+        for (int i = 0; i < 4; i++) {
+            execution("group", "tenant", AsyncExecution.Status.FAILED);
+        }
+
+        // when
+        execution("group", "tenant", AsyncExecution.Status.RUNNING);
+
+        // then
+        assertNull(repository.get(oldest.getId()));
+        assertEquals(5, repository.list().count());
+        assertEquals(1, statistics.getTenants().get("tenant").getEvictions());
+    }
+
+    @Test
+    public void shouldEvictExecutionsOfLargestTenant() {
+        // given
+        for (int i = 0; i < 5; i++) {
+            execution("group", "busy", AsyncExecution.Status.DONE);
+        }
+        for (int i = 0; i < 4; i++) {
+            execution("group", "quiet", AsyncExecution.Status.DONE);
+        }
+
+        // when
+        execution("group", "other", AsyncExecution.Status.DONE);
+        execution("group", "other", AsyncExecution.Status.CANCELLED);
+
+        // then
+        assertEquals(10, repository.list().count());
+        assertEquals(1, statistics.getTenants().get("busy").getEvictions());
+        assertEquals(0, statistics.getTenants().get("quiet").getEvictions());
+        assertEquals(0, statistics.getTenants().get("other").getEvictions());
+        assertEquals(10, statistics.getFinished());
+    }
+
+    @Test
+    public void shouldNotEvictRunningExecutions() {
+        // given
+        for (int i = 0; i < 5; i++) {
+            execution("group", "tenant", AsyncExecution.Status.RUNNING);
+        }
+
+        // when
+        execution("group", "tenant", AsyncExecution.Status.NEW);
+
+        // then
+        assertEquals(6, repository.list().count());
+        assertEquals(0, statistics.getEvictions());
+    }
+}
@@ -36,6 +36,7 @@ import org.talend.dataprep.BaseErrorCodes;
 import org.talend.dataprep.preparation.store.PersistentPreparation;
 import org.talend.dataprep.preparation.store.PersistentStep;
 import org.talend.dataprep.preparation.store.PreparationRepository;
+import org.talend.dataprep.preparation.store.StepActions;
 
 @Component
 public class PreparationUtils {
@@ -51,7 +52,10 @@ public class PreparationUtils {
             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out));
             writer.append("\t\tStep (").append(step.id()).append(")").append("\n");
             writer.flush();
-            PreparationActions blob = repository.get(step.getContent(), PreparationActions.class);
+            Identifiable blob = repository.get(step.getContent(), StepActions.class);
+            if (blob == null) {
+                blob = repository.get(step.getContent(), PreparationActions.class);
+            }
             prettyPrint(blob, out);
             if (step.getParent() != null) {
                 prettyPrint(repository, step.getParent(), out);
@@ -61,7 +65,7 @@ public class PreparationUtils {
         }
     }
 
-    private static void prettyPrint(PreparationActions blob, OutputStream out) {
+    private static void prettyPrint(Identifiable blob, OutputStream out) {
         if (blob == null) {
             return;
         }
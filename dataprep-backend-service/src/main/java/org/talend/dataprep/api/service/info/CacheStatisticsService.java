@@ -0,0 +1,60 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.api.service.info;
+
+import static org.springframework.web.bind.annotation.RequestMethod.DELETE;
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.talend.dataprep.cache.ContentCacheStatistics;
+import org.talend.dataprep.metrics.Timed;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+
+/**
+ * Rest controller that returns the content cache statistics of the running service.
+ *
+ * @see ContentCacheStatistics
+ */
+@RestController
+@Api(value = "cache", basePath = "/cache", description = "content cache statistics of running application")
+public class CacheStatisticsService {
+
+    @Autowired
+    private ContentCacheStatistics statistics;
+
+    /**
+     * @return The hit, miss and volume counters (per cache key type) and the current usage of the content cache.
+     */
+    @RequestMapping(value = "/cache/statistics", method = GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get the content cache statistics", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ContentCacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Resets the content cache counters.
+     */
+    @RequestMapping(value = "/cache/statistics", method = DELETE)
+    @ApiOperation(value = "Reset the content cache statistics")
+    @Timed
+    public void resetStatistics() {
+        statistics.reset();
+    }
+}
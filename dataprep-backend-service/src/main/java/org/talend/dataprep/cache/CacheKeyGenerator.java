@@ -114,6 +114,36 @@ public class CacheKeyGenerator {
         );
     }
 
+    /**
+     * Build a cache key for the format-neutral content of a step: rows (in binary format) produced by the preparation
+     * at this step, whatever the export format and its arguments. Any format can be produced from these rows and
+     * their row metadata (see {@link #generateRowsMetadataKey(String, String, String, SourceType, String)}) without
+     * running the preparation again.
+     *
+     * @param datasetId the dataset id.
+     * @param preparationId the preparation id.
+     * @param stepId the step id.
+     * @param sourceType where the data comes from.
+     * @param filter the applied filters.
+     * @return the cache key for the rows of the step.
+     */
+    public TransformationCacheKey generateRowsKey(final String datasetId, final String preparationId,
+            final String stepId, final SourceType sourceType, final String filter) {
+        return generateContentKey(datasetId, preparationId, stepId, TransformationCacheKey.ROWS_FORMAT, sourceType,
+                emptyMap(), filter);
+    }
+
+    /**
+     * Build a cache key for the row metadata of the format-neutral content of a step.
+     *
+     * @see #generateRowsKey(String, String, String, SourceType, String)
+     */
+    public TransformationCacheKey generateRowsMetadataKey(final String datasetId, final String preparationId,
+            final String stepId, final SourceType sourceType, final String filter) {
+        return generateContentKey(datasetId, preparationId, stepId, TransformationCacheKey.ROWS_METADATA_FORMAT,
+                sourceType, emptyMap(), filter);
+    }
+
     /**
      * Build a metadata cache key to identify the transformation result content
      * When source type is HEAD, the user id is not included in cache key, as the HEAD sample is common for all users
@@ -37,7 +37,8 @@ public interface ContentCache {
      * specific sample size.
      *
      * @param key content cache key.
-     * @return <code>true</code> if cache holds content for given parameters, <code>false</code> otherwise.
+     * @return <code>true</code> if cache holds (fully written) content for given parameters, <code>false</code>
+     * otherwise.
      */
     @Timed
     boolean has(ContentCacheKey key);
@@ -53,9 +54,48 @@ public interface ContentCache {
     @VolumeMetered
     InputStream get(ContentCacheKey key);
 
+    /**
+     * Returns the cached content for <code>key</code> <b>without</b> decoding it, if it is stored gzip encoded (see
+     * {@link ContentCacheKey#getCodec()}): this allows to serve content to HTTP clients that accept gzip without
+     * decompressing then compressing it again.
+     *
+     * @param key content cache key.
+     * @return The gzip encoded content for <code>key</code>, or <code>null</code> if content is not in the cache or is
+     * not stored gzip encoded (callers then use {@link #get(ContentCacheKey)}).
+     */
+    @VolumeMetered
+    default InputStream getCompressed(ContentCacheKey key) {
+        return null;
+    }
+
+    /**
+     * Returns the content of the entry for <code>key</code> while it is still being written (see
+     * {@link #put(ContentCacheKey, TimeToLive)}): content is returned as it is written, reads at the end of the content
+     * written so far block until more content is written or until entry is complete. Reads fail if entry is evicted
+     * before it is complete.
+     *
+     * @param key content cache key.
+     * @return The content being written for <code>key</code>, or <code>null</code> if no entry is being written for
+     * <code>key</code> (implementations that do not support this also return <code>null</code>).
+     * @see #get(ContentCacheKey)
+     */
+    default InputStream getInProgress(ContentCacheKey key) {
+        return null;
+    }
+
+    /**
+     * @return <code>true</code> if this cache returns the content of entries being written (see
+     * {@link #getInProgress(ContentCacheKey)}), <code>false</code> otherwise.
+     */
+    default boolean supportsInProgress() {
+        return false;
+    }
+
     /**
      * Allow callers to create an entry in cache for given <code>preparationId</code> at step <code>stepId</code>.
      * Please note content is not passed in parameters but return of this method also callers to write in entry.
+     * Implementations may encode content with the {@link ContentCacheKey#getCodec() codec of the key}, content returned
+     * by {@link #get(ContentCacheKey)} is always decoded.
      *
      * @param key content cache key.
      * @param timeToLive The {@link TimeToLive TTL} for the new cache entry.
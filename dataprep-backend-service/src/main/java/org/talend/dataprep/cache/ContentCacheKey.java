@@ -54,4 +54,13 @@ public interface ContentCacheKey {
     default String getPrefix() {
         return StringUtils.EMPTY;
     }
+
+    /**
+     * Returns how content for this key is encoded in cache (content cache may ignore it if compression is disabled).
+     *
+     * @return The {@link ContentCodec codec} for the content of this key.
+     */
+    default ContentCodec getCodec() {
+        return ContentCodec.NONE;
+    }
 }
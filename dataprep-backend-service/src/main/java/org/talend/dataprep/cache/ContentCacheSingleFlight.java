@@ -0,0 +1,292 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.TeeOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.talend.dataprep.lock.DistributedLock;
+import org.talend.dataprep.lock.LockFactory;
+
+/**
+ * Computes cached content at most once when the same content is requested concurrently ("single flight"): the first
+ * caller for a {@link ContentCacheKey key} (the leader) computes the content on its own thread (so with its own
+ * identity) and gets it streamed as it is written in the cache entry, the other callers for the same key read the
+ * content from the cache entry as it is being written (see {@link ContentCache#getInProgress(ContentCacheKey)}).
+ * <p>
+ * A leader that disconnects does not abort the cache entry: computation goes on for the other callers.
+ * <p>
+ * Computation start also holds a {@link DistributedLock lock} on the key (released once the cache entry is opened), so
+ * callers in other processes do not start computing content that is already cached.
+ */
+@Component
+public class ContentCacheSingleFlight {
+
+    /** This class' logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentCacheSingleFlight.class);
+
+    /** Prefix of the lock names. */
+    private static final String LOCK_PREFIX = "cache#";
+
+    @Autowired
+    private ContentCache contentCache;
+
+    @Autowired
+    private LockFactory lockFactory;
+
+    /** The computations in progress in this process, by cache key. */
+    private final ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Writes the content for <code>key</code> to <code>output</code>, either by computing it with <code>producer</code>
+     * (also written in the cache entry) or by reading it from the cache when another caller started (or ended) its
+     * computation.
+     * <p>
+     * If content cache does not support reads of entries in progress, content is always computed by the caller.
+     *
+     * @param key The cache key of the content.
+     * @param timeToLive The {@link ContentCache.TimeToLive TTL} of the cache entry.
+     * @param output Where content is written.
+     * @param producer Computes the content.
+     * @throws IOException In case of write error or if computation fails.
+     */
+    public void execute(ContentCacheKey key, ContentCache.TimeToLive timeToLive, OutputStream output,
+            Producer producer) throws IOException {
+        if (!contentCache.supportsInProgress()) {
+            compute(key, timeToLive, output, producer);
+            return;
+        }
+        final Flight flight = new Flight();
+        final Flight current = flights.putIfAbsent(key.getKey(), flight);
+        if (current == null) {
+            lead(key, timeToLive, output, producer, flight);
+        } else {
+            read(key, output, current);
+        }
+    }
+
+    private void compute(ContentCacheKey key, ContentCache.TimeToLive timeToLive, OutputStream output,
+            Producer producer) throws IOException {
+        LOGGER.debug("Compute content for '{}'.", key.getKey());
+        try (TeeOutputStream tee = new TeeOutputStream(output, contentCache.put(key, timeToLive))) {
+            producer.writeTo(tee);
+            tee.flush();
+        } catch (Throwable e) { // NOSONAR
+            contentCache.evict(key);
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the cache entry for <code>key</code> (unless another process cached content in the meantime) and computes
+     * its content, also written to <code>output</code>.
+     */
+    private void lead(ContentCacheKey key, ContentCache.TimeToLive timeToLive, OutputStream output, Producer producer,
+            Flight flight) throws IOException {
+        final OutputStream entry;
+        final DistributedLock lock = lockFactory.getLock(LOCK_PREFIX + key.getKey());
+        lock.lock();
+        try {
+            if (contentCache.has(key)) {
+                // Computed by another process while waiting for lock.
+                LOGGER.debug("Content for '{}' computed by another process.", key.getKey());
+                entry = null;
+            } else {
+                entry = contentCache.put(key, timeToLive);
+            }
+            flight.started.complete(null);
+        } catch (Throwable e) { // NOSONAR
+            flight.started.complete(null);
+            land(key, flight, e);
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+        if (entry == null) {
+            land(key, flight, null);
+            read(key, output, flight);
+            return;
+        }
+        LOGGER.debug("Compute content for '{}'.", key.getKey());
+        final LeaderOutputStream leader = new LeaderOutputStream(entry, output);
+        try {
+            producer.writeTo(leader);
+            leader.flush();
+            entry.close(); // Publishes content.
+        } catch (Throwable e) { // NOSONAR
+            LOGGER.debug("Unable to compute content for '{}'.", key.getKey(), e);
+            // Evict before close so partial content is never published.
+            contentCache.evict(key);
+            IOUtils.closeQuietly(entry);
+            land(key, flight, e);
+            throw e;
+        }
+        land(key, flight, null);
+        if (leader.failure != null) {
+            throw leader.failure; // Content is cached, but leader did not get all of it.
+        }
+    }
+
+    /**
+     * Ends a computation (on success if <code>failure</code> is <code>null</code>).
+     */
+    private void land(ContentCacheKey key, Flight flight, Throwable failure) {
+        flights.remove(key.getKey(), flight);
+        if (failure == null) {
+            flight.done.complete(null);
+        } else {
+            flight.done.completeExceptionally(failure);
+        }
+    }
+
+    private void read(ContentCacheKey key, OutputStream output, Flight flight) throws IOException {
+        LOGGER.debug("Read content of '{}' as it is computed.", key.getKey());
+        await(flight.started);
+        try (InputStream inProgress = contentCache.getInProgress(key)) {
+            if (inProgress != null) {
+                IOUtils.copyLarge(inProgress, output);
+                output.flush();
+                return;
+            }
+        } catch (IOException e) {
+            // Entry removed before completion: report computation failure (if any) rather than read failure.
+            if (flight.done.isCompletedExceptionally()) {
+                await(flight.done);
+            }
+            throw e;
+        }
+        // Not (or no longer) in progress: content is either cached or computation failed.
+        await(flight.done);
+        try (InputStream cached = contentCache.get(key)) {
+            if (cached == null) {
+                throw new IOException("Content for '" + key.getKey() + "' was evicted.");
+            }
+            IOUtils.copyLarge(cached, output);
+            output.flush();
+        }
+    }
+
+    private static void await(CompletableFuture<Void> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for content.", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Unable to compute content.", cause);
+        }
+    }
+
+    /**
+     * Computes content.
+     */
+    @FunctionalInterface
+    public interface Producer {
+
+        /**
+         * @param output Where content must be written.
+         * @throws IOException In case of write error.
+         */
+        void writeTo(OutputStream output) throws IOException;
+    }
+
+    /**
+     * Writes computed content to the cache entry and to the leader: once the leader output fails (e.g. client
+     * disconnected), content is only written to the cache entry.
+     */
+    private static class LeaderOutputStream extends OutputStream {
+
+        private final OutputStream entry;
+
+        private OutputStream output;
+
+        /** The leader output failure (if any). */
+        private IOException failure;
+
+        private LeaderOutputStream(OutputStream entry, OutputStream output) {
+            this.entry = entry;
+            this.output = output;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            entry.write(b);
+            if (output != null) {
+                try {
+                    output.write(b);
+                } catch (IOException e) {
+                    detach(e);
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            entry.write(b, off, len);
+            if (output != null) {
+                try {
+                    output.write(b, off, len);
+                } catch (IOException e) {
+                    detach(e);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            entry.flush();
+            if (output != null) {
+                try {
+                    output.flush();
+                } catch (IOException e) {
+                    detach(e);
+                }
+            }
+        }
+
+        private void detach(IOException e) {
+            LOGGER.debug("Unable to write content to leader, content is still computed for cache.", e);
+            failure = e;
+            output = null;
+        }
+    }
+
+    /**
+     * A computation in progress.
+     */
+    private static class Flight {
+
+        /** Completed once the cache entry is opened (or computation failed). */
+        private final CompletableFuture<Void> started = new CompletableFuture<>();
+
+        /** Completed once computation ends. */
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+    }
+}
@@ -0,0 +1,158 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.cache;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hit, miss and volume counters of the {@link ContentCache}, grouped by key type. The key type is the part of the cache
+ * key before the first '_' (e.g. "transformation" for {@link TransformationCacheKey}, "transformation-metadata" for
+ * {@link TransformationMetadataCacheKey} and "dataset-sample" for {@link DataSetSampleCacheKey}).
+ * <p>
+ * A hit is counted each time cached content is read, a miss each time a lookup finds no content.
+ */
+@Component
+public class ContentCacheStatistics {
+
+    private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+    private volatile long entries;
+
+    private volatile long size;
+
+    private volatile long maxSize = -1;
+
+    /**
+     * @param key A cache key (as returned by {@link ContentCacheKey#getKey()}).
+     * @return The key type used to group counters for this key.
+     */
+    public static String getType(String key) {
+        final String type = StringUtils.substringBefore(key, "_");
+        return StringUtils.isEmpty(type) ? "unknown" : type;
+    }
+
+    private Counters of(String key) {
+        return counters.computeIfAbsent(getType(key), k -> new Counters());
+    }
+
+    public void hit(String key) {
+        of(key).hits.incrementAndGet();
+    }
+
+    public void miss(String key) {
+        of(key).misses.incrementAndGet();
+    }
+
+    public void served(String key, long bytes) {
+        of(key).bytesServed.addAndGet(bytes);
+    }
+
+    public void written(String key, long bytes) {
+        of(key).bytesWritten.addAndGet(bytes);
+    }
+
+    public void evicted(String key, long bytes) {
+        final Counters keyCounters = of(key);
+        keyCounters.evictions.incrementAndGet();
+        keyCounters.bytesEvicted.addAndGet(bytes);
+    }
+
+    /**
+     * Updates the current usage of the cache.
+     *
+     * @param entries The number of entries in cache.
+     * @param size The total size (in bytes) of the entries.
+     * @param maxSize The maximum size (in bytes) of the cache, or a value <= 0 if cache size is not bounded.
+     */
+    public void usage(long entries, long size, long maxSize) {
+        this.entries = entries;
+        this.size = size;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return The counters per key type (sorted by key type).
+     */
+    public Map<String, Counters> getTypes() {
+        return new TreeMap<>(counters);
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void reset() {
+        counters.clear();
+    }
+
+    /**
+     * Counters for a key type.
+     */
+    public static class Counters {
+
+        private final AtomicLong hits = new AtomicLong();
+
+        private final AtomicLong misses = new AtomicLong();
+
+        private final AtomicLong bytesServed = new AtomicLong();
+
+        private final AtomicLong bytesWritten = new AtomicLong();
+
+        private final AtomicLong evictions = new AtomicLong();
+
+        private final AtomicLong bytesEvicted = new AtomicLong();
+
+        public long getHits() {
+            return hits.get();
+        }
+
+        public long getMisses() {
+            return misses.get();
+        }
+
+        public long getBytesServed() {
+            return bytesServed.get();
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten.get();
+        }
+
+        public long getEvictions() {
+            return evictions.get();
+        }
+
+        public long getBytesEvicted() {
+            return bytesEvicted.get();
+        }
+    }
+}
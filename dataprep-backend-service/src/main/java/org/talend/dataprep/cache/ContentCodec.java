@@ -0,0 +1,89 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding of the content of a {@link ContentCache} entry, chosen per {@link ContentCacheKey#getCodec() key type}.
+ * Both compressed codecs produce gzip content so a cache entry can be served as is to HTTP clients accepting gzip
+ * (see {@link ContentCache#getCompressed(ContentCacheKey)}), they only differ by their compression level.
+ */
+public enum ContentCodec {
+
+    /**
+     * Content is stored as is (already compressed or binary content).
+     */
+    NONE(-1),
+    /**
+     * Fast compression (for content written often such as transformation results).
+     */
+    FAST(Deflater.BEST_SPEED),
+    /**
+     * Default gzip compression (for small or long-lived content such as metadata).
+     */
+    GZIP(Deflater.DEFAULT_COMPRESSION);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final int level;
+
+    ContentCodec(int level) {
+        this.level = level;
+    }
+
+    /**
+     * @return <code>true</code> if content encoded by this codec is gzip content.
+     */
+    public boolean isGzip() {
+        return this != NONE;
+    }
+
+    /**
+     * @param output Where encoded content is written.
+     * @return A stream that encodes content written to it in <code>output</code> (closing it closes
+     * <code>output</code>). Flushing it flushes pending compressed content, so readers of an entry being written (see
+     * {@link ContentCache#getInProgress(ContentCacheKey)}) get content as it is flushed.
+     * @throws IOException If encoding can't start.
+     */
+    public OutputStream encode(OutputStream output) throws IOException {
+        if (this == NONE) {
+            return output;
+        }
+        return new GZIPOutputStream(output, BUFFER_SIZE, true) {
+
+            {
+                // Replaces default deflater to use the codec compression level.
+                def.end();
+                def = new Deflater(level, true);
+            }
+        };
+    }
+
+    /**
+     * @param input Encoded content.
+     * @return A stream that decodes content read from <code>input</code>.
+     * @throws IOException If <code>input</code> is not encoded by this codec.
+     */
+    public InputStream decode(InputStream input) throws IOException {
+        if (this == NONE) {
+            return input;
+        }
+        return new GZIPInputStream(input, BUFFER_SIZE);
+    }
+}
@@ -46,4 +46,9 @@ public class DataSetSampleCacheKey implements ContentCacheKey {
     public String getKey() {
         return PREFIX + dataSetId;
     }
+
+    @Override
+    public ContentCodec getCodec() {
+        return ContentCodec.FAST;
+    }
 }
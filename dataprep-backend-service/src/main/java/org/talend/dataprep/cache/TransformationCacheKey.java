@@ -26,6 +26,12 @@ import org.talend.dataprep.cache.ContentCacheKey;
  */
 public class TransformationCacheKey implements ContentCacheKey {
 
+    /** Format of the format-neutral content of a step (rows in binary format, see {@link CacheKeyGenerator}). */
+    public static final String ROWS_FORMAT = "ROWS";
+
+    /** Format of the row metadata of the format-neutral content of a step. */
+    public static final String ROWS_METADATA_FORMAT = "ROWS_METADATA";
+
     private static final String PREFIX = "transformation";
 
     /** Format parameters (if any, if none, default to empty string) */
@@ -135,4 +141,20 @@ public class TransformationCacheKey implements ContentCacheKey {
         final Pattern pattern = Pattern.compile(regex);
         return str -> pattern.matcher(str).matches();
     }
+
+    /**
+     * @return {@link ContentCodec#FAST} for text formats (JSON, CSV) and step rows, {@link ContentCodec#GZIP} for step
+     * row metadata, {@link ContentCodec#NONE} for others (e.g. XLSX content is already compressed).
+     */
+    @Override
+    public ContentCodec getCodec() {
+        if (StringUtils.equalsIgnoreCase(format, "JSON") || StringUtils.equalsIgnoreCase(format, "CSV")
+                || ROWS_FORMAT.equals(format)) {
+            return ContentCodec.FAST;
+        }
+        if (ROWS_METADATA_FORMAT.equals(format)) {
+            return ContentCodec.GZIP;
+        }
+        return ContentCodec.NONE;
+    }
 }
@@ -68,6 +68,11 @@ public class TransformationMetadataCacheKey implements ContentCacheKey {
         return prefix.toString();
     }
 
+    @Override
+    public ContentCodec getCodec() {
+        return ContentCodec.GZIP;
+    }
+
     public String getPreparationId() {
         return preparationId;
     }
@@ -0,0 +1,451 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.cache.loader;
+
+import static org.apache.commons.lang3.StringUtils.substringAfterLast;
+import static org.apache.commons.lang3.StringUtils.substringBeforeLast;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * An in-memory index of the entries of a {@link ResourceLoaderContentCache}: maps a cache key (as returned by
+ * {@link org.talend.dataprep.cache.ContentCacheKey#getKey()}) to the location, expiration time and size of the cache
+ * entry. Keys are sorted so entries sharing a common prefix can be listed without scanning all entries. The total size
+ * of the indexed entries is maintained on each change (entries added, removed or resized).
+ */
+class ContentCacheIndex {
+
+    /** Indexed entries, sorted by key. */
+    private final ConcurrentSkipListMap<String, Entry> entries = new ConcurrentSkipListMap<>();
+
+    /** Total size (in bytes) of the indexed entries. */
+    private final AtomicLong totalSize = new AtomicLong();
+
+    /**
+     * Parses the file name of a cache entry (<code>key</code> or <code>key.expiration time</code>).
+     *
+     * @param location The location of the file (to be used with a resource resolver).
+     * @param fileName A file name in cache.
+     * @param size The size of the file.
+     * @return A {@link Entry} for the file name, or <code>null</code> if file name is not a cache entry name.
+     */
+    static Entry parse(String location, String fileName, long size) {
+        if (StringUtils.isEmpty(fileName) || fileName.startsWith(".")) {
+            return null; // Ignore "." files (hidden files like MacOS).
+        }
+        final String suffix = substringAfterLast(fileName, ".");
+        if (suffix.startsWith("nfs")) {
+            return null; // Ignore NFS files (may happen in local mode when NFS is used).
+        }
+        if (!suffix.isEmpty() && StringUtils.isNumeric(suffix)) {
+            return new Entry(substringBeforeLast(fileName, "."), location, Long.parseLong(suffix), size);
+        } else {
+            return new Entry(fileName, location, -1, size);
+        }
+    }
+
+    /**
+     * @param key A cache key.
+     * @return The entry for the key if it exists and is not expired, <code>null</code> otherwise.
+     */
+    Entry get(String key) {
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            remove(entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Adds (or replaces) the entry for <code>entry.getKey()</code>.
+     *
+     * @param entry The new entry.
+     * @return The replaced entry (if any).
+     */
+    Entry put(Entry entry) {
+        entry.attach(totalSize);
+        final Entry previous = entries.put(entry.getKey(), entry);
+        if (previous != null && previous != entry) {
+            previous.detach();
+        }
+        return previous;
+    }
+
+    /**
+     * Adds the entry unless a more recent one already exists for the same key (used to build index from existing
+     * files, where several versions of the same entry may exist).
+     *
+     * @param entry The entry to add.
+     */
+    void merge(Entry entry) {
+        entry.attach(totalSize);
+        while (true) {
+            final Entry current = entries.putIfAbsent(entry.getKey(), entry);
+            if (current == null || current == entry) {
+                return;
+            }
+            if (current.outlives(entry)) {
+                entry.detach();
+                return;
+            }
+            if (entries.replace(entry.getKey(), current, entry)) {
+                current.detach();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param key A cache key.
+     * @return The removed entry (if any).
+     */
+    Entry remove(String key) {
+        final Entry removed = entries.remove(key);
+        if (removed != null) {
+            removed.detach();
+        }
+        return removed;
+    }
+
+    /**
+     * Removes <code>entry</code> only if it is still the indexed entry for its key.
+     *
+     * @param entry The entry to remove.
+     * @return <code>true</code> if entry was removed.
+     */
+    boolean remove(Entry entry) {
+        if (entries.remove(entry.getKey(), entry)) {
+            entry.detach();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param prefix A key prefix (empty prefix returns all entries).
+     * @return All the entries whose key starts with <code>prefix</code>.
+     */
+    Collection<Entry> withPrefix(String prefix) {
+        final ConcurrentNavigableMap<String, Entry> matches;
+        if (StringUtils.isEmpty(prefix)) {
+            matches = entries;
+        } else {
+            matches = entries.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    /**
+     * @return A snapshot of all entries.
+     */
+    List<Entry> all() {
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * @return The total size (in bytes) of the indexed entries.
+     */
+    long getTotalSize() {
+        return totalSize.get();
+    }
+
+    /**
+     * @return The number of indexed entries.
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all entries.
+     */
+    void clear() {
+        all().forEach(this::remove);
+    }
+
+    /**
+     * An entry of the index.
+     */
+    static class Entry {
+
+        private final String key;
+
+        private final String location;
+
+        private final long expiration;
+
+        private volatile long size;
+
+        /** Last time (in ms) entry was read. */
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        /** Number of times entry was read. */
+        private final AtomicLong accessCount = new AtomicLong();
+
+        /** <code>false</code> while entry content is being written. */
+        private volatile boolean complete = true;
+
+        /** <code>true</code> if entry was removed before its content was fully written. */
+        private volatile boolean abandoned = false;
+
+        /** Location of the content while entry is being written (<code>null</code> for existing entries). */
+        private volatile String temporaryLocation;
+
+        /** CRC32 checksum of the entry content (if known, -1 otherwise). */
+        private volatile long checksum = -1;
+
+        /** Total size of the index that holds the entry (<code>null</code> if entry is not indexed). */
+        private AtomicLong indexSize;
+
+        Entry(String key, String location, long expiration, long size) {
+            this.key = key;
+            this.location = location;
+            this.expiration = expiration;
+            this.size = size;
+        }
+
+        /**
+         * @return The cache key of the entry.
+         */
+        String getKey() {
+            return key;
+        }
+
+        /**
+         * @return The location of the entry content (to be used with a resource resolver).
+         */
+        String getLocation() {
+            return location;
+        }
+
+        /**
+         * @return The file name of the entry content.
+         */
+        String getFileName() {
+            return StringUtils.substringAfterLast(location, "/");
+        }
+
+        /**
+         * @return Expiration time of entry (in ms), or a value <= 0 if entry never expires.
+         */
+        long getExpiration() {
+            return expiration;
+        }
+
+        /**
+         * @return The size (in bytes) of the entry content (if known).
+         */
+        long getSize() {
+            return size;
+        }
+
+        synchronized void setSize(long size) {
+            resize(size);
+        }
+
+        private void resize(long newSize) {
+            if (indexSize != null) {
+                indexSize.addAndGet(newSize - size);
+            }
+            size = newSize;
+        }
+
+        /**
+         * Counts the size of this entry (now and when it changes) in the total size of an index.
+         */
+        private synchronized void attach(AtomicLong total) {
+            if (indexSize == null) {
+                indexSize = total;
+                total.addAndGet(size);
+            }
+        }
+
+        /**
+         * Stops counting the size of this entry in the total size of its index.
+         */
+        private synchronized void detach() {
+            if (indexSize != null) {
+                indexSize.addAndGet(-size);
+                indexSize = null;
+            }
+        }
+
+        long getLastAccess() {
+            return lastAccess;
+        }
+
+        /**
+         * @param lastAccess Last time (in ms) entry was read (when known from elsewhere, e.g. file modification).
+         */
+        void setLastAccess(long lastAccess) {
+            this.lastAccess = lastAccess;
+        }
+
+        long getAccessCount() {
+            return accessCount.get();
+        }
+
+        /**
+         * Records a read of the entry.
+         */
+        void touch() {
+            lastAccess = System.currentTimeMillis();
+            accessCount.incrementAndGet();
+        }
+
+        /**
+         * @return A snapshot of the access information of the entry (used to sort entries for eviction).
+         */
+        Access access() {
+            return new Access(this, lastAccess, accessCount.get());
+        }
+
+        /**
+         * Copies access information of <code>other</code> to this entry (when an entry is moved to another key).
+         */
+        void inherit(Entry other) {
+            lastAccess = other.lastAccess;
+            accessCount.set(other.accessCount.get());
+        }
+
+        /**
+         * @return <code>true</code> if entry content is fully written (entries being written can't be evicted).
+         */
+        boolean isComplete() {
+            return complete;
+        }
+
+        void setComplete(boolean complete) {
+            this.complete = complete;
+        }
+
+        /**
+         * @return The location of the content while entry is being written.
+         */
+        String getTemporaryLocation() {
+            return temporaryLocation;
+        }
+
+        void setTemporaryLocation(String temporaryLocation) {
+            this.temporaryLocation = temporaryLocation;
+        }
+
+        /**
+         * @return The CRC32 checksum of the entry content, or -1 if unknown (entries found at startup).
+         */
+        long getChecksum() {
+            return checksum;
+        }
+
+        /**
+         * Marks entry content as fully written (the commit marker readers of an entry being written wait for).
+         *
+         * @param size The size (in bytes) of the entry content.
+         * @param checksum The CRC32 checksum of the entry content.
+         */
+        synchronized void commit(long size, long checksum) {
+            resize(size);
+            this.checksum = checksum;
+            this.complete = true;
+            notifyAll();
+        }
+
+        /**
+         * Marks entry as removed before its content was fully written: content will never be complete.
+         */
+        synchronized void abandon() {
+            if (!complete) {
+                abandoned = true;
+                notifyAll();
+            }
+        }
+
+        /**
+         * @return <code>true</code> if entry was removed before its content was fully written.
+         */
+        boolean isAbandoned() {
+            return abandoned;
+        }
+
+        /**
+         * Waits for more content to be written in entry.
+         *
+         * @param timeout The maximum time to wait (in ms).
+         * @throws InterruptedException If thread is interrupted while waiting.
+         */
+        synchronized void awaitProgress(long timeout) throws InterruptedException {
+            if (!complete && !abandoned) {
+                wait(timeout);
+            }
+        }
+
+        boolean isExpired(long now) {
+            return expiration > 0 && expiration <= now;
+        }
+
+        private boolean outlives(Entry other) {
+            if (expiration <= 0) {
+                return true;
+            }
+            return other.expiration > 0 && expiration >= other.expiration;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" + "key='" + key + '\'' + ", location='" + location + '\'' + ", expiration=" + expiration
+                    + ", size=" + size + '}';
+        }
+    }
+
+    /**
+     * An immutable snapshot of the access information of an {@link Entry}.
+     */
+    static class Access {
+
+        private final Entry entry;
+
+        private final long lastAccess;
+
+        private final long accessCount;
+
+        private Access(Entry entry, long lastAccess, long accessCount) {
+            this.entry = entry;
+            this.lastAccess = lastAccess;
+            this.accessCount = accessCount;
+        }
+
+        Entry getEntry() {
+            return entry;
+        }
+
+        long getLastAccess() {
+            return lastAccess;
+        }
+
+        long getAccessCount() {
+            return accessCount;
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.stereotype.Component;
 import org.talend.daikon.content.ContentServiceEnabled;
@@ -40,6 +41,18 @@ public class DeletableResourceLoaderCacheJanitor implements CacheJanitor {
     @Autowired
     private ResourceResolver deletablePathResolver;
 
+    /** The cache whose index is used for orphan and size clean up. */
+    @Autowired
+    private ResourceLoaderContentCache contentCache;
+
+    /** Maximum size (in bytes) of the cache, a value <= 0 means no maximum size. */
+    @Value("${content-service.cache.max-size:-1}")
+    private long maxSize;
+
+    /** Age (in ms) after which a temporary file of an entry being written is considered as orphan. */
+    @Value("${content-service.cache.temp.max-age:3600000}")
+    private long tempMaxAge;
+
     @PostConstruct
     public void init() {
         LOGGER.info("Using resource loader cache janitor.");
@@ -50,6 +63,10 @@ public class DeletableResourceLoaderCacheJanitor implements CacheJanitor {
         final AtomicLong deletedCount = new AtomicLong();
         final AtomicLong totalCount = new AtomicLong();
         performCleanUp(deletedCount, totalCount);
+        performOrphanCleanUp(deletedCount);
+        if (maxSize > 0) {
+            performSizeCleanUp(deletedCount);
+        }
 
         LOGGER.debug("Janitor process end ({}/{} files successfully deleted).", System.currentTimeMillis(),
                 deletedCount, totalCount);
@@ -75,6 +92,31 @@ public class DeletableResourceLoaderCacheJanitor implements CacheJanitor {
         }
     }
 
+    /**
+     * Deletes temporary files of entries never published (writer crashed or never closed its stream), temporary files
+     * of the entries being written are kept.
+     */
+    private void performOrphanCleanUp(AtomicLong deletedCount) {
+        try {
+            deletedCount.addAndGet(contentCache.deleteOrphans(tempMaxAge));
+        } catch (IOException e) {
+            LOGGER.error("Unable to clean up temporary resources", e);
+        }
+    }
+
+    /**
+     * Evicts entries until cache size is under its maximum size. This is a safety net for processes that share the
+     * cache resources: eviction goes through the index of {@link ResourceLoaderContentCache} (refreshed with the
+     * entries of the other processes), in the order of its eviction policy.
+     */
+    private void performSizeCleanUp(AtomicLong deletedCount) {
+        try {
+            deletedCount.addAndGet(contentCache.evictOverMaxSize());
+        } catch (Exception e) {
+            LOGGER.error("Unable to clean up resources", e);
+        }
+    }
+
     private boolean cleanUpResources(AtomicLong totalCount, long start, DeletableResource resource) {
         final String fileName = resource.getFilename();
         final String suffix = StringUtils.substringAfterLast(fileName, ".");
@@ -0,0 +1,45 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.cache.loader;
+
+import java.util.Comparator;
+
+/**
+ * Policies to select the cache entries to evict when the content cache exceeds its maximum size.
+ */
+public enum EvictionPolicy {
+
+    /**
+     * Least recently used entries are evicted first.
+     */
+    LRU(Comparator.comparingLong(ContentCacheIndex.Access::getLastAccess)),
+    /**
+     * Least frequently used entries are evicted first (least recently used first for entries with same frequency).
+     */
+    LFU(Comparator.comparingLong(ContentCacheIndex.Access::getAccessCount)
+            .thenComparingLong(ContentCacheIndex.Access::getLastAccess));
+
+    private final Comparator<ContentCacheIndex.Access> order;
+
+    EvictionPolicy(Comparator<ContentCacheIndex.Access> order) {
+        this.order = order;
+    }
+
+    /**
+     * @return A comparator that sorts entry accesses in eviction order (first entries are evicted first).
+     */
+    Comparator<ContentCacheIndex.Access> getOrder() {
+        return order;
+    }
+}
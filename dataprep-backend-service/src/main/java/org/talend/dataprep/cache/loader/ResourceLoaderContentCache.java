@@ -12,23 +12,35 @@
 
 package org.talend.dataprep.cache.loader;
 
-import static java.lang.Long.parseLong;
 import static java.util.Arrays.stream;
-import static java.util.Optional.ofNullable;
-import static java.util.function.BinaryOperator.maxBy;
-import static org.apache.commons.lang3.StringUtils.substringAfterLast;
 
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
-import java.util.Optional;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
 
-import org.apache.commons.lang3.math.NumberUtils;
-import org.apache.commons.lang3.StringUtils;
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.stereotype.Component;
 import org.talend.daikon.content.ContentServiceEnabled;
@@ -36,70 +48,337 @@ import org.talend.daikon.content.DeletableResource;
 import org.talend.daikon.content.ResourceResolver;
 import org.talend.dataprep.cache.ContentCache;
 import org.talend.dataprep.cache.ContentCacheKey;
+import org.talend.dataprep.cache.ContentCacheStatistics;
+import org.talend.dataprep.cache.ContentCodec;
 import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.exception.error.CommonErrorCodes;
 import org.talend.dataprep.metrics.Timed;
 import org.talend.dataprep.metrics.VolumeMetered;
 
+/**
+ * A {@link ContentCache} that stores entries as resources under <code>/cache</code>. Resource names are either
+ * <code>key</code> (permanent entries) or <code>key.expiration time</code>.
+ * <p>
+ * An in-memory index of all entries (built from existing resources at startup and kept up to date on each
+ * operation) avoids resource lookups on each call. When cache resources are shared with other processes
+ * (<code>content-service.cache.index.shared=true</code>), index misses fall back to resource lookups.
+ * <p>
+ * When <code>content-service.cache.max-size</code> is set, total size of entries is kept under this size (in bytes):
+ * once an entry is written and cache exceeds its maximum size, entries are evicted following the configured
+ * {@link EvictionPolicy} until cache size goes below {@link #EVICTION_THRESHOLD} of its maximum size.
+ * <p>
+ * Entries are only served once fully written (see {@link #has(ContentCacheKey)}), but an entry being written can be
+ * read as its content lands with {@link #getInProgress(ContentCacheKey)}.
+ * <p>
+ * Entries are written under {@link #TEMP_ROOT} and atomically moved to their final location once the writer closes
+ * the stream (after a check of the written content against its CRC32 checksum), so a process crash never leaves a
+ * truncated entry in cache. Orphan temporary files are removed at startup and by
+ * {@link DeletableResourceLoaderCacheJanitor}.
+ * <p>
+ * Unless <code>content-service.cache.compression.enabled=false</code>, content is encoded with the
+ * {@link ContentCacheKey#getCodec() codec of the key}. The codec is recorded in a header at the start of the entry, so
+ * entries written without compression (or before compression was available) remain readable.
+ */
 @Component
 @ConditionalOnBean(ContentServiceEnabled.class)
 public class ResourceLoaderContentCache implements ContentCache {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ResourceLoaderContentCache.class);
 
+    private static final String ROOT = "/cache/";
+
+    /** Location of the entries being written (hidden from entry listings because of the leading "."). */
+    static final String TEMP_ROOT = ROOT + ".tmp/";
+
+    /** Ratio of the maximum size the cache is reduced to when it exceeds its maximum size. */
+    private static final double EVICTION_THRESHOLD = 0.9;
+
+    /** Header of encoded entries (text content never starts with a NUL byte), followed by the codec ordinal. */
+    private static final byte[] CODEC_HEADER = { 0, 'T', 'D', 'C' };
+
+    /** Maximum time (in ms) readers of an entry being written wait before checking for new content. */
+    private static final long IN_PROGRESS_POLL_PERIOD = 100;
+
     @Autowired
     private ResourceResolver resolver;
 
+    /** <code>true</code> if other processes may add entries in the cache resources. */
+    @Value("${content-service.cache.index.shared:false}")
+    private boolean shared;
+
+    /** Maximum size (in bytes) of the cache, a value <= 0 means no maximum size. */
+    @Value("${content-service.cache.max-size:-1}")
+    private long maxSize;
+
+    @Value("${content-service.cache.eviction-policy:LRU}")
+    private EvictionPolicy evictionPolicy;
+
+    /** <code>true</code> to encode entries with the codec of their key. */
+    @Value("${content-service.cache.compression.enabled:true}")
+    private boolean compression;
+
+    /** <code>true</code> to read written content again to check its checksum before publishing an entry. */
+    @Value("${content-service.cache.verify-checksum:false}")
+    private boolean verifyChecksum;
+
+    /** Age (in ms) after which a temporary file is considered as orphan (only used when cache is shared). */
+    @Value("${content-service.cache.temp.max-age:3600000}")
+    private long tempMaxAge;
+
+    @Autowired
+    private ContentCacheStatistics statistics;
+
+    /** Lock to prevent concurrent evictions when cache exceeds its maximum size. */
+    private final Object evictionLock = new Object();
+
+    /** In-memory index of the cache entries. */
+    private final ContentCacheIndex index = new ContentCacheIndex();
+
     public ResourceLoaderContentCache() {
         LOGGER.info("Using content cache: {}", this.getClass().getName());
     }
 
-    private DeletableResource getOrCreateResource(ContentCacheKey key, TimeToLive ttl) {
-        return resolver.getResource(getLocation(key, ttl));
+    /**
+     * Builds the index from the existing cache resources.
+     */
+    @PostConstruct
+    public void init() {
+        index.all().forEach(ContentCacheIndex.Entry::abandon);
+        index.clear();
+        try {
+            final DeletableResource[] resources = resolver.getResources(ROOT + "*");
+            stream(resources).map(this::toEntry).filter(e -> e != null).forEach(index::merge);
+            LOGGER.info("Content cache index built ({} entries).", index.size());
+            // Entries left half written by a previous run (other processes may still be writing when shared).
+            final int deleted = deleteOrphans(shared ? tempMaxAge : 0);
+            if (deleted > 0) {
+                LOGGER.info("Deleted {} orphan temporary cache file(s).", deleted);
+            }
+        } catch (IOException e) {
+            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+        }
+        enforceMaxSize();
+    }
+
+    /**
+     * Deletes temporary files of entries that were never published (e.g. process crashed while writing entry).
+     * Temporary files of the entries being written by this process are never deleted, the other ones are deleted once
+     * older than <code>maxAge</code> (they may be written by another process or about to be indexed by this one).
+     *
+     * @param maxAge Temporary files unknown to the index and last modified more than <code>maxAge</code> ms ago are
+     * deleted (a value <= 0 deletes all of them).
+     * @return The number of deleted files.
+     * @throws IOException If temporary files can't be listed.
+     */
+    int deleteOrphans(long maxAge) throws IOException {
+        final Set<String> inProgress = index.all().stream() //
+                .filter(e -> !e.isComplete()) //
+                .map(ContentCacheIndex.Entry::getTemporaryLocation) //
+                .filter(Objects::nonNull) //
+                .collect(Collectors.toSet());
+        final long limit = System.currentTimeMillis() - maxAge;
+        int deleted = 0;
+        for (DeletableResource resource : resolver.getResources(TEMP_ROOT + "*")) {
+            if (inProgress.contains(TEMP_ROOT + resource.getFilename())) {
+                continue;
+            }
+            try {
+                if (maxAge <= 0 || resource.lastModified() < limit) {
+                    LOGGER.debug("Delete orphan temporary file '{}'.", resource.getFilename());
+                    resource.delete();
+                    deleted++;
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Unable to delete orphan temporary file '{}'.", resource.getFilename(), e);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Evicts entries (following the {@link EvictionPolicy eviction policy}) if cache exceeds its maximum size, once
+     * entries added or removed by other processes (when cache is shared) are indexed. Used by
+     * {@link DeletableResourceLoaderCacheJanitor} so all evictions go through the index.
+     *
+     * @return The number of evicted entries.
+     */
+    int evictOverMaxSize() {
+        if (shared) {
+            try {
+                stream(resolver.getResources(ROOT + "*")) //
+                        .map(this::toEntry) //
+                        .filter(e -> e != null) //
+                        .forEach(index::merge);
+            } catch (IOException e) {
+                throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+            }
+            index.all().stream().filter(e -> e.isComplete() && !exists(e)).forEach(e -> {
+                // Removed by another process.
+                if (index.remove(e)) {
+                    e.abandon();
+                }
+            });
+        }
+        return enforceMaxSize();
+    }
+
+    /**
+     * Evicts entries (following the {@link EvictionPolicy eviction policy}) if cache exceeds its maximum size.
+     *
+     * @return The number of evicted entries.
+     */
+    private int enforceMaxSize() {
+        int evicted = 0;
+        if (maxSize > 0) {
+            synchronized (evictionLock) {
+                long size = index.getTotalSize();
+                if (size > maxSize) {
+                    final long target = (long) (maxSize * EVICTION_THRESHOLD);
+                    LOGGER.debug("Cache size ({} bytes) exceeds maximum size ({} bytes).", size, maxSize);
+                    final List<ContentCacheIndex.Access> accesses = index.all().stream() //
+                            .map(ContentCacheIndex.Entry::access) //
+                            .sorted(evictionPolicy.getOrder()) //
+                            .collect(Collectors.toList());
+                    for (ContentCacheIndex.Access access : accesses) {
+                        final ContentCacheIndex.Entry entry = access.getEntry();
+                        if (size <= target) {
+                            break;
+                        }
+                        if (entry.isComplete() && index.remove(entry)) {
+                            delete(entry);
+                            statistics.evicted(entry.getKey(), entry.getSize());
+                            size -= entry.getSize();
+                            evicted++;
+                        }
+                    }
+                }
+            }
+        }
+        updateUsage();
+        return evicted;
+    }
+
+    private void updateUsage() {
+        statistics.usage(index.size(), index.getTotalSize(), maxSize);
+    }
+
+    private ContentCacheIndex.Entry toEntry(DeletableResource resource) {
+        final String fileName = resource.getFilename();
+        final ContentCacheIndex.Entry entry = ContentCacheIndex.parse(ROOT + fileName, fileName, size(resource));
+        if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        try {
+            // Best known last access of an entry found in resources (so eviction order is meaningful after restart).
+            entry.setLastAccess(resource.lastModified());
+        } catch (IOException e) {
+            LOGGER.debug("Unable to get last modification of '{}'.", fileName, e);
+        }
+        return entry;
+    }
+
+    private static long size(DeletableResource resource) {
+        try {
+            return resource.contentLength();
+        } catch (IOException e) {
+            LOGGER.debug("Unable to get size of '{}'.", resource.getFilename(), e);
+            return 0;
+        }
     }
 
     private String getLocation(ContentCacheKey key, TimeToLive ttl) {
         if (ttl.getTime() > 0) {
-            return "/cache/" + key.getKey() + "." + (System.currentTimeMillis() + ttl.getTime());
+            return ROOT + key.getKey() + "." + (System.currentTimeMillis() + ttl.getTime());
         } else {
-            return "/cache/" + key.getKey();
+            return ROOT + key.getKey();
         }
     }
 
-    private DeletableResource getResource(ContentCacheKey key) {
-        try {
-            final DeletableResource[] patternMatches = resolver.getResources("/cache/" + key.getKey() + "*");
-            final DeletableResource[] directMatches = resolver.getResources("/cache/" + key.getKey());
-            final DeletableResource[] resources = new DeletableResource[patternMatches.length + directMatches.length];
-            System.arraycopy(patternMatches, 0, resources, 0, patternMatches.length);
-            System.arraycopy(directMatches, 0, resources, patternMatches.length, directMatches.length);
+    /**
+     * @param key A cache key.
+     * @return The current (non expired) and fully written entry for <code>key</code> or <code>null</code> if none.
+     */
+    private ContentCacheIndex.Entry getEntry(ContentCacheKey key) {
+        final ContentCacheIndex.Entry entry = getAnyEntry(key);
+        return entry == null || !entry.isComplete() ? null : entry;
+    }
 
-            if (resources.length <= 0) {
-                return null;
-            } else { // resources.length > 0
-                final Optional<DeletableResource> reduce = stream(resources).reduce(maxBy((r1, r2) -> {
-                    final String suffix1 = substringAfterLast(r1.getFilename(), ".");
-                    final String suffix2 = substringAfterLast(r2.getFilename(), ".");
-                    if (StringUtils.isEmpty(suffix1) || StringUtils.isEmpty(suffix2)) {
-                        return 0;
-                    }
+    /**
+     * @param key A cache key.
+     * @return The current (non expired) entry for <code>key</code>, possibly still being written, or
+     * <code>null</code> if none.
+     */
+    private ContentCacheIndex.Entry getAnyEntry(ContentCacheKey key) {
+        ContentCacheIndex.Entry entry = index.get(key.getKey());
+        if (entry != null && !exists(entry)) {
+            // Resource was removed outside of this cache (e.g. janitor or another process).
+            index.remove(entry);
+            entry.abandon();
+            entry = null;
+        }
+        if (entry == null && shared) {
+            entry = lookup(key);
+            if (entry != null) {
+                index.merge(entry);
+            }
+        }
+        return entry;
+    }
 
-                    final long i1 = parseLong(suffix1);
-                    final long i2 = parseLong(suffix2);
-                    return Long.compare(i1, i2);
-                }));
-                return reduce.filter(r -> {
-                    if (!r.exists()) {
-                        return false;
-                    }
-                    final String suffix = StringUtils.substringAfterLast(r.getFilename(), ".");
-                    if (NumberUtils.isNumber(suffix)) {
-                        final long time = parseLong(suffix);
-                        return time > System.currentTimeMillis();
-                    } else {
-                        return true;
+    /**
+     * Looks up resources for a cache key (only needed when other processes may add entries).
+     */
+    private ContentCacheIndex.Entry lookup(ContentCacheKey key) {
+        try {
+            final DeletableResource[] patternMatches = resolver.getResources(ROOT + key.getKey() + ".*");
+            final DeletableResource[] directMatches = resolver.getResources(ROOT + key.getKey());
+            ContentCacheIndex.Entry found = null;
+            for (DeletableResource resource : concat(patternMatches, directMatches)) {
+                final ContentCacheIndex.Entry entry = toEntry(resource);
+                if (entry != null && entry.getKey().equals(key.getKey()) && resource.exists()) {
+                    if (found == null || found.getExpiration() > 0
+                            && (entry.getExpiration() <= 0 || entry.getExpiration() > found.getExpiration())) {
+                        found = entry;
                     }
-                }).orElse(null);
+                }
+            }
+            return found;
+        } catch (IOException e) {
+            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the content of the entry exists (in its temporary location if entry is being
+     * written).
+     */
+    private boolean exists(ContentCacheIndex.Entry entry) {
+        if (resolver.getResource(entry.getLocation()).exists()) {
+            return true;
+        }
+        return !entry.isComplete() && resolver.getResource(entry.getTemporaryLocation()).exists();
+    }
+
+    private static DeletableResource[] concat(DeletableResource[] first, DeletableResource[] second) {
+        final DeletableResource[] resources = new DeletableResource[first.length + second.length];
+        System.arraycopy(first, 0, resources, 0, first.length);
+        System.arraycopy(second, 0, resources, first.length, second.length);
+        return resources;
+    }
+
+    private void delete(ContentCacheIndex.Entry entry) {
+        try {
+            final DeletableResource resource = resolver.getResource(entry.getLocation());
+            if (resource.exists()) {
+                LOGGER.debug("Delete file '{}'.", entry.getFileName());
+                resource.delete();
+            }
+            if (entry.getTemporaryLocation() != null) {
+                final DeletableResource temporary = resolver.getResource(entry.getTemporaryLocation());
+                if (temporary.exists()) {
+                    LOGGER.debug("Delete temporary file '{}'.", entry.getTemporaryLocation());
+                    temporary.delete();
+                }
             }
         } catch (IOException e) {
             throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
@@ -109,7 +388,10 @@ public class ResourceLoaderContentCache implements ContentCache {
     @Timed
     @Override
     public boolean has(ContentCacheKey key) {
-        final boolean present = ofNullable(getResource(key)).isPresent();
+        final boolean present = getEntry(key) != null;
+        if (!present) {
+            statistics.miss(key.getKey());
+        }
         LOGGER.debug("Has '{}': {}", key.getKey(), present);
         return present;
     }
@@ -119,13 +401,144 @@ public class ResourceLoaderContentCache implements ContentCache {
     @Override
     public InputStream get(ContentCacheKey key) {
         LOGGER.debug("Get '{}'", key.getKey());
-        return ofNullable(getResource(key)).map(r -> {
+        final ContentCacheIndex.Entry entry = getEntry(key);
+        if (entry == null) {
+            statistics.miss(key.getKey());
+            return null;
+        }
+        try {
+            final BufferedInputStream stored = new BufferedInputStream(
+                    resolver.getResource(entry.getLocation()).getInputStream());
+            final ContentCodec codec = readCodec(stored);
+            if (codec == null) {
+                stored.close();
+                evictUnknownCodec(key, entry);
+                statistics.miss(key.getKey());
+                return null;
+            }
+            final InputStream inputStream = codec.decode(stored);
+            entry.touch();
+            statistics.hit(key.getKey());
+            return served(key, inputStream);
+        } catch (IOException e) {
+            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+        }
+    }
+
+    @Timed
+    @VolumeMetered
+    @Override
+    public InputStream getCompressed(ContentCacheKey key) {
+        LOGGER.debug("Get compressed '{}'", key.getKey());
+        final ContentCacheIndex.Entry entry = getEntry(key);
+        if (entry == null) {
+            return null;
+        }
+        try {
+            final BufferedInputStream stored = new BufferedInputStream(
+                    resolver.getResource(entry.getLocation()).getInputStream());
+            final ContentCodec codec = readCodec(stored);
+            if (codec == null || !codec.isGzip()) {
+                stored.close();
+                if (codec == null) {
+                    evictUnknownCodec(key, entry);
+                }
+                return null;
+            }
+            entry.touch();
+            statistics.hit(key.getKey());
+            return served(key, stored);
+        } catch (IOException e) {
+            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+        }
+    }
+
+    private InputStream served(ContentCacheKey key, InputStream inputStream) {
+        return new CountingInputStream(inputStream) {
+
+            @Override
+            public void close() throws IOException {
+                super.close();
+                statistics.served(key.getKey(), getByteCount());
+            }
+        };
+    }
+
+    /**
+     * Reads the codec header at the start of an entry content (if any).
+     *
+     * @param stored The entry content as stored.
+     * @return The codec of the content (<code>stored</code> is then positioned after the header), or <code>null</code>
+     * if the header names an unknown codec (corrupted header or entry written by another version).
+     * @throws IOException If content can't be read.
+     */
+    private static ContentCodec readCodec(BufferedInputStream stored) throws IOException {
+        final byte[] header = new byte[CODEC_HEADER.length + 1];
+        stored.mark(header.length);
+        final int read = IOUtils.read(stored, header);
+        if (read == header.length && Arrays.equals(CODEC_HEADER, Arrays.copyOf(header, CODEC_HEADER.length))) {
+            final int ordinal = header[CODEC_HEADER.length] & 0xFF;
+            final ContentCodec[] codecs = ContentCodec.values();
+            return ordinal < codecs.length ? codecs[ordinal] : null;
+        }
+        stored.reset(); // No header: content is not encoded.
+        return ContentCodec.NONE;
+    }
+
+    /**
+     * Evicts an entry whose content can't be decoded by this version: it is then a cache miss (and is computed again)
+     * instead of a failure on each read.
+     */
+    private void evictUnknownCodec(ContentCacheKey key, ContentCacheIndex.Entry entry) {
+        LOGGER.warn("Unknown codec for '{}' in '{}', evicting entry.", key.getKey(), entry.getFileName());
+        index.remove(entry);
+        entry.abandon();
+        delete(entry);
+        updateUsage();
+    }
+
+    @Override
+    public boolean supportsInProgress() {
+        return true;
+    }
+
+    @Override
+    public InputStream getInProgress(ContentCacheKey key) {
+        final ContentCacheIndex.Entry entry = index.get(key.getKey());
+        if (entry == null || entry.isComplete()) {
+            return null;
+        }
+        LOGGER.debug("Get in progress '{}'", key.getKey());
+        try {
+            // Entry content is moved (not copied) on completion: stream remains valid after entry is published.
+            InputStream content;
             try {
-                return r.getInputStream();
+                content = resolver.getResource(entry.getTemporaryLocation()).getInputStream();
             } catch (IOException e) {
-                throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+                if (!entry.isComplete()) {
+                    throw e;
+                }
+                content = resolver.getResource(entry.getLocation()).getInputStream(); // Published in the meantime.
+            }
+            final BufferedInputStream stored = new BufferedInputStream(new InProgressInputStream(content, entry));
+            try {
+                final ContentCodec codec = readCodec(stored);
+                if (codec == null) {
+                    stored.close();
+                    evictUnknownCodec(key, entry);
+                    return null;
+                }
+                return codec.decode(stored);
+            } catch (IOException e) {
+                stored.close();
+                if (entry.isAbandoned()) {
+                    return null; // Removed before anything could be read: no longer in progress.
+                }
+                throw e;
             }
-        }).orElse(null);
+        } catch (IOException e) {
+            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+        }
     }
 
     @Timed
@@ -133,56 +546,166 @@ public class ResourceLoaderContentCache implements ContentCache {
     @Override
     public OutputStream put(ContentCacheKey key, TimeToLive timeToLive) {
         LOGGER.debug("Put '{}' (TTL: {})", key.getKey(), timeToLive);
+        final String location = getLocation(key, timeToLive);
+        final long expiration = timeToLive.getTime() > 0 ? System.currentTimeMillis() + timeToLive.getTime() : -1;
+        final ContentCacheIndex.Entry entry = new ContentCacheIndex.Entry(key.getKey(), location, expiration, 0);
+        entry.setComplete(false);
+        entry.setTemporaryLocation(TEMP_ROOT + entry.getFileName() + "." + UUID.randomUUID());
         try {
-            return getOrCreateResource(key, timeToLive).getOutputStream();
+            final CRC32 checksum = new CRC32();
+            final OutputStream outputStream = new CheckedOutputStream(
+                    resolver.getResource(entry.getTemporaryLocation()).getOutputStream(), checksum);
+            final ContentCacheIndex.Entry previous = index.put(entry);
+            if (previous != null) {
+                previous.abandon();
+                delete(previous);
+            }
+            final CountingOutputStream stored = new CountingOutputStream(outputStream) {
+
+                private boolean closed;
+
+                @Override
+                public void close() throws IOException {
+                    if (closed) {
+                        return;
+                    }
+                    closed = true;
+                    try {
+                        super.close();
+                        publish(entry, getByteCount(), checksum.getValue());
+                    } catch (IOException e) {
+                        index.remove(entry);
+                        entry.abandon();
+                        delete(entry);
+                        updateUsage();
+                        throw e;
+                    }
+                    if (entry.isComplete()) {
+                        statistics.written(key.getKey(), getByteCount());
+                        enforceMaxSize();
+                    }
+                }
+            };
+            final ContentCodec codec = compression ? key.getCodec() : ContentCodec.NONE;
+            if (codec == ContentCodec.NONE) {
+                return stored;
+            }
+            stored.write(CODEC_HEADER);
+            stored.write(codec.ordinal());
+            return codec.encode(stored);
         } catch (IOException e) {
+            index.remove(entry);
+            entry.abandon();
+            delete(entry);
             throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
         }
     }
 
+    /**
+     * Moves the content of a written entry from its temporary location to its final location, and marks entry as
+     * complete. Nothing is published if entry was removed while being written.
+     *
+     * @param entry The written entry.
+     * @param size The number of bytes written.
+     * @param checksum The CRC32 checksum of the written bytes.
+     * @throws IOException If written content does not match size or checksum, or if it can't be moved.
+     */
+    private void publish(ContentCacheIndex.Entry entry, long size, long checksum) throws IOException {
+        final DeletableResource temporary = resolver.getResource(entry.getTemporaryLocation());
+        if (!entry.isAbandoned()) {
+            verify(temporary, size, checksum);
+        }
+        // Synchronized with abandon(): an entry evicted during publish is either not published or fully published.
+        synchronized (entry) {
+            if (entry.isAbandoned()) {
+                LOGGER.debug("Entry '{}' removed while being written, discard content.", entry.getKey());
+                if (temporary.exists()) {
+                    temporary.delete();
+                }
+                return;
+            }
+            final DeletableResource destination = resolver.getResource(entry.getLocation());
+            if (destination.exists()) {
+                destination.delete();
+            }
+            temporary.move(entry.getLocation());
+            entry.commit(size, checksum);
+        }
+        LOGGER.debug("Published '{}' ({} bytes, checksum: {}).", entry.getFileName(), size, checksum);
+    }
+
+    private void verify(DeletableResource temporary, long size, long checksum) throws IOException {
+        final long length = temporary.contentLength();
+        if (length != size) {
+            throw new IOException("Temporary file '" + temporary.getFilename() + "' is " + length + " bytes long ("
+                    + size + " bytes written).");
+        }
+        if (verifyChecksum) {
+            final CRC32 actual = new CRC32();
+            try (InputStream input = new CheckedInputStream(temporary.getInputStream(), actual)) {
+                IOUtils.copy(input, NullOutputStream.NULL_OUTPUT_STREAM);
+            }
+            if (actual.getValue() != checksum) {
+                throw new IOException("Temporary file '" + temporary.getFilename() + "' checksum mismatch (expected: "
+                        + checksum + ", actual: " + actual.getValue() + ").");
+            }
+        }
+    }
+
     @Timed
     @Override
     public void evict(ContentCacheKey key) {
         LOGGER.debug("Evict '{}'", key.getKey());
-        ofNullable(getResource(key)).ifPresent(r -> {
-            try {
-                r.delete();
-            } catch (IOException e) {
-                throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
-            }
-        });
+        final ContentCacheIndex.Entry entry = shared ? getAnyEntry(key) : index.get(key.getKey());
+        if (entry != null) {
+            index.remove(entry);
+            entry.abandon();
+            delete(entry);
+            updateUsage();
+        }
     }
 
     @Timed
     @Override
     public void evictMatch(ContentCacheKey key) {
         LOGGER.debug("Evict match '{}'", key.getKey());
-        try {
-            final DeletableResource[] resources = resolver.getResources("/cache/" + key.getPrefix() + "**");
-            final Predicate<String> matcher = key.getMatcher();
-            stream(resources).filter(r -> matcher.test(r.getFilename())).forEach(r -> {
-                try {
-                    LOGGER.debug("Delete file '{}'.", r.getFilename());
-                    r.delete();
-                } catch (IOException e) {
-                    throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
-                }
-            });
-        } catch (IOException e) {
-            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+        final Predicate<String> matcher = key.getMatcher();
+        index.withPrefix(key.getPrefix()).stream().filter(e -> matcher.test(e.getFileName())).forEach(e -> {
+            index.remove(e);
+            e.abandon();
+            delete(e);
+        });
+        if (shared) {
+            // Other processes may have added matching entries unknown to index.
+            try {
+                final DeletableResource[] resources = resolver.getResources(ROOT + key.getPrefix() + "**");
+                stream(resources).filter(r -> matcher.test(r.getFilename())).forEach(r -> {
+                    try {
+                        LOGGER.debug("Delete file '{}'.", r.getFilename());
+                        r.delete();
+                    } catch (IOException e) {
+                        throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+                    }
+                });
+            } catch (IOException e) {
+                throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+            }
         }
+        updateUsage();
     }
 
     @Timed
     @Override
     public void move(ContentCacheKey from, ContentCacheKey to, TimeToLive toTimeToLive) {
         LOGGER.debug("Move '{}' -> '{}' (TTL: {})", from.getKey(), to.getKey(), toTimeToLive);
-        final DeletableResource resource = getResource(from);
-        if (resource != null) {
+        final ContentCacheIndex.Entry source = shared ? getEntry(from) : index.get(from.getKey());
+        if (source != null) {
             final String destination = getLocation(to, toTimeToLive);
+            final DeletableResource resource = resolver.getResource(source.getLocation());
             if (!resource.exists()) {
                 LOGGER.debug("Source file no longer exists.");
-                if (resolver.getResource(destination).exists()) {
+                index.remove(source);
+                if (index.get(to.getKey()) != null || resolver.getResource(destination).exists()) {
                     LOGGER.debug("No need to move file (destination already exists).");
                     return;
                 } else {
@@ -196,6 +719,17 @@ public class ResourceLoaderContentCache implements ContentCache {
             } catch (IOException e) {
                 throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
             }
+            index.remove(source);
+            final long expiration =
+                    toTimeToLive.getTime() > 0 ? System.currentTimeMillis() + toTimeToLive.getTime() : -1;
+            final ContentCacheIndex.Entry moved =
+                    new ContentCacheIndex.Entry(to.getKey(), destination, expiration, source.getSize());
+            moved.inherit(source);
+            final ContentCacheIndex.Entry previous = index.put(moved);
+            if (previous != null && !previous.getLocation().equals(destination)) {
+                delete(previous);
+            }
+            updateUsage();
         }
     }
 
@@ -204,9 +738,54 @@ public class ResourceLoaderContentCache implements ContentCache {
     public void clear() {
         LOGGER.debug("Clear all");
         try {
-            resolver.clear("/cache/**");
+            index.all().forEach(ContentCacheIndex.Entry::abandon);
+            index.clear();
+            resolver.clear(ROOT + "**");
+            updateUsage();
         } catch (IOException e) {
             throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
         }
     }
+
+    /**
+     * Reads the content of an entry being written: reaching the end of the content written so far waits for more
+     * content until the entry is committed (or abandoned, which fails the read).
+     */
+    private static class InProgressInputStream extends FilterInputStream {
+
+        private final ContentCacheIndex.Entry entry;
+
+        private InProgressInputStream(InputStream in, ContentCacheIndex.Entry entry) {
+            super(in);
+            this.entry = entry;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] single = new byte[1];
+            final int read = read(single, 0, 1);
+            return read < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            while (true) {
+                // Check commit marker before reading: once committed, end of content is the actual end of entry.
+                final boolean complete = entry.isComplete();
+                final int read = super.read(b, off, len);
+                if (read != -1 || complete) {
+                    return read;
+                }
+                if (entry.isAbandoned()) {
+                    throw new IOException("Cache entry '" + entry.getKey() + "' was removed before completion.");
+                }
+                try {
+                    entry.awaitProgress(IN_PROGRESS_POLL_PERIOD);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for cache entry content.");
+                }
+            }
+        }
+    }
 }
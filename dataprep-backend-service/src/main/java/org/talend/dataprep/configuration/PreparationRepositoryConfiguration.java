@@ -65,7 +65,7 @@ public class PreparationRepositoryConfiguration {
                 ApplicationContext applicationContext) {
             LOGGER.info("Wrapping '{}' ({})...", instance.getClass(), beanName);
             final BeanConversionService beanConversionService = applicationContext.getBean(BeanConversionService.class);
-            return new PersistentPreparationRepository(instance, beanConversionService);
+            return new PersistentPreparationRepository(instance, beanConversionService, applicationContext);
         }
     }
 
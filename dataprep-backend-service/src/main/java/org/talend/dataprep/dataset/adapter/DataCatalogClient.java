@@ -11,6 +11,7 @@ import org.talend.dataprep.dataset.adapter.commands.DataSetGetSchema;
 import org.talend.dataprep.dataset.adapter.commands.DatasetList;
 
 import javax.annotation.Nullable;
+import java.util.List;
 import java.util.stream.Stream;
 
 /**
@@ -38,9 +39,34 @@ public class DataCatalogClient {
         return context.getBean(DataSetGetSchema.class, id).execute();
     }
 
+    /**
+     * @param id the dataset id.
+     * @param columns the ids of the columns to keep in schema (all columns if empty).
+     * @return the dataset schema reduced to <code>columns</code>.
+     */
+    @Nullable
+    public Schema getDataSetSchema(String id, List<String> columns) {
+        return context.getBean(DataSetGetSchema.class, id, columns).execute();
+    }
+
     public Stream<GenericRecord> getDataSetContent(String id, Long limit) {
         Schema schema = getDataSetSchema(id);
         return context.getBean(DataSetGetContent.class, id, schema, limit).execute();
     }
 
+    /**
+     * Get the dataset records, filtered and projected by the dataset service.
+     *
+     * @param id the dataset id.
+     * @param schema the dataset schema reduced to <code>columns</code> (see {@link #getDataSetSchema(String, List)}).
+     * @param limit the maximum number of records to read (<code>null</code> for no limit).
+     * @param filter the TQL filter of the records (<code>null</code> for all records).
+     * @param columns the ids of the columns to get (all columns if empty).
+     * @return the matching records.
+     */
+    public Stream<GenericRecord> getDataSetContent(String id, Schema schema, Long limit, String filter,
+            List<String> columns) {
+        return context.getBean(DataSetGetContent.class, id, schema, limit, filter, columns).execute();
+    }
+
 }
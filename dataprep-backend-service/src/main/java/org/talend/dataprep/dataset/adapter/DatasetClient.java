@@ -8,6 +8,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
@@ -126,6 +127,25 @@ public class DatasetClient {
         return toDataSetRows(dataCatalogClient.getDataSetContent(id, limit(fullContent)), metadata.getRowMetadata());
     }
 
+    /**
+     * Get the dataset content reduced to some columns: projection is done by the dataset service, so only the
+     * requested columns are sent.
+     *
+     * @param id the dataset to fetch
+     * @param fullContent we need the full dataset or a sample (see sample limit in datset: 10k rows)
+     * @param columns the ids of the columns to get
+     * @return the dataset rows, with <code>columns</code> values only
+     */
+    public Stream<DataSetRow> getDataSetContentAsRows(String id, boolean fullContent, List<String> columns) {
+        final Schema schema = dataCatalogClient.getDataSetSchema(id, columns);
+        if (schema == null) {
+            return Stream.empty();
+        }
+        final Stream<GenericRecord> content =
+                dataCatalogClient.getDataSetContent(id, schema, limit(fullContent), null, columns);
+        return toDataSetRows(content, AvroUtils.toRowMetadata(schema));
+    }
+
     /**
      * Get a dataSet by id.
      *
@@ -175,13 +195,17 @@ public class DatasetClient {
         DataSetMetadata dataSetMetadata = toDataSetMetadata(metadata, fullContent);
         dataset.setMetadata(dataSetMetadata);
 
-        // convert records
-        Stream<GenericRecord> dataSetContent = dataCatalogClient.getDataSetContent(id, limit(fullContent));
+        // convert records (filter is evaluated by dataset service, next to the storage)
+        Stream<GenericRecord> dataSetContent = filter == null
+                ? dataCatalogClient.getDataSetContent(id, limit(fullContent))
+                : dataCatalogClient.getDataSetContent(id, dataCatalogClient.getDataSetSchema(id), limit(fullContent),
+                        filter, Collections.emptyList());
         Stream<DataSetRow> records = toDataSetRows(dataSetContent, dataSetMetadata.getRowMetadata());
         if (withRowValidityMarker) {
             records = records.peek(addValidity(dataSetMetadata.getRowMetadata().getColumns()));
         }
-        if (filter != null) {
+        if (filter != null && !context.getBean(DatasetConfiguration.class).isLegacy()) {
+            // catalog service may not support filter: make sure records match it
             records = records.filter(filterService.build(filter, dataSetMetadata.getRowMetadata()));
         }
         dataset.setRecords(records);
@@ -287,7 +311,7 @@ public class DatasetClient {
         return statistics == null || EMPTY_STATS.equals(statistics);
     }
 
-    // No cache as metadata may be updated without notice (see BackgroundAnalysis that update metadata twice)
+    // No cache as metadata may be updated without notice (see BackgroundAnalysis that updates metadata with statistics)
     private AnalysisResult getAnalyseDatasetFromLegacy(String id) {
         DataSetMetadata metadata = context.getBean(DataSetGetMetadataLegacy.class, id).execute();
         return new AnalysisResult(metadata.getRowMetadata(), metadata.getContent().getNbRecords());
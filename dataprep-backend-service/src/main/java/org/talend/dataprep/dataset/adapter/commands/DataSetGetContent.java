@@ -16,6 +16,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.List;
 import java.util.stream.Stream;
 import javax.annotation.PostConstruct;
 
@@ -41,8 +43,10 @@ import static org.talend.dataprep.exception.error.APIErrorCodes.UNABLE_TO_RETRIE
 import static org.talend.dataprep.util.avro.AvroUtils.readBinaryStream;
 
 /**
- * Command to get the stream of AVRO records of the dataset.
- * 
+ * Command to get the stream of AVRO records of the dataset. An optional TQL filter and column projection are sent to
+ * the dataset service: records are then filtered and reduced to the projected columns before they are sent (the
+ * schema used to read them must be reduced the same way).
+ *
  * @see GenericRecord
  */
 @Component
@@ -55,11 +59,29 @@ public class DataSetGetContent extends GenericCommand<Stream<GenericRecord>> {
 
     private final Long limit;
 
+    private final String filter;
+
+    private final List<String> columns;
+
     public DataSetGetContent(final String dataSetId, Schema contentSchema, Long limit) {
+        this(dataSetId, contentSchema, limit, null, Collections.emptyList());
+    }
+
+    /**
+     * @param dataSetId the dataset id.
+     * @param contentSchema the schema of the records (reduced to <code>columns</code>).
+     * @param limit the maximum number of records to read (<code>null</code> for no limit).
+     * @param filter the TQL filter of the records (<code>null</code> for all records).
+     * @param columns the ids of the columns to get (all columns if empty).
+     */
+    public DataSetGetContent(final String dataSetId, Schema contentSchema, Long limit, String filter,
+            List<String> columns) {
         super(DATASET_GROUP);
         this.dataSetId = dataSetId;
         this.contentSchema = contentSchema;
         this.limit = limit;
+        this.filter = filter;
+        this.columns = columns;
 
         on(HttpStatus.NO_CONTENT).then((req, resp) -> Stream.empty());
         on(HttpStatus.OK).then(this::readResult);
@@ -77,6 +99,10 @@ public class DataSetGetContent extends GenericCommand<Stream<GenericRecord>> {
                 if (limit != null) {
                     uriBuilder.addParameter("limit", Long.toString(limit));
                 }
+                if (filter != null) {
+                    uriBuilder.addParameter("filter", filter);
+                }
+                columns.forEach(column -> uriBuilder.addParameter("columns", column));
                 uri = uriBuilder.build();
             } catch (URISyntaxException e) {
                 throw new TalendRuntimeException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
@@ -16,6 +16,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.List;
 import javax.annotation.PostConstruct;
 
 import org.apache.avro.Schema;
@@ -45,14 +47,27 @@ public class DataSetGetSchema extends GenericCommand<Schema> {
 
     private final String dataSetId;
 
+    private final List<String> columns;
+
     /**
      * Private constructor to ensure the use of IoC
      *
      * @param dataSetId the dataset id to get.
      */
     private DataSetGetSchema(final String dataSetId) {
+        this(dataSetId, Collections.emptyList());
+    }
+
+    /**
+     * Private constructor to ensure the use of IoC
+     *
+     * @param dataSetId the dataset id to get.
+     * @param columns the ids of the columns to keep in schema (all columns if empty).
+     */
+    private DataSetGetSchema(final String dataSetId, final List<String> columns) {
         super(GenericCommand.DATASET_GROUP);
         this.dataSetId = dataSetId;
+        this.columns = columns;
 
         onError(Defaults.passthrough());
         on(HttpStatus.NO_CONTENT).then(asNull());
@@ -62,7 +77,9 @@ public class DataSetGetSchema extends GenericCommand<Schema> {
     private void initConfiguration() {
         URI datasetURI;
         try {
-            datasetURI = new URIBuilder(datasetServiceUrl + "/api/v1/datasets/" + dataSetId + "/schema").build();
+            URIBuilder uriBuilder = new URIBuilder(datasetServiceUrl + "/api/v1/datasets/" + dataSetId + "/schema");
+            columns.forEach(column -> uriBuilder.addParameter("columns", column));
+            datasetURI = uriBuilder.build();
         } catch (URISyntaxException e) {
             throw new TDPException(UNEXPECTED_EXCEPTION, e);
         }
@@ -0,0 +1,131 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.dataset.store.content;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Shared encoding helpers for the binary content formats of this package (also used by other binary buffers, so that
+ * there's a single encoding of numbers and strings).
+ *
+ * @see BinaryRowWriter
+ * @see BinaryRowIndex
+ * @see InvalidCellsWriter
+ */
+public final class BinaryFormats {
+
+    private BinaryFormats() {
+    }
+
+    /**
+     * Writes <code>value</code> as an unsigned variable length integer (7 bits per byte).
+     */
+    public static void writeVarLong(DataOutputStream output, long value) throws IOException {
+        long current = value;
+        while ((current & ~0x7FL) != 0) {
+            output.writeByte((int) ((current & 0x7F) | 0x80));
+            current >>>= 7;
+        }
+        output.writeByte((int) current);
+    }
+
+    /**
+     * Reads an unsigned variable length integer written by {@link #writeVarLong(DataOutputStream, long)}.
+     */
+    public static long readVarLong(DataInputStream input) throws IOException {
+        final int first = input.read();
+        if (first < 0) {
+            throw new EOFException("Unexpected end of binary content.");
+        }
+        return readVarLong(input, first);
+    }
+
+    /**
+     * Reads an unsigned variable length integer whose first byte was already read from <code>input</code>.
+     */
+    static long readVarLong(DataInputStream input, int first) throws IOException {
+        long value = first & 0x7F;
+        int current = first;
+        int shift = 7;
+        while ((current & 0x80) != 0) {
+            current = input.read();
+            if (current < 0) {
+                throw new EOFException("Unexpected end of binary content.");
+            }
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        }
+        return value;
+    }
+
+    /**
+     * Writes a (possibly <code>null</code>) string as its UTF-8 byte length + 1 (0 meaning <code>null</code>) followed
+     * by its UTF-8 bytes.
+     */
+    public static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(output, 0);
+        } else {
+            final byte[] bytes = value.getBytes(UTF_8);
+            writeVarLong(output, bytes.length + 1L);
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     */
+    public static String readString(DataInputStream input) throws IOException {
+        final long length = readVarLong(input);
+        if (length == 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[(int) (length - 1)];
+        input.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * Skips a string written by {@link #writeString(DataOutputStream, String)} without decoding it.
+     */
+    static void skipString(DataInputStream input) throws IOException {
+        final long length = readVarLong(input);
+        if (length > 1) {
+            skipFully(input, length - 1);
+        }
+    }
+
+    /**
+     * Skips exactly <code>count</code> bytes of <code>input</code>.
+     */
+    static void skipFully(DataInputStream input, long count) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            final long skipped = input.skip(remaining);
+            if (skipped <= 0) {
+                if (input.read() < 0) {
+                    throw new EOFException("Unexpected end of binary content.");
+                }
+                remaining--;
+            } else {
+                remaining -= skipped;
+            }
+        }
+    }
+}
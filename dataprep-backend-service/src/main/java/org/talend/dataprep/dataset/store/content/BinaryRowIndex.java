@@ -0,0 +1,159 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.dataset.store.content;
+
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.readString;
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.readVarLong;
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.writeString;
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.writeVarLong;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A sparse index of the rows written by a {@link BinaryRowWriter}: the byte position of every
+ * {@link #getInterval() interval}-th row, so a {@link BinaryRowReader} can {@link BinaryRowReader#skip(long,
+ * BinaryRowIndex) seek} to a row without reading all the previous ones. Positions are relative to the end of the rows
+ * header. Layout is a header (magic number, format version, the signature of the indexed rows and the interval)
+ * followed by the number of positions and the positions.
+ *
+ * @see BinaryRowWriter#getIndex()
+ */
+public class BinaryRowIndex {
+
+    /** Default number of rows between two indexed positions. */
+    public static final int DEFAULT_INTERVAL = 1024;
+
+    /** Magic number at the beginning of each row index content ("TDPX"). */
+    static final int MAGIC = 0x54445058;
+
+    /** Current version of the row index format. */
+    static final byte VERSION = 1;
+
+    private final String signature;
+
+    private final int interval;
+
+    private long[] positions;
+
+    private int size;
+
+    BinaryRowIndex(String signature, int interval) {
+        this(signature, interval, new long[16], 0);
+    }
+
+    private BinaryRowIndex(String signature, int interval, long[] positions, int size) {
+        this.signature = signature;
+        this.interval = interval;
+        this.positions = positions;
+        this.size = size;
+    }
+
+    /**
+     * Reads an index previously written with {@link #write(OutputStream)}.
+     *
+     * @param input The index content (closed when this method returns).
+     * @return The index read from <code>input</code>.
+     * @throws IOException In case of read error or if content is not a valid index content.
+     */
+    public static BinaryRowIndex read(InputStream input) throws IOException {
+        try (DataInputStream data = new DataInputStream(new BufferedInputStream(input, 64 * 1024))) {
+            final int magic = data.readInt();
+            final byte version = data.readByte();
+            if (magic != MAGIC || version != VERSION) {
+                throw new IOException("Not a row index content (or unsupported version " + version + ").");
+            }
+            final String signature = readString(data);
+            final int interval = (int) readVarLong(data);
+            final int size = (int) readVarLong(data);
+            final long[] positions = new long[Math.max(size, 1)];
+            long previous = 0;
+            for (int i = 0; i < size; i++) {
+                previous += readVarLong(data); // Positions are delta encoded
+                positions[i] = previous;
+            }
+            return new BinaryRowIndex(signature, interval, positions, size);
+        }
+    }
+
+    /**
+     * Writes this index.
+     *
+     * @param output Where index is written to (closed when this method returns).
+     * @throws IOException In case of write error.
+     */
+    public void write(OutputStream output) throws IOException {
+        try (DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output, 64 * 1024))) {
+            data.writeInt(MAGIC);
+            data.writeByte(VERSION);
+            writeString(data, signature);
+            writeVarLong(data, interval);
+            writeVarLong(data, size);
+            long previous = 0;
+            for (int i = 0; i < size; i++) {
+                writeVarLong(data, positions[i] - previous);
+                previous = positions[i];
+            }
+        }
+    }
+
+    void add(long position) {
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        positions[size++] = position;
+    }
+
+    /**
+     * @return The signature of the indexed rows (see {@link BinaryRowReader#getSignature()}).
+     */
+    public String getSignature() {
+        return signature;
+    }
+
+    /**
+     * @return The number of rows between two indexed positions.
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * @param row A row number (0 for the first row).
+     * @return The number of the nearest indexed row at or before <code>row</code> (0 if no row is indexed).
+     */
+    long getIndexedRow(long row) {
+        if (size == 0) {
+            return 0;
+        }
+        return Math.min(row / interval, size - 1L) * interval;
+    }
+
+    /**
+     * @param row A row number (0 for the first row).
+     * @return The position of the {@link #getIndexedRow(long) nearest indexed row} at or before <code>row</code>.
+     */
+    long getPosition(long row) {
+        if (size == 0) {
+            return 0;
+        }
+        return positions[(int) (getIndexedRow(row) / interval)];
+    }
+}
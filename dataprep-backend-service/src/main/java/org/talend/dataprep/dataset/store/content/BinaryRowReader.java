@@ -0,0 +1,288 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.dataset.store.content;
+
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.readString;
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.readVarLong;
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.skipFully;
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.skipString;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.exception.TDPException;
+import org.talend.dataprep.exception.error.CommonErrorCodes;
+
+/**
+ * Reads {@link DataSetRow rows} written by a {@link BinaryRowWriter}.
+ *
+ * @see BinaryRowWriter
+ */
+public class BinaryRowReader implements Iterator<DataSetRow>, Closeable {
+
+    private final DataInputStream input;
+
+    private final String signature;
+
+    private final List<String> columnIds;
+
+    private RowMetadata rowMetadata;
+
+    private DataSetRow next;
+
+    /** Last value read by {@link #values(String)}. */
+    private String value;
+
+    private boolean end;
+
+    /**
+     * @param input The binary content to read from (closed when this reader is closed).
+     * @throws IOException In case of read error or if content is not a valid binary row content.
+     */
+    public BinaryRowReader(InputStream input) throws IOException {
+        this.input = new DataInputStream(new BufferedInputStream(input, 64 * 1024));
+        final int magic = this.input.readInt();
+        final byte version = this.input.readByte();
+        if (magic != BinaryRowWriter.MAGIC || version != BinaryRowWriter.VERSION) {
+            throw new IOException("Not a binary row content (or unsupported version " + version + ").");
+        }
+        this.signature = readString(this.input);
+        final int columnCount = (int) readVarLong(this.input);
+        final List<String> ids = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            ids.add(readString(this.input));
+        }
+        this.columnIds = Collections.unmodifiableList(ids);
+    }
+
+    /**
+     * @return The signature passed to {@link BinaryRowWriter} when content was written.
+     */
+    public String getSignature() {
+        return signature;
+    }
+
+    /**
+     * @return The ordered column ids declared when content was written.
+     */
+    public List<String> getColumnIds() {
+        return columnIds;
+    }
+
+    /**
+     * @param rowMetadata The row metadata to set on rows read after this call (rows have no row metadata otherwise).
+     */
+    public void setRowMetadata(RowMetadata rowMetadata) {
+        this.rowMetadata = rowMetadata;
+    }
+
+    /**
+     * @return A {@link Stream} of all remaining rows, closing the stream closes this reader.
+     */
+    public Stream<DataSetRow> stream() {
+        final Spliterator<DataSetRow> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+            }
+        });
+    }
+
+    /**
+     * Reads the values of a single column in all remaining rows: values of the other columns are skipped, not decoded
+     * (and no {@link DataSetRow} is created). Not to be mixed with {@link #next()}.
+     *
+     * @param columnId The column id.
+     * @return A {@link Stream} of the column values (<code>null</code> for rows without value), closing the stream
+     * closes this reader.
+     */
+    public Stream<String> values(String columnId) {
+        final int position = columnIds.indexOf(columnId);
+        final Iterator<String> values = new Iterator<String>() {
+
+            private boolean ready;
+
+            @Override
+            public boolean hasNext() {
+                if (!ready && !end) {
+                    try {
+                        end = !readValue(position, columnId);
+                    } catch (IOException e) {
+                        throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+                    }
+                    ready = !end;
+                }
+                return ready;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ready = false;
+                return value;
+            }
+        };
+        final Spliterator<String> spliterator = Spliterators.spliteratorUnknownSize(values, Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+            }
+        });
+    }
+
+    /**
+     * Skips the next <code>rows</code> rows. When an <code>index</code> is given, reader directly moves to the nearest
+     * indexed row and only reads the rows after it. Must be called before any row is read.
+     *
+     * @param rows The number of rows to skip.
+     * @param index The index of the rows (as returned by {@link BinaryRowWriter#getIndex()}) or <code>null</code>.
+     * @throws IOException In case of read error.
+     */
+    public void skip(long rows, BinaryRowIndex index) throws IOException {
+        if (rows <= 0) {
+            return;
+        }
+        long remaining = rows;
+        if (index != null && signature.equals(index.getSignature())) {
+            skipFully(input, index.getPosition(rows));
+            remaining -= index.getIndexedRow(rows);
+        }
+        for (long i = 0; i < remaining && !end; i++) {
+            end = !skipRow();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !end) {
+            try {
+                next = readRow();
+            } catch (IOException e) {
+                throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+            }
+            end = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public DataSetRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final DataSetRow row = next;
+        next = null;
+        return row;
+    }
+
+    private DataSetRow readRow() throws IOException {
+        final int first = input.read();
+        if (first < 0) {
+            return null;
+        }
+        final long tdpId = readVarLong(input, first);
+        final Map<String, String> values = new LinkedHashMap<>(columnIds.size() * 2);
+        for (String columnId : columnIds) {
+            values.put(columnId, readString(input));
+        }
+        final long extras = readVarLong(input);
+        for (long i = 0; i < extras; i++) {
+            final String key = readString(input);
+            values.put(key, readString(input));
+        }
+        final DataSetRow row = rowMetadata == null ? new DataSetRow(values) : new DataSetRow(rowMetadata, values);
+        if (tdpId > 0) {
+            row.setTdpId(tdpId - 1);
+        }
+        return row;
+    }
+
+    /**
+     * Reads the next row value of a column in {@link #value}.
+     *
+     * @param position The position of the column in declared columns (negative if not declared).
+     * @param columnId The column id.
+     * @return <code>false</code> if there is no more row.
+     */
+    private boolean readValue(int position, String columnId) throws IOException {
+        final int first = input.read();
+        if (first < 0) {
+            return false;
+        }
+        readVarLong(input, first); // TDP id
+        value = null;
+        for (int i = 0; i < columnIds.size(); i++) {
+            if (i == position) {
+                value = readString(input);
+            } else {
+                skipString(input);
+            }
+        }
+        final long extras = readVarLong(input);
+        for (long i = 0; i < extras; i++) {
+            if (position < 0 && columnId.equals(readString(input))) {
+                value = readString(input);
+            } else {
+                if (position >= 0) {
+                    skipString(input); // key
+                }
+                skipString(input);
+            }
+        }
+        return true;
+    }
+
+    private boolean skipRow() throws IOException {
+        final int first = input.read();
+        if (first < 0) {
+            return false;
+        }
+        readVarLong(input, first); // TDP id
+        for (int i = 0; i < columnIds.size(); i++) {
+            skipString(input);
+        }
+        final long extras = readVarLong(input);
+        for (long i = 0; i < extras * 2; i++) {
+            skipString(input);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
@@ -0,0 +1,148 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.dataset.store.content;
+
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.writeString;
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.writeVarLong;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.api.dataset.row.FlagNames;
+
+/**
+ * Writes {@link DataSetRow rows} in a compact, length-prefixed binary format that can be read back with
+ * {@link BinaryRowReader}. Layout is:
+ * <ul>
+ * <li>a header: magic number, format version, an opaque signature and the ordered column ids.</li>
+ * <li>one entry per row: TDP id, one value per header column, then the number of extra (key, value) pairs that are
+ * not declared in header (e.g. internal properties) followed by those pairs.</li>
+ * </ul>
+ * Strings are written as a variable length integer (<code>length + 1</code>, 0 meaning <code>null</code>) followed by
+ * their UTF-8 bytes.
+ *
+ * While rows are written, a sparse {@link BinaryRowIndex index} of their positions is built (see {@link #getIndex()}).
+ *
+ * @see BinaryRowReader
+ */
+public class BinaryRowWriter implements Closeable {
+
+    /** Magic number at the beginning of each binary row file ("TDPR"). */
+    static final int MAGIC = 0x54445052;
+
+    /** Current version of the binary row format. */
+    static final byte VERSION = 1;
+
+    private final DataOutputStream output;
+
+    private final CountingOutputStream counter;
+
+    private final long rowsStart;
+
+    private final BinaryRowIndex index;
+
+    private final List<String> columnIds;
+
+    private final Set<String> declaredIds;
+
+    private long count;
+
+    /**
+     * @param output Where rows are written to (closed when this writer is closed).
+     * @param signature An opaque string that describes how content was produced (can be read back with
+     * {@link BinaryRowReader#getSignature()}).
+     * @param columnIds The ordered column ids to expect in rows.
+     * @throws IOException In case header can not be written.
+     */
+    public BinaryRowWriter(OutputStream output, String signature, List<String> columnIds) throws IOException {
+        this.counter = new CountingOutputStream(new BufferedOutputStream(output, 64 * 1024));
+        this.output = new DataOutputStream(counter);
+        this.columnIds = new ArrayList<>(columnIds);
+        this.declaredIds = new HashSet<>(columnIds);
+        this.declaredIds.add(FlagNames.TDP_ID); // TDP id is written apart from values
+
+        this.output.writeInt(MAGIC);
+        this.output.writeByte(VERSION);
+        writeString(this.output, signature);
+        writeVarLong(this.output, this.columnIds.size());
+        for (String columnId : this.columnIds) {
+            writeString(this.output, columnId);
+        }
+        this.rowsStart = counter.getByteCount();
+        this.index = new BinaryRowIndex(signature, BinaryRowIndex.DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Writes the <code>row</code> at the end of the binary content.
+     *
+     * @param row The row to write.
+     * @throws IOException In case of write error.
+     */
+    public void write(DataSetRow row) throws IOException {
+        if (count % index.getInterval() == 0) {
+            index.add(counter.getByteCount() - rowsStart);
+        }
+        final Map<String, Object> values = row.values();
+        final Long tdpId = row.getTdpId();
+        writeVarLong(output, tdpId == null ? 0 : tdpId + 1);
+        for (String columnId : columnIds) {
+            writeValue(values.get(columnId));
+        }
+        final List<Map.Entry<String, Object>> extras = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (entry.getKey() != null && !declaredIds.contains(entry.getKey())) {
+                extras.add(entry);
+            }
+        }
+        writeVarLong(output, extras.size());
+        for (Map.Entry<String, Object> extra : extras) {
+            writeString(output, extra.getKey());
+            writeValue(extra.getValue());
+        }
+        count++;
+    }
+
+    /**
+     * @return The number of rows written so far.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The index of the rows written so far.
+     */
+    public BinaryRowIndex getIndex() {
+        return index;
+    }
+
+    private void writeValue(Object value) throws IOException {
+        writeString(output, value == null ? null : String.valueOf(value));
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+}
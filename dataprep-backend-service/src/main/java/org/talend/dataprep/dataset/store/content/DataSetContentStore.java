@@ -14,8 +14,10 @@
 package org.talend.dataprep.dataset.store.content;
 
 import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -129,37 +131,189 @@ public abstract class DataSetContentStore {
      * @return A valid <b>{@link DataSetRow}</b> stream.
      */
     public Stream<DataSetRow> stream(DataSetMetadata dataSetMetadata, long limit) {
-        final InputStream inputStream = get(dataSetMetadata, limit);
-        final DataSetRowIterator iterator = new DataSetRowIterator(inputStream);
-        final Iterable<DataSetRow> rowIterable = () -> iterator;
-        Stream<DataSetRow> dataSetRowStream = StreamSupport.stream(rowIterable.spliterator(), false);
+        return stream(dataSetMetadata, 0, limit);
+    }
 
-        // make sure to close the original input stream when closing this one
-        AtomicLong tdpId = new AtomicLong(1);
+    /**
+     * Similarly to {@link #stream(DataSetMetadata, long)} returns the content of the data set as a {@link Stream
+     * stream} of {@link DataSetRow rows}, but starting from the row at <code>offset</code>. Returned rows keep the TDP
+     * id they have in the full content (i.e. first returned row has TDP id <code>offset + 1</code>).
+     *
+     * @param dataSetMetadata The {@link DataSetMetadata data set} to read rows from.
+     * @param offset The number of (non empty) rows to skip.
+     * @param limit The maximum number of rows to return (use -1 for "no limit).
+     * @return A valid <b>{@link DataSetRow}</b> stream.
+     */
+    public Stream<DataSetRow> stream(DataSetMetadata dataSetMetadata, long offset, long limit) {
         final List<ColumnMetadata> columns = dataSetMetadata.getRowMetadata().getColumns();
+        Stream<DataSetRow> dataSetRowStream = rows(dataSetMetadata, offset, limit);
+
+        final InvalidCellsReader invalidCells = getInvalidCells(dataSetMetadata);
+        if (invalidCells != null) {
+            // Quality was already computed for this content: apply it instead of running analysis again.
+            invalidCells.skip(offset);
+            dataSetRowStream = dataSetRowStream.map(invalidCells).onClose(() -> { //
+                try {
+                    invalidCells.close();
+                } catch (Exception e) {
+                    throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+                }
+            });
+        } else {
+            dataSetRowStream = markInvalid(dataSetRowStream, columns);
+        }
+
+        AtomicLong tdpId = new AtomicLong(Math.max(offset, 0) + 1);
+        return dataSetRowStream.map(r -> { //
+            r.setTdpId(tdpId.getAndIncrement());
+            return r;
+        });
+    }
+
+    /**
+     * Runs quality analysis on <code>rows</code> and marks invalid cells.
+     *
+     * @param rows The rows to analyze (empty rows are expected to be already filtered out).
+     * @param columns The columns used to configure quality analysis.
+     * @return The rows with invalid cells marked.
+     */
+    protected Stream<DataSetRow> markInvalid(Stream<DataSetRow> rows, List<ColumnMetadata> columns) {
         final Analyzer<Analyzers.Result> analyzer = service.build(columns, AnalyzerService.Analysis.QUALITY);
+        return rows.map(r -> {
+            final String[] values = r.order(columns).toArray(DataSetRow.SKIP_TDP_ID);
+            analyzer.analyze(values);
+            return r;
+        }) //
+                .map(new InvalidMarker(columns, analyzer)); // Mark invalid columns as detected by provided analyzer.
+    }
+
+    /**
+     * Returns the previously stored invalid cells (see {@link #storeInvalidCells(DataSetMetadata)}) of the
+     * {@link DataSetMetadata data set} if they are still valid for the current columns.
+     *
+     * @param dataSetMetadata The {@link DataSetMetadata data set}.
+     * @return The stored invalid cells or <code>null</code> if quality analysis should run on read. Caller is in
+     * charge of closing the returned reader.
+     * @see #getQualitySignature(List)
+     */
+    protected InvalidCellsReader getInvalidCells(DataSetMetadata dataSetMetadata) {
+        return null;
+    }
+
+    /**
+     * Runs quality analysis once on the {@link DataSetMetadata data set} content and stores the invalid cells so later
+     * {@link #stream(DataSetMetadata)} calls no longer need to run it. Default implementation does nothing (quality is
+     * analyzed on each read).
+     *
+     * @param dataSetMetadata The data set metadata attached to the {@link DataSetMetadata data set}.
+     */
+    public void storeInvalidCells(DataSetMetadata dataSetMetadata) {
+        // Nothing to do by default
+    }
+
+    /**
+     * Opens a writer for the invalid cells of the {@link DataSetMetadata data set} content, for callers that already
+     * run quality analysis on all rows while reading them (e.g. import, see
+     * {@link #storeAsRows(DataSetMetadata, Predicate)}): unlike {@link #storeInvalidCells(DataSetMetadata)}, content is
+     * not read again. Non empty rows must be written in content order once marked; invalid cells are published when
+     * the writer is closed, unless it was {@link InvalidCellsWriter#discard() discarded}. Default implementation
+     * returns <code>null</code> (quality is analyzed on each read).
+     *
+     * @param dataSetMetadata The data set metadata (with the final column types and domains).
+     * @return A writer for the invalid cells or <code>null</code> if they are not stored (or already up to date).
+     */
+    public InvalidCellsWriter openInvalidCells(DataSetMetadata dataSetMetadata) {
+        return null;
+    }
+
+    /**
+     * @param columns The data set columns.
+     * @return A signature of the column information used to configure quality analysis: stored invalid cells are no
+     * longer valid once this signature changes (e.g. column type update).
+     */
+    protected static String getQualitySignature(List<ColumnMetadata> columns) {
+        final StringBuilder signature = new StringBuilder();
+        for (ColumnMetadata column : columns) {
+            signature.append(column.getId()).append(':').append(column.getType()).append(':')
+                    .append(column.getDomain()).append(',');
+        }
+        return signature.toString();
+    }
 
-        dataSetRowStream = dataSetRowStream
-                .filter(r -> !r.isEmpty())
-                .map(r -> {
-                    final String[] values = r.order(columns).toArray(DataSetRow.SKIP_TDP_ID);
-                    analyzer.analyze(values);
-                    return r;
-                }) //
-                .map(new InvalidMarker(columns, analyzer)) // Mark invalid columns as detected by provided analyzer.
-                .map(r -> { //
-                    r.setTdpId(tdpId.getAndIncrement());
-                    return r;
-                })
-                .onClose(() -> { //
+    /**
+     * Returns the {@link DataSetMetadata data set} content as {@link Stream stream} of {@link DataSetRow rows} as read
+     * from storage: neither quality information nor TDP ids are set in returned rows. Default implementation parses
+     * the JSON content returned by {@link #get(DataSetMetadata, long)}, implementations that keep an already parsed
+     * copy of the content (see {@link #storeAsRows(DataSetMetadata)}) are encouraged to override this method.
+     *
+     * @param dataSetMetadata The {@link DataSetMetadata data set} to read rows from.
+     * @param limit A limit to pass to raw content supplier (use -1 for "no limit).
+     * @return A valid <b>{@link DataSetRow}</b> stream, closing this stream releases all underlying resources.
+     */
+    protected Stream<DataSetRow> rows(DataSetMetadata dataSetMetadata, long limit) {
+        final InputStream inputStream = get(dataSetMetadata, limit);
+        final DataSetRowIterator iterator = new DataSetRowIterator(inputStream);
+        final Iterable<DataSetRow> rowIterable = () -> iterator;
+        return StreamSupport.stream(rowIterable.spliterator(), false) //
+                .onClose(() -> { // make sure to close the original input stream when closing this one
                     try {
                         inputStream.close();
                     } catch (Exception e) {
                         throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
                     }
                 });
+    }
 
-        return dataSetRowStream;
+    /**
+     * Returns the non empty rows of the {@link DataSetMetadata data set} content starting from the row at
+     * <code>offset</code>, as read from storage (see {@link #rows(DataSetMetadata, long)}). Default implementation
+     * reads and drops the rows before <code>offset</code>, implementations able to seek in content are encouraged to
+     * override this method.
+     *
+     * @param dataSetMetadata The {@link DataSetMetadata data set} to read rows from.
+     * @param offset The number of non empty rows to skip.
+     * @param limit The maximum number of rows to return (use -1 for "no limit).
+     * @return A valid <b>{@link DataSetRow}</b> stream, closing this stream releases all underlying resources.
+     */
+    protected Stream<DataSetRow> rows(DataSetMetadata dataSetMetadata, long offset, long limit) {
+        if (offset <= 0) {
+            return rows(dataSetMetadata, limit).filter(r -> !r.isEmpty());
+        }
+        final Stream<DataSetRow> rows = rows(dataSetMetadata, limit < 0 ? -1 : offset + limit) //
+                .filter(r -> !r.isEmpty()) //
+                .skip(offset);
+        return limit < 0 ? rows : rows.limit(limit);
+    }
+
+    /**
+     * Stores a parsed copy of the {@link DataSetMetadata data set} content so later {@link #stream(DataSetMetadata)}
+     * calls no longer need to parse the raw content. Content must have been previously stored with
+     * {@link #storeAsRaw(DataSetMetadata, InputStream)} and metadata must contain all information needed to parse it
+     * (format, encoding, columns...). Default implementation does nothing (content is parsed on each read).
+     *
+     * @param dataSetMetadata The data set metadata attached to the {@link DataSetMetadata data set}.
+     * @see #rows(DataSetMetadata, long)
+     */
+    public void storeAsRows(DataSetMetadata dataSetMetadata) {
+        // Nothing to do by default
+    }
+
+    /**
+     * Same as {@link #storeAsRows(DataSetMetadata)} but also gives each stored (non empty) row to <code>consumer</code>
+     * as soon as it is parsed, so the content can be analyzed while it is stored and is parsed only once. Default
+     * implementation stores nothing and reads rows until <code>consumer</code> needs no more rows.
+     *
+     * @param dataSetMetadata The data set metadata attached to the {@link DataSetMetadata data set}.
+     * @param consumer Gets each row (as read from storage, see {@link #rows(DataSetMetadata, long)}) and returns
+     * <code>true</code> as long as it needs more rows.
+     */
+    public void storeAsRows(DataSetMetadata dataSetMetadata, Predicate<DataSetRow> consumer) {
+        try (Stream<DataSetRow> rows = rows(dataSetMetadata, 0, -1)) {
+            final Iterator<DataSetRow> iterator = rows.iterator();
+            while (iterator.hasNext() && consumer.test(iterator.next())) {
+                // Consumer needs more rows.
+            }
+        }
     }
 
     /**
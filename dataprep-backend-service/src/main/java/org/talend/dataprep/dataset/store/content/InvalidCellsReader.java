@@ -0,0 +1,124 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.dataset.store.content;
+
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.readString;
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.readVarLong;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.exception.TDPException;
+import org.talend.dataprep.exception.error.CommonErrorCodes;
+
+/**
+ * Marks invalid cells of {@link DataSetRow rows} using the content written by a {@link InvalidCellsWriter}. Rows must
+ * be given in the same order as they were when the content was written: each call to {@link #apply(DataSetRow)}
+ * consumes the next entry.
+ *
+ * @see InvalidCellsWriter
+ */
+public class InvalidCellsReader implements Function<DataSetRow, DataSetRow>, Closeable {
+
+    private final DataInputStream input;
+
+    private final String signature;
+
+    private final List<String> columnIds;
+
+    private boolean end;
+
+    /**
+     * @param input The binary content to read from (closed when this reader is closed).
+     * @throws IOException In case of read error or if content is not a valid invalid cells content.
+     */
+    public InvalidCellsReader(InputStream input) throws IOException {
+        this.input = new DataInputStream(new BufferedInputStream(input, 64 * 1024));
+        final int magic = this.input.readInt();
+        final byte version = this.input.readByte();
+        if (magic != InvalidCellsWriter.MAGIC || version != InvalidCellsWriter.VERSION) {
+            throw new IOException("Not an invalid cells content (or unsupported version " + version + ").");
+        }
+        this.signature = readString(this.input);
+        final int columnCount = (int) readVarLong(this.input);
+        this.columnIds = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            columnIds.add(readString(this.input));
+        }
+    }
+
+    /**
+     * @return The signature passed to {@link InvalidCellsWriter} when content was written.
+     */
+    public String getSignature() {
+        return signature;
+    }
+
+    @Override
+    public DataSetRow apply(DataSetRow row) {
+        if (end) {
+            return row;
+        }
+        try {
+            final int first = input.read();
+            if (first < 0) {
+                end = true;
+                return row;
+            }
+            final long invalidCount = readVarLong(input, first);
+            for (long i = 0; i < invalidCount; i++) {
+                row.setInvalid(columnIds.get((int) readVarLong(input)));
+            }
+            return row;
+        } catch (IOException e) {
+            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+        }
+    }
+
+    /**
+     * Skips the entries of the next <code>rows</code> rows (to apply invalid cells from a row other than the first
+     * one).
+     *
+     * @param rows The number of rows to skip.
+     */
+    public void skip(long rows) {
+        try {
+            for (long i = 0; i < rows && !end; i++) {
+                final int first = input.read();
+                if (first < 0) {
+                    end = true;
+                    return;
+                }
+                final long invalidCount = readVarLong(input, first);
+                for (long j = 0; j < invalidCount; j++) {
+                    readVarLong(input);
+                }
+            }
+        } catch (IOException e) {
+            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
@@ -0,0 +1,105 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.dataset.store.content;
+
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.writeString;
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.writeVarLong;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+
+/**
+ * Writes the invalid cells of {@link DataSetRow rows} (as marked by quality analysis) so they can be applied back on
+ * later reads with a {@link InvalidCellsReader} instead of running the quality analysis again. Layout is a header
+ * (magic number, format version, an opaque signature and the ordered column ids) followed by one entry per row: the
+ * number of invalid cells and the index (in header columns) of each invalid cell.
+ *
+ * @see InvalidCellsReader
+ */
+public class InvalidCellsWriter implements Closeable {
+
+    /** Magic number at the beginning of each invalid cells content ("TDPQ"). */
+    static final int MAGIC = 0x54445051;
+
+    /** Current version of the invalid cells format. */
+    static final byte VERSION = 1;
+
+    private final DataOutputStream output;
+
+    private final List<String> columnIds;
+
+    private final int[] invalidIndexes;
+
+    /**
+     * @param output Where invalid cells are written to (closed when this writer is closed).
+     * @param signature An opaque string that describes how quality was computed (can be read back with
+     * {@link InvalidCellsReader#getSignature()}).
+     * @param columnIds The ordered column ids to check in rows.
+     * @throws IOException In case header can not be written.
+     */
+    public InvalidCellsWriter(OutputStream output, String signature, List<String> columnIds) throws IOException {
+        this.output = new DataOutputStream(new BufferedOutputStream(output, 64 * 1024));
+        this.columnIds = new ArrayList<>(columnIds);
+        this.invalidIndexes = new int[columnIds.size()];
+
+        this.output.writeInt(MAGIC);
+        this.output.writeByte(VERSION);
+        writeString(this.output, signature);
+        writeVarLong(this.output, this.columnIds.size());
+        for (String columnId : this.columnIds) {
+            writeString(this.output, columnId);
+        }
+    }
+
+    /**
+     * Writes the invalid cells of <code>row</code>.
+     *
+     * @param row A row already marked by quality analysis.
+     * @throws IOException In case of write error.
+     */
+    public void write(DataSetRow row) throws IOException {
+        int invalidCount = 0;
+        for (int i = 0; i < columnIds.size(); i++) {
+            if (row.isInvalid(columnIds.get(i))) {
+                invalidIndexes[invalidCount++] = i;
+            }
+        }
+        writeVarLong(output, invalidCount);
+        for (int i = 0; i < invalidCount; i++) {
+            writeVarLong(output, invalidIndexes[i]);
+        }
+    }
+
+    /**
+     * Closes this writer and drops what was written: writers that publish invalid cells on {@link #close()} do not
+     * publish them once discarded.
+     *
+     * @throws IOException In case output can not be closed.
+     */
+    public void discard() throws IOException {
+        output.close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+}
@@ -6,6 +6,7 @@ import org.talend.dataprep.api.dataset.DataSetMetadata;
 import org.talend.dataprep.api.dataset.row.DataSetRow;
 
 import java.io.InputStream;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 @Component
@@ -42,6 +43,26 @@ class LimitDataSetContent implements DataSetContentLimit {
             delegate.storeAsRaw(dataSetMetadata, dataSetContent);
         }
 
+        @Override
+        public void storeAsRows(DataSetMetadata dataSetMetadata) {
+            delegate.storeAsRows(dataSetMetadata);
+        }
+
+        @Override
+        public void storeAsRows(DataSetMetadata dataSetMetadata, Predicate<DataSetRow> consumer) {
+            delegate.storeAsRows(dataSetMetadata, consumer);
+        }
+
+        @Override
+        public void storeInvalidCells(DataSetMetadata dataSetMetadata) {
+            delegate.storeInvalidCells(dataSetMetadata);
+        }
+
+        @Override
+        public InvalidCellsWriter openInvalidCells(DataSetMetadata dataSetMetadata) {
+            return delegate.openInvalidCells(dataSetMetadata);
+        }
+
         @Override
         public InputStream get(DataSetMetadata dataSetMetadata) {
             return delegate.get(dataSetMetadata, limit);
@@ -52,6 +73,16 @@ class LimitDataSetContent implements DataSetContentLimit {
             return delegate.stream(dataSetMetadata, LimitDataSetContent.this.limit);
         }
 
+        @Override
+        public Stream<DataSetRow> stream(DataSetMetadata dataSetMetadata, long offset, long limit) {
+            // rows after the dataset size limit are not served
+            final long remaining = Math.max(0, LimitDataSetContent.this.limit - offset);
+            if (remaining == 0) {
+                return Stream.empty();
+            }
+            return delegate.stream(dataSetMetadata, offset, limit < 0 ? remaining : Math.min(limit, remaining));
+        }
+
         @Override
         public Stream<DataSetRow> stream(DataSetMetadata dataSetMetadata) {
             Stream<DataSetRow> dataSetRowStream = delegate.stream(dataSetMetadata, limit);
@@ -37,6 +37,8 @@ public enum TransformationErrorCodes implements ErrorCode {
     NO_RUNNING_SAMPLING(404, "preparation"),
     // 415
     OUTPUT_TYPE_NOT_SUPPORTED(415),
+    // 429
+    EXECUTION_QUEUE_FULL(429),
     // 500
     UNABLE_TO_COMPUTE_DATASET_ACTIONS(500),
     UNABLE_TO_TRANSFORM_DATASET(500),
@@ -13,6 +13,8 @@
 
 package org.talend.dataprep.http;
 
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
@@ -65,4 +67,25 @@ public class HttpResponseContext {
             ((ServletRequestAttributes) attributes).getResponse().setContentType(contentType);
         }
     }
+
+    /**
+     * @param encoding A content encoding (e.g. "gzip").
+     * @return <code>true</code> if the current request (if any) accepts <code>encoding</code> as response content
+     * encoding, <code>false</code> otherwise (or if not called in a web context).
+     */
+    public static boolean acceptsEncoding(String encoding) {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && attributes instanceof ServletRequestAttributes) {
+            final String accepted = ((ServletRequestAttributes) attributes).getRequest().getHeader(
+                    HttpHeaders.ACCEPT_ENCODING);
+            for (String value : StringUtils.split(StringUtils.defaultString(accepted), ',')) {
+                final String[] parameters = StringUtils.split(value, ';');
+                if (parameters.length > 0 && StringUtils.equalsIgnoreCase(parameters[0].trim(), encoding)) {
+                    // "gzip;q=0" explicitly refuses gzip.
+                    return parameters.length == 1 || !parameters[1].trim().matches("q=0(\\.0*)?");
+                }
+            }
+        }
+        return false;
+    }
 }
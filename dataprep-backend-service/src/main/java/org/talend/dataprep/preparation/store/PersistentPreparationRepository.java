@@ -18,6 +18,7 @@ import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.talend.dataprep.api.preparation.Identifiable;
 import org.talend.dataprep.api.preparation.Preparation;
 import org.talend.dataprep.api.preparation.PreparationActions;
@@ -40,10 +41,19 @@ public class PersistentPreparationRepository implements PreparationRepository {
 
     private final PreparationRepository delegate;
 
+    /** Notified of removed step contents (may be <code>null</code>). */
+    private final ApplicationEventPublisher publisher;
+
     public PersistentPreparationRepository(PreparationRepository delegate,
             BeanConversionService beanConversionService) {
+        this(delegate, beanConversionService, null);
+    }
+
+    public PersistentPreparationRepository(PreparationRepository delegate, BeanConversionService beanConversionService,
+            ApplicationEventPublisher publisher) {
         this.delegate = delegate;
         this.beanConversionService = beanConversionService;
+        this.publisher = publisher;
     }
 
     private static Class<? extends Identifiable>
@@ -162,6 +172,9 @@ public class PersistentPreparationRepository implements PreparationRepository {
     public void remove(Identifiable object) {
         final Class<? extends Identifiable> targetClass = selectPersistentClass(object.getClass());
         delegate.remove(beanConversionService.convert(object, targetClass));
+        if (publisher != null && (object instanceof StepActions || object instanceof PreparationActions)) {
+            publisher.publishEvent(new StepContentRemovedEvent(object));
+        }
     }
 
     @Timed
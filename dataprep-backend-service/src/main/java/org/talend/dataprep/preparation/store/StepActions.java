@@ -0,0 +1,79 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.preparation.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.talend.dataprep.api.preparation.Action;
+
+/**
+ * The content of a {@link PersistentStep} stored as a delta: only the actions the step adds to its parent step's
+ * actions. Steps whose content is a {@link org.talend.dataprep.api.preparation.PreparationActions} hold all the actions
+ * from root step (this is how steps were stored before).
+ *
+ * @see StepActionsResolver
+ */
+public class StepActions extends PersistentIdentifiable {
+
+    /** Serialization UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** The actions added by the step. */
+    private List<Action> actions = new ArrayList<>();
+
+    /**
+     * Default empty constructor;
+     */
+    public StepActions() {
+        // needed for Serialization
+    }
+
+    /**
+     * @param actions The actions added by the step.
+     */
+    public StepActions(List<Action> actions) {
+        this.id = UUID.randomUUID().toString();
+        this.actions = new ArrayList<>(actions);
+    }
+
+    @Override
+    public String id() {
+        return getId();
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public List<Action> getActions() {
+        return actions;
+    }
+
+    public void setActions(List<Action> actions) {
+        this.actions = actions;
+    }
+
+    @Override
+    public String toString() {
+        return "StepActions{id='" + id + '\'' + ", actions=" + actions + '}';
+    }
+}
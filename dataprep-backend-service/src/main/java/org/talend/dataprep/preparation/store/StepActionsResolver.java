@@ -0,0 +1,205 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.preparation.store;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.talend.dataprep.api.preparation.Action;
+import org.talend.dataprep.api.preparation.PreparationActions;
+import org.talend.dataprep.api.preparation.Step;
+import org.talend.dataprep.exception.TDPException;
+import org.talend.dataprep.exception.error.CommonErrorCodes;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Resolves the actions of {@link PersistentStep steps}, whatever their content is stored as:
+ * <ul>
+ * <li>a {@link StepActions} (delta): only the actions the step adds, parent step's actions come first.</li>
+ * <li>a {@link PreparationActions} (legacy): all the actions from root step.</li>
+ * </ul>
+ * The actions from root step are materialized lazily and kept in a bounded cache (keyed by step id), so resolving a
+ * step after one of its ancestors only reads the contents of the steps in between. Returned actions are copies: callers
+ * are free to modify them.
+ */
+@Component
+public class StepActionsResolver {
+
+    /** This class' logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(StepActionsResolver.class);
+
+    @Autowired
+    private PreparationRepository repository;
+
+    /** Used to copy the cached actions. */
+    @Autowired
+    private ObjectMapper mapper;
+
+    /** Maximum number of steps whose actions from root step are cached. */
+    @Value("${preparation.step.actions.cache.size:1000}")
+    private long cacheSize;
+
+    /** Actions from root step, per step id. */
+    private Cache<String, Resolved> cache;
+
+    @PostConstruct
+    void init() {
+        cache = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    /**
+     * @param step A step.
+     * @return All the actions from root step to the <code>step</code>, or <code>null</code> if content of the step (or
+     * of one of its ancestors) is not available.
+     */
+    public List<Action> getActions(PersistentStep step) {
+        final List<Action> actions = resolve(step);
+        return actions == null ? null : copy(actions);
+    }
+
+    /**
+     * @param step A step.
+     * @return The actions the <code>step</code> adds to its parent step's actions, or <code>null</code> if content of
+     * the step is not available.
+     */
+    public List<Action> getStepActions(PersistentStep step) {
+        if (step == null || Step.ROOT_STEP.id().equals(step.id())) {
+            return new ArrayList<>();
+        }
+        final StepActions delta = repository.get(step.getContent(), StepActions.class);
+        if (delta != null) {
+            return copy(delta.getActions());
+        }
+        final List<Action> actions = resolve(step);
+        final List<Action> parentActions = resolve(repository.get(step.getParentId(), PersistentStep.class));
+        if (actions == null) {
+            return null;
+        } else if (parentActions == null || parentActions.size() > actions.size()) {
+            LOGGER.warn("Unable to find actions of step '{}' parent, considering all actions.", step.id());
+            return copy(actions);
+        }
+        return copy(actions.subList(parentActions.size(), actions.size()));
+    }
+
+    /**
+     * Forgets all cached actions (e.g. once step contents are modified by an upgrade).
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Forgets the cached actions of the steps with the removed content.
+     *
+     * @param event The removed step content.
+     */
+    @EventListener
+    public void onStepContentRemoved(StepContentRemovedEvent event) {
+        final String contentId = event.getSource().id();
+        cache.asMap().values().removeIf(resolved -> StringUtils.equals(resolved.contentId, contentId));
+    }
+
+    private List<Action> resolve(PersistentStep step) {
+        if (step == null) {
+            return null;
+        }
+        // Walk up to a step with known actions from root step (cached, legacy content or root step)...
+        final Deque<PersistentStep> steps = new ArrayDeque<>();
+        final Deque<List<Action>> deltas = new ArrayDeque<>();
+        List<Action> actions = null;
+        PersistentStep current = step;
+        while (actions == null) {
+            final Resolved resolved = cache.getIfPresent(current.id());
+            if (resolved != null && StringUtils.equals(resolved.contentId, current.getContent())) {
+                actions = resolved.actions;
+                break;
+            }
+            final StepActions delta = repository.get(current.getContent(), StepActions.class);
+            if (delta != null) {
+                steps.push(current);
+                deltas.push(delta.getActions());
+                current = repository.get(current.getParentId(), PersistentStep.class);
+                if (current == null) {
+                    LOGGER.debug("Parent of step '{}' is not available.", steps.peek().id());
+                    return null;
+                }
+            } else {
+                final PreparationActions preparationActions =
+                        repository.get(current.getContent(), PreparationActions.class);
+                if (preparationActions == null) {
+                    LOGGER.debug("Content '{}' of step '{}' is not available.", current.getContent(), current.id());
+                    return null;
+                }
+                actions = unmodifiableList(new ArrayList<>(preparationActions.getActions()));
+                cache.put(current.id(), new Resolved(current.getContent(), actions));
+            }
+        }
+        // ... then add the deltas of the steps in between.
+        while (!steps.isEmpty()) {
+            final PersistentStep child = steps.pop();
+            final List<Action> childActions = new ArrayList<>(actions.size() + deltas.peek().size());
+            childActions.addAll(actions);
+            childActions.addAll(deltas.pop());
+            actions = unmodifiableList(childActions);
+            cache.put(child.id(), new Resolved(child.getContent(), actions));
+        }
+        return actions;
+    }
+
+    private List<Action> copy(List<Action> actions) {
+        if (actions.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            return mapper.readValue(mapper.writeValueAsBytes(actions), new TypeReference<List<Action>>() {
+            });
+        } catch (IOException e) {
+            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+        }
+    }
+
+    /**
+     * The actions from root step of a step (valid as long as step content is the same: contents are never modified
+     * once stored, except by upgrades).
+     */
+    private static class Resolved {
+
+        private final String contentId;
+
+        private final List<Action> actions;
+
+        private Resolved(String contentId, List<Action> actions) {
+            this.contentId = contentId;
+            this.actions = actions;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.preparation.store;
+
+import org.springframework.context.ApplicationEvent;
+import org.talend.dataprep.api.preparation.Identifiable;
+
+/**
+ * An event to indicate a step content ({@link StepActions} or
+ * {@link org.talend.dataprep.api.preparation.PreparationActions PreparationActions}) has been removed from the
+ * {@link PreparationRepository}.
+ *
+ * @see StepActionsResolver
+ */
+public class StepContentRemovedEvent extends ApplicationEvent {
+
+    public StepContentRemovedEvent(Identifiable source) {
+        super(source);
+    }
+
+    @Override
+    public Identifiable getSource() {
+        return (Identifiable) super.getSource();
+    }
+}
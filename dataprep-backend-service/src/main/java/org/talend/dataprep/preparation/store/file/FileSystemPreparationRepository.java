@@ -20,6 +20,8 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -41,15 +43,27 @@ import org.talend.dataprep.api.preparation.Step;
 import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.exception.error.CommonErrorCodes;
 import org.talend.dataprep.preparation.store.ObjectPreparationRepository;
+import org.talend.dataprep.preparation.store.PersistentPreparation;
 import org.talend.dataprep.preparation.store.PersistentStep;
 import org.talend.dataprep.preparation.store.PreparationRepository;
 import org.talend.dataprep.security.Security;
 import org.talend.dataprep.util.FilesHelper;
+import org.talend.dataprep.util.GenerationMarker;
+import org.talend.tql.bean.BeanPredicateVisitor;
+import org.talend.tql.model.Expression;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * File system implementation of preparation repository.
+ * <p>
+ * Objects are stored in files named after their class and id, so {@link #get(String, Class)} directly reads the
+ * object's file. Light versions of preparations and steps are kept in a {@link PreparationCatalog catalog} so TQL
+ * filters on catalogued properties (see {@link PreparationCatalog#CATALOGUED_PROPERTIES}) only read matching files. The
+ * catalog is built on first use. Each write (file creation, rewrite or deletion) changes the generation of a
+ * {@link GenerationMarker marker file} in the preparation folder: catalog is rebuilt when generation was changed by
+ * another process (or node sharing the folder), or when files were created or deleted in the folder without this
+ * repository.
  */
 @Component
 @ConditionalOnProperty(name = "preparation.store", havingValue = "file")
@@ -70,12 +84,25 @@ public class FileSystemPreparationRepository extends ObjectPreparationRepository
     @Autowired
     private Security security;
 
+    /** Generation of the stored objects (changed on each write). */
+    private GenerationMarker generation;
+
+    /** Light versions of the stored objects (built on first use). */
+    private PreparationCatalog catalog;
+
+    /** Generation of the stored objects known to {@link #catalog} (<code>null</code> if catalog is stale). */
+    private String catalogGeneration;
+
+    /** Last modification of root folder known to {@link #catalog}. */
+    private long catalogTimestamp;
+
     /**
      * Make sure the root folder is there.
      */
     @PostConstruct
     private void init() {
         getRootFolder().mkdirs();
+        generation = new GenerationMarker(new File(getRootFolder(), ".generation"));
         remove(Step.ROOT_STEP);
         final PersistentStep persistentStep = new PersistentStep();
         persistentStep.setId(Step.ROOT_STEP.id());
@@ -95,6 +122,7 @@ public class FileSystemPreparationRepository extends ObjectPreparationRepository
             return;
         }
 
+        final long rootTimestamp = getRootFolder().lastModified();
         final File outputFile = getIdentifiableFile(object);
         try {
             FileUtils.touch(outputFile);
@@ -109,6 +137,7 @@ public class FileSystemPreparationRepository extends ObjectPreparationRepository
             throw new TDPException(CommonErrorCodes.UNABLE_TO_SAVE_PREPARATION, e,
                     ExceptionContext.build().put("id", object.id()));
         }
+        updateCatalog(rootTimestamp, c -> c.add(object));
         LOG.debug("{} #{} saved", object.getClass().getSimpleName(), object.id());
     }
 
@@ -129,6 +158,100 @@ public class FileSystemPreparationRepository extends ObjectPreparationRepository
                 .onClose(stream::close);
     }
 
+    @Override
+    public <T extends Identifiable> T get(String id, Class<T> clazz) {
+        if (StringUtils.isBlank(id)) {
+            return null;
+        }
+        final T result = read(id, clazz);
+        if (result == null || !StringUtils.equals(result.getId(), id)) {
+            return null;
+        }
+        return result;
+    }
+
+    @Override
+    public <T extends Identifiable> boolean exist(Class<T> clazz, Expression expression) {
+        if (isCatalogued(clazz, expression)) {
+            return getCatalog().list(clazz).anyMatch(expression.accept(new BeanPredicateVisitor<>(clazz)));
+        }
+        return super.exist(clazz, expression);
+    }
+
+    @Override
+    public <T extends Identifiable> Stream<T> list(Class<T> clazz, Expression expression) {
+        if (isCatalogued(clazz, expression)) {
+            final Predicate<T> accept = expression.accept(new BeanPredicateVisitor<>(clazz));
+            return getCatalog()
+                    .list(clazz) //
+                    .filter(accept) //
+                    .map(light -> read(light.id(), clazz)) //
+                    .filter(Objects::nonNull) // file may have been removed since catalog was built
+                    .filter(accept);
+        }
+        return super.list(clazz, expression);
+    }
+
+    @Override
+    public long count(Class<? extends Identifiable> clazz, Expression filter) {
+        if (isCatalogued(clazz, filter)) {
+            return countCatalog(clazz, filter);
+        }
+        return super.count(clazz, filter);
+    }
+
+    private <T extends Identifiable> long countCatalog(Class<T> clazz, Expression filter) {
+        return getCatalog().list(clazz).filter(filter.accept(new BeanPredicateVisitor<>(clazz))).count();
+    }
+
+    private static boolean isCatalogued(Class<?> clazz, Expression expression) {
+        return PreparationCatalog.isCatalogued(clazz) && PreparationCatalog.accept(expression);
+    }
+
+    /**
+     * @return The catalog of stored objects, (re)built if needed.
+     */
+    private synchronized PreparationCatalog getCatalog() {
+        final String current = generation.current();
+        final long timestamp = getRootFolder().lastModified();
+        if (catalog == null || current == null || !current.equals(catalogGeneration) || timestamp != catalogTimestamp) {
+            LOG.debug("Building preparation catalog.");
+            final PreparationCatalog newCatalog = new PreparationCatalog(mapper);
+            try (Stream<PersistentPreparation> preparations = source(PersistentPreparation.class)) {
+                preparations.forEach(newCatalog::add);
+            }
+            try (Stream<PersistentStep> steps = source(PersistentStep.class)) {
+                steps.forEach(newCatalog::add);
+            }
+            catalog = newCatalog;
+            catalogGeneration = current;
+            catalogTimestamp = timestamp;
+        }
+        return catalog;
+    }
+
+    /**
+     * Changes the generation of the stored objects after a write, and applies the write to the catalog (if it was
+     * already built).
+     *
+     * @param rootTimestamp The last modification of root folder before this repository modified it.
+     * @param update The catalog modification.
+     */
+    private synchronized void updateCatalog(long rootTimestamp, Consumer<PreparationCatalog> update) {
+        // null if another process wrote since catalog was built.
+        final String next = generation.next(catalogGeneration);
+        if (catalog != null) {
+            update.accept(catalog);
+            if (next != null && catalogTimestamp == rootTimestamp) {
+                // Catalog was up to date before this modification: it is up to date after it.
+                catalogGeneration = next;
+                catalogTimestamp = getRootFolder().lastModified();
+            } else {
+                catalogGeneration = null; // Rebuilt on next use.
+            }
+        }
+    }
+
     private <T extends Identifiable> T read(String id, Class<T> clazz) {
 
         final File from = getIdentifiableFile(clazz, id);
@@ -165,6 +288,9 @@ public class FileSystemPreparationRepository extends ObjectPreparationRepository
                 FilesHelper.deleteQuietly(file);
             }
         }
+        synchronized (this) {
+            catalog = null;
+        }
 
         LOG.debug("preparation repository cleared");
     }
@@ -177,8 +303,10 @@ public class FileSystemPreparationRepository extends ObjectPreparationRepository
         if (object == null) {
             return;
         }
+        final long rootTimestamp = getRootFolder().lastModified();
         final File file = getIdentifiableFile(object);
         FilesHelper.deleteQuietly(file);
+        updateCatalog(rootTimestamp, c -> c.remove(object));
         LOG.debug("identifiable {} #{} removed", object.getClass().getSimpleName(), object.id());
     }
 
@@ -0,0 +1,268 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.preparation.store.file;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.dataprep.api.preparation.Identifiable;
+import org.talend.dataprep.preparation.store.PersistentPreparation;
+import org.talend.dataprep.preparation.store.PersistentStep;
+import org.talend.tql.model.AllFields;
+import org.talend.tql.model.AndExpression;
+import org.talend.tql.model.ComparisonExpression;
+import org.talend.tql.model.ComparisonOperator;
+import org.talend.tql.model.Expression;
+import org.talend.tql.model.FieldBetweenExpression;
+import org.talend.tql.model.FieldCompliesPattern;
+import org.talend.tql.model.FieldContainsExpression;
+import org.talend.tql.model.FieldInExpression;
+import org.talend.tql.model.FieldIsEmptyExpression;
+import org.talend.tql.model.FieldIsInvalidExpression;
+import org.talend.tql.model.FieldIsValidExpression;
+import org.talend.tql.model.FieldMatchesRegex;
+import org.talend.tql.model.FieldReference;
+import org.talend.tql.model.LiteralValue;
+import org.talend.tql.model.NotExpression;
+import org.talend.tql.model.OrExpression;
+import org.talend.tql.model.TqlElement;
+import org.talend.tql.visitor.IASTVisitor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * An in-memory catalog of light versions of the objects stored in a {@link FileSystemPreparationRepository}: a light
+ * object is an instance of the stored class where only the {@link #CATALOGUED_PROPERTIES catalogued properties} are
+ * set. TQL filters that only reference catalogued properties can be evaluated against light objects, without opening
+ * the stored files.
+ */
+class PreparationCatalog {
+
+    /** This class' logger. */
+    private static final Logger LOG = LoggerFactory.getLogger(PreparationCatalog.class);
+
+    /** Properties kept in light objects. */
+    static final Set<String> CATALOGUED_PROPERTIES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("id",
+            "dataSetId", "name", "headId", "folderId", "author", "lastModificationDate", "parentId", "content",
+            "contentId", "marker")));
+
+    /** Catalogued classes (classes where id is a stored property). */
+    private static final Set<Class<?>> CATALOGUED_CLASSES = Collections
+            .unmodifiableSet(new HashSet<>(Arrays.asList(PersistentPreparation.class, PersistentStep.class)));
+
+    private final ObjectMapper mapper;
+
+    /** Light objects per class simple name and id. */
+    private final ConcurrentMap<String, ConcurrentMap<String, Identifiable>> objects = new ConcurrentHashMap<>();
+
+    PreparationCatalog(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * @param clazz A stored class.
+     * @return <code>true</code> if objects of this class are catalogued.
+     */
+    static boolean isCatalogued(Class<?> clazz) {
+        return CATALOGUED_CLASSES.contains(clazz);
+    }
+
+    /**
+     * Adds (or replaces) the light version of <code>object</code>.
+     *
+     * @param object The stored object.
+     */
+    void add(Identifiable object) {
+        if (!isCatalogued(object.getClass())) {
+            return;
+        }
+        final Identifiable light = toLight(object);
+        if (light != null) {
+            objects.computeIfAbsent(object.getClass().getSimpleName(), k -> new ConcurrentHashMap<>()).put(object.id(),
+                    light);
+        }
+    }
+
+    /**
+     * Removes the light version of <code>object</code>.
+     *
+     * @param object The removed object.
+     */
+    void remove(Identifiable object) {
+        final Map<String, Identifiable> classObjects = objects.get(object.getClass().getSimpleName());
+        if (classObjects != null) {
+            classObjects.remove(object.id());
+        }
+    }
+
+    /**
+     * @param clazz A stored class.
+     * @return The light versions of all objects of class <code>clazz</code>.
+     */
+    <T extends Identifiable> Stream<T> list(Class<T> clazz) {
+        final Map<String, Identifiable> classObjects = objects.get(clazz.getSimpleName());
+        if (classObjects == null) {
+            return Stream.empty();
+        }
+        return classObjects.values().stream().filter(clazz::isInstance).map(clazz::cast);
+    }
+
+    void clear() {
+        objects.clear();
+    }
+
+    private Identifiable toLight(Identifiable object) {
+        try {
+            final Map<?, ?> properties = mapper.convertValue(object, Map.class);
+            final Map<Object, Object> lightProperties = new HashMap<>();
+            for (Map.Entry<?, ?> entry : properties.entrySet()) {
+                if (CATALOGUED_PROPERTIES.contains(String.valueOf(entry.getKey()))) {
+                    lightProperties.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return mapper.convertValue(lightProperties, object.getClass());
+        } catch (IllegalArgumentException e) {
+            LOG.debug("Unable to catalog {}", object, e);
+            return null;
+        }
+    }
+
+    /**
+     * @param expression A TQL expression.
+     * @return <code>true</code> if <code>expression</code> can be evaluated against light objects (i.e. it only
+     * references {@link #CATALOGUED_PROPERTIES catalogued properties}).
+     */
+    static boolean accept(Expression expression) {
+        final FieldCollector collector = new FieldCollector();
+        return expression.accept(collector) && CATALOGUED_PROPERTIES.containsAll(collector.fields);
+    }
+
+    /**
+     * Collects the field paths referenced in a TQL expression: visit returns <code>false</code> if expression
+     * references fields that can't be determined (e.g. all fields).
+     */
+    private static class FieldCollector implements IASTVisitor<Boolean> {
+
+        private final Set<String> fields = new HashSet<>();
+
+        private boolean visitAll(Expression[] expressions) {
+            for (Expression expression : expressions) {
+                if (!expression.accept(this)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Boolean visit(TqlElement elt) {
+            return false; // Unknown element: don't guess
+        }
+
+        @Override
+        public Boolean visit(ComparisonOperator elt) {
+            return true;
+        }
+
+        @Override
+        public Boolean visit(LiteralValue elt) {
+            return true;
+        }
+
+        @Override
+        public Boolean visit(FieldReference elt) {
+            fields.add(elt.getPath());
+            return true;
+        }
+
+        @Override
+        public Boolean visit(Expression elt) {
+            return false; // Unknown expression: don't guess
+        }
+
+        @Override
+        public Boolean visit(AndExpression elt) {
+            return visitAll(elt.getExpressions());
+        }
+
+        @Override
+        public Boolean visit(OrExpression elt) {
+            return visitAll(elt.getExpressions());
+        }
+
+        @Override
+        public Boolean visit(ComparisonExpression elt) {
+            return elt.getField().accept(this) && elt.getValueOrField().accept(this);
+        }
+
+        @Override
+        public Boolean visit(FieldInExpression elt) {
+            return elt.getField().accept(this);
+        }
+
+        @Override
+        public Boolean visit(FieldIsEmptyExpression elt) {
+            return elt.getField().accept(this);
+        }
+
+        @Override
+        public Boolean visit(FieldIsValidExpression elt) {
+            return elt.getField().accept(this);
+        }
+
+        @Override
+        public Boolean visit(FieldIsInvalidExpression elt) {
+            return elt.getField().accept(this);
+        }
+
+        @Override
+        public Boolean visit(FieldMatchesRegex elt) {
+            return elt.getField().accept(this);
+        }
+
+        @Override
+        public Boolean visit(FieldCompliesPattern elt) {
+            return elt.getField().accept(this);
+        }
+
+        @Override
+        public Boolean visit(FieldBetweenExpression elt) {
+            return elt.getField().accept(this);
+        }
+
+        @Override
+        public Boolean visit(NotExpression elt) {
+            return elt.getExpression().accept(this);
+        }
+
+        @Override
+        public Boolean visit(FieldContainsExpression elt) {
+            return elt.getField().accept(this);
+        }
+
+        @Override
+        public Boolean visit(AllFields allFields) {
+            return false;
+        }
+    }
+}
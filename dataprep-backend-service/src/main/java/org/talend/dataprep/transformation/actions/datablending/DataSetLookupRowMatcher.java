@@ -12,7 +12,6 @@
 
 package org.talend.dataprep.transformation.actions.datablending;
 
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
@@ -20,13 +19,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import org.talend.dataprep.api.dataset.ColumnMetadata;
-import org.talend.dataprep.api.dataset.DataSet;
+import org.talend.dataprep.api.dataset.DataSetMetadata;
 import org.talend.dataprep.api.dataset.RowMetadata;
 import org.talend.dataprep.api.dataset.row.DataSetRow;
 import org.talend.dataprep.dataset.adapter.DatasetClient;
 
 import javax.annotation.PostConstruct;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -47,24 +46,29 @@ public class DataSetLookupRowMatcher implements DisposableBean, LookupRowMatcher
     @Autowired
     private DatasetClient datasetClient;
 
+    /** Shared lookup indexes (<code>null</code> if matcher is not managed by Spring). */
+    @Autowired(required = false)
+    private LookupIndexRegistry registry;
+
     /** The dataset id to lookup. */
     private String datasetId;
 
-    /** Lookup row iterator. */
+    /** Lookup row iterator (only used when no registry is available). */
     private Iterator<DataSetRow> lookupIterator;
 
     /** Default empty row for the parsed lookup dataset. */
     private DataSetRow emptyRow;
 
-    /** Cache of dataset row. */
-    private Map<String, DataSetRow> cache = new HashMap<>();
+    /** The key of the lookup index in registry. */
+    private LookupIndexRegistry.Key indexKey;
+
+    /** The lookup index (lazily acquired on first match). */
+    private LookupIndex index;
 
     private String joinOnColumn;
 
     private List<LookupSelectedColumnParameter> selectedColumns;
 
-    private Stream<DataSetRow> records;
-
     DataSetLookupRowMatcher() {
     }
 
@@ -92,24 +96,31 @@ public class DataSetLookupRowMatcher implements DisposableBean, LookupRowMatcher
     }
 
     /**
-     * Open the connection to get the dataset content and init the row iterator.
+     * Read the lookup dataset metadata, content is only read (or shared with other matchers) on first match.
      */
     @PostConstruct
     private void init() {
         LOGGER.debug("opening {}", datasetId);
-        DataSet lookup = datasetClient.getDataSet(datasetId, true);
-        records = lookup.getRecords();
-        this.lookupIterator = records.iterator();
-        this.emptyRow = getEmptyRow(lookup.getMetadata().getRowMetadata().getColumns());
+        final DataSetMetadata metadata = datasetClient.getDataSetMetadata(datasetId);
+        this.emptyRow = getEmptyRow(metadata.getRowMetadata().getColumns());
+        this.indexKey = new LookupIndexRegistry.Key(datasetId, String.valueOf(metadata.getLastModificationDate()),
+                joinOnColumn, getSelectedColumnIds());
     }
 
     /**
-     * Gently close the input stream as well as the http client.
+     * Release the lookup index (closed by the registry once no longer used).
      */
     @Override
     public void destroy() {
-        records.close();
-        LOGGER.debug("connection to {} closed", datasetId);
+        if (index != null) {
+            if (registry != null && indexKey != null) {
+                registry.release(indexKey);
+            } else {
+                index.close();
+            }
+            index = null;
+        }
+        LOGGER.debug("lookup of {} released", datasetId);
     }
 
     /**
@@ -127,46 +138,42 @@ public class DataSetLookupRowMatcher implements DisposableBean, LookupRowMatcher
             return emptyRow;
         }
 
-        // first, let's look in the cache
-        if (cache.containsKey(joinValue)) {
-            return cache.get(joinValue);
+        final DataSetRow row = getIndex(joinOn).get(joinValue);
+        if (row == null) {
+            LOGGER.trace("no row found for {}, returning an empty row", joinValue);
+            return this.emptyRow;
         }
+        return row;
+    }
 
-        // if the value is not cached, let's update the cache
-        List<ColumnMetadata> filteredColumns = null;
-        while (lookupIterator.hasNext()) {
-            DataSetRow nextRow = lookupIterator.next();
-            final String nextRowJoinValue = nextRow.get(joinOn);
-
-            // update the cache no matter what so that the next joinValue may be already cached !
-            if (filteredColumns == null) {
-                final List<String> selectedColumnIds = selectedColumns
-                        .stream() //
-                        .map(LookupSelectedColumnParameter::getId) //
-                        .collect(Collectors.toList());
-                filteredColumns = nextRow
-                        .getRowMetadata() //
-                        .getColumns() //
-                        .stream() //
-                        .filter(c -> !joinOnColumn.equals(c.getId()) && selectedColumnIds.contains(c.getId())) //
-                        .collect(Collectors.toList());
-            }
-
-            if (!cache.containsKey(nextRowJoinValue)) {
-                cache.put(nextRowJoinValue, nextRow.filter(filteredColumns).clone());
-                LOGGER.trace("row found and cached for {} -> {}", nextRowJoinValue, nextRow.values());
+    private synchronized LookupIndex getIndex(String joinOn) {
+        if (index == null) {
+            if (registry != null && indexKey != null) {
+                index = registry.acquire(indexKey, () -> buildIndex(joinOn));
+            } else {
+                index = LookupIndex.build(lookupIterator, joinOn, getSelectedColumnIds(), Long.MAX_VALUE, null);
             }
+        }
+        return index;
+    }
 
-            // if matching row is found, let's stop here
-            if (StringUtils.equals(joinValue, nextRowJoinValue)) {
-                return cache.get(nextRowJoinValue);
-            }
+    private LookupIndex buildIndex(String joinOn) {
+        LOGGER.debug("indexing lookup dataset {}", datasetId);
+        // only the join and selected columns are needed
+        final List<String> columns = new ArrayList<>();
+        columns.add(joinOn);
+        columns.addAll(getSelectedColumnIds());
+        try (Stream<DataSetRow> records = datasetClient.getDataSetContentAsRows(datasetId, true, columns)) {
+            return LookupIndex.build(records.iterator(), joinOn, getSelectedColumnIds(),
+                    registry.getMaxMemorySize(), registry.getSpillDirectory());
         }
+    }
 
-        // the join value was not found and the cache is fully updated, so let's cache an empty row and return it
-        cache.put(joinValue, this.emptyRow);
-        LOGGER.trace("no row found for {}, returning an empty row", joinValue);
-        return this.emptyRow;
+    private List<String> getSelectedColumnIds() {
+        return selectedColumns
+                .stream() //
+                .map(LookupSelectedColumnParameter::getId) //
+                .collect(Collectors.toList());
     }
 
     @Override
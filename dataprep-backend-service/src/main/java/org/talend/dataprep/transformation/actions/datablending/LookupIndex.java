@@ -0,0 +1,497 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.transformation.actions.datablending;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.dataprep.api.dataset.ColumnMetadata;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.exception.TDPException;
+import org.talend.dataprep.exception.error.CommonErrorCodes;
+import org.talend.dataprep.util.FilesHelper;
+
+/**
+ * A read-only index of lookup rows by join value. Only the values of the selected columns are kept: each row is
+ * encoded as a record (join value followed by the selected values, as UTF-8 strings) in a compact byte store, and an
+ * open addressing hash table maps join values to records.
+ * <p>
+ * Records are kept in memory until the store exceeds a maximum size, remaining records are then written to a
+ * temporary file that is memory mapped once index is built. Index can be safely read by several threads.
+ */
+class LookupIndex implements Closeable {
+
+    /** This class' logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LookupIndex.class);
+
+    /** Size of in-memory chunks. */
+    private static final int MEMORY_CHUNK_SHIFT = 20;
+
+    /** Size of memory mapped chunks. */
+    private static final int MAPPED_CHUNK_SHIFT = 27;
+
+    /** Selected columns (values of these columns are returned for a join value). */
+    private final List<ColumnMetadata> columns;
+
+    /** Row metadata shared by the rows returned by this index. */
+    private final RowMetadata rowMetadata;
+
+    /** Record storage. */
+    private ByteBuffer[] chunks;
+
+    private int chunkShift;
+
+    private long chunkMask;
+
+    /** Temporary file when records are spilled on disk (<code>null</code> if records are in memory). */
+    private File spillFile;
+
+    /** Offsets of records. */
+    private long[] offsets = new long[1024];
+
+    /** Hash of record join values. */
+    private int[] hashes = new int[1024];
+
+    /** Number of records. */
+    private int size;
+
+    /** Hash table of record ordinals (+1, 0 means empty slot). */
+    private int[] table = new int[2048];
+
+    /** Total size (in bytes) of the records. */
+    private long storeSize;
+
+    private LookupIndex(List<ColumnMetadata> columns) {
+        this.columns = columns;
+        this.rowMetadata = new RowMetadata(columns);
+    }
+
+    /**
+     * Builds an index from lookup rows. When several rows share the same join value, first row wins.
+     *
+     * @param rows The lookup rows.
+     * @param joinOn The id of the join column.
+     * @param selectedColumnIds The ids of the columns to keep in index (join column is never kept).
+     * @param maxMemorySize Maximum size (in bytes) of the records kept in memory before spilling them to disk.
+     * @param spillDirectory The directory for the temporary file used if records are spilled to disk.
+     * @return The index.
+     */
+    static LookupIndex build(Iterator<DataSetRow> rows, String joinOn, List<String> selectedColumnIds,
+            long maxMemorySize, File spillDirectory) {
+        List<ColumnMetadata> columns = null;
+        final Builder builder = new Builder(maxMemorySize, spillDirectory);
+        LookupIndex index = null;
+        try {
+            while (rows.hasNext()) {
+                final DataSetRow row = rows.next();
+                if (index == null) {
+                    columns = row
+                            .getRowMetadata() //
+                            .getColumns() //
+                            .stream() //
+                            .filter(c -> !joinOn.equals(c.getId()) && selectedColumnIds.contains(c.getId())) //
+                            .collect(Collectors.toList());
+                    index = new LookupIndex(columns);
+                }
+                final String joinValue = row.get(joinOn);
+                if (joinValue == null) {
+                    continue;
+                }
+                final byte[] key = joinValue.getBytes(UTF_8);
+                final int hash = hash(key);
+                if (index.find(builder, key, hash) >= 0) {
+                    continue;
+                }
+                final List<String> values = new ArrayList<>(columns.size());
+                for (ColumnMetadata column : columns) {
+                    values.add(row.get(column.getId()));
+                }
+                index.add(hash, builder.append(key, values));
+            }
+            if (index == null) {
+                index = new LookupIndex(new ArrayList<>());
+            }
+            builder.finish(index);
+            LOGGER.debug("Lookup index built ({} rows, {} bytes{}).", index.size, index.storeSize,
+                    index.spillFile == null ? "" : " on disk");
+            return index;
+        } catch (IOException e) {
+            builder.discard();
+            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+        } catch (RuntimeException e) {
+            builder.discard();
+            throw e;
+        }
+    }
+
+    private static int hash(byte[] key) {
+        final int hash = Arrays.hashCode(key);
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * @param joinValue A join value.
+     * @return The row (with the selected columns) for the join value, or <code>null</code> if there's no row for the
+     * join value.
+     */
+    DataSetRow get(String joinValue) {
+        if (joinValue == null) {
+            return null;
+        }
+        final byte[] key = joinValue.getBytes(UTF_8);
+        final int ordinal = find(null, key, hash(key));
+        if (ordinal < 0) {
+            return null;
+        }
+        final long[] position = { offsets[ordinal] };
+        readString(null, position); // Join value
+        final Map<String, String> values = new HashMap<>();
+        for (ColumnMetadata column : columns) {
+            values.put(column.getId(), readString(null, position));
+        }
+        return new DataSetRow(rowMetadata, values);
+    }
+
+    /**
+     * @return The number of join values in index.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return An estimation of the memory (or disk) used by this index (in bytes).
+     */
+    long getSizeInBytes() {
+        return storeSize + offsets.length * 8L + hashes.length * 4L + table.length * 4L;
+    }
+
+    private void add(int hash, long offset) {
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        offsets[size] = offset;
+        hashes[size] = hash;
+        size++;
+        if (size * 2 > table.length) {
+            table = new int[table.length * 2];
+            for (int i = 0; i < size; i++) {
+                insert(i);
+            }
+        } else {
+            insert(size - 1);
+        }
+    }
+
+    private void insert(int ordinal) {
+        final int mask = table.length - 1;
+        int slot = hashes[ordinal] & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = ordinal + 1;
+    }
+
+    /**
+     * @return The ordinal of the record for <code>key</code> or -1 if not found.
+     */
+    private int find(Builder builder, byte[] key, int hash) {
+        final int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            final int ordinal = table[slot] - 1;
+            if (hashes[ordinal] == hash && keyEquals(builder, offsets[ordinal], key)) {
+                return ordinal;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean keyEquals(Builder builder, long offset, byte[] key) {
+        if (builder != null && builder.isSpilled()) {
+            return builder.spilledKeyEquals(offset, key);
+        }
+        final long[] position = { offset };
+        final long length = readVarLong(builder, position);
+        if (length != key.length + 1L) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (byteAt(builder, position[0] + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte byteAt(Builder builder, long position) {
+        if (builder != null) {
+            return builder.byteAt(position);
+        }
+        return chunks[(int) (position >>> chunkShift)].get((int) (position & chunkMask));
+    }
+
+    private long readVarLong(Builder builder, long[] position) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = byteAt(builder, position[0]++);
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        return value;
+    }
+
+    private String readString(Builder builder, long[] position) {
+        final long length = readVarLong(builder, position);
+        if (length == 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[(int) (length - 1)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = byteAt(builder, position[0] + i);
+        }
+        position[0] += bytes.length;
+        return new String(bytes, UTF_8);
+    }
+
+    @Override
+    public void close() {
+        chunks = new ByteBuffer[0];
+        if (spillFile != null) {
+            FilesHelper.deleteQuietly(spillFile);
+            spillFile = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LookupIndex{size=" + size + ", storeSize=" + storeSize + ", spilled=" + (spillFile != null) + '}';
+    }
+
+    /**
+     * Appends records while index is built (in memory first, then in a temporary file).
+     */
+    private static class Builder {
+
+        private final long maxMemorySize;
+
+        private final File spillDirectory;
+
+        private final List<byte[]> memoryChunks = new ArrayList<>();
+
+        private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+
+        private long position;
+
+        private File spillFile;
+
+        private OutputStream spillOutput;
+
+        /** Spilled records being written are read back with this file. */
+        private RandomAccessFile spillReader;
+
+        /** Position up to which spilled records are flushed (readable with {@link #spillReader}). */
+        private long flushed;
+
+        private Builder(long maxMemorySize, File spillDirectory) {
+            this.maxMemorySize = maxMemorySize;
+            this.spillDirectory = spillDirectory;
+        }
+
+        private long append(byte[] key, List<String> values) throws IOException {
+            record.reset();
+            writeBytes(key);
+            for (String value : values) {
+                if (value == null) {
+                    writeVarLong(0);
+                } else {
+                    writeBytes(value.getBytes(UTF_8));
+                }
+            }
+            final long offset = position;
+            final byte[] bytes = record.toByteArray();
+            if (spillOutput == null && position + bytes.length > maxMemorySize) {
+                spill();
+            }
+            if (spillOutput != null) {
+                spillOutput.write(bytes);
+            } else {
+                for (byte b : bytes) {
+                    final int chunk = (int) (position >>> MEMORY_CHUNK_SHIFT);
+                    if (chunk == memoryChunks.size()) {
+                        memoryChunks.add(new byte[1 << MEMORY_CHUNK_SHIFT]);
+                    }
+                    memoryChunks.get(chunk)[(int) (position & ((1 << MEMORY_CHUNK_SHIFT) - 1))] = b;
+                    position++;
+                }
+                return offset;
+            }
+            position += bytes.length;
+            return offset;
+        }
+
+        private void writeBytes(byte[] bytes) {
+            writeVarLong(bytes.length + 1L);
+            record.write(bytes, 0, bytes.length);
+        }
+
+        private void writeVarLong(long value) {
+            long current = value;
+            while ((current & ~0x7FL) != 0) {
+                record.write((int) ((current & 0x7F) | 0x80));
+                current >>>= 7;
+            }
+            record.write((int) current);
+        }
+
+        private void spill() throws IOException {
+            spillFile = File.createTempFile("lookup-", ".idx", spillDirectory);
+            LOGGER.debug("Lookup index exceeds {} bytes, spilling to '{}'.", maxMemorySize, spillFile);
+            spillOutput = new BufferedOutputStream(new FileOutputStream(spillFile), 64 * 1024);
+            long remaining = position;
+            for (byte[] chunk : memoryChunks) {
+                final int length = (int) Math.min(chunk.length, remaining);
+                spillOutput.write(chunk, 0, length);
+                remaining -= length;
+            }
+            memoryChunks.clear();
+            spillOutput.flush();
+            flushed = position;
+            spillReader = new RandomAccessFile(spillFile, "r");
+        }
+
+        private boolean isSpilled() {
+            return spillOutput != null;
+        }
+
+        private byte byteAt(long offset) {
+            return memoryChunks.get((int) (offset >>> MEMORY_CHUNK_SHIFT))[(int) (offset
+                    & ((1 << MEMORY_CHUNK_SHIFT) - 1))];
+        }
+
+        /**
+         * Compares the join value of a spilled record with a key: the stored key is read with a single read (records
+         * still in the write buffer are flushed first).
+         */
+        private boolean spilledKeyEquals(long offset, byte[] key) {
+            final long expectedLength = key.length + 1L;
+            final int length = (int) Math.min(varLongSize(expectedLength) + key.length, position - offset);
+            final byte[] stored = new byte[length];
+            try {
+                if (offset + length > flushed) {
+                    spillOutput.flush();
+                    flushed = position;
+                }
+                spillReader.seek(offset);
+                spillReader.readFully(stored);
+            } catch (IOException e) {
+                throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+            }
+            long storedLength = 0;
+            int shift = 0;
+            int i = 0;
+            byte current;
+            do {
+                if (i == length) {
+                    return false;
+                }
+                current = stored[i++];
+                storedLength |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            if (storedLength != expectedLength || length - i != key.length) {
+                return false;
+            }
+            for (int j = 0; j < key.length; j++) {
+                if (stored[i + j] != key[j]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int varLongSize(long value) {
+            int size = 1;
+            long current = value;
+            while ((current & ~0x7FL) != 0) {
+                current >>>= 7;
+                size++;
+            }
+            return size;
+        }
+
+        private void finish(LookupIndex index) throws IOException {
+            index.storeSize = position;
+            if (spillOutput == null) {
+                index.chunkShift = MEMORY_CHUNK_SHIFT;
+                index.chunks = memoryChunks.stream().map(ByteBuffer::wrap).toArray(ByteBuffer[]::new);
+            } else {
+                spillOutput.close();
+                spillReader.close();
+                index.chunkShift = MAPPED_CHUNK_SHIFT;
+                final long chunkSize = 1L << MAPPED_CHUNK_SHIFT;
+                final List<ByteBuffer> mapped = new ArrayList<>();
+                try (FileChannel channel = new RandomAccessFile(spillFile, "r").getChannel()) {
+                    for (long start = 0; start < position; start += chunkSize) {
+                        mapped.add(channel.map(FileChannel.MapMode.READ_ONLY, start,
+                                Math.min(chunkSize, position - start)));
+                    }
+                }
+                index.chunks = mapped.toArray(new ByteBuffer[0]);
+                index.spillFile = spillFile;
+            }
+            index.chunkMask = (1L << index.chunkShift) - 1;
+        }
+
+        private void discard() {
+            try {
+                if (spillOutput != null) {
+                    spillOutput.close();
+                }
+                if (spillReader != null) {
+                    spillReader.close();
+                }
+            } catch (IOException e) {
+                LOGGER.debug("Unable to close lookup index spill file.", e);
+            }
+            if (spillFile != null) {
+                FilesHelper.deleteQuietly(spillFile);
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.transformation.actions.datablending;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.talend.dataprep.exception.TDPException;
+import org.talend.dataprep.exception.error.CommonErrorCodes;
+
+/**
+ * Shares {@link LookupIndex lookup indexes} between {@link DataSetLookupRowMatcher matchers}: an index is built once
+ * per (lookup data set, data set version, join column, selected columns) and reused by all concurrent matchers (e.g.
+ * parallel exports of preparations that use the same lookup).
+ * <p>
+ * Indexes are reference counted: indexes that are no longer used are kept for later reuse as long as their total size
+ * does not exceed <code>lookup.index.retained.max-size</code>, least recently released indexes are closed first.
+ */
+@Component
+public class LookupIndexRegistry {
+
+    /** This class' logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LookupIndexRegistry.class);
+
+    /** Maximum size (in bytes) of the index records kept in memory, larger indexes are spilled to disk. */
+    @Value("${lookup.index.memory.max-size:67108864}")
+    private long maxMemorySize;
+
+    /** Maximum total size (in bytes) of the unused indexes kept for reuse (0 to close indexes as soon as unused). */
+    @Value("${lookup.index.retained.max-size:268435456}")
+    private long maxRetainedSize;
+
+    /** Directory for spilled indexes (defaults to the temporary directory). */
+    @Value("${lookup.index.spill.directory:}")
+    private String spillDirectory;
+
+    /** Indexes by key (guarded by <code>this</code>). */
+    private final Map<Key, Holder> holders = new HashMap<>();
+
+    /**
+     * Returns the index for <code>key</code>, building it with <code>builder</code> if needed. Concurrent calls for
+     * the same key wait for a single build. Each call must be followed by a call to {@link #release(Key)}.
+     *
+     * @param key The index key.
+     * @param builder The index builder (called at most once per key as long as the index is retained).
+     * @return The index for <code>key</code>.
+     */
+    LookupIndex acquire(Key key, Supplier<LookupIndex> builder) {
+        final Holder holder;
+        final boolean build;
+        synchronized (this) {
+            final Holder existing = holders.get(key);
+            build = existing == null;
+            holder = build ? new Holder() : existing;
+            holder.references++;
+            if (build) {
+                holders.put(key, holder);
+            }
+        }
+        if (build) {
+            try {
+                holder.index.complete(builder.get());
+            } catch (RuntimeException e) {
+                holder.index.completeExceptionally(e);
+                synchronized (this) {
+                    holders.remove(key, holder);
+                }
+            }
+        } else {
+            LOGGER.debug("Reusing lookup index for {}.", key);
+        }
+        try {
+            return holder.index.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            release(key);
+            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+        } catch (ExecutionException e) {
+            synchronized (this) {
+                holder.references--; // Failed holder is no longer registered.
+            }
+            if (e.getCause() instanceof TDPException) {
+                throw (TDPException) e.getCause();
+            }
+            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e.getCause());
+        }
+    }
+
+    /**
+     * Releases an index previously returned by {@link #acquire(Key, Supplier)}.
+     *
+     * @param key The index key.
+     */
+    void release(Key key) {
+        final List<LookupIndex> evicted = new ArrayList<>();
+        synchronized (this) {
+            final Holder holder = holders.get(key);
+            if (holder == null) {
+                return;
+            }
+            holder.references = Math.max(0, holder.references - 1);
+            holder.lastRelease = System.currentTimeMillis();
+            if (holder.references == 0) {
+                evicted.addAll(evict());
+            }
+        }
+        evicted.forEach(LookupIndex::close);
+    }
+
+    /**
+     * Removes least recently released indexes until unused indexes fit in <code>maxRetainedSize</code>.
+     *
+     * @return The evicted indexes (to be closed).
+     */
+    private List<LookupIndex> evict() {
+        final List<Map.Entry<Key, Holder>> unused = new ArrayList<>();
+        long retainedSize = 0;
+        for (Map.Entry<Key, Holder> entry : holders.entrySet()) {
+            final Holder holder = entry.getValue();
+            if (holder.references == 0 && holder.index.isDone() && !holder.index.isCompletedExceptionally()) {
+                unused.add(entry);
+                retainedSize += holder.index.join().getSizeInBytes();
+            }
+        }
+        unused.sort(Comparator.comparingLong(e -> e.getValue().lastRelease));
+        final List<LookupIndex> evicted = new ArrayList<>();
+        for (Map.Entry<Key, Holder> entry : unused) {
+            if (retainedSize <= maxRetainedSize) {
+                break;
+            }
+            final LookupIndex index = entry.getValue().index.join();
+            holders.remove(entry.getKey());
+            retainedSize -= index.getSizeInBytes();
+            evicted.add(index);
+            LOGGER.debug("Lookup index for {} evicted ({}).", entry.getKey(), index);
+        }
+        return evicted;
+    }
+
+    /**
+     * @return The maximum size (in bytes) of the index records kept in memory.
+     */
+    long getMaxMemorySize() {
+        return maxMemorySize;
+    }
+
+    /**
+     * @return The directory for spilled indexes (<code>null</code> for default temporary directory).
+     */
+    File getSpillDirectory() {
+        return StringUtils.isEmpty(spillDirectory) ? null : new File(spillDirectory);
+    }
+
+    /**
+     * @return The number of indexes (used or retained).
+     */
+    synchronized int size() {
+        return holders.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        final List<Holder> closed;
+        synchronized (this) {
+            closed = new ArrayList<>(holders.values());
+            holders.clear();
+        }
+        closed.stream() //
+                .filter(h -> h.index.isDone() && !h.index.isCompletedExceptionally()) //
+                .forEach(h -> h.index.join().close());
+    }
+
+    /**
+     * Identifies a lookup index.
+     */
+    static class Key {
+
+        private final String dataSetId;
+
+        private final String version;
+
+        private final String joinOn;
+
+        private final List<String> selectedColumns;
+
+        /**
+         * @param dataSetId The lookup data set id.
+         * @param version The lookup data set version (any index built for a previous version won't be reused).
+         * @param joinOn The join column id.
+         * @param selectedColumns The selected column ids.
+         */
+        Key(String dataSetId, String version, String joinOn, List<String> selectedColumns) {
+            this.dataSetId = dataSetId;
+            this.version = version;
+            this.joinOn = joinOn;
+            this.selectedColumns = selectedColumns;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(dataSetId, key.dataSetId) && Objects.equals(version, key.version)
+                    && Objects.equals(joinOn, key.joinOn) && Objects.equals(selectedColumns, key.selectedColumns);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dataSetId, version, joinOn, selectedColumns);
+        }
+
+        @Override
+        public String toString() {
+            return "Key{dataSetId='" + dataSetId + "', version='" + version + "', joinOn='" + joinOn
+                    + "', selectedColumns=" + selectedColumns + '}';
+        }
+    }
+
+    private static class Holder {
+
+        private final CompletableFuture<LookupIndex> index = new CompletableFuture<>();
+
+        private int references;
+
+        private long lastRelease;
+    }
+}
@@ -13,8 +13,14 @@
 
 package org.talend.dataprep.transformation.api.action.dynamic.cluster;
 
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Component;
@@ -32,7 +38,8 @@ import org.talend.dataquality.record.linkage.analyzer.StringsClusterAnalyzer;
 import org.talend.dataquality.record.linkage.constant.AttributeMatcherType;
 
 /**
- * Cluster action dynamic parameter generator It takes an InputStream as argument, containing the dataset
+ * Cluster action dynamic parameter generator It takes an InputStream as argument, containing the dataset. Clustering
+ * runs on the distinct values of the column (most frequent first), not on each row value.
  */
 @Component
 public class ClusterParameters implements DynamicParameters {
@@ -43,10 +50,12 @@ public class ClusterParameters implements DynamicParameters {
         StringsClusterAnalyzer clusterAnalyzer = new StringsClusterAnalyzer();
         clusterAnalyzer.withPostMerges(new PostMerge(AttributeMatcherType.DOUBLE_METAPHONE, 0.8f));
         clusterAnalyzer.init();
-        content.getRecords().forEach(row -> {
-            String value = row.get(columnId);
-            clusterAnalyzer.analyze(value);
-        });
+        final Map<String, Long> occurrences = content.getRecords() //
+                .map(row -> Objects.toString(row.get(columnId), EMPTY)) //
+                .collect(groupingBy(value -> value, LinkedHashMap::new, counting()));
+        occurrences.entrySet().stream() //
+                .sorted(Map.Entry.<String, Long> comparingByValue().reversed()) //
+                .forEach(entry -> clusterAnalyzer.analyze(entry.getKey()));
         // TDP-5860 : this use Soundex (Soundex is a phonetic algorithm for indexing names by sound, as pronounced in English)
         // So it can log IllegalArgumentException if a character is not mapped
         // see SoundexMatcher on DQ side
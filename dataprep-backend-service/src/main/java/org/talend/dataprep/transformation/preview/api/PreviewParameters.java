@@ -38,6 +38,12 @@ public class PreviewParameters {
     /** Source type in case we want the preview on a specific sample */
     private ExportParameters.SourceType sourceType;
 
+    /**
+     * Id of the preparation step whose content is the base state of the preview (optional, only when base actions are
+     * the actions of this step).
+     */
+    private String referenceStepId;
+
     /**
      * Default empty constructor.
      */
@@ -108,12 +114,27 @@ public class PreviewParameters {
         return sourceType;
     }
 
+    /**
+     * @return the id of the step whose content is the base state of the preview (may be null).
+     */
+    public String getReferenceStepId() {
+        return referenceStepId;
+    }
+
+    /**
+     * @param referenceStepId the id of the step whose content is the base state of the preview.
+     */
+    public void setReferenceStepId(String referenceStepId) {
+        this.referenceStepId = referenceStepId;
+    }
+
     /**
      * @see Object#toString()
      */
     @Override
     public String toString() {
         return "PreviewParameters{" + "baseActions='" + baseActions + '\'' + ", newActions='" + newActions + '\''
-                + ", tdpIds='" + tdpIds + '\'' + ", dataSetId='" + dataSetId + '\'' + '}';
+                + ", tdpIds='" + tdpIds + '\'' + ", dataSetId='" + dataSetId + '\'' + ", referenceStepId='"
+                + referenceStepId + '\'' + '}';
     }
 }
@@ -0,0 +1,99 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A file that holds the generation of the content of a folder shared by several processes. Each write in the folder
+ * changes the generation (see {@link #next(String)}), so an in-memory view of the folder is known to be stale when the
+ * {@link #current() current generation} is not the one it was built (or last updated) for, whatever process wrote in
+ * the folder.
+ * <p>
+ * Generation is read and changed under a file lock: concurrent changes (in any process) are never lost.
+ */
+public class GenerationMarker {
+
+    /** This class' logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationMarker.class);
+
+    /** The marker file. */
+    private final File file;
+
+    /**
+     * @param file The marker file (created on first change).
+     */
+    public GenerationMarker(File file) {
+        this.file = file;
+    }
+
+    /**
+     * @return The current generation (empty if it was never changed), or <code>null</code> if it can't be read (never
+     * the generation of an up to date view).
+     */
+    public synchronized String current() {
+        if (!file.exists()) {
+            return "";
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+                FileLock ignored = channel.lock(0, Long.MAX_VALUE, true)) {
+            return read(channel);
+        } catch (IOException e) {
+            LOGGER.debug("Unable to read generation in '{}'.", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Changes the generation (to be called after each write in the folder).
+     *
+     * @param known The generation known by the caller before its write.
+     * @return The new generation if the previous one was <code>known</code> (a view up to date before the write is up
+     * to date with the new generation once it applies the write), <code>null</code> otherwise.
+     */
+    public synchronized String next(String known) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE); FileLock ignored = channel.lock()) {
+            final String previous = read(channel);
+            final String next = UUID.randomUUID().toString();
+            channel.truncate(0);
+            final ByteBuffer content = ByteBuffer.wrap(next.getBytes(UTF_8));
+            while (content.hasRemaining()) {
+                channel.write(content, content.position());
+            }
+            return previous.equals(known) ? next : null;
+        } catch (IOException e) {
+            LOGGER.debug("Unable to change generation in '{}'.", file, e);
+            return null;
+        }
+    }
+
+    private static String read(FileChannel channel) throws IOException {
+        final ByteBuffer content = ByteBuffer.allocate((int) channel.size());
+        while (content.hasRemaining() && channel.read(content, content.position()) >= 0) {
+            // Read until buffer is full.
+        }
+        return new String(content.array(), 0, content.position(), UTF_8);
+    }
+}
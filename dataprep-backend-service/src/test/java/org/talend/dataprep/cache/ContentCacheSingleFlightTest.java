@@ -0,0 +1,140 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.talend.dataprep.lock.NoOpLockFactory;
+
+public class ContentCacheSingleFlightTest {
+
+    private final ContentCache contentCache = mock(ContentCache.class);
+
+    private final ContentCacheKey key = () -> "key";
+
+    private final ContentCacheSingleFlight singleFlight = new ContentCacheSingleFlight();
+
+    @Before
+    public void setUp() {
+        when(contentCache.supportsInProgress()).thenReturn(true);
+        ReflectionTestUtils.setField(singleFlight, "contentCache", contentCache);
+        ReflectionTestUtils.setField(singleFlight, "lockFactory", new NoOpLockFactory());
+    }
+
+    @Test
+    public void shouldStreamContentToLeader() throws Exception {
+        // given
+        final ByteArrayOutputStream entry = spy(new ByteArrayOutputStream());
+        when(contentCache.put(eq(key), any())).thenReturn(entry);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // when
+        singleFlight.execute(key, ContentCache.TimeToLive.DEFAULT, output, o -> o.write(bytes("content")));
+
+        // then
+        assertEquals("content", output.toString("UTF-8"));
+        assertEquals("content", entry.toString("UTF-8"));
+        verify(entry).close();
+        verify(contentCache, never()).get(key);
+        verify(contentCache, never()).getInProgress(key);
+    }
+
+    @Test
+    public void shouldCacheContentWhenLeaderDisconnects() throws Exception {
+        // given
+        final ByteArrayOutputStream entry = spy(new ByteArrayOutputStream());
+        when(contentCache.put(eq(key), any())).thenReturn(entry);
+        final OutputStream output = new OutputStream() {
+
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Client disconnected.");
+            }
+        };
+
+        // when
+        try {
+            singleFlight.execute(key, ContentCache.TimeToLive.DEFAULT, output, o -> {
+                o.write(bytes("con"));
+                o.write(bytes("tent"));
+            });
+            fail("Leader should get its write failure.");
+        } catch (IOException e) {
+            // then
+            assertEquals("Client disconnected.", e.getMessage());
+        }
+        assertEquals("content", entry.toString("UTF-8"));
+        verify(entry).close();
+        verify(contentCache, never()).evict(key);
+    }
+
+    @Test
+    public void shouldEvictBeforeClosingOnComputationFailure() throws Exception {
+        // given
+        final ByteArrayOutputStream entry = spy(new ByteArrayOutputStream());
+        when(contentCache.put(eq(key), any())).thenReturn(entry);
+
+        // when
+        try {
+            singleFlight.execute(key, ContentCache.TimeToLive.DEFAULT, new ByteArrayOutputStream(), o -> {
+                o.write(bytes("partial"));
+                throw new IOException("Computation failed.");
+            });
+            fail("Computation failure should be reported.");
+        } catch (IOException e) {
+            // then
+            assertEquals("Computation failed.", e.getMessage());
+        }
+        final InOrder inOrder = inOrder(contentCache, entry);
+        inOrder.verify(contentCache).evict(key);
+        inOrder.verify(entry).close();
+    }
+
+    @Test
+    public void shouldReadContentCachedByAnotherProcess() throws Exception {
+        // given
+        when(contentCache.has(key)).thenReturn(true);
+        when(contentCache.get(key)).thenReturn(new ByteArrayInputStream(bytes("cached")));
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // when
+        singleFlight.execute(key, ContentCache.TimeToLive.DEFAULT, output, o -> fail("Content is already cached."));
+
+        // then
+        assertEquals("cached", output.toString("UTF-8"));
+        verify(contentCache, never()).put(eq(key), any());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
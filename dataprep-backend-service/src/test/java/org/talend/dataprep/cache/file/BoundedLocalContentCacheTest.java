@@ -0,0 +1,84 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.cache.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.talend.dataprep.cache.ContentCache.TimeToLive.DEFAULT;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.talend.ServiceBaseTest;
+import org.talend.dataprep.cache.ContentCache;
+import org.talend.dataprep.cache.ContentCacheKey;
+import org.talend.dataprep.cache.ContentCacheStatistics;
+
+/**
+ * Tests for a local content cache with a maximum size.
+ */
+@TestPropertySource(properties = { "content-service.store=local",
+        "content-service.store.local.path=${java.io.tmpdir}/dataprep", "content-service.cache.max-size=100" })
+public class BoundedLocalContentCacheTest extends ServiceBaseTest {
+
+    @Autowired
+    ContentCache cache;
+
+    @Autowired
+    ContentCacheStatistics statistics;
+
+    @After
+    public void tearDown() throws Exception {
+        cache.clear();
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntries() throws Exception {
+        // given
+        statistics.reset();
+        final ContentCacheKey first = new DummyCacheKey("first");
+        final ContentCacheKey second = new DummyCacheKey("second");
+        addCacheEntry(first, 40);
+        Thread.sleep(10);
+        addCacheEntry(second, 40);
+        Thread.sleep(10);
+        try (InputStream content = cache.get(first)) {
+            IOUtils.toByteArray(content);
+        }
+
+        // when
+        final ContentCacheKey third = new DummyCacheKey("third");
+        addCacheEntry(third, 40);
+
+        // then
+        assertTrue(cache.has(first));
+        assertFalse(cache.has(second));
+        assertTrue(cache.has(third));
+        assertEquals(1, statistics.getTypes().get("DummyCacheKey").getEvictions());
+        assertEquals(80, statistics.getSize());
+    }
+
+    private void addCacheEntry(ContentCacheKey key, int size) throws IOException {
+        try (OutputStream entry = cache.put(key, DEFAULT)) {
+            entry.write(new byte[size]);
+        }
+    }
+}
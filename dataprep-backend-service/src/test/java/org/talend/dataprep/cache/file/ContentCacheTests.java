@@ -24,15 +24,22 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.junit.After;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.talend.ServiceBaseTest;
+import org.talend.daikon.content.ResourceResolver;
 import org.talend.dataprep.cache.CacheJanitor;
 import org.talend.dataprep.cache.ContentCache;
 import org.talend.dataprep.cache.ContentCacheKey;
+import org.talend.dataprep.cache.ContentCacheStatistics;
+import org.talend.dataprep.cache.ContentCodec;
+import org.talend.dataprep.cache.loader.ResourceLoaderContentCache;
 import org.talend.dataprep.cache.noop.NoOpCacheJanitor;
 
 /**
@@ -48,6 +55,12 @@ public abstract class ContentCacheTests extends ServiceBaseTest {
     @Autowired
     CacheJanitor janitor = new NoOpCacheJanitor();
 
+    @Autowired
+    ContentCacheStatistics statistics;
+
+    @Autowired
+    ResourceResolver resolver;
+
     @After
     public void tearDown() throws Exception {
         cache.clear();
@@ -296,6 +309,154 @@ public abstract class ContentCacheTests extends ServiceBaseTest {
      * @param timeToLive the time to live for entry
      * @throws IOException if an error occurs.
      */
+    @Test
+    public void shouldCountHitsAndMisses() throws Exception {
+        // given
+        statistics.reset();
+        ContentCacheKey key = new DummyCacheKey("statistics");
+        assertFalse(cache.has(key));
+        addCacheEntry(key, "content", DEFAULT);
+
+        // when
+        try (InputStream content = cache.get(key)) {
+            IOUtils.toString(content, UTF_8);
+        }
+
+        // then
+        final ContentCacheStatistics.Counters counters = statistics.getTypes().get("DummyCacheKey");
+        assertEquals(1, counters.getHits());
+        assertEquals(1, counters.getMisses());
+        assertEquals(7, counters.getBytesWritten());
+        assertEquals(7, counters.getBytesServed());
+    }
+
+    @Test
+    public void shouldReadEntryWhileItIsWritten() throws Exception {
+        // given
+        ContentCacheKey key = new DummyCacheKey("inProgress");
+        final OutputStream entry = cache.put(key, DEFAULT);
+        entry.write("first".getBytes());
+        entry.flush();
+
+        // when
+        assertNull(cache.get(key));
+        try (InputStream inProgress = cache.getInProgress(key)) {
+            final byte[] first = new byte[5];
+            IOUtils.readFully(inProgress, first);
+            assertFalse(cache.has(key));
+            entry.write("second".getBytes());
+            entry.close();
+
+            // then
+            assertEquals("first", new String(first, UTF_8));
+            assertEquals("second", IOUtils.toString(inProgress, UTF_8));
+        }
+        assertTrue(cache.has(key));
+        assertNull(cache.getInProgress(key));
+    }
+
+    @Test
+    public void shouldNotPublishEntryEvictedWhileWritten() throws Exception {
+        // given
+        ContentCacheKey key = new DummyCacheKey("evictedWhileWritten");
+        final OutputStream entry = cache.put(key, DEFAULT);
+        entry.write("content".getBytes());
+
+        // when
+        cache.evict(key);
+        entry.close();
+
+        // then
+        assertFalse(cache.has(key));
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void shouldDeleteOrphanEntriesOnStartup() throws Exception {
+        // given
+        ContentCacheKey key = new DummyCacheKey("orphan");
+        final OutputStream entry = cache.put(key, DEFAULT);
+        entry.write("content".getBytes());
+        entry.flush();
+        assertFalse(cache.has(key));
+
+        // when
+        ((ResourceLoaderContentCache) cache).init();
+        entry.close();
+
+        // then
+        assertFalse(cache.has(key));
+        assertEquals(0, resolver.getResources("/cache/.tmp/*").length);
+    }
+
+    @Test
+    public void shouldKeepTemporaryFileOfEntryBeingWrittenOnOrphanCleanUp() throws Exception {
+        // given
+        ContentCacheKey key = new DummyCacheKey("inProgress");
+        final OutputStream entry = cache.put(key, DEFAULT);
+        entry.write("content".getBytes());
+        entry.flush();
+        try (OutputStream orphan = resolver.getResource("/cache/.tmp/orphan").getOutputStream()) {
+            orphan.write("orphan".getBytes());
+        }
+
+        // when
+        final int deleted = ReflectionTestUtils.invokeMethod(cache, "deleteOrphans", 0L);
+        entry.close();
+
+        // then
+        assertEquals(1, deleted);
+        assertFalse(resolver.getResource("/cache/.tmp/orphan").exists());
+        assertTrue(cache.has(key));
+        assertEquals("content", IOUtils.toString(cache.get(key), UTF_8));
+    }
+
+    @Test
+    public void shouldReadCompressedEntry() throws Exception {
+        // given
+        ContentCacheKey key = new DummyCacheKey("compressed", ContentCodec.FAST);
+        final String content = StringUtils.repeat("{\"0000\":\"value\"}", 1000);
+
+        // when
+        addCacheEntry(key, content, DEFAULT);
+
+        // then
+        assertEquals(content, IOUtils.toString(cache.get(key), UTF_8));
+        try (InputStream compressed = cache.getCompressed(key)) {
+            assertEquals(content, IOUtils.toString(new GZIPInputStream(compressed), UTF_8));
+        }
+    }
+
+    @Test
+    public void shouldNotGetCompressedUncompressedEntry() throws Exception {
+        // given
+        ContentCacheKey key = new DummyCacheKey("uncompressed");
+        addCacheEntry(key, "content", DEFAULT);
+
+        // then
+        assertNull(cache.getCompressed(key));
+        assertEquals("content", IOUtils.toString(cache.get(key), UTF_8));
+    }
+
+    @Test
+    public void shouldMissEntryWithUnknownCodec() throws Exception {
+        // given
+        ContentCacheKey key = new DummyCacheKey("unknownCodec", ContentCodec.FAST);
+        addCacheEntry(key, "content", ContentCache.TimeToLive.PERMANENT);
+        try (OutputStream stored = resolver.getResource("/cache/" + key.getKey()).getOutputStream()) {
+            stored.write(new byte[] { 0, 'T', 'D', 'C', (byte) 0xFE }); // header written by another version
+            stored.write("content".getBytes());
+        }
+
+        // when
+        final InputStream content = cache.get(key);
+
+        // then
+        assertNull(content);
+        assertFalse(cache.has(key));
+        assertFalse(resolver.getResource("/cache/" + key.getKey()).exists());
+    }
+
     private void addCacheEntry(ContentCacheKey key, String content, ContentCache.TimeToLive timeToLive)
             throws IOException {
         try (OutputStream entry = cache.put(key, timeToLive)) {
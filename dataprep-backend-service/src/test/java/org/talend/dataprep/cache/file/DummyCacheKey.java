@@ -19,6 +19,7 @@ import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 import org.talend.dataprep.cache.ContentCacheKey;
+import org.talend.dataprep.cache.ContentCodec;
 
 /**
  * Dummy implementation of ContentCacheKey used solely for unit tests.
@@ -33,6 +34,9 @@ public class DummyCacheKey implements ContentCacheKey {
     /** Random long. */
     private long random;
 
+    /** The codec for the content. */
+    private ContentCodec codec = ContentCodec.NONE;
+
     /**
      * Default constructor.
      * 
@@ -43,6 +47,15 @@ public class DummyCacheKey implements ContentCacheKey {
         this.random = RANDOMIZE.nextLong();
     }
 
+    /**
+     * @param name the content name.
+     * @param codec the codec for the content.
+     */
+    public DummyCacheKey(String name, ContentCodec codec) {
+        this(name);
+        this.codec = codec;
+    }
+
     /**
      * @return the key for this cache content as a string.
      */
@@ -57,4 +70,9 @@ public class DummyCacheKey implements ContentCacheKey {
         final Pattern pattern = Pattern.compile(regex);
         return key -> pattern.matcher(key).matches();
     }
+
+    @Override
+    public ContentCodec getCodec() {
+        return codec;
+    }
 }
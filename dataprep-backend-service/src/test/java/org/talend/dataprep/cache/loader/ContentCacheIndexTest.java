@@ -0,0 +1,103 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.cache.loader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collection;
+
+import org.junit.Test;
+
+public class ContentCacheIndexTest {
+
+    private final ContentCacheIndex index = new ContentCacheIndex();
+
+    @Test
+    public void should_parse_cache_file_names() {
+        // when
+        final ContentCacheIndex.Entry permanent = ContentCacheIndex.parse("/cache/key", "key", 10);
+        final ContentCacheIndex.Entry expiring = ContentCacheIndex.parse("/cache/key.1234", "key.1234", 10);
+
+        // then
+        assertEquals("key", permanent.getKey());
+        assertEquals(-1, permanent.getExpiration());
+        assertEquals("key", expiring.getKey());
+        assertEquals(1234, expiring.getExpiration());
+        assertEquals("key.1234", expiring.getFileName());
+        assertNull(ContentCacheIndex.parse("/cache/.DS_Store", ".DS_Store", 0));
+        assertNull(ContentCacheIndex.parse("/cache/key.nfs0001", "key.nfs0001", 0));
+    }
+
+    @Test
+    public void should_keep_longest_living_entry_on_merge() {
+        // given
+        final long now = System.currentTimeMillis();
+        index.merge(new ContentCacheIndex.Entry("key", "/cache/key." + (now + 1000), now + 1000, 0));
+        index.merge(new ContentCacheIndex.Entry("key", "/cache/key." + (now + 5000), now + 5000, 0));
+        index.merge(new ContentCacheIndex.Entry("key", "/cache/key." + (now + 2000), now + 2000, 0));
+
+        // then
+        assertEquals(now + 5000, index.get("key").getExpiration());
+    }
+
+    @Test
+    public void should_not_return_expired_entries() {
+        // given
+        index.put(new ContentCacheIndex.Entry("key", "/cache/key.1", 1, 0));
+
+        // then
+        assertNull(index.get("key"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void should_maintain_total_size() {
+        // given
+        final long now = System.currentTimeMillis();
+        final ContentCacheIndex.Entry written = new ContentCacheIndex.Entry("written", "/cache/written", -1, 0);
+        index.put(new ContentCacheIndex.Entry("a", "/cache/a", -1, 10));
+        index.put(written);
+        index.merge(new ContentCacheIndex.Entry("b", "/cache/b." + (now + 1000), now + 1000, 20));
+
+        // when
+        written.commit(30, 0);
+        index.merge(new ContentCacheIndex.Entry("b", "/cache/b." + (now + 5000), now + 5000, 25)); // replaces b
+        index.merge(new ContentCacheIndex.Entry("b", "/cache/b." + (now + 2000), now + 2000, 99)); // ignored
+        index.put(new ContentCacheIndex.Entry("a", "/cache/a", -1, 15)); // replaces a
+        index.remove("written");
+
+        // then
+        assertEquals(40, index.getTotalSize());
+        index.clear();
+        assertEquals(0, index.getTotalSize());
+    }
+
+    @Test
+    public void should_list_entries_with_prefix() {
+        // given
+        index.put(new ContentCacheIndex.Entry("transformation_1_a", "/cache/transformation_1_a", -1, 0));
+        index.put(new ContentCacheIndex.Entry("transformation_1_b", "/cache/transformation_1_b", -1, 0));
+        index.put(new ContentCacheIndex.Entry("transformation_2_a", "/cache/transformation_2_a", -1, 0));
+
+        // when
+        final Collection<ContentCacheIndex.Entry> entries = index.withPrefix("transformation_1");
+
+        // then
+        assertEquals(2, entries.size());
+        assertEquals(3, index.withPrefix("").size());
+        assertNotNull(index.get("transformation_2_a"));
+    }
+}
@@ -0,0 +1,170 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.dataset.store.content;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+
+public class BinaryRowReaderTest {
+
+    private static DataSetRow row(String... values) {
+        final Map<String, String> rowValues = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            rowValues.put("000" + i, values[i]);
+        }
+        return new DataSetRow(rowValues);
+    }
+
+    @Test
+    public void should_read_written_rows() throws Exception {
+        // Given
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (BinaryRowWriter writer = new BinaryRowWriter(output, "signature", asList("0000", "0001"))) {
+            writer.write(row("David Bowie", "Ziggy"));
+            writer.write(row("Iggy Pop", null));
+            writer.write(row("\u00e9\u00e0 \u4e2d\u6587", "\ud83c\udfb8"));
+        }
+
+        // When
+        final List<DataSetRow> rows;
+        try (BinaryRowReader reader = new BinaryRowReader(new ByteArrayInputStream(output.toByteArray()))) {
+            assertEquals("signature", reader.getSignature());
+            assertEquals(asList("0000", "0001"), reader.getColumnIds());
+            rows = reader.stream().collect(Collectors.toList());
+        }
+
+        // Then
+        assertEquals(3, rows.size());
+        assertEquals("David Bowie", rows.get(0).get("0000"));
+        assertEquals("Ziggy", rows.get(0).get("0001"));
+        assertEquals("Iggy Pop", rows.get(1).get("0000"));
+        assertNull(rows.get(1).get("0001"));
+        assertEquals("\u00e9\u00e0 \u4e2d\u6587", rows.get(2).get("0000"));
+        assertEquals("\ud83c\udfb8", rows.get(2).get("0001"));
+    }
+
+    @Test
+    public void should_keep_values_not_declared_in_header() throws Exception {
+        // Given
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final DataSetRow row = row("a", "b", "c");
+        row.setTdpId(42L);
+        try (BinaryRowWriter writer = new BinaryRowWriter(output, "", asList("0000", "0001"))) {
+            writer.write(row);
+            assertEquals(1, writer.getCount());
+        }
+
+        // When
+        try (BinaryRowReader reader = new BinaryRowReader(new ByteArrayInputStream(output.toByteArray()))) {
+            assertTrue(reader.hasNext());
+            final DataSetRow read = reader.next();
+
+            // Then
+            assertEquals("c", read.get("0002"));
+            assertEquals(42L, (long) read.getTdpId());
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    public void should_seek_using_index() throws Exception {
+        // Given
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final ByteArrayOutputStream indexOutput = new ByteArrayOutputStream();
+        try (BinaryRowWriter writer = new BinaryRowWriter(output, "signature", asList("0000", "0001"))) {
+            for (int i = 0; i < 5000; i++) {
+                writer.write(row("value" + i, i % 2 == 0 ? null : "\u00e9" + i));
+            }
+            writer.getIndex().write(indexOutput);
+        }
+        final BinaryRowIndex index = BinaryRowIndex.read(new ByteArrayInputStream(indexOutput.toByteArray()));
+
+        // When
+        final List<DataSetRow> rows;
+        try (BinaryRowReader reader = new BinaryRowReader(new ByteArrayInputStream(output.toByteArray()))) {
+            reader.skip(3001, index);
+            rows = reader.stream().limit(2).collect(Collectors.toList());
+        }
+
+        // Then
+        assertEquals("signature", index.getSignature());
+        assertEquals(2, rows.size());
+        assertEquals("value3001", rows.get(0).get("0000"));
+        assertEquals("\u00e93001", rows.get(0).get("0001"));
+        assertEquals("value3002", rows.get(1).get("0000"));
+        assertNull(rows.get(1).get("0001"));
+    }
+
+    @Test
+    public void should_skip_without_index() throws Exception {
+        // Given
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (BinaryRowWriter writer = new BinaryRowWriter(output, "signature", asList("0000", "0001"))) {
+            writer.write(row("a", "b"));
+            writer.write(row("c", "d"));
+        }
+
+        // When
+        try (BinaryRowReader reader = new BinaryRowReader(new ByteArrayInputStream(output.toByteArray()))) {
+            reader.skip(1, null);
+
+            // Then
+            assertEquals("c", reader.next().get("0000"));
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    public void should_read_values_of_a_single_column() throws Exception {
+        // Given
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (BinaryRowWriter writer = new BinaryRowWriter(output, "signature", asList("0000", "0001"))) {
+            writer.write(row("a", "b", "c"));
+            writer.write(row("d", null, "e"));
+        }
+
+        // When
+        final List<String> declared;
+        final List<String> notDeclared;
+        try (BinaryRowReader reader = new BinaryRowReader(new ByteArrayInputStream(output.toByteArray()))) {
+            declared = reader.values("0001").collect(Collectors.toList());
+        }
+        try (BinaryRowReader reader = new BinaryRowReader(new ByteArrayInputStream(output.toByteArray()))) {
+            notDeclared = reader.values("0002").collect(Collectors.toList());
+        }
+
+        // Then
+        assertEquals(asList("b", null), declared);
+        assertEquals(asList("c", "e"), notDeclared);
+    }
+
+    @Test(expected = IOException.class)
+    public void should_fail_on_invalid_content() throws Exception {
+        new BinaryRowReader(new ByteArrayInputStream("[{\"0000\":\"a\"}]".getBytes()));
+    }
+}
@@ -0,0 +1,63 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.dataset.store.content;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+
+public class InvalidCellsReaderTest {
+
+    private static DataSetRow row(String first, String second) {
+        final Map<String, String> values = new HashMap<>();
+        values.put("0000", first);
+        values.put("0001", second);
+        return new DataSetRow(values);
+    }
+
+    @Test
+    public void should_mark_stored_invalid_cells() throws Exception {
+        // Given
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InvalidCellsWriter writer = new InvalidCellsWriter(output, "0000:integer:,", asList("0000", "0001"))) {
+            final DataSetRow invalid = row("a", "1");
+            invalid.setInvalid("0000");
+            writer.write(invalid);
+            writer.write(row("1", "2"));
+        }
+
+        // When
+        try (InvalidCellsReader reader = new InvalidCellsReader(new ByteArrayInputStream(output.toByteArray()))) {
+            final DataSetRow first = reader.apply(row("a", "1"));
+            final DataSetRow second = reader.apply(row("1", "2"));
+            final DataSetRow third = reader.apply(row("b", "3"));
+
+            // Then
+            assertEquals("0000:integer:,", reader.getSignature());
+            assertTrue(first.isInvalid("0000"));
+            assertFalse(first.isInvalid("0001"));
+            assertFalse(second.isInvalid("0000"));
+            assertFalse(third.isInvalid("0000")); // no more stored rows, row is left unchanged
+        }
+    }
+}
@@ -0,0 +1,144 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+
+package org.talend.dataprep.preparation.store;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.talend.dataprep.api.preparation.Action;
+import org.talend.dataprep.api.preparation.PreparationActions;
+import org.talend.dataprep.api.preparation.Step;
+import org.talend.dataprep.preparation.store.inmemory.InMemoryPreparationRepository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class StepActionsResolverTest {
+
+    private final StepActionsResolver resolver = new StepActionsResolver();
+
+    private final InMemoryPreparationRepository repository = new InMemoryPreparationRepository();
+
+    /** root -> step1 (all actions from root) -> step2 (delta) -> step3 (delta). */
+    private PersistentStep step1;
+
+    private PersistentStep step2;
+
+    private PersistentStep step3;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(resolver, "repository", repository);
+        ReflectionTestUtils.setField(resolver, "mapper", new ObjectMapper());
+        ReflectionTestUtils.setField(resolver, "cacheSize", 10L);
+        resolver.init();
+
+        repository.add(PreparationActions.ROOT_ACTIONS);
+        repository.add(step(Step.ROOT_STEP.id(), null, PreparationActions.ROOT_ACTIONS.id()));
+
+        final PreparationActions legacy = new PreparationActions();
+        legacy.setActions(singletonList(action("uppercase")));
+        repository.add(legacy);
+        step1 = step("step1", Step.ROOT_STEP.id(), legacy.id());
+
+        final StepActions delta2 = new StepActions(singletonList(action("lowercase")));
+        repository.add(delta2);
+        step2 = step("step2", "step1", delta2.id());
+
+        final StepActions delta3 = new StepActions(asList(action("copy"), action("delete_column")));
+        repository.add(delta3);
+        step3 = step("step3", "step2", delta3.id());
+    }
+
+    @Test
+    public void shouldResolveActionsFromRootStep() {
+        // when
+        final List<Action> actions = resolver.getActions(step3);
+
+        // then
+        assertEquals(asList("uppercase", "lowercase", "copy", "delete_column"), names(actions));
+        assertEquals(singletonList("uppercase"), names(resolver.getActions(step1)));
+    }
+
+    @Test
+    public void shouldResolveActionsAddedByStep() {
+        // then
+        assertEquals(singletonList("uppercase"), names(resolver.getStepActions(step1)));
+        assertEquals(singletonList("lowercase"), names(resolver.getStepActions(step2)));
+        assertEquals(asList("copy", "delete_column"), names(resolver.getStepActions(step3)));
+    }
+
+    @Test
+    public void shouldReturnCopies() {
+        // given
+        resolver.getActions(step3).get(0).getParameters().put("column_id", "0001");
+
+        // when
+        final List<Action> actions = resolver.getActions(step3);
+
+        // then
+        assertNull(actions.get(0).getParameters().get("column_id"));
+    }
+
+    @Test
+    public void shouldNotResolveMissingContent() {
+        // given
+        repository.remove(repository.get(step2.getContent(), StepActions.class));
+
+        // then
+        assertNull(resolver.getActions(step3));
+        assertNull(resolver.getStepActions(step2));
+    }
+
+    @Test
+    public void shouldForgetCachedActionsOfRemovedContent() {
+        // given
+        assertEquals(asList("uppercase", "lowercase", "copy", "delete_column"), names(resolver.getActions(step3)));
+        final StepActions delta3 = repository.get(step3.getContent(), StepActions.class);
+        repository.remove(delta3);
+
+        // when
+        resolver.onStepContentRemoved(new StepContentRemovedEvent(delta3));
+
+        // then
+        assertNull(resolver.getActions(step3));
+        assertEquals(asList("uppercase", "lowercase"), names(resolver.getActions(step2)));
+    }
+
+    private PersistentStep step(String id, String parentId, String contentId) {
+        final PersistentStep step = new PersistentStep();
+        step.setId(id);
+        step.setParentId(parentId);
+        step.setContent(contentId);
+        repository.add(step);
+        return step;
+    }
+
+    private static Action action(String name) {
+        final Action action = new Action();
+        action.setName(name);
+        return action;
+    }
+
+    private static List<String> names(List<Action> actions) {
+        return actions.stream().map(Action::getName).collect(Collectors.toList());
+    }
+}
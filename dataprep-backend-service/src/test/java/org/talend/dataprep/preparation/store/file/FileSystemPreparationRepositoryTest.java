@@ -26,6 +26,7 @@ import org.junit.After;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.talend.dataprep.api.preparation.Action;
 import org.talend.dataprep.api.preparation.Preparation;
 import org.talend.dataprep.api.preparation.PreparationActions;
@@ -36,6 +37,7 @@ import org.talend.dataprep.preparation.store.PreparationRepository;
 import org.talend.dataprep.preparation.store.PreparationRepositoryTest;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Unit test for the FileSystemPreparationRepository.
@@ -49,6 +51,9 @@ public class FileSystemPreparationRepositoryTest extends PreparationRepositoryTe
     @Autowired
     private VersionService versionService;
 
+    @Autowired
+    private ObjectMapper mapper;
+
     /** The preparation repository to test. */
     @Autowired
     private PreparationRepository repository;
@@ -177,6 +182,62 @@ public class FileSystemPreparationRepositoryTest extends PreparationRepositoryTe
         assertTrue(actual.contains(expected));
     }
 
+    @Test
+    public void shouldListPreparationsAfterRename() {
+        // given
+        Preparation preparation = getPreparation("renamed");
+        preparation.setName("old name");
+        repository.add(preparation);
+        assertEquals(1, repository.list(Preparation.class, eq("name", "old name")).count());
+
+        // when
+        preparation.setName("new name");
+        repository.add(preparation);
+
+        // then
+        assertEquals(0, repository.list(Preparation.class, eq("name", "old name")).count());
+        final List<Preparation> actual =
+                repository.list(Preparation.class, eq("name", "new name")).collect(Collectors.toList());
+        assertEquals(1, actual.size());
+        assertEquals(preparation, actual.get(0));
+    }
+
+    @Test
+    public void shouldListPreparationsRenamedByAnotherProcess() {
+        // given
+        Preparation preparation = getPreparation("renamed-elsewhere");
+        preparation.setName("old name");
+        repository.add(preparation);
+        assertFalse(repository.exist(Preparation.class, eq("name", "new name")));
+
+        // when
+        final FileSystemPreparationRepository otherProcess = new FileSystemPreparationRepository();
+        ReflectionTestUtils.setField(otherProcess, "mapper", mapper);
+        ReflectionTestUtils.setField(otherProcess, "preparationsLocation", "target/test/store/preparation");
+        ReflectionTestUtils.invokeMethod(otherProcess, "init");
+        preparation.setName("new name");
+        otherProcess.add(preparation);
+
+        // then
+        assertTrue(repository.exist(Preparation.class, eq("name", "new name")));
+        assertEquals(0, repository.count(Preparation.class, eq("name", "old name")));
+    }
+
+    @Test
+    public void shouldNotListRemovedPreparations() {
+        // given
+        Preparation preparation = getPreparation("removed");
+        repository.add(preparation);
+        assertTrue(repository.exist(Preparation.class, eq("dataSetId", "removed")));
+
+        // when
+        repository.remove(preparation);
+
+        // then
+        assertFalse(repository.exist(Preparation.class, eq("dataSetId", "removed")));
+        assertEquals(0, repository.count(Preparation.class, eq("dataSetId", "removed")));
+    }
+
     /**
      * @param datasetId the preparation id.
      * @return a preparation with a root step an a the given dataset id.
@@ -0,0 +1,76 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.transformation.actions.datablending;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+
+public class LookupIndexTest {
+
+    private static List<DataSetRow> rows(int count) {
+        final List<DataSetRow> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final Map<String, String> values = new HashMap<>();
+            values.put("0000", "key" + (i % (count / 2)));
+            values.put("0001", "value" + i);
+            values.put("0002", "ignored" + i);
+            rows.add(new DataSetRow(values));
+        }
+        return rows;
+    }
+
+    @Test
+    public void shouldIndexFirstRowOfEachJoinValue() {
+        // given
+        final List<DataSetRow> rows = rows(100);
+
+        // when
+        try (LookupIndex index = LookupIndex.build(rows.iterator(), "0000", Collections.singletonList("0001"),
+                Long.MAX_VALUE, null)) {
+
+            // then
+            assertEquals(50, index.size());
+            final DataSetRow row = index.get("key12");
+            assertEquals(1, row.values().size());
+            assertEquals("value12", row.get("0001"));
+            assertNull(index.get("unknown"));
+            assertNull(index.get(null));
+        }
+    }
+
+    @Test
+    public void shouldSpillLargeIndex() {
+        // given
+        final List<DataSetRow> rows = rows(10000);
+
+        // when
+        try (LookupIndex index = LookupIndex.build(rows.iterator(), "0000", Collections.singletonList("0001"), 1024,
+                null)) {
+
+            // then
+            assertEquals(5000, index.size());
+            assertEquals("value0", index.get("key0").get("0001"));
+            assertEquals("value4999", index.get("key4999").get("0001"));
+        }
+    }
+}
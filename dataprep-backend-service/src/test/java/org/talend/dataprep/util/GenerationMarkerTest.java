@@ -0,0 +1,60 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GenerationMarkerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldChangeGenerationOnEachWrite() throws Exception {
+        // given
+        final GenerationMarker marker = new GenerationMarker(new File(folder.getRoot(), ".generation"));
+        final String initial = marker.current();
+
+        // when
+        final String next = marker.next(initial);
+
+        // then
+        assertEquals("", initial);
+        assertNotEquals(initial, next);
+        assertEquals(next, marker.current());
+    }
+
+    @Test
+    public void shouldTellWhenAnotherWriterChangedGeneration() throws Exception {
+        // given
+        final File file = new File(folder.getRoot(), ".generation");
+        final GenerationMarker marker = new GenerationMarker(file);
+        final String known = marker.current();
+        new GenerationMarker(file).next(known); // another process
+
+        // when
+        final String next = marker.next(known);
+
+        // then
+        assertNull(next);
+        assertNotEquals(known, marker.current());
+    }
+}
@@ -21,8 +21,8 @@ import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.Encoder;
 import org.apache.avro.io.EncoderFactory;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.InitBinder;
@@ -30,6 +30,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.talend.daikon.exception.TalendRuntimeException;
 import org.talend.dataprep.BaseErrorCodes;
 import org.talend.dataprep.api.dataset.DataSet;
@@ -43,11 +44,12 @@ import org.talend.dataprep.exception.error.DataSetErrorCodes;
 import org.talend.dataprep.util.ConverterBasedPropertyEditor;
 import org.talend.dataprep.util.avro.AvroUtils;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static java.lang.Boolean.TRUE;
@@ -108,23 +110,44 @@ public class DataSetController {
         return null;
     }
 
+    /**
+     * Get the dataset Avro schema.
+     *
+     * @param datasetId id of the dataset
+     * @param columns   ids of the columns to keep in schema (all columns if empty)
+     * @return the dataset schema, reduced to <code>columns</code>
+     */
     @GetMapping(value = "/{datasetId}/schema", produces = AvroUtils.AVRO_JSON_MIME_TYPES_UNOFFICIAL_VALID_VALUE)
-    public String getDatasetSchema(@PathVariable String datasetId) {
+    public String getDatasetSchema(@PathVariable String datasetId,
+            @RequestParam(required = false) List<String> columns) {
         DataSet dataSet = dataSetService.getMetadata(datasetId);
 
         if (dataSet == null || dataSet.getMetadata() == null || dataSet.getMetadata().getRowMetadata() == null) {
             return null;
         }
 
-        RowMetadata rowMetadata = dataSet.getMetadata().getRowMetadata();
+        RowMetadata rowMetadata = project(dataSet.getMetadata().getRowMetadata(), columns);
         return AvroUtils.toSchema(rowMetadata).toString();
     }
 
+    /**
+     * Streams the dataset content as Avro binary records: records are encoded directly to the response, so memory use
+     * does not depend on the dataset size. Filter and projection are evaluated here, next to the storage, so only
+     * matching records and requested columns are sent.
+     *
+     * @param datasetId id of the dataset
+     * @param offset    number of records to skip
+     * @param limit     maximum number of records to read (-1 for no limit), filter applies on read records
+     * @param filter    TQL filter for records (all records if empty)
+     * @param columns   ids of the columns to return (all columns if empty)
+     * @return the dataset records, encoded with the dataset Avro schema reduced to <code>columns</code> (see
+     * {@link #getDatasetSchema(String, List)})
+     */
     @GetMapping(value = "/{datasetId}/content", produces = AvroUtils.AVRO_BINARY_MIME_TYPES_UNOFFICIAL_VALID_VALUE)
-    public Resource getDatasetContent(@PathVariable String datasetId, @RequestParam(defaultValue = "0") long offset,
-            @RequestParam(defaultValue = "-1") long limit) {
-        InputStream result;
-        Callable<DataSet> dataSetCallable = dataSetService.get(true, true, limit, EMPTY, datasetId);
+    public ResponseEntity<StreamingResponseBody> getDatasetContent(@PathVariable String datasetId,
+            @RequestParam(defaultValue = "0") long offset, @RequestParam(defaultValue = "-1") long limit,
+            @RequestParam(defaultValue = "") String filter, @RequestParam(required = false) List<String> columns) {
+        Callable<DataSet> dataSetCallable = dataSetService.get(true, true, offset, limit, filter, datasetId);
         Stream<DataSetRow> records = Stream.empty();
         DataSetMetadata metadata = null;
         try {
@@ -139,30 +162,49 @@ public class DataSetController {
         }
 
         if (metadata == null) {
+            records.close();
             throw new TDPException(DataSetErrorCodes.UNABLE_TO_SERVE_DATASET_CONTENT, build().put("id", datasetId));
         }
 
-        Schema schema = AvroUtils.toSchema(metadata.getRowMetadata());
-        GenericDatumWriter<GenericRecord> writer = new GenericDatumWriter<>(schema);
-
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+        final Schema schema = AvroUtils.toSchema(project(metadata.getRowMetadata(), columns));
+        final Stream<DataSetRow> content = records;
+        StreamingResponseBody body = outputStream -> {
+            GenericDatumWriter<GenericRecord> writer = new GenericDatumWriter<>(schema);
             Encoder encoder = EncoderFactory.get().binaryEncoder(outputStream, null);
+            try (Stream<DataSetRow> rows = content) {
+                rows
+                        .map(AvroUtils.buildToGenericRecordConverter(schema)) //
+                        .forEach(record -> {
+                            try {
+                                writer.write(record, encoder);
+                            } catch (IOException e) {
+                                throw new TalendRuntimeException(BaseErrorCodes.UNEXPECTED_EXCEPTION, e);
+                            }
+                        });
+                encoder.flush();
+            }
+        };
+        return ResponseEntity
+                .ok() //
+                .contentType(MediaType.valueOf(AvroUtils.AVRO_BINARY_MIME_TYPES_UNOFFICIAL_VALID_VALUE)) //
+                .body(body);
+    }
 
-            records
-                    .map(AvroUtils.buildToGenericRecordConverter(schema)) //
-                    .forEach(record -> {
-                        try {
-                            writer.write(record, encoder);
-                        } catch (IOException e) {
-                            throw new TalendRuntimeException(BaseErrorCodes.UNEXPECTED_EXCEPTION, e);
-                        }
-                    });
-            encoder.flush();
-            result = new ByteArrayInputStream(outputStream.toByteArray());
-        } catch (IOException e) {
-            throw new TalendRuntimeException(BaseErrorCodes.UNEXPECTED_EXCEPTION, e);
+    /**
+     * @param rowMetadata the dataset columns.
+     * @param columns     ids of the columns to keep (all columns if <code>null</code> or empty).
+     * @return the columns of <code>rowMetadata</code> whose id is in <code>columns</code> (in dataset order).
+     */
+    private static RowMetadata project(RowMetadata rowMetadata, List<String> columns) {
+        if (columns == null || columns.isEmpty()) {
+            return rowMetadata;
         }
-        return new InputStreamResource(result);
+        final Set<String> projection = new HashSet<>(columns);
+        return new RowMetadata(rowMetadata
+                .getColumns()
+                .stream() //
+                .filter(column -> projection.contains(column.getId())) //
+                .collect(Collectors.toList()));
     }
 
 }
@@ -17,7 +17,9 @@ import static java.util.Comparator.comparingInt;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.talend.dataprep.exception.error.DataSetErrorCodes.DATASET_NAME_ALREADY_USED;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 
@@ -28,6 +30,8 @@ import org.talend.daikon.exception.ExceptionContext;
 import org.talend.dataprep.api.dataset.DataSetMetadata;
 import org.talend.dataprep.dataset.DataSetMetadataBuilder;
 import org.talend.dataprep.dataset.service.analysis.DataSetAnalyzer;
+import org.talend.dataprep.dataset.service.analysis.synchronous.RowDataSetAnalyzer;
+import org.talend.dataprep.dataset.service.analysis.synchronous.SinglePassAnalysis;
 import org.talend.dataprep.dataset.service.analysis.synchronous.SynchronousDataSetAnalyzer;
 import org.talend.dataprep.dataset.store.content.ContentStoreRouter;
 import org.talend.dataprep.dataset.store.metadata.DataSetMetadataRepository;
@@ -58,6 +62,10 @@ public abstract class BaseDataSetService {
     @Autowired
     private List<SynchronousDataSetAnalyzer> synchronousAnalyzers;
 
+    /** Runs row analyzers from a single read of the content. */
+    @Autowired
+    private SinglePassAnalysis singlePassAnalysis;
+
     static void assertDataSetMetadata(DataSetMetadata dataSetMetadata, String dataSetId) {
         if (dataSetMetadata == null) {
             throw new TDPException(DataSetErrorCodes.DATASET_DOES_NOT_EXIST,
@@ -98,24 +106,37 @@ public abstract class BaseDataSetService {
     }
 
     /**
-     * Performs the analysis on the given dataset id.
+     * Performs the analysis on the given dataset id (rows analysis also stores the parsed rows and invalid cells of the
+     * data set content).
      *  @param id the dataset id.
      * @param analysersToSkip the list of analysers to skip.
      */
     protected final void analyzeDataSet(String id, List<Class<? extends DataSetAnalyzer>> analysersToSkip) {
-        // Calls all synchronous analysis first
+        // Calls all synchronous analysis first, consecutive row analyzers share a single read of the content
+        final List<RowDataSetAnalyzer> rowAnalyzers = new ArrayList<>();
         for (SynchronousDataSetAnalyzer synchronousDataSetAnalyzer : synchronousAnalyzers) {
             if (analysersToSkip.contains(synchronousDataSetAnalyzer.getClass())) {
                 continue;
             }
+            if (synchronousDataSetAnalyzer instanceof RowDataSetAnalyzer) {
+                rowAnalyzers.add((RowDataSetAnalyzer) synchronousDataSetAnalyzer);
+                continue;
+            }
+            analyzeRows(id, rowAnalyzers);
             LOG.info("Running {}", synchronousDataSetAnalyzer.getClass());
             synchronousDataSetAnalyzer.analyze(id);
             LOG.info("Done running {}", synchronousDataSetAnalyzer.getClass());
         }
+        analyzeRows(id, rowAnalyzers);
 
         // important log here (TDP-4137)
         final DataSetMetadata metadata = dataSetMetadataRepository.get(id);
         if (metadata != null) {
+            // Content format and columns are now known: store parsed rows (if not already stored by the analysis pass,
+            // that also stored invalid cells) so later reads neither parse content nor analyze quality again
+            if (!metadata.isDraft()) {
+                contentStore.storeAsRows(metadata);
+            }
             LOG.info("New DataSet #{}, name: {}, type: {}, from: {}", metadata.getId(), metadata.getName(),
                     metadata.getContent().getMediaType(), metadata.getLocation().getStoreName());
         } else {
@@ -123,4 +144,17 @@ public abstract class BaseDataSetService {
         }
     }
 
+    /**
+     * Runs the given row analyzers in a single pass (if any), then clears the list.
+     */
+    private void analyzeRows(String id, List<RowDataSetAnalyzer> rowAnalyzers) {
+        if (!rowAnalyzers.isEmpty()) {
+            final List<Class<?>> classes = rowAnalyzers.stream().map(Object::getClass).collect(Collectors.toList());
+            LOG.info("Running {}", classes);
+            singlePassAnalysis.analyze(id, rowAnalyzers);
+            LOG.info("Done running {}", classes);
+            rowAnalyzers.clear();
+        }
+    }
+
 }
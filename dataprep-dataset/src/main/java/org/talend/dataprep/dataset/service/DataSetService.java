@@ -60,6 +60,7 @@ import org.talend.dataprep.dataset.DataSetMetadataBuilder;
 import org.talend.dataprep.dataset.StatisticsAdapter;
 import org.talend.dataprep.dataset.event.DatasetImportedEvent;
 import org.talend.dataprep.dataset.event.DatasetUpdatedEvent;
+import org.talend.dataprep.dataset.service.analysis.asynchronous.BackgroundAnalysisProgress;
 import org.talend.dataprep.dataset.service.analysis.synchronous.ContentAnalysis;
 import org.talend.dataprep.dataset.service.analysis.synchronous.FormatAnalysis;
 import org.talend.dataprep.dataset.service.analysis.synchronous.SchemaAnalysis;
@@ -218,6 +219,12 @@ public class DataSetService extends BaseDataSetService {
     @Autowired
     private DatasetInjection datasetInjection;
 
+    /**
+     * Progress of the running statistics analyses.
+     */
+    @Autowired
+    private BackgroundAnalysisProgress analysisProgress;
+
     @RequestMapping(value = "/datasets", method = RequestMethod.GET)
     @ApiOperation(value = "List all data sets and filters on certified, or favorite or a limited number when asked",
             notes = "Returns the list of data sets (and filters) the current user is allowed to see. Creation date is a Epoch time value (in UTC time zone).")
@@ -452,6 +459,22 @@ public class DataSetService extends BaseDataSetService {
                             defaultValue = "") String filter,
                     @PathVariable(value = "id") @ApiParam(name = "id",
                             value = "Id of the requested data set") String dataSetId) {
+        return get(metadata, includeInternalContent, 0, limit, filter, dataSetId);
+    }
+
+    /**
+     * Returns the data set content for given id, starting from the row at <code>offset</code>.
+     *
+     * @param metadata If <code>true</code>, includes data set metadata information.
+     * @param includeInternalContent If <code>true</code>, includes internal content.
+     * @param offset The number of rows to skip.
+     * @param limit The maximum number of rows to return (-1 for no limit).
+     * @param filter Filter for retrieved content.
+     * @param dataSetId A data set id.
+     * @return The data set content from <code>offset</code>.
+     */
+    public Callable<DataSet> get(boolean metadata, boolean includeInternalContent, long offset, long limit,
+            String filter, String dataSetId) {
         return () -> {
             final Marker marker = Markers.dataset(dataSetId);
             LOG.debug(marker, "Get data set #{}", dataSetId);
@@ -464,7 +487,7 @@ public class DataSetService extends BaseDataSetService {
                 if (metadata) {
                     dataSet.setMetadata(conversionService.convert(dataSetMetadata, UserDataSetMetadata.class));
                 }
-                stream = contentStore.stream(dataSetMetadata, limit); // Disable line limit
+                stream = contentStore.stream(dataSetMetadata, offset, limit); // Disable line limit
                 if (!includeInternalContent) {
                     LOG.debug("Skip internal content when serving data set #{} content.", dataSetId);
                     stream = stream.map(r -> {
@@ -538,6 +561,29 @@ public class DataSetService extends BaseDataSetService {
         return dataSet;
     }
 
+    /**
+     * Returns the progress of the statistics analysis of the data set with provided id. Base statistics are saved in
+     * data set metadata once the first read of the content is over and advanced statistics once they are computed, so
+     * clients can follow this progress to know when to refresh the statistics of the data set.
+     *
+     * @param dataSetId A data set id.
+     * @return The progress of the statistics analysis, or {@link org.apache.http.HttpStatus#SC_NO_CONTENT} if no
+     * statistics analysis is running for the data set.
+     */
+    @RequestMapping(value = "/datasets/{id}/analysis/progress", method = RequestMethod.GET)
+    @ApiOperation(value = "Get progress of the statistics analysis of a data set by id",
+            notes = "Get progress of the statistics analysis of a data set by id. Returns empty content if no analysis is running.")
+    @Timed
+    @ResponseBody
+    public BackgroundAnalysisProgress.Progress getAnalysisProgress(@PathVariable(value = "id") @ApiParam(name = "id",
+            value = "Id of the data set") String dataSetId) {
+        final BackgroundAnalysisProgress.Progress progress = analysisProgress.get(dataSetId);
+        if (progress == null) {
+            HttpResponseContext.status(HttpStatus.NO_CONTENT);
+        }
+        return progress;
+    }
+
     /**
      * Deletes a data set with provided id.
      *
@@ -631,6 +677,10 @@ public class DataSetService extends BaseDataSetService {
             try (InputStream content = contentStore.getAsRaw(original)) {
                 contentStore.storeAsRaw(target, content);
             }
+            if (!target.isDraft()) {
+                contentStore.storeAsRows(target);
+                contentStore.storeInvalidCells(target);
+            }
 
             LOG.debug(marker, "Content stored.");
 
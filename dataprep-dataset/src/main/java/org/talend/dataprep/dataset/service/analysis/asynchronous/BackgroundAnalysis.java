@@ -15,13 +15,24 @@ package org.talend.dataprep.dataset.service.analysis.asynchronous;
 
 import static org.talend.dataprep.exception.error.DataSetErrorCodes.UNABLE_TO_ANALYZE_DATASET_QUALITY;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.talend.dataprep.api.dataset.ColumnMetadata;
 import org.talend.dataprep.api.dataset.DataSetMetadata;
@@ -39,6 +50,15 @@ import org.talend.dataquality.common.inference.ValueQualityStatistics;
 
 /**
  * Compute statistics analysis on the full dataset.
+ * <p>
+ * Base (schema) and advanced (full) analyses are computed from a single read of the content: rows are read in batches
+ * and each batch is analyzed by groups of <code>dataset.analysis.column-group-size</code> columns in parallel (while
+ * the next batch is read). Advanced analysis is configured with the column types known before the analysis, so the
+ * column groups whose types are changed by the base analysis are analyzed again (and only them).
+ * <p>
+ * Base statistics (and the advanced statistics of the column groups whose types did not change) are saved in data set
+ * metadata as soon as the first read is over, the advanced statistics of the column groups analyzed again are saved
+ * once they are analyzed. {@link BackgroundAnalysisProgress} tells the progress of running analyses.
  */
 @Component
 public class BackgroundAnalysis {
@@ -62,6 +82,35 @@ public class BackgroundAnalysis {
     @Autowired
     StatisticsAdapter adapter;
 
+    /** Progress of the running analyses. */
+    @Autowired
+    BackgroundAnalysisProgress analysisProgress;
+
+    /** Number of columns analyzed by a task. */
+    @Value("${dataset.analysis.column-group-size:20}")
+    private int columnGroupSize;
+
+    /** Number of rows read before they are analyzed. */
+    @Value("${dataset.analysis.batch-size:1000}")
+    private int batchSize;
+
+    /** Number of threads that analyze column groups (0 for the number of processors). */
+    @Value("${dataset.analysis.parallelism:0}")
+    private int parallelism;
+
+    /** Pool of the column group analysis tasks. */
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void initialize() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
     /**
      * @see DataSetAnalyzer#analyze
      */
@@ -86,39 +135,17 @@ public class BackgroundAnalysis {
             if (columns.isEmpty()) {
                 LOGGER.debug("Skip statistics of {} (no column information).", metadata.getId());
             } else {
-                // base analysis
-                try (final Stream<DataSetRow> stream = store.stream(metadata)) {
-                    try (Analyzer<Analyzers.Result> analyzer = analyzerService.schemaAnalysis(columns)) {
-                        computeStatistics(analyzer, columns, stream);
-                        LOGGER.debug("Base statistics analysis done for {}", dataSetId);
-                        // Save base analysis
-                        saveAnalyzerResults(dataSetId, analyzer);
-                    }
-                } catch (Exception e) {
-                    LOGGER.warn("Base statistics analysis, dataset {} generates an error", dataSetId, e);
-                    throw new TDPException(UNABLE_TO_ANALYZE_DATASET_QUALITY, e);
-                }
-                // advanced analysis
-                try (final Stream<DataSetRow> stream = store.stream(metadata)) {
-                    try (Analyzer<Analyzers.Result> analyzer = analyzerService.full(columns)) {
-                        computeStatistics(analyzer, columns, stream);
-                        updateNbRecords(metadata, analyzer.getResult());
-                        LOGGER.debug("Advanced statistics analysis done for{}", dataSetId);
-                        // Save advanced analysis
-                        saveAnalyzerResults(dataSetId, analyzer);
-                    }
-                } catch (Exception e) {
-                    LOGGER.warn("Advanced statistics analysis, dataset {} generates an error", dataSetId, e);
-                    throw new TDPException(UNABLE_TO_ANALYZE_DATASET_QUALITY, e);
-                }
-                // Tag data set quality: now analyzed
-                DistributedLock datasetLock = repository.createDatasetMetadataLock(metadata.getId());
+                final BackgroundAnalysisProgress.Progress progress =
+                        analysisProgress.start(dataSetId, metadata.getContent().getNbRecords());
                 try {
-                    datasetLock.lock();
-                    metadata.getLifecycle().qualityAnalyzed(true);
-                    repository.save(metadata);
+                    computeStatistics(metadata, progress);
                 } finally {
-                    datasetLock.unlock();
+                    analysisProgress.end(dataSetId);
+                }
+                // Column types may have changed with full analysis: store invalid cells for the final columns
+                final DataSetMetadata analyzed = repository.get(dataSetId);
+                if (analyzed != null) {
+                    store.storeInvalidCells(analyzed);
                 }
                 LOGGER.info("Statistics analysis done for {}", dataSetId);
             }
@@ -127,14 +154,157 @@ public class BackgroundAnalysis {
         }
     }
 
-    private void saveAnalyzerResults(String id, Analyzer<Analyzers.Result> analyzer) {
+    /**
+     * Compute the base and advanced statistics for the given dataset metadata and save them.
+     *
+     * @param metadata the dataset metadata (its columns are updated by the analysis).
+     * @param progress the progress of the analysis.
+     */
+    private void computeStatistics(DataSetMetadata metadata, BackgroundAnalysisProgress.Progress progress) {
+        final List<ColumnMetadata> columns = metadata.getRowMetadata().getColumns();
+        final List<ColumnGroup> groups = new ArrayList<>();
+        final int groupSize = Math.max(1, columnGroupSize);
+        for (int from = 0; from < columns.size(); from += groupSize) {
+            groups.add(new ColumnGroup(from, Math.min(columns.size(), from + groupSize)));
+        }
+        try {
+            // base and advanced analysis
+            for (ColumnGroup group : groups) {
+                group.analyzers.add(analyzerService.schemaAnalysis(group.columns(columns)));
+                group.analyzers.add(analyzerService.full(group.columns(columns)));
+            }
+            read(metadata, groups, progress);
+            final List<Analyzers.Result> baseResults = getResults(groups, 0);
+            final List<Analyzers.Result> advancedResults = getResults(groups, 1);
+            LOGGER.debug("Base and advanced statistics analysis done for {}", metadata.getId());
+
+            // advanced analysis of the column groups whose types changed with base analysis
+            final List<String> types = getTypes(columns);
+            adapter.adapt(columns, baseResults);
+            final List<String> adaptedTypes = getTypes(columns);
+            final List<ColumnGroup> changed = groups
+                    .stream() //
+                    .filter(group -> !group.columns(types).equals(group.columns(adaptedTypes))) //
+                    .collect(Collectors.toList());
+            final List<ColumnGroup> unchanged = new ArrayList<>(groups);
+            unchanged.removeAll(changed);
+
+            // base statistics are saved before column groups are analyzed again
+            saveAnalyzerResults(metadata.getId(), baseResults, advancedResults, unchanged, changed.isEmpty());
+            if (!changed.isEmpty()) {
+                LOGGER.debug("Column types of {} changed, analyze {} column group(s) again", metadata.getId(),
+                        changed.size());
+                for (ColumnGroup group : changed) {
+                    group.close();
+                    group.analyzers.add(analyzerService.full(group.columns(columns)));
+                }
+                read(metadata, changed, progress);
+                for (ColumnGroup group : changed) {
+                    final List<Analyzers.Result> results = getResults(Collections.singletonList(group), 0);
+                    for (int i = 0; i < results.size(); i++) {
+                        advancedResults.set(group.from + i, results.get(i));
+                    }
+                }
+                LOGGER.debug("Advanced statistics analysis done for {}", metadata.getId());
+                saveAnalyzerResults(metadata.getId(), null, advancedResults, changed, true);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Statistics analysis, dataset {} generates an error", metadata.getId(), e);
+            throw new TDPException(UNABLE_TO_ANALYZE_DATASET_QUALITY, e);
+        } finally {
+            groups.forEach(ColumnGroup::close);
+        }
+    }
+
+    /**
+     * Reads the content once and analyzes it with the analyzers of the column groups.
+     */
+    private void read(DataSetMetadata metadata, List<ColumnGroup> groups, BackgroundAnalysisProgress.Progress progress)
+            throws Exception {
+        progress.pass();
+        ForkJoinTask<?> running = null;
+        try (final Stream<DataSetRow> stream = store.stream(metadata)) {
+            final Iterator<DataSetRow> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                final List<String[]> batch = new ArrayList<>(batchSize);
+                while (iterator.hasNext() && batch.size() < batchSize) {
+                    batch.add(iterator.next().toArray(DataSetRow.SKIP_TDP_ID));
+                }
+                // Next batch is read while the previous one is analyzed, but a column group analyzes batches in order.
+                if (running != null) {
+                    running.get();
+                }
+                running = pool.submit(() -> {
+                    groups.parallelStream().forEach(group -> group.analyze(batch));
+                    progress.processed(batch.size());
+                });
+            }
+            if (running != null) {
+                running.get();
+            }
+        } finally {
+            if (running != null) {
+                // Analyzers must not be in use once read is over (even on error).
+                running.quietlyJoin();
+            }
+        }
+    }
+
+    /**
+     * Ends the analyzers at <code>index</code> of each column group.
+     *
+     * @return The results of the analyzers for all the columns of the groups.
+     */
+    private static List<Analyzers.Result> getResults(List<ColumnGroup> groups, int index) {
+        final List<Analyzers.Result> results = new ArrayList<>();
+        for (ColumnGroup group : groups) {
+            final Analyzer<Analyzers.Result> analyzer = group.analyzers.get(index);
+            analyzer.end();
+            results.addAll(analyzer.getResult());
+        }
+        return results;
+    }
+
+    /**
+     * @return The type information (type and domain) of the columns, used to configure advanced analysis.
+     */
+    private static List<String> getTypes(List<ColumnMetadata> columns) {
+        return columns.stream().map(column -> column.getType() + ':' + column.getDomain()).collect(Collectors.toList());
+    }
+
+    /**
+     * Saves analysis results in data set metadata.
+     *
+     * @param id the data set id.
+     * @param baseResults the base analysis results of all columns (<code>null</code> if already saved).
+     * @param advancedResults the advanced analysis results of all columns.
+     * @param advancedGroups the column groups whose advanced analysis results are saved.
+     * @param analyzed <code>true</code> if analysis is over (data set is then tagged as analyzed).
+     */
+    private void saveAnalyzerResults(String id, List<Analyzers.Result> baseResults,
+            List<Analyzers.Result> advancedResults, List<ColumnGroup> advancedGroups, boolean analyzed) {
         DistributedLock datasetLock = repository.createDatasetMetadataLock(id);
         try {
             datasetLock.lock();
             final DataSetMetadata dataSetMetadata = repository.get(id);
             if (dataSetMetadata != null) {
-                adapter.adapt(dataSetMetadata.getRowMetadata().getColumns(), analyzer.getResult());
+                final List<ColumnMetadata> columns = dataSetMetadata.getRowMetadata().getColumns();
+                if (baseResults != null) {
+                    adapter.adapt(columns, baseResults);
+                }
+                for (ColumnGroup group : advancedGroups) {
+                    if (group.to <= columns.size()) {
+                        adapter.adapt(group.columns(columns), group.columns(advancedResults));
+                    }
+                }
+                if (analyzed) {
+                    updateNbRecords(dataSetMetadata, advancedResults);
+                    // Tag data set quality: now analyzed
+                    dataSetMetadata.getLifecycle().qualityAnalyzed(true);
+                }
                 repository.save(dataSetMetadata);
+                LOGGER.debug("Statistics of {} saved ({} column group(s) with advanced statistics{}).", id,
+                        advancedGroups.size(), analyzed ? ", analysis done" : "");
             }
         } finally {
             datasetLock.unlock();
@@ -162,20 +332,48 @@ public class BackgroundAnalysis {
     }
 
     /**
-     * Compute the statistics for the given dataset metadata and content.
-     *
-     * @param analyzer the analyzer to perform.
-     * @param columns the columns metadata.
-     * @param stream the content to compute the statistics from.
+     * A group of consecutive columns analyzed by the same task.
      */
-    private void computeStatistics(final Analyzer<Analyzers.Result> analyzer, final List<ColumnMetadata> columns,
-            final Stream<DataSetRow> stream) {
-        // Create a content with the expected format for the StatisticsClientJson class
-        stream.map(row -> row.toArray(DataSetRow.SKIP_TDP_ID)).forEach(analyzer::analyze);
-        analyzer.end();
-
-        // Store results back in data set
-        adapter.adapt(columns, analyzer.getResult());
+    private static class ColumnGroup {
+
+        /** Index of the first column of the group. */
+        private final int from;
+
+        /** Index after the last column of the group. */
+        private final int to;
+
+        /** The analyzers of the columns of the group. */
+        private final List<Analyzer<Analyzers.Result>> analyzers = new ArrayList<>();
+
+        private ColumnGroup(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        private <T> List<T> columns(List<T> all) {
+            return all.subList(from, to);
+        }
+
+        private void analyze(List<String[]> rows) {
+            for (String[] row : rows) {
+                final String[] values = from == 0 && to >= row.length ? row
+                        : Arrays.copyOfRange(row, Math.min(from, row.length), Math.min(to, row.length));
+                for (Analyzer<Analyzers.Result> analyzer : analyzers) {
+                    analyzer.analyze(values);
+                }
+            }
+        }
+
+        private void close() {
+            for (Analyzer<Analyzers.Result> analyzer : analyzers) {
+                try {
+                    analyzer.close();
+                } catch (Exception e) {
+                    LOGGER.debug("Unable to close analyzer.", e);
+                }
+            }
+            analyzers.clear();
+        }
     }
 
 }
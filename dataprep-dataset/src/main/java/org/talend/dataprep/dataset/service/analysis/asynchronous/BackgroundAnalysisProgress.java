@@ -0,0 +1,109 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.dataset.service.analysis.asynchronous;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Progress of the running {@link BackgroundAnalysis statistics analyses}, per data set id.
+ */
+@Component
+public class BackgroundAnalysisProgress {
+
+    private final Map<String, Progress> analyses = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a new statistics analysis.
+     *
+     * @param dataSetId The analyzed data set id.
+     * @param targetRows The number of rows expected to be analyzed (0 if unknown).
+     * @return The progress of the analysis.
+     */
+    public Progress start(String dataSetId, long targetRows) {
+        final Progress progress = new Progress(targetRows);
+        analyses.put(dataSetId, progress);
+        return progress;
+    }
+
+    /**
+     * Unregisters the statistics analysis of a data set.
+     *
+     * @param dataSetId The analyzed data set id.
+     */
+    public void end(String dataSetId) {
+        analyses.remove(dataSetId);
+    }
+
+    /**
+     * @param dataSetId A data set id.
+     * @return The progress of the statistics analysis of the data set, or <code>null</code> if none is running.
+     */
+    public Progress get(String dataSetId) {
+        return analyses.get(dataSetId);
+    }
+
+    /**
+     * Progress of a statistics analysis.
+     */
+    public static class Progress {
+
+        /** How many rows are expected to be analyzed (0 if unknown). */
+        private final long targetRows;
+
+        /** How many rows are analyzed so far. */
+        private final AtomicLong processedRows = new AtomicLong();
+
+        /** Number of statistics analysis passes on the content (more than one if column types changed). */
+        private volatile int passes;
+
+        private Progress(long targetRows) {
+            this.targetRows = targetRows;
+        }
+
+        void processed(long rows) {
+            processedRows.addAndGet(rows);
+        }
+
+        void pass() {
+            passes++;
+            processedRows.set(0);
+        }
+
+        public long getTargetRows() {
+            return targetRows;
+        }
+
+        public long getProcessedRows() {
+            return processedRows.get();
+        }
+
+        public int getPasses() {
+            return passes;
+        }
+
+        /**
+         * @return The 0 to 1 value that represents the advancement of the current pass (or <code>null</code> if the
+         * number of rows to analyze is unknown).
+         */
+        public Float getPercentage() {
+            if (targetRows <= 0) {
+                return null;
+            }
+            return Math.min(1f, ((float) processedRows.get()) / targetRows);
+        }
+    }
+}
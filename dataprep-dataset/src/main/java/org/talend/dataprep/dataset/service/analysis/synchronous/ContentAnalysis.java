@@ -13,11 +13,10 @@
 
 package org.talend.dataprep.dataset.service.analysis.synchronous;
 
+import static java.util.Collections.singletonList;
+
 import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Stream;
 
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,18 +24,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.talend.dataprep.api.dataset.DataSetContent;
 import org.talend.dataprep.api.dataset.DataSetMetadata;
-import org.talend.dataprep.api.dataset.row.DataSetRow;
 import org.talend.dataprep.dataset.service.analysis.DataSetAnalyzer;
-import org.talend.dataprep.dataset.store.content.ContentStoreRouter;
-import org.talend.dataprep.dataset.store.metadata.DataSetMetadataRepository;
-import org.talend.dataprep.lock.DistributedLock;
 import org.talend.dataprep.schema.csv.CSVFormatFamily;
 
 /**
  * This analyzer means to index the content for search.
  */
 @Component
-public class ContentAnalysis implements SynchronousDataSetAnalyzer {
+public class ContentAnalysis implements RowDataSetAnalyzer {
 
     /** This class' logger. */
     private static final Logger LOG = LoggerFactory.getLogger(ContentAnalysis.class);
@@ -45,44 +40,44 @@ public class ContentAnalysis implements SynchronousDataSetAnalyzer {
     @Value("${dataset.records.limit:10000}")
     private Long sizeLimit;
 
-    /** DataSet metadata repository. */
-    @Autowired
-    private DataSetMetadataRepository repository;
-
-    /** Dataset content store. */
+    /** Runs the analysis with the other row analyzers. */
     @Autowired
-    private ContentStoreRouter contentStore;
+    private SinglePassAnalysis singlePassAnalysis;
 
     /**
      * @see DataSetAnalyzer#analyze(String)
      */
     @Override
     public void analyze(String dataSetId) {
+        singlePassAnalysis.analyze(dataSetId, singletonList(this));
+    }
 
-        // defensive programming
-        if (StringUtils.isEmpty(dataSetId)) {
-            throw new IllegalArgumentException("Data set id cannot be null or empty.");
-        }
+    /**
+     * Counts rows up to the first one after the size limit (instead of skipping the first rows of a separate read).
+     *
+     * @see RowDataSetAnalyzer#start(DataSetMetadata)
+     */
+    @Override
+    public RowAnalysis start(DataSetMetadata metadata) {
+        LOG.info("Indexing content of data set #{}...", metadata.getId());
+        updateHeaderAndFooter(metadata);
+        final long limit = sizeLimit;
+        return new RowAnalysis() {
 
-        DistributedLock datasetLock = repository.createDatasetMetadataLock(dataSetId);
-        datasetLock.lock();
-        try {
-            DataSetMetadata metadata = repository.get(dataSetId);
-            if (metadata != null) {
-                LOG.info("Indexing content of data set #{}...", metadata.getId());
+            private long count;
 
-                updateHeaderAndFooter(metadata);
-                updateLimit(metadata);
+            @Override
+            public boolean accept(String[] values) {
+                return ++count <= limit;
+            }
 
+            @Override
+            public void end() {
+                updateLimit(metadata, count > limit);
                 metadata.getLifecycle().contentIndexed(true);
-                repository.save(metadata);
-                LOG.info("Indexed content of data set #{}.", dataSetId);
-            } else {
-                LOG.info("Data set #{} no longer exists.", dataSetId); //$NON-NLS-1$
+                LOG.info("Indexed content of data set #{}.", metadata.getId());
             }
-        } finally {
-            datasetLock.unlock();
-        }
+        };
     }
 
     /**
@@ -110,14 +105,11 @@ public class ContentAnalysis implements SynchronousDataSetAnalyzer {
      * Update the dataset limit if it's too large for the system settings.
      *
      * @param metadata the dataset metadata to update.
+     * @param exceedsLimit <code>true</code> if the dataset content has more rows than the size limit.
      */
-    private void updateLimit(DataSetMetadata metadata) {
-        // auto closable block is really important to make sure the stream is closed after the limit is set
-        try (final Stream<DataSetRow> stream = contentStore.stream(metadata)) {
-            final Optional<DataSetRow> firstAfterLimit = stream.skip(sizeLimit).findAny();
-            if (firstAfterLimit.isPresent()) {
-                metadata.getContent().setLimit(sizeLimit);
-            }
+    private void updateLimit(DataSetMetadata metadata, boolean exceedsLimit) {
+        if (exceedsLimit) {
+            metadata.getContent().setLimit(sizeLimit);
         }
     }
 
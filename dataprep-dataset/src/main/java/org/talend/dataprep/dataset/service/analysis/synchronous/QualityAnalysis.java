@@ -13,12 +13,12 @@
 
 package org.talend.dataprep.dataset.service.analysis.synchronous;
 
+import static java.util.Collections.singletonList;
+
+import java.util.Iterator;
 import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,29 +28,27 @@ import org.talend.dataprep.api.dataset.ColumnMetadata;
 import org.talend.dataprep.api.dataset.DataSetMetadata;
 import org.talend.dataprep.api.dataset.row.DataSetRow;
 import org.talend.dataprep.dataset.StatisticsAdapter;
-import org.talend.dataprep.dataset.store.content.ContentStoreRouter;
-import org.talend.dataprep.dataset.store.metadata.DataSetMetadataRepository;
 import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.exception.error.CommonErrorCodes;
 import org.talend.dataprep.exception.error.DataSetErrorCodes;
-import org.talend.dataprep.lock.DistributedLock;
 import org.talend.dataprep.quality.AnalyzerService;
 import org.talend.dataquality.common.inference.Analyzer;
 import org.talend.dataquality.common.inference.Analyzers;
 
 @Component
-public class QualityAnalysis implements SynchronousDataSetAnalyzer {
+public class QualityAnalysis implements RowDataSetAnalyzer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(QualityAnalysis.class);
 
     @Value("#{'${max_records:2000}'}")
     private final int maxRecord = 2000;
 
-    @Autowired
-    DataSetMetadataRepository repository;
+    /** Number of records counted in a sample. */
+    @Value("${dataset.records.limit:10000}")
+    private long sampleSize;
 
     @Autowired
-    ContentStoreRouter store;
+    SinglePassAnalysis singlePassAnalysis;
 
     @Autowired
     StatisticsAdapter adapter;
@@ -65,37 +63,47 @@ public class QualityAnalysis implements SynchronousDataSetAnalyzer {
      */
     @Override
     public void analyze(String dataSetId) {
-        if (StringUtils.isEmpty(dataSetId)) {
-            throw new IllegalArgumentException("Data set id cannot be null or empty.");
+        singlePassAnalysis.analyze(dataSetId, singletonList(this));
+    }
+
+    /**
+     * @see RowDataSetAnalyzer#start(DataSetMetadata)
+     */
+    @Override
+    public RowAnalysis start(DataSetMetadata metadata) {
+        // e.g. excel multi sheet dataset when user has not choose the sheet yet
+        if (!metadata.getLifecycle().isInProgress()) {
+            LOGGER.debug("No need to recompute quality of data set #{} (statistics are completed).", metadata.getId());
+            return null;
         }
-        DistributedLock datasetLock = repository.createDatasetMetadataLock(dataSetId);
-        datasetLock.lock();
-        try {
-            DataSetMetadata metadata = repository.get(dataSetId);
-            if (metadata == null) {
-                LOGGER.info("Unable to analyze quality of data set #{}: seems to be removed.", dataSetId);
-                return;
-            }
-            // e.g. excel multi sheet dataset when user has not choose the sheet yet
-            if (!metadata.getLifecycle().isInProgress()) {
-                LOGGER.debug("No need to recompute quality of data set #{} (statistics are completed).", dataSetId);
-                return;
+        if (!metadata.getLifecycle().schemaAnalyzed()) {
+            LOGGER.debug("Schema information must be computed before quality analysis can be performed, ignoring.");
+            return null;
+        }
+        LOGGER.debug("Analyzing quality of dataset #{}...", metadata.getId());
+        // New data set, or reached the max limit of records for synchronous analysis, trigger a full scan (but
+        // async).
+        final long dataSetSize = metadata.getContent().getNbRecords();
+        final boolean isNewDataSet = dataSetSize == 0;
+        // If data set size is maxRecord, performs a full scan, otherwise only take first maxRecord records.
+        final RowAnalysis quality = isNewDataSet || dataSetSize == maxRecord
+                ? new Quality(metadata, dataSetSize == maxRecord ? -1 : maxRecord) : null;
+        return new RowAnalysis() {
+
+            @Override
+            public boolean accept(String[] values) {
+                return quality != null && quality.accept(values);
             }
-            try (Stream<DataSetRow> stream = store.stream(metadata)) {
-                if (!metadata.getLifecycle().schemaAnalyzed()) {
-                    LOGGER.debug(
-                            "Schema information must be computed before quality analysis can be performed, ignoring message");
-                    return; // no acknowledge to allow re-poll.
-                }
-                LOGGER.debug("Analyzing quality of dataset #{}...", metadata.getId());
-                // New data set, or reached the max limit of records for synchronous analysis, trigger a full scan (but
-                // async).
-                final long dataSetSize = metadata.getContent().getNbRecords();
-                final boolean isNewDataSet = dataSetSize == 0;
-                if (isNewDataSet || dataSetSize == maxRecord) {
-                    // If data set size is maxRecord, performs a full scan, otherwise only take first maxRecord
-                    // records.
-                    computeQuality(metadata, stream, dataSetSize == maxRecord ? -1 : maxRecord);
+
+            @Override
+            public void end() {
+                try {
+                    if (quality != null) {
+                        quality.end();
+                    }
+                } catch (Exception e) {
+                    LOGGER.warn("dataset '{}' generate an error, message: {} ", metadata.getId(), e.getMessage());
+                    throw new TDPException(DataSetErrorCodes.UNABLE_TO_ANALYZE_DATASET_QUALITY, e);
                 }
                 // Turn on / off "in progress" flag
                 if (isNewDataSet && metadata.getContent().getNbRecords() >= maxRecord) {
@@ -105,15 +113,17 @@ public class QualityAnalysis implements SynchronousDataSetAnalyzer {
                 }
                 // ... all quality is now analyzed, mark it so.
                 metadata.getLifecycle().qualityAnalyzed(true);
-                repository.save(metadata);
-                LOGGER.debug("Analyzed quality of dataset #{}.", dataSetId);
-            } catch (Exception e) {
-                LOGGER.warn("dataset '{}' generate an error, message: {} ", dataSetId, e.getMessage());
-                throw new TDPException(DataSetErrorCodes.UNABLE_TO_ANALYZE_DATASET_QUALITY, e);
+                LOGGER.debug("Analyzed quality of dataset #{}.", metadata.getId());
             }
-        } finally {
-            datasetLock.unlock();
-        }
+        };
+    }
+
+    /**
+     * Quality analysis needs the column types found by {@link SchemaAnalysis}.
+     */
+    @Override
+    public boolean dependsOn(RowDataSetAnalyzer other) {
+        return other instanceof SchemaAnalysis;
     }
 
     /**
@@ -132,26 +142,66 @@ public class QualityAnalysis implements SynchronousDataSetAnalyzer {
      * @param limit indicates how many records will be read from stream. Use a number < 0 to perform a full scan of
      */
     public void computeQuality(DataSetMetadata dataset, Stream<DataSetRow> records, long limit) {
-        // Compute sample / valid / invalid / empty / count, need data types for analyzer first
-        final List<ColumnMetadata> columns = dataset.getRowMetadata().getColumns();
-        if (columns.isEmpty()) {
-            LOGGER.debug("Skip analysis of {} (no column information).", dataset.getId());
-            return;
+        final Quality quality = new Quality(dataset, limit);
+        final Iterator<DataSetRow> iterator = records.iterator();
+        while (iterator.hasNext() && quality.accept(iterator.next().toArray(DataSetRow.SKIP_TDP_ID))) {
+            // Quality needs more records.
         }
-        try (Analyzer<Analyzers.Result> analyzer = analyzerService.qualityAnalysis(columns)) {
-            AtomicLong sampleRecordsCount = new AtomicLong(0);
-            records.peek(r -> sampleRecordsCount.incrementAndGet()).map(row -> {
-                if (sampleRecordsCount.get() < limit) {
-                    return row.toArray(DataSetRow.SKIP_TDP_ID);
-                }
-                return null;
-            }).filter(Objects::nonNull).forEach(analyzer::analyze);
-            final List<Analyzers.Result> result = analyzer.getResult();
-            adapter.adapt(columns, result);
-            // Remember the number of records of the current sample
-            dataset.getContent().setNbRecords((int) sampleRecordsCount.get());
-        } catch (Exception e) {
-            throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+        quality.end();
+    }
+
+    /**
+     * Computes the quality (count, valid, invalid and empty) of the records of a dataset.
+     */
+    private class Quality implements RowAnalysis {
+
+        private final DataSetMetadata dataset;
+
+        private final List<ColumnMetadata> columns;
+
+        /** Number of records to analyze (< 0 to analyze all records of the sample). */
+        private final long limit;
+
+        /** Analyzer for the records (null if dataset has no column). */
+        private final Analyzer<Analyzers.Result> analyzer;
+
+        private long count;
+
+        private Quality(DataSetMetadata dataset, long limit) {
+            this.dataset = dataset;
+            this.columns = dataset.getRowMetadata().getColumns();
+            this.limit = limit;
+            // Compute sample / valid / invalid / empty / count, need data types for analyzer first
+            this.analyzer = columns.isEmpty() ? null : analyzerService.qualityAnalysis(columns);
+        }
+
+        @Override
+        public boolean accept(String[] values) {
+            if (analyzer == null) {
+                return false;
+            }
+            count++;
+            if (limit < 0 || count < limit) {
+                analyzer.analyze(values);
+            }
+            // Keep counting the records of the sample.
+            return count < sampleSize;
+        }
+
+        @Override
+        public void end() {
+            if (analyzer == null) {
+                LOGGER.debug("Skip analysis of {} (no column information).", dataset.getId());
+                return;
+            }
+            try (Analyzer<Analyzers.Result> closeable = analyzer) {
+                final List<Analyzers.Result> result = closeable.getResult();
+                adapter.adapt(columns, result);
+                // Remember the number of records of the current sample
+                dataset.getContent().setNbRecords((int) count);
+            } catch (Exception e) {
+                throw new TDPException(CommonErrorCodes.UNEXPECTED_EXCEPTION, e);
+            }
         }
     }
 }
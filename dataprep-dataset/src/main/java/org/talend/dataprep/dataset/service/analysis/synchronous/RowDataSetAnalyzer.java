@@ -0,0 +1,59 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.dataset.service.analysis.synchronous;
+
+import org.talend.dataprep.api.dataset.DataSetMetadata;
+
+/**
+ * A synchronous analyzer that reads the data set rows. Consecutive row analyzers are not run one after the other:
+ * {@link SinglePassAnalysis} feeds all of them from a single read of the data set content.
+ *
+ * @see SinglePassAnalysis
+ */
+public interface RowDataSetAnalyzer extends SynchronousDataSetAnalyzer {
+
+    /**
+     * Starts the analysis of a data set. Caller holds the data set metadata lock and saves the metadata once all
+     * analyses are ended.
+     *
+     * @param metadata The data set metadata.
+     * @return The analysis to feed with the data set rows, or <code>null</code> if there is nothing to analyze.
+     */
+    RowAnalysis start(DataSetMetadata metadata);
+
+    /**
+     * @param other An other analyzer run in the same pass.
+     * @return <code>true</code> if this analyzer can only start once the <code>other</code> analysis is ended (e.g.
+     * quality analysis needs the column types found by schema analysis).
+     */
+    default boolean dependsOn(RowDataSetAnalyzer other) {
+        return false;
+    }
+
+    /**
+     * The analysis of the rows of a data set.
+     */
+    interface RowAnalysis {
+
+        /**
+         * @param values The values of the next non empty row (without TDP id).
+         * @return <code>true</code> if the analysis needs more rows, <code>false</code> otherwise.
+         */
+        boolean accept(String[] values);
+
+        /**
+         * Ends the analysis (once it needs no more rows or all rows are read) and updates the data set metadata.
+         */
+        void end();
+    }
+}
@@ -13,31 +13,26 @@
 
 package org.talend.dataprep.dataset.service.analysis.synchronous;
 
+import static java.util.Collections.singletonList;
 import static org.talend.dataprep.exception.error.DataSetErrorCodes.UNABLE_TO_ANALYZE_COLUMN_TYPES;
 
 import java.util.List;
-import java.util.stream.Stream;
 
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.talend.dataprep.api.dataset.ColumnMetadata;
 import org.talend.dataprep.api.dataset.DataSetMetadata;
-import org.talend.dataprep.api.dataset.row.DataSetRow;
 import org.talend.dataprep.dataset.StatisticsAdapter;
-import org.talend.dataprep.dataset.store.content.ContentStoreRouter;
-import org.talend.dataprep.dataset.store.metadata.DataSetMetadataRepository;
 import org.talend.dataprep.exception.TDPException;
-import org.talend.dataprep.lock.DistributedLock;
 import org.talend.dataprep.quality.AnalyzerService;
 import org.talend.dataquality.common.inference.Analyzer;
 import org.talend.dataquality.common.inference.Analyzers;
 
 /**
  * <p>
- * Schema analysis use the first 20 rows of the dataset content to find out columns' :
+ * Schema analysis use the first 100 rows of the dataset content to find out columns' :
  * <ul>
  * <li>data type</li>
  * <li>semantic</li>
@@ -46,15 +41,15 @@ import org.talend.dataquality.common.inference.Analyzers;
  * </p>
  */
 @Component
-public class SchemaAnalysis implements SynchronousDataSetAnalyzer {
+public class SchemaAnalysis implements RowDataSetAnalyzer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SchemaAnalysis.class);
 
-    @Autowired
-    DataSetMetadataRepository repository;
+    /** Number of rows used to find out columns' types. */
+    private static final int SCHEMA_ROWS = 100;
 
     @Autowired
-    ContentStoreRouter store;
+    SinglePassAnalysis singlePassAnalysis;
 
     @Autowired
     StatisticsAdapter adapter;
@@ -64,39 +59,39 @@ public class SchemaAnalysis implements SynchronousDataSetAnalyzer {
 
     @Override
     public void analyze(String dataSetId) {
-        if (StringUtils.isEmpty(dataSetId)) {
-            throw new IllegalArgumentException("Data set id cannot be null or empty.");
-        }
-        DistributedLock datasetLock = repository.createDatasetMetadataLock(dataSetId);
-        datasetLock.lock();
-        try {
-            DataSetMetadata metadata = repository.get(dataSetId);
-            if (metadata == null) {
-                LOGGER.info("Unable to analyze schema of data set #{}: seems to be removed.", dataSetId);
-                return;
+        singlePassAnalysis.analyze(dataSetId, singletonList(this));
+    }
+
+    @Override
+    public RowAnalysis start(DataSetMetadata metadata) {
+        LOGGER.info("Analyzing schema in dataset #{}...", metadata.getId());
+        // Configure analyzers
+        final List<ColumnMetadata> columns = metadata.getRowMetadata().getColumns();
+        final Analyzer<Analyzers.Result> analyzer = analyzerService.schemaAnalysis(columns);
+        return new RowAnalysis() {
+
+            private int count;
+
+            @Override
+            public boolean accept(String[] values) {
+                // Determine schema for the content.
+                analyzer.analyze(values);
+                return ++count < SCHEMA_ROWS;
             }
-            // Schema analysis
-            try (Stream<DataSetRow> stream = store.stream(metadata)) {
-                LOGGER.info("Analyzing schema in dataset #{}...", dataSetId);
-                // Configure analyzers
-                final List<ColumnMetadata> columns = metadata.getRowMetadata().getColumns();
-                try (Analyzer<Analyzers.Result> analyzer = analyzerService.schemaAnalysis(columns)) {
-                    // Determine schema for the content.
-                    stream.limit(100).map(row -> row.toArray(DataSetRow.SKIP_TDP_ID)).forEach(analyzer::analyze);
 
+            @Override
+            public void end() {
+                try (Analyzer<Analyzers.Result> closeable = analyzer) {
                     // Find the best suitable type
-                    adapter.adapt(columns, analyzer.getResult());
-                    LOGGER.info("Analyzed schema in dataset #{}.", dataSetId);
+                    adapter.adapt(columns, closeable.getResult());
+                    LOGGER.info("Analyzed schema in dataset #{}.", metadata.getId());
                     metadata.getLifecycle().schemaAnalyzed(true);
-                    repository.save(metadata);
+                } catch (Exception e) {
+                    LOGGER.error("Unable to analyse schema for dataset " + metadata.getId() + ".", e);
+                    TDPException.rethrowOrWrap(e, UNABLE_TO_ANALYZE_COLUMN_TYPES);
                 }
-            } catch (Exception e) {
-                LOGGER.error("Unable to analyse schema for dataset " + dataSetId + ".", e);
-                TDPException.rethrowOrWrap(e, UNABLE_TO_ANALYZE_COLUMN_TYPES);
             }
-        } finally {
-            datasetLock.unlock();
-        }
+        };
     }
 
     @Override
@@ -0,0 +1,389 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.dataset.service.analysis.synchronous;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.talend.dataprep.api.dataset.ColumnMetadata;
+import org.talend.dataprep.api.dataset.DataSetMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.api.dataset.row.InvalidMarker;
+import org.talend.dataprep.dataset.store.content.ContentStoreRouter;
+import org.talend.dataprep.dataset.store.content.InvalidCellsWriter;
+import org.talend.dataprep.dataset.store.metadata.DataSetMetadataRepository;
+import org.talend.dataprep.lock.DistributedLock;
+import org.talend.dataprep.quality.AnalyzerService;
+import org.talend.dataquality.common.inference.Analyzer;
+import org.talend.dataquality.common.inference.Analyzers;
+
+/**
+ * Runs {@link RowDataSetAnalyzer row analyzers} from a single read of the data set content: content is parsed once,
+ * each parsed row is stored (see {@link ContentStoreRouter#storeAsRows(DataSetMetadata, java.util.function.Predicate)})
+ * and given to all the analyses that still need rows.
+ * <p>
+ * An analyzer that {@link RowDataSetAnalyzer#dependsOn(RowDataSetAnalyzer) depends on} another one starts once the
+ * other analysis is ended: rows read in the meantime are kept so it gets all rows from the first one.
+ * <p>
+ * Once column types are known (i.e. {@link SchemaAnalysis} is ended, if part of the pass), the invalid cells of all rows
+ * are also stored in the same pass (see {@link ContentStoreRouter#openInvalidCells(DataSetMetadata)}), so they don't
+ * need another read of the content.
+ */
+@Component
+public class SinglePassAnalysis {
+
+    /** This class' logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SinglePassAnalysis.class);
+
+    /** DataSet metadata repository. */
+    @Autowired
+    private DataSetMetadataRepository repository;
+
+    /** Dataset content store. */
+    @Autowired
+    private ContentStoreRouter store;
+
+    /** Builds the quality analyzer that marks invalid cells. */
+    @Autowired
+    private AnalyzerService analyzerService;
+
+    /**
+     * Runs the analyzers on the data set with <code>dataSetId</code> id.
+     *
+     * @param dataSetId A Data Set id.
+     * @param analyzers The analyzers to run (in order).
+     */
+    public void analyze(String dataSetId, List<? extends RowDataSetAnalyzer> analyzers) {
+        if (StringUtils.isEmpty(dataSetId)) {
+            throw new IllegalArgumentException("Data set id cannot be null or empty.");
+        }
+        DistributedLock datasetLock = repository.createDatasetMetadataLock(dataSetId);
+        datasetLock.lock();
+        try {
+            DataSetMetadata metadata = repository.get(dataSetId);
+            if (metadata == null) {
+                LOGGER.info("Unable to analyze data set #{}: seems to be removed.", dataSetId);
+                return;
+            }
+            LOGGER.info("Analyzing rows of data set #{}...", dataSetId);
+            final InvalidCells invalidCells = metadata.isDraft() ? null : new InvalidCells(metadata);
+            final Pass pass = new Pass(metadata, analyzers, invalidCells);
+            if (pass.needsRows()) {
+                if (metadata.isDraft()) {
+                    // e.g. excel multi sheet dataset when user has not choose the sheet yet: rows can't be stored.
+                    try (Stream<DataSetRow> stream = store.stream(metadata)) {
+                        final Iterator<DataSetRow> iterator = stream.iterator();
+                        while (iterator.hasNext() && pass.accept(iterator.next())) {
+                            // Analyses need more rows.
+                        }
+                    }
+                } else {
+                    try {
+                        store.storeAsRows(metadata, pass::accept);
+                    } catch (RuntimeException e) {
+                        pass.discardInvalidCells();
+                        if (pass.analyzing()) {
+                            throw e;
+                        }
+                        // Only invalid cells needed more rows: they'll be analyzed on read.
+                        LOGGER.warn("Unable to store invalid cells of data set #{}.", dataSetId, e);
+                    }
+                }
+            }
+            pass.end();
+            repository.save(metadata);
+            LOGGER.info("Analyzed rows of data set #{} ({} rows read).", dataSetId, pass.count);
+        } finally {
+            datasetLock.unlock();
+        }
+    }
+
+    /**
+     * Marks and stores the invalid cells of all rows of a pass, as {@link ContentStoreRouter#stream(DataSetMetadata)}
+     * would mark them on read.
+     */
+    private class InvalidCells {
+
+        private final DataSetMetadata metadata;
+
+        private List<ColumnMetadata> columns;
+
+        private Analyzer<Analyzers.Result> analyzer;
+
+        private InvalidMarker marker;
+
+        private InvalidCellsWriter writer;
+
+        private InvalidCells(DataSetMetadata metadata) {
+            this.metadata = metadata;
+        }
+
+        /**
+         * Starts the quality analysis (column types must be known).
+         *
+         * @return <code>true</code> if invalid cells are to be stored.
+         */
+        private boolean start() {
+            writer = store.openInvalidCells(metadata);
+            if (writer == null) {
+                return false;
+            }
+            columns = metadata.getRowMetadata().getColumns();
+            analyzer = analyzerService.build(columns, AnalyzerService.Analysis.QUALITY);
+            marker = new InvalidMarker(columns, analyzer);
+            return true;
+        }
+
+        /**
+         * @param values The values of the next non empty row.
+         * @return <code>true</code> if invalid cells need more rows (<code>false</code> on write error).
+         */
+        private boolean accept(String[] values) {
+            final Map<String, String> row = new LinkedHashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                row.put(columns.get(i).getId(), i < values.length ? values[i] : null);
+            }
+            analyzer.analyze(values);
+            try {
+                writer.write(marker.apply(new DataSetRow(metadata.getRowMetadata(), row)));
+                return true;
+            } catch (IOException e) {
+                LOGGER.warn("Unable to store invalid cells of data set #{}.", metadata.getId(), e);
+                discard();
+                return false;
+            }
+        }
+
+        /**
+         * Publishes the invalid cells (all rows are read).
+         */
+        private void end() {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                LOGGER.warn("Unable to store invalid cells of data set #{}.", metadata.getId(), e);
+            } finally {
+                closeAnalyzer();
+            }
+        }
+
+        private void discard() {
+            try {
+                writer.discard();
+            } catch (IOException e) {
+                LOGGER.debug("Unable to discard invalid cells of data set #{}.", metadata.getId(), e);
+            } finally {
+                closeAnalyzer();
+            }
+        }
+
+        private void closeAnalyzer() {
+            try {
+                analyzer.close();
+            } catch (Exception e) {
+                LOGGER.debug("Unable to close quality analyzer.", e);
+            }
+        }
+    }
+
+    /**
+     * The analyses of a single read of the data set content.
+     */
+    private static class Pass {
+
+        private final DataSetMetadata metadata;
+
+        /** Analyzers not started yet, in order. */
+        private final List<RowDataSetAnalyzer> pending;
+
+        /** Analyzers of the pass, in order. */
+        private final List<RowDataSetAnalyzer> analyzers;
+
+        /** Started analyses that need more rows, in order. */
+        private final Map<RowDataSetAnalyzer, RowDataSetAnalyzer.RowAnalysis> running = new LinkedHashMap<>();
+
+        /** Rows read so far, kept while some analyzers (or invalid cells) are not started. */
+        private final List<String[]> buffer = new ArrayList<>();
+
+        /** Invalid cells to store once column types are known (<code>null</code> if not stored). */
+        private final InvalidCells invalidCells;
+
+        /** <code>true</code> once invalid cells are started (whether the store keeps them or not). */
+        private boolean invalidCellsStarted;
+
+        /** <code>true</code> while invalid cells are stored. */
+        private boolean storingInvalidCells;
+
+        /** Number of rows read. */
+        private long count;
+
+        private Pass(DataSetMetadata metadata, List<? extends RowDataSetAnalyzer> analyzers,
+                InvalidCells invalidCells) {
+            this.metadata = metadata;
+            this.analyzers = new ArrayList<>(analyzers);
+            this.pending = new ArrayList<>(analyzers);
+            this.invalidCells = invalidCells;
+            startReady();
+        }
+
+        /**
+         * Starts the pending analyzers whose dependencies are ended.
+         */
+        private void startReady() {
+            final Iterator<RowDataSetAnalyzer> iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                final RowDataSetAnalyzer analyzer = iterator.next();
+                final boolean ready = analyzers.stream() //
+                        .filter(other -> other != analyzer && analyzer.dependsOn(other)) //
+                        .noneMatch(other -> pending.contains(other) || running.containsKey(other));
+                if (ready) {
+                    iterator.remove();
+                    start(analyzer);
+                    // Started analyzer may have ended (and made others ready): start again from first pending.
+                    startReady();
+                    return;
+                }
+            }
+            if (typesKnown()) {
+                startInvalidCells();
+            }
+            if (!keepRows()) {
+                buffer.clear();
+            }
+        }
+
+        /**
+         * @return <code>true</code> if column types are no longer changed by an analysis of the pass.
+         */
+        private boolean typesKnown() {
+            return analyzers.stream() //
+                    .filter(analyzer -> analyzer instanceof SchemaAnalysis) //
+                    .noneMatch(analyzer -> pending.contains(analyzer) || running.containsKey(analyzer));
+        }
+
+        /**
+         * @return <code>true</code> if rows read must be kept for an analysis (or invalid cells) not started yet.
+         */
+        private boolean keepRows() {
+            return !pending.isEmpty() || (invalidCells != null && !invalidCellsStarted);
+        }
+
+        /**
+         * Starts storing invalid cells (once) with the rows read so far.
+         */
+        private void startInvalidCells() {
+            if (invalidCells == null || invalidCellsStarted) {
+                return;
+            }
+            invalidCellsStarted = true;
+            storingInvalidCells = invalidCells.start();
+            for (String[] values : buffer) {
+                if (!storingInvalidCells) {
+                    return;
+                }
+                storingInvalidCells = invalidCells.accept(values);
+            }
+        }
+
+        private void start(RowDataSetAnalyzer analyzer) {
+            LOGGER.debug("Running {}", analyzer.getClass());
+            final RowDataSetAnalyzer.RowAnalysis analysis = analyzer.start(metadata);
+            if (analysis == null) {
+                LOGGER.debug("Done running {} (nothing to analyze)", analyzer.getClass());
+                return;
+            }
+            running.put(analyzer, analysis);
+            for (String[] values : buffer) {
+                if (!analysis.accept(values)) {
+                    end(analyzer);
+                    return;
+                }
+            }
+        }
+
+        private void end(RowDataSetAnalyzer analyzer) {
+            running.remove(analyzer).end();
+            LOGGER.debug("Done running {}", analyzer.getClass());
+        }
+
+        private boolean needsRows() {
+            return analyzing() || storingInvalidCells;
+        }
+
+        /**
+         * @return <code>true</code> if some analyses need more rows.
+         */
+        private boolean analyzing() {
+            return !running.isEmpty();
+        }
+
+        private void discardInvalidCells() {
+            if (storingInvalidCells) {
+                storingInvalidCells = false;
+                invalidCells.discard();
+            }
+        }
+
+        /**
+         * @param row The next non empty row.
+         * @return <code>true</code> if analyses need more rows.
+         */
+        private boolean accept(DataSetRow row) {
+            final String[] values = row.toArray(DataSetRow.SKIP_TDP_ID);
+            count++;
+            if (keepRows()) {
+                buffer.add(values);
+            }
+            // Invalid cells started while handling this row get it from the buffer.
+            if (storingInvalidCells) {
+                storingInvalidCells = invalidCells.accept(values);
+            }
+            boolean ended = false;
+            for (Map.Entry<RowDataSetAnalyzer, RowDataSetAnalyzer.RowAnalysis> entry : new ArrayList<>(
+                    running.entrySet())) {
+                if (!entry.getValue().accept(values)) {
+                    end(entry.getKey());
+                    ended = true;
+                }
+            }
+            if (ended) {
+                startReady();
+            }
+            return needsRows();
+        }
+
+        /**
+         * Ends all analyses (all rows are read).
+         */
+        private void end() {
+            while (!running.isEmpty()) {
+                end(running.keySet().iterator().next());
+                startReady();
+            }
+            if (storingInvalidCells) {
+                storingInvalidCells = false;
+                invalidCells.end();
+            }
+        }
+    }
+}
@@ -14,6 +14,7 @@
 package org.talend.dataprep.dataset.store.content;
 
 import java.io.InputStream;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -52,6 +53,42 @@ public class ContentStoreRouter extends DataSetContentStore {
         target.storeAsRaw(dataSetMetadata, dataSetContent);
     }
 
+    /**
+     * @see DataSetContentStore#storeAsRows(DataSetMetadata)
+     */
+    @Override
+    public void storeAsRows(DataSetMetadata dataSetMetadata) {
+        DataSetContentStore target = wrapStore(dataSetMetadata);
+        target.storeAsRows(dataSetMetadata);
+    }
+
+    /**
+     * @see DataSetContentStore#storeAsRows(DataSetMetadata, Predicate)
+     */
+    @Override
+    public void storeAsRows(DataSetMetadata dataSetMetadata, Predicate<DataSetRow> consumer) {
+        DataSetContentStore target = wrapStore(dataSetMetadata);
+        target.storeAsRows(dataSetMetadata, consumer);
+    }
+
+    /**
+     * @see DataSetContentStore#storeInvalidCells(DataSetMetadata)
+     */
+    @Override
+    public void storeInvalidCells(DataSetMetadata dataSetMetadata) {
+        DataSetContentStore target = wrapStore(dataSetMetadata);
+        target.storeInvalidCells(dataSetMetadata);
+    }
+
+    /**
+     * @see DataSetContentStore#openInvalidCells(DataSetMetadata)
+     */
+    @Override
+    public InvalidCellsWriter openInvalidCells(DataSetMetadata dataSetMetadata) {
+        DataSetContentStore target = wrapStore(dataSetMetadata);
+        return target.openInvalidCells(dataSetMetadata);
+    }
+
     /**
      * @see DataSetContentStore#get(DataSetMetadata)
      */
@@ -97,6 +134,18 @@ public class ContentStoreRouter extends DataSetContentStore {
         return target.stream(dataSetMetadata);
     }
 
+    @Override
+    public Stream<DataSetRow> stream(DataSetMetadata dataSetMetadata, long limit) {
+        DataSetContentStore target = wrapStore(dataSetMetadata);
+        return target.stream(dataSetMetadata, limit);
+    }
+
+    @Override
+    public Stream<DataSetRow> stream(DataSetMetadata dataSetMetadata, long offset, long limit) {
+        DataSetContentStore target = wrapStore(dataSetMetadata);
+        return target.stream(dataSetMetadata, offset, limit);
+    }
+
     /**
      * @see DataSetContentStore#clear()
      */
@@ -17,9 +17,18 @@ import static org.talend.daikon.exception.ExceptionContext.build;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.stereotype.Component;
@@ -27,25 +36,65 @@ import org.talend.daikon.content.ContentServiceEnabled;
 import org.talend.daikon.content.DeletableResource;
 import org.talend.daikon.content.ResourceResolver;
 import org.talend.daikon.exception.ExceptionContext;
+import org.talend.dataprep.api.dataset.ColumnMetadata;
+import org.talend.dataprep.api.dataset.DataSetContent;
 import org.talend.dataprep.api.dataset.DataSetMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.dataset.store.content.BinaryRowIndex;
+import org.talend.dataprep.dataset.store.content.BinaryRowReader;
+import org.talend.dataprep.dataset.store.content.BinaryRowWriter;
 import org.talend.dataprep.dataset.store.content.DataSetContentStore;
+import org.talend.dataprep.dataset.store.content.InvalidCellsReader;
+import org.talend.dataprep.dataset.store.content.InvalidCellsWriter;
 import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.exception.error.DataSetErrorCodes;
 
 /**
- * Local dataset content that stores content in files.
+ * Local dataset content that stores content in files. Next to the raw content (as uploaded by user), this store keeps
+ * a binary copy of the parsed rows (see {@link #storeAsRows(DataSetMetadata)}) and of the invalid cells (see
+ * {@link #storeInvalidCells(DataSetMetadata)} and {@link #openInvalidCells(DataSetMetadata)}) so reads need neither to
+ * parse raw content nor to analyze quality again.
+ * A sparse {@link BinaryRowIndex index} of the binary rows allows reads from an offset to skip the previous rows.
  */
 @Component("ContentStore#local")
 @ConditionalOnBean(ContentServiceEnabled.class)
 public class LocalFileContentStore extends DataSetContentStore {
 
+    /** This class' logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalFileContentStore.class);
+
     private static final String ROOT = "/store/datasets/content/dataset/";
 
+    /** Where binary copies of parsed rows are stored. */
+    private static final String ROWS_ROOT = "/store/datasets/content/rows/";
+
+    /** Where indexes of the binary copies of parsed rows are stored. */
+    private static final String ROWS_INDEX_ROOT = "/store/datasets/content/rows-index/";
+
+    /** Where invalid cells (as computed by quality analysis) are stored. */
+    private static final String INVALID_CELLS_ROOT = "/store/datasets/content/quality/";
+
     @Autowired
     private ResourceResolver resolver;
 
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     private DeletableResource getResource(DataSetMetadata dataSetMetadata) {
+        return resolver.getResource(ROOT + checkId(dataSetMetadata));
+    }
+
+    private DeletableResource getRowsResource(DataSetMetadata dataSetMetadata) {
+        return resolver.getResource(ROWS_ROOT + checkId(dataSetMetadata));
+    }
+
+    private DeletableResource getRowsIndexResource(DataSetMetadata dataSetMetadata) {
+        return resolver.getResource(ROWS_INDEX_ROOT + checkId(dataSetMetadata));
+    }
+
+    private DeletableResource getInvalidCellsResource(DataSetMetadata dataSetMetadata) {
+        return resolver.getResource(INVALID_CELLS_ROOT + checkId(dataSetMetadata));
+    }
+
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    private static String checkId(DataSetMetadata dataSetMetadata) {
         String id = dataSetMetadata.getId();
         try {
             UUID.fromString(id); // ID is supposed to be an UUID, Exception if not
@@ -53,7 +102,31 @@ public class LocalFileContentStore extends DataSetContentStore {
             throw new TDPException(DataSetErrorCodes.UNABLE_TO_SERVE_DATASET_CONTENT,
                     ExceptionContext.withBuilder().put("id", id).build());
         }
-        return resolver.getResource(ROOT + id);
+        return id;
+    }
+
+    /**
+     * Computes a signature of all metadata information used to parse raw content: if any of this information changes,
+     * a previously stored binary copy of the rows is no longer valid.
+     *
+     * @param dataSetMetadata The data set metadata.
+     * @return A signature for the parse information of the data set.
+     */
+    private static String getRowsSignature(DataSetMetadata dataSetMetadata) {
+        final DataSetContent content = dataSetMetadata.getContent();
+        final Map<String, String> parameters = new TreeMap<>();
+        if (content.getParameters() != null) {
+            parameters.putAll(content.getParameters());
+        }
+        final String columns = dataSetMetadata
+                .getRowMetadata()
+                .getColumns()
+                .stream()
+                .map(ColumnMetadata::getId)
+                .collect(Collectors.joining(","));
+        return content.getFormatFamilyId() + '|' + dataSetMetadata.getEncoding() + '|'
+                + dataSetMetadata.getSheetName() + '|' + content.getNbLinesInHeader() + '|' + parameters + '|'
+                + columns;
     }
 
     @Override
@@ -65,6 +138,288 @@ public class LocalFileContentStore extends DataSetContentStore {
             throw new TDPException(DataSetErrorCodes.UNABLE_TO_STORE_DATASET_CONTENT, e,
                     build().put("id", dataSetMetadata.getId()));
         }
+        // Raw content changed: previous parsed rows and invalid cells (if any) are no longer valid.
+        deleteQuietly(getRowsResource(dataSetMetadata));
+        deleteQuietly(getRowsIndexResource(dataSetMetadata));
+        deleteQuietly(getInvalidCellsResource(dataSetMetadata));
+    }
+
+    @Override
+    public void storeAsRows(DataSetMetadata dataSetMetadata) {
+        storeAsRows(dataSetMetadata, row -> false);
+    }
+
+    /**
+     * Parses the raw content once to both write the binary copy of the rows and give them to <code>consumer</code>. If
+     * rows can't be stored (or are up to date), <code>consumer</code> gets the rows as served by this store. An error
+     * while reading rows is only thrown if <code>consumer</code> still needs rows (otherwise content will be parsed on
+     * read).
+     *
+     * @see DataSetContentStore#storeAsRows(DataSetMetadata, Predicate)
+     */
+    @Override
+    public void storeAsRows(DataSetMetadata dataSetMetadata, Predicate<DataSetRow> consumer) {
+        final String id = checkId(dataSetMetadata);
+        if (dataSetMetadata.getContent().getFormatFamilyId() == null
+                || dataSetMetadata.getRowMetadata().getColumns().isEmpty()) {
+            LOGGER.debug("Unable to store rows of data set #{} (no format or column information).", id);
+            super.storeAsRows(dataSetMetadata, consumer);
+            return;
+        }
+        final String signature = getRowsSignature(dataSetMetadata);
+        if (signature.equals(readRowsSignature(dataSetMetadata))) {
+            LOGGER.debug("Rows of data set #{} are up to date.", id);
+            super.storeAsRows(dataSetMetadata, consumer);
+            return;
+        }
+
+        // Write to a temporary location first, so readers never see a partially written content.
+        final DeletableResource temporary = resolver.getResource(ROWS_ROOT + id + '.' + UUID.randomUUID() + ".tmp");
+        final DeletableResource temporaryIndex =
+                resolver.getResource(ROWS_INDEX_ROOT + id + '.' + UUID.randomUUID() + ".tmp");
+        final List<String> columnIds = dataSetMetadata
+                .getRowMetadata()
+                .getColumns()
+                .stream()
+                .map(ColumnMetadata::getId)
+                .collect(Collectors.toList());
+        boolean consuming = true;
+        try (Stream<DataSetRow> rows = super.rows(dataSetMetadata, -1);
+                BinaryRowWriter writer = new BinaryRowWriter(temporary.getOutputStream(), signature, columnIds)) {
+            final Iterator<DataSetRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                final DataSetRow row = iterator.next();
+                // Empty rows are never served: skip them so index row numbers match the served row numbers.
+                if (!row.isEmpty()) {
+                    writer.write(row);
+                    consuming = consuming && consumer.test(row);
+                }
+            }
+            writer.getIndex().write(temporaryIndex.getOutputStream());
+            LOGGER.debug("Stored {} rows for data set #{}.", writer.getCount(), id);
+        } catch (Exception e) {
+            deleteQuietly(temporary);
+            deleteQuietly(temporaryIndex);
+            if (consuming) {
+                LOGGER.error("Unable to read rows of data set #{}.", id, e);
+                TDPException.rethrowOrWrap(e, DataSetErrorCodes.UNABLE_TO_READ_DATASET_CONTENT);
+            }
+            LOGGER.warn("Unable to store rows of data set #{}, content will be parsed on read.", id, e);
+            return;
+        }
+        try {
+            // Rows changed: invalid cells (if any) no longer match them.
+            deleteQuietly(getInvalidCellsResource(dataSetMetadata));
+            deleteQuietly(getRowsIndexResource(dataSetMetadata));
+            deleteQuietly(getRowsResource(dataSetMetadata));
+            temporary.move(ROWS_ROOT + id);
+            temporaryIndex.move(ROWS_INDEX_ROOT + id);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to publish rows of data set #{}, content will be parsed on read.", id, e);
+            deleteQuietly(temporary);
+            deleteQuietly(temporaryIndex);
+        }
+    }
+
+    @Override
+    public void storeInvalidCells(DataSetMetadata dataSetMetadata) {
+        final InvalidCellsWriter writer = openInvalidCells(dataSetMetadata);
+        if (writer == null) {
+            return;
+        }
+        final List<ColumnMetadata> columns = dataSetMetadata.getRowMetadata().getColumns();
+        try (Stream<DataSetRow> rows = markInvalid(rows(dataSetMetadata, -1).filter(r -> !r.isEmpty()), columns)) {
+            final Iterator<DataSetRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Unable to store invalid cells of data set #{}, quality will be analyzed on read.",
+                    dataSetMetadata.getId(), e);
+            discardQuietly(writer);
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            LOGGER.warn("Unable to store invalid cells of data set #{}, quality will be analyzed on read.",
+                    dataSetMetadata.getId(), e);
+        }
+    }
+
+    /**
+     * Invalid cells are written to a temporary location and moved on close, so readers never see partially written
+     * invalid cells.
+     *
+     * @see DataSetContentStore#openInvalidCells(DataSetMetadata)
+     */
+    @Override
+    public InvalidCellsWriter openInvalidCells(DataSetMetadata dataSetMetadata) {
+        final String id = checkId(dataSetMetadata);
+        final List<ColumnMetadata> columns = dataSetMetadata.getRowMetadata().getColumns();
+        if (dataSetMetadata.getContent().getFormatFamilyId() == null || columns.isEmpty()) {
+            LOGGER.debug("Unable to store invalid cells of data set #{} (no format or column information).", id);
+            return null;
+        }
+        try (InvalidCellsReader current = getInvalidCells(dataSetMetadata)) {
+            if (current != null) {
+                LOGGER.debug("Invalid cells of data set #{} are up to date.", id);
+                return null;
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Unable to close invalid cells of data set #{}.", id, e);
+        }
+
+        final DeletableResource temporary =
+                resolver.getResource(INVALID_CELLS_ROOT + id + '.' + UUID.randomUUID() + ".tmp");
+        final List<String> columnIds = columns.stream().map(ColumnMetadata::getId).collect(Collectors.toList());
+        try {
+            return new InvalidCellsWriter(temporary.getOutputStream(), getQualitySignature(columns), columnIds) {
+
+                /** <code>true</code> once published or discarded. */
+                private boolean done;
+
+                @Override
+                public void discard() throws IOException {
+                    done = true;
+                    try {
+                        super.discard();
+                    } finally {
+                        deleteQuietly(temporary);
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    if (done) {
+                        return;
+                    }
+                    done = true;
+                    try {
+                        super.close();
+                        deleteQuietly(getInvalidCellsResource(dataSetMetadata));
+                        temporary.move(INVALID_CELLS_ROOT + id);
+                        LOGGER.debug("Stored invalid cells of data set #{}.", id);
+                    } catch (IOException e) {
+                        deleteQuietly(temporary);
+                        throw e;
+                    }
+                }
+            };
+        } catch (IOException e) {
+            LOGGER.warn("Unable to store invalid cells of data set #{}, quality will be analyzed on read.", id, e);
+            deleteQuietly(temporary);
+            return null;
+        }
+    }
+
+    private static void discardQuietly(InvalidCellsWriter writer) {
+        try {
+            writer.discard();
+        } catch (IOException e) {
+            LOGGER.debug("Unable to discard invalid cells.", e);
+        }
+    }
+
+    @Override
+    protected InvalidCellsReader getInvalidCells(DataSetMetadata dataSetMetadata) {
+        final DeletableResource resource = getInvalidCellsResource(dataSetMetadata);
+        if (!resource.exists()) {
+            return null;
+        }
+        InvalidCellsReader reader = null;
+        try {
+            reader = new InvalidCellsReader(resource.getInputStream());
+            if (getQualitySignature(dataSetMetadata.getRowMetadata().getColumns()).equals(reader.getSignature())) {
+                return reader;
+            }
+            LOGGER.debug("Invalid cells of data set #{} are outdated.", dataSetMetadata.getId());
+        } catch (IOException e) {
+            LOGGER.debug("Unable to read invalid cells of data set #{}.", dataSetMetadata.getId(), e);
+        }
+        IOUtils.closeQuietly(reader);
+        return null;
+    }
+
+    /**
+     * Reads rows from the binary copy of the content if it exists and matches current metadata, otherwise parses the
+     * raw content.
+     *
+     * @see DataSetContentStore#rows(DataSetMetadata, long)
+     */
+    @Override
+    protected Stream<DataSetRow> rows(DataSetMetadata dataSetMetadata, long limit) {
+        final DeletableResource resource = getRowsResource(dataSetMetadata);
+        if (resource.exists()) {
+            BinaryRowReader reader = null;
+            try {
+                reader = new BinaryRowReader(resource.getInputStream());
+                if (getRowsSignature(dataSetMetadata).equals(reader.getSignature())) {
+                    final Stream<DataSetRow> rows = reader.stream();
+                    return limit < 0 ? rows : rows.limit(limit);
+                }
+                LOGGER.debug("Rows of data set #{} are outdated, parse raw content.", dataSetMetadata.getId());
+                reader.close();
+            } catch (IOException e) {
+                LOGGER.debug("Unable to read rows of data set #{}, parse raw content.", dataSetMetadata.getId(), e);
+                IOUtils.closeQuietly(reader);
+            }
+        }
+        return super.rows(dataSetMetadata, limit);
+    }
+
+    /**
+     * Seeks to <code>offset</code> in the binary copy of the content using its index if both exist and match current
+     * metadata, otherwise reads and drops the rows before <code>offset</code>.
+     *
+     * @see DataSetContentStore#rows(DataSetMetadata, long, long)
+     */
+    @Override
+    protected Stream<DataSetRow> rows(DataSetMetadata dataSetMetadata, long offset, long limit) {
+        final DeletableResource resource = getRowsResource(dataSetMetadata);
+        final DeletableResource indexResource = getRowsIndexResource(dataSetMetadata);
+        if (offset > 0 && resource.exists() && indexResource.exists()) {
+            BinaryRowReader reader = null;
+            try {
+                final BinaryRowIndex index = BinaryRowIndex.read(indexResource.getInputStream());
+                reader = new BinaryRowReader(resource.getInputStream());
+                final String signature = getRowsSignature(dataSetMetadata);
+                if (signature.equals(reader.getSignature()) && signature.equals(index.getSignature())) {
+                    reader.skip(offset, index);
+                    final Stream<DataSetRow> rows = reader.stream();
+                    return limit < 0 ? rows : rows.limit(limit);
+                }
+                LOGGER.debug("Rows of data set #{} are outdated, parse raw content.", dataSetMetadata.getId());
+                reader.close();
+            } catch (IOException e) {
+                LOGGER.debug("Unable to seek in rows of data set #{}.", dataSetMetadata.getId(), e);
+                IOUtils.closeQuietly(reader);
+            }
+        }
+        return super.rows(dataSetMetadata, offset, limit);
+    }
+
+    private String readRowsSignature(DataSetMetadata dataSetMetadata) {
+        final DeletableResource resource = getRowsResource(dataSetMetadata);
+        if (!resource.exists()) {
+            return null;
+        }
+        try (BinaryRowReader reader = new BinaryRowReader(resource.getInputStream())) {
+            return reader.getSignature();
+        } catch (IOException e) {
+            LOGGER.debug("Unable to read rows signature of data set #{}.", dataSetMetadata.getId(), e);
+            return null;
+        }
+    }
+
+    private static void deleteQuietly(DeletableResource resource) {
+        try {
+            if (resource.exists()) {
+                resource.delete();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Unable to delete '{}'.", resource.getFilename(), e);
+        }
     }
 
     @Override
@@ -86,12 +441,18 @@ public class LocalFileContentStore extends DataSetContentStore {
             throw new TDPException(DataSetErrorCodes.UNABLE_TO_DELETE_DATASET, e,
                     build().put("dataSetId", dataSetMetadata.getId()));
         }
+        deleteQuietly(getRowsResource(dataSetMetadata));
+        deleteQuietly(getRowsIndexResource(dataSetMetadata));
+        deleteQuietly(getInvalidCellsResource(dataSetMetadata));
     }
 
     @Override
     public void clear() {
         try {
             resolver.clear(ROOT + "/**");
+            resolver.clear(ROWS_ROOT + "/**");
+            resolver.clear(ROWS_INDEX_ROOT + "/**");
+            resolver.clear(INVALID_CELLS_ROOT + "/**");
         } catch (IOException e) {
             throw new TDPException(DataSetErrorCodes.UNABLE_TO_CLEAR_DATASETS, e);
         }
@@ -0,0 +1,101 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.dataset.store.metadata.file;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.dataprep.api.dataset.DataSetMetadata;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * An in-memory catalog of light versions of the {@link DataSetMetadata} stored in a
+ * {@link FileSystemDataSetMetadataRepository}. A light metadata is a copy of the stored metadata without the column
+ * statistics and semantic domains: it holds all the information needed to evaluate TQL filters, sort data sets (see
+ * {@link org.talend.dataprep.util.SortAndOrderHelper}) and check data set compatibility.
+ */
+class DataSetMetadataCatalog {
+
+    /** This class' logger. */
+    private static final Logger LOG = LoggerFactory.getLogger(DataSetMetadataCatalog.class);
+
+    /** Column properties removed from light metadata. */
+    private static final List<String> HEAVY_COLUMN_PROPERTIES = Arrays.asList("statistics", "semanticDomains");
+
+    private final ObjectMapper mapper;
+
+    /** Light metadata per data set id. */
+    private final Map<String, DataSetMetadata> metadata = new ConcurrentHashMap<>();
+
+    DataSetMetadataCatalog(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Adds (or replaces) the light version of <code>dataSetMetadata</code>.
+     *
+     * @param dataSetMetadata The stored metadata.
+     */
+    void add(DataSetMetadata dataSetMetadata) {
+        final DataSetMetadata light = toLight(dataSetMetadata);
+        if (light != null) {
+            metadata.put(dataSetMetadata.getId(), light);
+        } else {
+            metadata.remove(dataSetMetadata.getId());
+        }
+    }
+
+    /**
+     * @param id A data set id.
+     */
+    void remove(String id) {
+        metadata.remove(id);
+    }
+
+    /**
+     * @return The light versions of all the data set metadata (callers must not modify them).
+     */
+    Stream<DataSetMetadata> list() {
+        return metadata.values().stream();
+    }
+
+    int size() {
+        return metadata.size();
+    }
+
+    private DataSetMetadata toLight(DataSetMetadata dataSetMetadata) {
+        try {
+            final ObjectNode node = mapper.valueToTree(dataSetMetadata);
+            final JsonNode columns = node.path("columns");
+            for (JsonNode column : columns) {
+                if (column instanceof ObjectNode) {
+                    ((ObjectNode) column).remove(HEAVY_COLUMN_PROPERTIES);
+                }
+            }
+            return mapper.treeToValue(node, DataSetMetadata.class);
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.warn("Unable to catalog data set #{}", dataSetMetadata.getId(), e);
+            return null;
+        }
+    }
+}
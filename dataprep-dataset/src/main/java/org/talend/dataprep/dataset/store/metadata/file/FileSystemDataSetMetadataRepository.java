@@ -13,16 +13,24 @@
 
 package org.talend.dataprep.dataset.store.metadata.file;
 
+import static org.talend.dataprep.util.SortAndOrderHelper.getDataSetMetadataComparator;
+
 import java.io.*;
 import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import javax.annotation.PostConstruct;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,14 +44,24 @@ import org.talend.dataprep.dataset.store.metadata.ObjectDataSetMetadataRepositor
 import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.exception.error.DataSetErrorCodes;
 import org.talend.dataprep.util.FilesHelper;
+import org.talend.dataprep.util.GenerationMarker;
 import org.talend.dataprep.util.ReentrantReadWriteLockGroup;
+import org.talend.dataprep.util.SortAndOrderHelper.Order;
+import org.talend.dataprep.util.SortAndOrderHelper.Sort;
+import org.talend.tql.bean.BeanPredicateVisitor;
+import org.talend.tql.parser.Tql;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * File system implementation of the DataSetMetadataRepository.
  *
- * DatasetMetadata are saved as gzipped json files.
+ * DatasetMetadata are saved as gzipped json files. Light versions of all metadata are kept in a
+ * {@link DataSetMetadataCatalog catalog} (built on first use) so filters, sorts and compatibility checks run in memory
+ * and only returned metadata are read from files. Catalog is updated under the data set lock on save and remove. Each
+ * save and remove also changes the generation of a {@link GenerationMarker marker file} in the metadata folder: catalog
+ * is rebuilt when generation was changed by another process (or node sharing the folder), or when files were created
+ * or deleted in the folder without this repository.
  */
 @Component
 @ConditionalOnProperty(name = "dataset.metadata.store", havingValue = "file")
@@ -65,6 +83,21 @@ public class FileSystemDataSetMetadataRepository extends ObjectDataSetMetadataRe
     @Value("${dataset.metadata.store.file.location}")
     private String storeLocation;
 
+    /** Generation of the stored metadata (changed on each save and remove). */
+    private GenerationMarker generation;
+
+    /** Light versions of the stored metadata (built on first use). */
+    private DataSetMetadataCatalog catalog;
+
+    /** Generation of the stored metadata known to {@link #catalog} (<code>null</code> if catalog is stale). */
+    private String catalogGeneration;
+
+    /** Last modification of root folder known to {@link #catalog}. */
+    private long catalogTimestamp;
+
+    /** Number of modifications of the stored metadata (to detect modifications during catalog build). */
+    private final AtomicLong catalogModifications = new AtomicLong();
+
     @PostConstruct
     private void init() {
         try {
@@ -72,6 +105,7 @@ public class FileSystemDataSetMetadataRepository extends ObjectDataSetMetadataRe
         } catch (IOException e) {
             throw new IllegalStateException("unable to create dataset metadata store folder", e);
         }
+        generation = new GenerationMarker(new File(getRootFolder(), ".generation"));
     }
 
     @Override
@@ -83,12 +117,16 @@ public class FileSystemDataSetMetadataRepository extends ObjectDataSetMetadataRe
         final File file = getFile(id);
 
         lock.writeLock().lock();
-        try (GZIPOutputStream output = new GZIPOutputStream(new FileOutputStream(file))) {
-            mapper.writer().writeValue(output, metadata);
-        } catch (IOException e) {
-            LOG.error("Error saving {}", metadata, e);
-            throw new TDPException(DataSetErrorCodes.UNABLE_TO_STORE_DATASET_METADATA, e,
-                    ExceptionContext.build().put("id", metadata.getId()));
+        try {
+            final long rootTimestamp = getRootFolder().lastModified();
+            try (GZIPOutputStream output = new GZIPOutputStream(new FileOutputStream(file))) {
+                mapper.writer().writeValue(output, metadata);
+            } catch (IOException e) {
+                LOG.error("Error saving {}", metadata, e);
+                throw new TDPException(DataSetErrorCodes.UNABLE_TO_STORE_DATASET_METADATA, e,
+                        ExceptionContext.build().put("id", metadata.getId()));
+            }
+            updateCatalog(rootTimestamp, c -> c.add(metadata));
         } finally {
             lock.writeLock().unlock();
         }
@@ -129,10 +167,110 @@ public class FileSystemDataSetMetadataRepository extends ObjectDataSetMetadataRe
     @Override
     public void remove(String id) {
         final File file = getFile(id);
-        FilesHelper.deleteQuietly(file);
+        ReentrantReadWriteLock lock = locks.getLock(id);
+
+        lock.writeLock().lock();
+        try {
+            final long rootTimestamp = getRootFolder().lastModified();
+            FilesHelper.deleteQuietly(file);
+            updateCatalog(rootTimestamp, c -> c.remove(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
         LOG.debug("metadata {} successfully deleted", id);
     }
 
+    @Override
+    public boolean exist(String filter) {
+        final Predicate<DataSetMetadata> accept =
+                Tql.parse(filter).accept(new BeanPredicateVisitor<>(DataSetMetadata.class));
+        return getCatalog().list().anyMatch(accept);
+    }
+
+    @Override
+    public Stream<DataSetMetadata> list(String filter, Sort sortField, Order sortDirection) {
+        final Predicate<DataSetMetadata> accept =
+                Tql.parse(filter).accept(new BeanPredicateVisitor<>(DataSetMetadata.class));
+        Stream<DataSetMetadata> stream = getCatalog().list().filter(accept);
+        if (sortField != null) {
+            stream = stream.sorted(getDataSetMetadataComparator(sortField, sortDirection));
+        }
+        return stream.map(m -> get(m.getId())).filter(Objects::nonNull);
+    }
+
+    @Override
+    public Iterable<DataSetMetadata> listCompatible(String id) {
+        final DataSetMetadata metadata = get(id);
+        if (metadata == null) {
+            return Collections.emptyList();
+        }
+        final Stream<DataSetMetadata> stream = getCatalog()
+                .list() //
+                .filter(m -> !metadata.equals(m) && !StringUtils.equals(id, m.getId()) && metadata.compatible(m)) //
+                .map(m -> get(m.getId())) //
+                .filter(Objects::nonNull);
+        return stream::iterator;
+    }
+
+    @Override
+    public int size() {
+        return getCatalog().size();
+    }
+
+    @Override
+    public long countAllDataSetsSize() {
+        return getCatalog().list().mapToLong(DataSetMetadata::getDataSetSize).sum();
+    }
+
+    /**
+     * @return The catalog of stored metadata, (re)built if needed.
+     */
+    private DataSetMetadataCatalog getCatalog() {
+        final String current = generation.current();
+        final long timestamp = getRootFolder().lastModified();
+        synchronized (this) {
+            if (catalog != null && current != null && current.equals(catalogGeneration)
+                    && timestamp == catalogTimestamp) {
+                return catalog;
+            }
+        }
+        // Build outside of synchronized block: reading metadata needs data set locks held by save/remove.
+        LOG.debug("Building data set metadata catalog.");
+        final long modificationCount = catalogModifications.get();
+        final DataSetMetadataCatalog newCatalog = new DataSetMetadataCatalog(mapper);
+        source().forEach(newCatalog::add);
+        synchronized (this) {
+            catalog = newCatalog;
+            // If metadata were modified during build, catalog may miss them: rebuild it on next use.
+            catalogGeneration = modificationCount == catalogModifications.get() ? current : null;
+            catalogTimestamp = timestamp;
+            return newCatalog;
+        }
+    }
+
+    /**
+     * Changes the generation of the stored metadata after a save or remove, and applies the modification to the catalog
+     * (if it was already built).
+     *
+     * @param rootTimestamp The last modification of root folder before this repository modified it.
+     * @param update The catalog modification.
+     */
+    private synchronized void updateCatalog(long rootTimestamp, Consumer<DataSetMetadataCatalog> update) {
+        catalogModifications.incrementAndGet();
+        // null if another process wrote since catalog was built.
+        final String next = generation.next(catalogGeneration);
+        if (catalog != null) {
+            update.accept(catalog);
+            if (next != null && catalogTimestamp == rootTimestamp) {
+                // Catalog was up to date before this modification: it is up to date after it.
+                catalogGeneration = next;
+                catalogTimestamp = getRootFolder().lastModified();
+            } else {
+                catalogGeneration = null; // Rebuilt on next use.
+            }
+        }
+    }
+
     @Override
     public Stream<DataSetMetadata> source() {
         final File folder = getRootFolder();
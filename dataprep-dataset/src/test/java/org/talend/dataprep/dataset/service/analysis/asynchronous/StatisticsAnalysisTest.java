@@ -24,6 +24,7 @@ import java.util.stream.Collectors;
 
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.talend.dataprep.api.dataset.ColumnMetadata;
 import org.talend.dataprep.api.dataset.DataSetMetadata;
 import org.talend.dataprep.api.dataset.statistics.PatternFrequency;
@@ -47,6 +48,12 @@ public class StatisticsAnalysisTest extends DataSetBaseTest {
     @Autowired
     SyncBackgroundAnalysis statisticsAnalysis;
 
+    @Autowired
+    BackgroundAnalysis backgroundAnalysis;
+
+    @Autowired
+    BackgroundAnalysisProgress analysisProgress;
+
     /** Random to generate random dataset id. */
     private Random random = new Random();
 
@@ -84,6 +91,33 @@ public class StatisticsAnalysisTest extends DataSetBaseTest {
         assertThat(metadata.getContent().getNbRecords(), is(4L));
     }
 
+    @Test
+    public void should_compute_same_statistics_for_any_column_groups() throws Exception {
+        // given
+        final DataSetMetadata expected =
+                initializeDataSetMetadata(this.getClass().getResourceAsStream("dataset.csv"));
+        final Object columnGroupSize = ReflectionTestUtils.getField(backgroundAnalysis, "columnGroupSize");
+        ReflectionTestUtils.setField(backgroundAnalysis, "columnGroupSize", 1);
+
+        // when
+        final DataSetMetadata actual;
+        try {
+            actual = initializeDataSetMetadata(this.getClass().getResourceAsStream("dataset.csv"));
+        } finally {
+            ReflectionTestUtils.setField(backgroundAnalysis, "columnGroupSize", columnGroupSize);
+        }
+
+        // then
+        assertThat(actual.getContent().getNbRecords(), is(expected.getContent().getNbRecords()));
+        assertTrue(actual.getLifecycle().qualityAnalyzed());
+        for (ColumnMetadata column : expected.getRowMetadata().getColumns()) {
+            final ColumnMetadata actualColumn = actual.getRowMetadata().getById(column.getId());
+            assertThat(actualColumn.getType(), is(column.getType()));
+            assertThat(actualColumn.getStatistics(), is(column.getStatistics()));
+        }
+        assertNull(analysisProgress.get(actual.getId()));
+    }
+
     /**
      * Initialize a dataset with the given content. Perform the format and the schema analysis.
      *
@@ -0,0 +1,255 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.dataset.service.analysis.synchronous;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.talend.dataprep.api.dataset.DataSetMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.dataset.store.content.ContentStoreRouter;
+import org.talend.dataprep.dataset.store.content.InvalidCellsWriter;
+import org.talend.dataprep.dataset.store.metadata.DataSetMetadataRepository;
+import org.talend.dataprep.lock.DistributedLock;
+import org.talend.dataprep.quality.AnalyzerService;
+import org.talend.dataquality.common.inference.Analyzer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SinglePassAnalysisTest {
+
+    @InjectMocks
+    private SinglePassAnalysis singlePassAnalysis;
+
+    @Mock
+    private DataSetMetadataRepository repository;
+
+    @Mock
+    private ContentStoreRouter store;
+
+    @Mock
+    private AnalyzerService analyzerService;
+
+    private final DataSetMetadata metadata = new DataSetMetadata();
+
+    /** Events of the analyses, in order. */
+    private final List<String> events = new ArrayList<>();
+
+    /** Number of rows read from store. */
+    private int read;
+
+    @Before
+    public void setUp() {
+        when(repository.createDatasetMetadataLock(any())).thenReturn(mock(DistributedLock.class));
+        when(repository.get(eq("ds-1234"))).thenReturn(metadata);
+        final List<DataSetRow> rows = IntStream.range(0, 5) //
+                .mapToObj(i -> new DataSetRow(Collections.singletonMap("0000", "value" + i))) //
+                .collect(Collectors.toList());
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            final Predicate<DataSetRow> consumer = (Predicate<DataSetRow>) invocation.getArguments()[1];
+            for (DataSetRow row : rows) {
+                read++;
+                if (!consumer.test(row)) {
+                    break;
+                }
+            }
+            return null;
+        }).when(store).storeAsRows(eq(metadata), any());
+    }
+
+    @Test
+    public void shouldReadContentOnceForAllAnalyzers() {
+        // given
+        final Recorder schema = new Recorder("schema", 2);
+        final Recorder content = new Recorder("content", 10);
+
+        // when
+        singlePassAnalysis.analyze("ds-1234", asList(schema, content));
+
+        // then
+        verify(store).storeAsRows(eq(metadata), any());
+        assertEquals(5, read);
+        assertEquals(2, schema.values.size());
+        assertEquals(5, content.values.size());
+        assertEquals(asList("schema started", "content started", "schema ended", "content ended"), events);
+        verify(repository).save(metadata);
+    }
+
+    @Test
+    public void shouldStartDependentAnalyzerWithAllRows() {
+        // given
+        final Recorder schema = new Recorder("schema", 2);
+        final Recorder quality = new Recorder("quality", 10, schema);
+
+        // when
+        singlePassAnalysis.analyze("ds-1234", asList(schema, quality));
+
+        // then
+        assertEquals(asList("schema started", "schema ended", "quality started", "quality ended"), events);
+        assertEquals(asList("value0", "value1", "value2", "value3", "value4"), quality.values);
+    }
+
+    @Test
+    public void shouldStopReadingWhenAnalyzersAreEnded() {
+        // given
+        final Recorder schema = new Recorder("schema", 2);
+        final Recorder quality = new Recorder("quality", 3, schema);
+
+        // when
+        singlePassAnalysis.analyze("ds-1234", asList(schema, quality));
+
+        // then
+        assertEquals(3, read);
+        assertEquals(asList("value0", "value1", "value2"), quality.values);
+        assertTrue(events.contains("quality ended"));
+    }
+
+    @Test
+    public void shouldNotReadContentWhenNothingToAnalyze() {
+        // given
+        final Recorder nothing = new Recorder("nothing", 0);
+
+        // when
+        singlePassAnalysis.analyze("ds-1234", Collections.singletonList(nothing));
+
+        // then
+        verify(store, never()).storeAsRows(any(), any());
+        verify(repository).save(metadata);
+    }
+
+    @Test
+    public void shouldStoreInvalidCellsOfAllRowsInSamePass() throws Exception {
+        // given
+        final InvalidCellsWriter invalidCells = mock(InvalidCellsWriter.class);
+        when(store.openInvalidCells(metadata)).thenReturn(invalidCells);
+        when(analyzerService.build(any(), any())).thenReturn(mock(Analyzer.class));
+        final Recorder schema = new Recorder("schema", 2);
+        final Recorder quality = new Recorder("quality", 3, schema);
+
+        // when
+        singlePassAnalysis.analyze("ds-1234", asList(schema, quality));
+
+        // then
+        verify(store).storeAsRows(eq(metadata), any());
+        assertEquals(5, read);
+        verify(invalidCells, times(5)).write(any());
+        verify(invalidCells).close();
+        verify(store, never()).storeInvalidCells(any());
+    }
+
+    @Test
+    public void shouldDiscardInvalidCellsOnReadError() throws Exception {
+        // given
+        final InvalidCellsWriter invalidCells = mock(InvalidCellsWriter.class);
+        when(store.openInvalidCells(metadata)).thenReturn(invalidCells);
+        when(analyzerService.build(any(), any())).thenReturn(mock(Analyzer.class));
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            final Predicate<DataSetRow> consumer = (Predicate<DataSetRow>) invocation.getArguments()[1];
+            consumer.test(new DataSetRow(Collections.singletonMap("0000", "value")));
+            throw new IllegalStateException("on purpose");
+        }).when(store).storeAsRows(eq(metadata), any());
+        final Recorder schema = new Recorder("schema", 1);
+
+        // when
+        singlePassAnalysis.analyze("ds-1234", Collections.singletonList(schema));
+
+        // then
+        verify(invalidCells).discard();
+        verify(invalidCells, never()).close();
+        verify(repository).save(metadata);
+    }
+
+    /**
+     * Records the rows it gets and its start / end.
+     */
+    private class Recorder implements RowDataSetAnalyzer {
+
+        private final String name;
+
+        /** Number of rows the analysis needs (0 for no analysis). */
+        private final int needs;
+
+        private final RowDataSetAnalyzer dependency;
+
+        private final List<String> values = new ArrayList<>();
+
+        private Recorder(String name, int needs) {
+            this(name, needs, null);
+        }
+
+        private Recorder(String name, int needs, RowDataSetAnalyzer dependency) {
+            this.name = name;
+            this.needs = needs;
+            this.dependency = dependency;
+        }
+
+        @Override
+        public RowAnalysis start(DataSetMetadata metadata) {
+            if (needs == 0) {
+                return null;
+            }
+            events.add(name + " started");
+            return new RowAnalysis() {
+
+                @Override
+                public boolean accept(String[] row) {
+                    values.add(row[0]);
+                    return values.size() < needs;
+                }
+
+                @Override
+                public void end() {
+                    events.add(name + " ended");
+                }
+            };
+        }
+
+        @Override
+        public boolean dependsOn(RowDataSetAnalyzer other) {
+            return other == dependency;
+        }
+
+        @Override
+        public void analyze(String dataSetId) {
+            singlePassAnalysis.analyze(dataSetId, Collections.singletonList(this));
+        }
+
+        @Override
+        public int order() {
+            return 0;
+        }
+    }
+}
@@ -24,16 +24,21 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import org.junit.After;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.talend.dataprep.api.dataset.DataSetMetadata;
 import org.talend.dataprep.dataset.DataSetBaseTest;
 import org.talend.dataprep.dataset.store.metadata.DataSetMetadataRepositoryTestUtils;
+import org.talend.dataprep.util.SortAndOrderHelper.Order;
+import org.talend.dataprep.util.SortAndOrderHelper.Sort;
 
 /**
  * Unit/integration test for the file system dataset metadata repository.
@@ -266,6 +271,51 @@ public class FileSystemDataSetMetadataRepositoryTest extends DataSetBaseTest {
         return metadataBuilder.metadata().copy(original).id(id).build();
     }
 
+    @Test
+    public void shouldListWithFilterAndSortAfterUpdate() throws IOException {
+        // given
+        for (int i = 1; i <= 3; i++) {
+            final DataSetMetadata metadata = getMetadata(String.valueOf(i));
+            metadata.setName("dataset " + i);
+            repository.save(metadata);
+        }
+        assertEquals(3, repository.list("name ~ 'dataset.*'", Sort.NAME, Order.ASC).count());
+
+        // when
+        final DataSetMetadata renamed = repository.get("2");
+        renamed.setName("renamed");
+        repository.save(renamed);
+
+        // then
+        final List<DataSetMetadata> actual =
+                repository.list("name ~ 'dataset.*'", Sort.NAME, Order.DESC).collect(Collectors.toList());
+        assertEquals(2, actual.size());
+        assertEquals("3", actual.get(0).getId());
+        assertEquals("1", actual.get(1).getId());
+        assertEquals(renamed, repository.list("name = 'renamed'", null, null).findFirst().orElse(null));
+    }
+
+    @Test
+    public void shouldListMetadataRenamedByAnotherProcess() throws IOException {
+        // given
+        final DataSetMetadata metadata = getMetadata("renamed-elsewhere");
+        metadata.setName("old name");
+        repository.save(metadata);
+        assertFalse(repository.exist("name = 'new name'"));
+
+        // when
+        final FileSystemDataSetMetadataRepository otherProcess = new FileSystemDataSetMetadataRepository();
+        ReflectionTestUtils.setField(otherProcess, "mapper", mapper);
+        ReflectionTestUtils.setField(otherProcess, "storeLocation", storeLocation);
+        ReflectionTestUtils.invokeMethod(otherProcess, "init");
+        metadata.setName("new name");
+        otherProcess.save(metadata);
+
+        // then
+        assertTrue(repository.exist("name = 'new name'"));
+        assertEquals(0, repository.list("name = 'old name'", null, null).count());
+    }
+
     @Test
     public void shouldOnlyReturnDataSetWithSimilarSchema() {
         DataSetMetadataRepositoryTestUtils.ensureThatOnlyCompatibleDataSetsAreReturned(repository, metadataBuilder);
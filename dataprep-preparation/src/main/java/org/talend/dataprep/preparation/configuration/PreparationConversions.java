@@ -37,7 +37,6 @@ import org.talend.dataprep.api.filter.FilterTranslator;
 import org.talend.dataprep.api.filter.TQLFilterService;
 import org.talend.dataprep.api.preparation.Action;
 import org.talend.dataprep.api.preparation.Preparation;
-import org.talend.dataprep.api.preparation.PreparationActions;
 import org.talend.dataprep.api.preparation.PreparationDTO;
 import org.talend.dataprep.api.preparation.PreparationDetailsDTO;
 import org.talend.dataprep.api.preparation.PreparationMessage;
@@ -51,6 +50,7 @@ import org.talend.dataprep.preparation.service.UserPreparation;
 import org.talend.dataprep.preparation.store.PersistentPreparation;
 import org.talend.dataprep.preparation.store.PersistentStep;
 import org.talend.dataprep.preparation.store.PreparationRepository;
+import org.talend.dataprep.preparation.store.StepActionsResolver;
 import org.talend.dataprep.processor.BeanConversionServiceWrapper;
 import org.talend.dataprep.transformation.actions.category.ScopeCategory;
 import org.talend.dataprep.transformation.actions.common.ImplicitParameters;
@@ -189,9 +189,10 @@ public class PreparationConversions extends BeanConversionServiceWrapper {
         final ActionRegistry actionRegistry = applicationContext.getBean(ActionRegistry.class);
 
         // Get preparation actions
-        PreparationActions prepActions = preparationRepository.get(source.getHeadId(), PreparationActions.class);
-        if (prepActions != null) {
-            List<Action> actions = prepActions.getActions();
+        final PersistentStep head = preparationRepository.get(source.getHeadId(), PersistentStep.class);
+        final List<Action> actions =
+                head == null ? null : applicationContext.getBean(StepActionsResolver.class).getActions(head);
+        if (actions != null) {
             boolean allowDistributedRun = true;
             for (Action action : actions) {
                 final ActionDefinition actionDefinition = actionRegistry.get(action.getName());
@@ -225,12 +226,11 @@ public class PreparationConversions extends BeanConversionServiceWrapper {
         if (source.getHeadId() != null) {
             // Get preparation actions
             final String headId = source.getHeadId();
-            final Step head = preparationRepository.get(headId, Step.class);
+            final PersistentStep head = preparationRepository.get(headId, PersistentStep.class);
             if (head != null) {
-                final PreparationActions prepActions =
-                        preparationRepository.get(head.getContent(), PreparationActions.class);
-                if (prepActions != null) {
-                    final List<Action> actions = prepActions.getActions();
+                final List<Action> actions =
+                        applicationContext.getBean(StepActionsResolver.class).getActions(head);
+                if (actions != null) {
 
                     for (Action action : actions) {
                         Map<String, String> parameters = action.getParameters();
@@ -279,7 +279,7 @@ public class PreparationConversions extends BeanConversionServiceWrapper {
                         }
                         action.setFilterColumns(filterColumns);
                     }
-                    target.setActions(prepActions.getActions());
+                    target.setActions(actions);
 
                     // Allow distributed run
                     boolean allowDistributedRun = true;
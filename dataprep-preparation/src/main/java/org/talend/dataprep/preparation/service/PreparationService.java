@@ -65,7 +65,6 @@ import org.talend.dataprep.api.folder.FolderEntry;
 import org.talend.dataprep.api.preparation.Action;
 import org.talend.dataprep.api.preparation.AppendStep;
 import org.talend.dataprep.api.preparation.Preparation;
-import org.talend.dataprep.api.preparation.PreparationActions;
 import org.talend.dataprep.api.preparation.PreparationDTO;
 import org.talend.dataprep.api.preparation.PreparationDetailsDTO;
 import org.talend.dataprep.api.preparation.PreparationUtils;
@@ -86,6 +85,8 @@ import org.talend.dataprep.lock.store.LockedResourceRepository;
 import org.talend.dataprep.preparation.store.PersistentPreparation;
 import org.talend.dataprep.preparation.store.PersistentStep;
 import org.talend.dataprep.preparation.store.PreparationRepository;
+import org.talend.dataprep.preparation.store.StepActions;
+import org.talend.dataprep.preparation.store.StepActionsResolver;
 import org.talend.dataprep.security.Security;
 import org.talend.dataprep.transformation.actions.common.ActionFactory;
 import org.talend.dataprep.transformation.actions.common.ImplicitParameters;
@@ -113,6 +114,12 @@ public class PreparationService {
     @Autowired
     protected PreparationRepository preparationRepository;
 
+    /**
+     * Resolves the actions of steps (step contents only hold the actions steps add).
+     */
+    @Autowired
+    private StepActionsResolver stepActionsResolver;
+
     /**
      * DataPrep abstraction to the underlying security (whether it's enabled or not).
      */
@@ -684,7 +691,7 @@ public class PreparationService {
         final String headId = preparation.getHeadId();
         PersistentStep head = preparationRepository.get(headId, PersistentStep.class);
         if (head != null) {
-            PreparationActions prepActions = preparationRepository.get(head.getContent(), PreparationActions.class);
+            List<Action> prepActions = stepActionsResolver.getActions(head);
             boolean inconsistentPreparation = false;
             while (prepActions == null && !head.getId().equals(Step.ROOT_STEP.id())) {
                 LOGGER.info(
@@ -694,7 +701,7 @@ public class PreparationService {
                 inconsistentPreparation = true;
                 deleteAction(preparation, head.getId());
                 head = preparationRepository.get(head.getParentId(), PersistentStep.class);
-                prepActions = preparationRepository.get(head.getContent(), PreparationActions.class);
+                prepActions = stepActionsResolver.getActions(head);
             }
 
             if (inconsistentPreparation) {
@@ -988,10 +995,9 @@ public class PreparationService {
             // TDP-3893: Make code more resilient to deleted steps
             return Collections.emptyList();
         }
-        final PreparationActions preparationActions =
-                preparationRepository.get(step.getContent(), PreparationActions.class);
-        if (preparationActions != null) {
-            return new ArrayList<>(preparationActions.getActions());
+        final List<Action> actions = stepActionsResolver.getActions(step);
+        if (actions != null) {
+            return actions;
         } else {
             return Collections.emptyList();
         }
@@ -1037,22 +1043,14 @@ public class PreparationService {
             return emptyList();
         }
 
-        final List<PersistentStep> steps;
-        try (IntStream range = IntStream.range(stepIndex, stepsIds.size())) {
-            steps = range.mapToObj(index -> getStep(stepsIds.get(index))).collect(toList());
-        }
-
-        final List<List<Action>> stepActions = steps.stream().map(this::getActions).collect(toList());
-
-        try (IntStream filteredActions = IntStream.range(1, steps.size())) {
-            return filteredActions.mapToObj(index -> {
-                final List<Action> previous = stepActions.get(index - 1);
-                final List<Action> current = stepActions.get(index);
-                final PersistentStep step = steps.get(index);
+        try (IntStream range = IntStream.range(stepIndex + 1, stepsIds.size())) {
+            return range.mapToObj(index -> {
+                final PersistentStep step = getStep(stepsIds.get(index));
+                final List<Action> actions = stepActionsResolver.getStepActions(step);
 
                 final AppendStep appendStep = new AppendStep();
                 appendStep.setDiff(step.getDiff());
-                appendStep.setActions(current.subList(previous.size(), current.size()));
+                appendStep.setActions(actions == null ? Collections.emptyList() : actions);
                 return appendStep;
             }).collect(toList());
         }
@@ -1292,17 +1290,12 @@ public class PreparationService {
         // Add new actions after head
         final String headId = preparation.getHeadId();
         final PersistentStep head = preparationRepository.get(headId, PersistentStep.class);
-        final PreparationActions headActions = preparationRepository.get(head.getContent(), PreparationActions.class);
-        final PreparationActions newContent = new PreparationActions();
-
-        if (headActions == null) {
+        if (stepActionsResolver.getActions(head) == null) {
             LOGGER.info("Cannot retrieve the action corresponding to step {}. Therefore it will be skipped.", head);
             return;
         }
-        final List<Action> newActions = new ArrayList<>(headActions.getActions());
-
-        newActions.addAll(appendStep.getActions());
-        newContent.setActions(newActions);
+        // Only store the new actions: previous ones are the head's
+        final StepActions newContent = new StepActions(appendStep.getActions());
 
         // Create new step from new content
         final PersistentStep newHead = new PersistentStep();
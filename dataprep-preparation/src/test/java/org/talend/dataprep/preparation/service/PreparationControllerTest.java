@@ -76,6 +76,9 @@ import org.talend.dataprep.api.preparation.PreparationDetailsDTO;
 import org.talend.dataprep.api.preparation.PreparationUtils;
 import org.talend.dataprep.api.preparation.Step;
 import org.talend.dataprep.preparation.BasePreparationTest;
+import org.talend.dataprep.preparation.store.PersistentStep;
+import org.talend.dataprep.preparation.store.StepActions;
+import org.talend.dataprep.preparation.store.StepActionsResolver;
 import org.talend.dataprep.test.LocalizationRule;
 import org.talend.dataprep.test.MockTDPException;
 import org.talend.dataprep.transformation.actions.common.ImplicitParameters;
@@ -96,6 +99,9 @@ public class PreparationControllerTest extends BasePreparationTest {
     @Autowired
     private PreparationUtils preparationUtils;
 
+    @Autowired
+    private StepActionsResolver stepActionsResolver;
+
     @Rule
     public LocalizationRule rule = new LocalizationRule(Locale.US);
 
@@ -1177,7 +1183,7 @@ public class PreparationControllerTest extends BasePreparationTest {
         assertThat(preparation.getLastModificationDate(), is(greaterThan(oldModificationDate)));
 
         final Step head = repository.get(preparation.getHeadId(), Step.class);
-        final PreparationActions headAction = repository.get(head.getContent(), PreparationActions.class);
+        final PreparationActions headAction = getAllActions(head);
         assertThat(headAction.getActions(), hasSize(1));
         assertThat(headAction.getActions().get(0).getName(), is("copy"));
     }
@@ -1200,9 +1206,8 @@ public class PreparationControllerTest extends BasePreparationTest {
 
         final Step head = repository.get(preparation.getHeadId(), Step.class);
         final Step lastBeforeHead = repository.get(head.getParent(), Step.class);
-        final PreparationActions headAction = repository.get(head.getContent(), PreparationActions.class);
-        final PreparationActions lastBeforeHeadAction =
-                repository.get(lastBeforeHead.getContent(), PreparationActions.class);
+        final PreparationActions headAction = getAllActions(head);
+        final PreparationActions lastBeforeHeadAction = getAllActions(lastBeforeHead);
 
         // first step : contains only uppercase on lastname
         assertThat(lastBeforeHeadAction.getActions(), hasSize(1));
@@ -1234,7 +1239,7 @@ public class PreparationControllerTest extends BasePreparationTest {
         assertThat(preparation.getLastModificationDate(), is(greaterThan(oldModificationDate)));
 
         final Step head = repository.get(preparation.getHeadId(), Step.class);
-        final PreparationActions headAction = repository.get(head.getContent(), PreparationActions.class);
+        final PreparationActions headAction = getAllActions(head);
         assertThat(headAction.getActions(), hasSize(1));
         final Action copyAction = headAction.getActions().get(0);
         assertThat(copyAction.getName(), is("copy"));
@@ -1441,7 +1446,7 @@ public class PreparationControllerTest extends BasePreparationTest {
         final String secondStepId = applyTransformation(preparationId, "actions/append_lower_case.json");
 
         Step head = repository.get(secondStepId, Step.class);
-        PreparationActions headActions = repository.get(head.getContent(), PreparationActions.class);
+        PreparationActions headActions = getAllActions(head);
         assertThat(headActions.getActions(), hasSize(2));
         assertThat(headActions.getActions().get(0).getName(), is("uppercase"));
         assertThat(headActions.getActions().get(1).getName(), is("lowercase"));
@@ -1457,7 +1462,7 @@ public class PreparationControllerTest extends BasePreparationTest {
         final String headId = preparation.getHeadId();
 
         head = repository.get(headId, Step.class);
-        headActions = repository.get(head.getContent(), PreparationActions.class);
+        headActions = getAllActions(head);
         assertThat(headActions.getActions(), hasSize(1));
         assertThat(headActions.getActions().get(0).getName(), is("lowercase"));
     }
@@ -1507,7 +1512,7 @@ public class PreparationControllerTest extends BasePreparationTest {
         final Preparation preparationAfter = repository.get(preparationId, Preparation.class);
         final String headId = preparationAfter.getHeadId();
         Step head = repository.get(headId, Step.class);
-        PreparationActions headActions = repository.get(head.getContent(), PreparationActions.class);
+        PreparationActions headActions = getAllActions(head);
         assertThat(headActions.getActions(), hasSize(2));
         Action secondCopyAction = headActions.getActions().get(0);
         assertThat(secondCopyAction.getName(), is("copy"));
@@ -1579,8 +1584,8 @@ public class PreparationControllerTest extends BasePreparationTest {
         assertEquals(4, stepIds.size());
         final Step step4 = repository.get(stepIds.get(3), Step.class);
         final Step step3 = repository.get(stepIds.get(2), Step.class);
-        final PreparationActions actionStep4 = repository.get(step4.getContent(), PreparationActions.class);
-        final PreparationActions actionStep3 = repository.get(step3.getContent(), PreparationActions.class);
+        final StepActions actionStep4 = repository.get(step4.getContent(), StepActions.class);
+        final StepActions actionStep3 = repository.get(step3.getContent(), StepActions.class);
         repository.remove(actionStep4);
         repository.remove(actionStep3);
 
@@ -1632,7 +1637,7 @@ public class PreparationControllerTest extends BasePreparationTest {
         final String headStepId = applyTransformation(preparationId, "actions/append_lower_case.json");
 
         Step head = repository.get(headStepId, Step.class);
-        PreparationActions headActions = repository.get(head.getContent(), PreparationActions.class);
+        PreparationActions headActions = getAllActions(head);
         assertThat(headActions.getActions(), hasSize(4));
         assertThat(headActions.getActions().get(0).getName(), is("uppercase"));
         assertThat(headActions.getActions().get(1).getName(), is("copy"));
@@ -1651,7 +1656,7 @@ public class PreparationControllerTest extends BasePreparationTest {
         final String newHeadStepId = preparation.getHeadId();
 
         head = repository.get(newHeadStepId, Step.class);
-        headActions = repository.get(head.getContent(), PreparationActions.class);
+        headActions = getAllActions(head);
         assertThat(headActions.getActions(), hasSize(4));
         assertThat(headActions.getActions().get(0).getName(), is("copy"));
         assertThat(headActions.getActions().get(1).getName(), is("uppercase"));
@@ -1669,7 +1674,7 @@ public class PreparationControllerTest extends BasePreparationTest {
         final String headStepId = applyTransformation(preparationId, "actions/append_lower_case.json");
 
         Step head = repository.get(headStepId, Step.class);
-        PreparationActions headActions = repository.get(head.getContent(), PreparationActions.class);
+        PreparationActions headActions = getAllActions(head);
         assertThat(headActions.getActions(), hasSize(4));
         assertThat(headActions.getActions().get(0).getName(), is("uppercase"));
         assertThat(headActions.getActions().get(1).getName(), is("copy"));
@@ -1690,7 +1695,7 @@ public class PreparationControllerTest extends BasePreparationTest {
         final String newHeadStepId = preparation.getHeadId();
 
         head = repository.get(newHeadStepId, Step.class);
-        headActions = repository.get(head.getContent(), PreparationActions.class);
+        headActions = getAllActions(head);
         assertThat(headActions.getActions(), hasSize(4));
 
         assertThat(headActions.getActions().get(0).getName(), is("copy"));
@@ -1709,7 +1714,7 @@ public class PreparationControllerTest extends BasePreparationTest {
         final String headStepId = applyTransformation(preparationId, "actions/append_lower_case.json");
 
         Step head = repository.get(headStepId, Step.class);
-        PreparationActions headActions = repository.get(head.getContent(), PreparationActions.class);
+        PreparationActions headActions = getAllActions(head);
         assertThat(headActions.getActions(), hasSize(4));
         assertThat(headActions.getActions().get(0).getName(), is("uppercase"));
         assertThat(headActions.getActions().get(1).getName(), is("copy"));
@@ -1730,7 +1735,7 @@ public class PreparationControllerTest extends BasePreparationTest {
         final String newHeadStepId = preparation.getHeadId();
 
         head = repository.get(newHeadStepId, Step.class);
-        headActions = repository.get(head.getContent(), PreparationActions.class);
+        headActions = getAllActions(head);
         assertThat(headActions.getActions(), hasSize(4));
 
         assertThat(headActions.getActions().get(0).getName(), is("copy"));
@@ -1764,7 +1769,7 @@ public class PreparationControllerTest extends BasePreparationTest {
         final String newHeadStepId = preparationAfter.getHeadId();
 
         Step head = repository.get(newHeadStepId, Step.class);
-        PreparationActions headActions = repository.get(head.getContent(), PreparationActions.class);
+        PreparationActions headActions = getAllActions(head);
         assertThat(headActions.getActions(), hasSize(3));
 
         assertThat(headActions.getActions().get(0).getName(), is("copy"));
@@ -1796,7 +1801,7 @@ public class PreparationControllerTest extends BasePreparationTest {
         final String newHeadStepId = preparationAfter.getHeadId();
 
         Step head = repository.get(newHeadStepId, Step.class);
-        PreparationActions headActions = repository.get(head.getContent(), PreparationActions.class);
+        PreparationActions headActions = getAllActions(head);
         assertThat(headActions.getActions(), hasSize(2));
 
         assertThat(headActions.getActions().get(0).getName(), is("uppercase"));
@@ -1970,6 +1975,16 @@ public class PreparationControllerTest extends BasePreparationTest {
         }
     }
 
+    /**
+     * @param step A step.
+     * @return All the actions from root step to the <code>step</code>.
+     */
+    private PreparationActions getAllActions(Step step) {
+        final PreparationActions actions = new PreparationActions();
+        actions.setActions(stepActionsResolver.getActions(repository.get(step.id(), PersistentStep.class)));
+        return actions;
+    }
+
     private static Preparation createTestPreparation(String name, String datasetId) {
         Preparation preparation = new Preparation();
         preparation.setName(name);
@@ -0,0 +1,174 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.transformation.api.transformer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.dataprep.api.dataset.ColumnMetadata;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.cache.ContentCache;
+import org.talend.dataprep.cache.TransformationCacheKey;
+import org.talend.dataprep.dataset.store.content.BinaryRowWriter;
+
+/**
+ * A {@link TransformerWriter} that writes to another writer and also caches the rows (in the binary format of
+ * {@link BinaryRowWriter}) and the row metadata it receives: any export format can then be produced from the cached
+ * rows instead of running the transformation again.
+ * <p>
+ * Caching is best effort: a cache write error evicts the cached rows but does not fail the wrapped writer.
+ */
+public class RowsCacheWriter implements TransformerWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RowsCacheWriter.class);
+
+    private final TransformerWriter delegate;
+
+    private final ContentCache contentCache;
+
+    private final ContentCache.TimeToLive ttl;
+
+    private final TransformationCacheKey rowsKey;
+
+    private final TransformationCacheKey rowsMetadataKey;
+
+    private BinaryRowWriter rowsWriter;
+
+    private RowMetadata rowMetadata;
+
+    /** <code>true</code> if rows can't be cached (cache write error). */
+    private boolean failed;
+
+    private boolean closed;
+
+    /**
+     * @param delegate The writer to write to.
+     * @param contentCache The cache for the rows and row metadata.
+     * @param ttl The time to live of the cache entries.
+     * @param rowsKey The cache key for the rows.
+     * @param rowsMetadataKey The cache key for the row metadata.
+     */
+    public RowsCacheWriter(TransformerWriter delegate, ContentCache contentCache, ContentCache.TimeToLive ttl,
+            TransformationCacheKey rowsKey, TransformationCacheKey rowsMetadataKey) {
+        this.delegate = delegate;
+        this.contentCache = contentCache;
+        this.ttl = ttl;
+        this.rowsKey = rowsKey;
+        this.rowsMetadataKey = rowsMetadataKey;
+    }
+
+    @Override
+    public void write(RowMetadata columns) throws IOException {
+        delegate.write(columns);
+        rowMetadata = columns;
+    }
+
+    @Override
+    public void write(DataSetRow row) throws IOException {
+        delegate.write(row);
+        if (failed) {
+            return;
+        }
+        try {
+            if (rowsWriter == null) {
+                openRows(rowMetadata != null ? rowMetadata : row.getRowMetadata());
+            }
+            rowsWriter.write(row);
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public boolean isSchemaFirst() {
+        return delegate.isSchemaFirst();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        delegate.flush();
+    }
+
+    /**
+     * Closes the wrapped writer, then publishes the cached rows and row metadata (rows are published first, so cached
+     * row metadata always comes with its rows).
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            delegate.close();
+        } catch (IOException | RuntimeException e) {
+            if (!failed) {
+                fail(e);
+            }
+            throw e;
+        }
+        if (failed) {
+            return;
+        }
+        if (rowMetadata == null) {
+            LOGGER.debug("No row metadata received, nothing cached for '{}'.", rowsKey.getKey());
+            discard();
+            return;
+        }
+        try {
+            if (rowsWriter == null) {
+                openRows(rowMetadata); // No row received, cache empty content.
+            }
+            rowsWriter.close();
+            new ConfiguredCacheWriter(contentCache, ttl).write(rowsMetadataKey, rowMetadata);
+            LOGGER.debug("Cached {} row(s) for '{}'.", rowsWriter.getCount(), rowsKey.getKey());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    private void openRows(RowMetadata metadata) throws IOException {
+        final List<String> columnIds =
+                metadata.getColumns().stream().map(ColumnMetadata::getId).collect(Collectors.toList());
+        final OutputStream output = contentCache.put(rowsKey, ttl);
+        rowsWriter = new BinaryRowWriter(output, rowsKey.getKey(), columnIds);
+    }
+
+    private void fail(Exception e) {
+        LOGGER.warn("Unable to cache rows for '{}'.", rowsKey.getKey(), e);
+        failed = true;
+        discard();
+    }
+
+    /**
+     * Discards cached rows: entries are evicted <b>before</b> the pending rows are closed, so partial rows are never
+     * published (closing an evicted entry does not publish it).
+     */
+    private void discard() {
+        contentCache.evict(rowsKey);
+        contentCache.evict(rowsMetadataKey);
+        try {
+            if (rowsWriter != null) {
+                rowsWriter.close();
+            }
+        } catch (IOException closeException) {
+            LOGGER.debug("Unable to close cached rows.", closeException);
+        }
+    }
+}
@@ -40,6 +40,15 @@ public interface TransformerWriter extends AutoCloseable {
      */
     void write(DataSetRow row) throws IOException;
 
+    /**
+     * @return <code>true</code> if this writer needs the row metadata before records to stream them (records written
+     * before are buffered until row metadata is written), <code>false</code> if row metadata is expected after records.
+     * Writers that return <code>true</code> ignore any row metadata written after the first one.
+     */
+    default boolean isSchemaFirst() {
+        return false;
+    }
+
     /**
      * Flush the current writing.
      *
@@ -24,6 +24,7 @@ import org.talend.dataprep.api.dataset.RowMetadata;
 import org.talend.dataprep.api.dataset.row.DataSetRow;
 import org.talend.dataprep.api.export.ExportParameters;
 import org.talend.dataprep.api.preparation.PreparationDTO;
+import org.talend.dataprep.cache.TransformationCacheKey;
 import org.talend.dataprep.format.export.ExportFormat;
 import org.talend.dataprep.transformation.format.JsonFormat;
 import org.talend.dataprep.transformation.pipeline.Node;
@@ -80,6 +81,12 @@ public class Configuration {
     /** Limit the output number of rows. */
     private Long limit = null;
 
+    /** Where to cache the format-neutral rows of the transformation (<code>null</code> if not cached). */
+    private TransformationCacheKey rowsKey;
+
+    /** Where to cache the row metadata of the format-neutral rows (<code>null</code> if not cached). */
+    private TransformationCacheKey rowsMetadataKey;
+
     /**
      * Constructor for the transformer configuration.
      */
@@ -192,6 +199,21 @@ public class Configuration {
         return limit;
     }
 
+    /**
+     * @return The cache key for the format-neutral rows of the transformation, or <code>null</code> if they should not
+     * be cached.
+     */
+    public TransformationCacheKey getRowsKey() {
+        return rowsKey;
+    }
+
+    /**
+     * @return The cache key for the row metadata of the format-neutral rows of the transformation.
+     */
+    public TransformationCacheKey getRowsMetadataKey() {
+        return rowsMetadataKey;
+    }
+
     public enum Volume {
         LARGE,
         SMALL
@@ -249,6 +271,10 @@ public class Configuration {
         /** Limit the output number of rows. */
         private Long limit = null;
 
+        private TransformationCacheKey rowsKey;
+
+        private TransformationCacheKey rowsMetadataKey;
+
         public Builder monitor(Supplier<Node> monitorSupplier) {
             this.monitorSupplier = monitorSupplier;
             return this;
@@ -267,8 +293,12 @@ public class Configuration {
          * @return a new {@link Configuration} from the mapper setup.
          */
         public Configuration build() {
-            return new Configuration(output, filter, outFilter, monitorSupplier, sourceType, format, actions, arguments,
-                    preparation, stepId, allowMetadataChange, globalStatistics, dataVolume, limit);
+            final Configuration configuration = new Configuration(output, filter, outFilter, monitorSupplier,
+                    sourceType, format, actions, arguments, preparation, stepId, allowMetadataChange, globalStatistics,
+                    dataVolume, limit);
+            configuration.rowsKey = rowsKey;
+            configuration.rowsMetadataKey = rowsMetadataKey;
+            return configuration;
         }
 
         /**
@@ -357,5 +387,20 @@ public class Configuration {
             this.limit = limit;
             return this;
         }
+
+        /**
+         * Builder DSL to also cache the transformation result in a format-neutral way (rows and row metadata), so
+         * other formats can be produced without running the transformation again.
+         *
+         * @param rowsKey The cache key for the rows.
+         * @param rowsMetadataKey The cache key for the row metadata.
+         * @return The mapper
+         * @see org.talend.dataprep.cache.CacheKeyGenerator#generateRowsKey
+         */
+        public Builder cacheRows(TransformationCacheKey rowsKey, TransformationCacheKey rowsMetadataKey) {
+            this.rowsKey = rowsKey;
+            this.rowsMetadataKey = rowsMetadataKey;
+            return this;
+        }
     }
 }
@@ -13,8 +13,8 @@
 package org.talend.dataprep.transformation.api.transformer.configuration;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.exception.error.CommonErrorCodes;
@@ -28,9 +28,9 @@ public class PreviewConfiguration extends Configuration {
     private final String previewActions;
 
     /** Indexes of rows (used in diff). */
-    private final List<Long> indexes;
+    private final Set<Long> indexes;
 
-    protected PreviewConfiguration(Configuration configuration, String previewActions, List<Long> indexes) {
+    protected PreviewConfiguration(Configuration configuration, String previewActions, Set<Long> indexes) {
         super(configuration.output(), configuration.getFilter(), configuration.getOutFilter(),
                 configuration.getMonitor(), configuration.getSourceType(), configuration.formatId(),
                 configuration.getActions(), configuration.getArguments(), configuration.getPreparation(),
@@ -43,7 +43,7 @@ public class PreviewConfiguration extends Configuration {
         return new Builder();
     }
 
-    public List<Long> getIndexes() {
+    public Set<Long> getIndexes() {
         return indexes;
     }
 
@@ -61,13 +61,13 @@ public class PreviewConfiguration extends Configuration {
     public static class Builder {
 
         /** Indexes of rows. */
-        private List<Long> indexes;
+        private Set<Long> indexes;
 
         private String previewActions;
 
         private Configuration reference;
 
-        private List<Long> parseIndexes(final String indexes) {
+        private Set<Long> parseIndexes(final String indexes) {
             if (indexes == null) {
                 return null;
             }
@@ -79,7 +79,7 @@ public class PreviewConfiguration extends Configuration {
                 final ObjectMapper mapper = new ObjectMapper(new JsonFactory());
                 final JsonNode json = mapper.readTree(indexes);
 
-                final List<Long> result = new ArrayList<>(json.size());
+                final Set<Long> result = new HashSet<>(json.size() * 2);
                 for (JsonNode index : json) {
                     result.add(index.longValue());
                 }
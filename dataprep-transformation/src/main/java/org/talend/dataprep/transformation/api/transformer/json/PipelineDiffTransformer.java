@@ -13,7 +13,9 @@
 
 package org.talend.dataprep.transformation.api.transformer.json;
 
-import java.util.List;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
 import java.util.function.Predicate;
 
 import org.apache.commons.lang3.Validate;
@@ -87,13 +89,16 @@ class PipelineDiffTransformer implements Transformer {
         final Pipeline previewPipeline = buildPipeline(rowMetadata, previewActions);
 
         // Filter source records (extract TDP ids information)
-        final List<Long> indexes = previewConfiguration.getIndexes();
+        final Set<Long> indexes = previewConfiguration.getIndexes();
         final boolean isIndexLimited = indexes != null && !indexes.isEmpty();
         final Predicate<DataSetRow> filter;
+        final long maxIndex;
         if (isIndexLimited) {
             filter = isIndexWanted(indexes);
+            maxIndex = Collections.max(indexes);
         } else {
             filter = row -> true;
+            maxIndex = Long.MAX_VALUE;
         }
 
         // Build diff pipeline
@@ -112,7 +117,17 @@ class PipelineDiffTransformer implements Transformer {
                 try {
                     // Print pipeline before execution (for debug purposes).
                     diffPipeline.logStatus(LOGGER, "Before execution: {}");
-                    input.getRecords().forEach(r -> diffPipeline.exec().receive(r, rowMetadata));
+                    // Records come in TDP id order: no need to read further than the last wanted row
+                    final Iterator<DataSetRow> records = input.getRecords().iterator();
+                    while (records.hasNext()) {
+                        final DataSetRow record = records.next();
+                        final Long tdpId = record.getTdpId();
+                        if (tdpId != null && tdpId > maxIndex) {
+                            LOGGER.debug("Stop reading records after #{} (last wanted row is #{}).", tdpId, maxIndex);
+                            break;
+                        }
+                        diffPipeline.exec().receive(record, rowMetadata);
+                    }
                     diffPipeline.exec().signal(Signal.END_OF_STREAM);
                 } finally {
                     // Print pipeline after execution (for debug purposes).
@@ -145,7 +160,7 @@ class PipelineDiffTransformer implements Transformer {
         return PreviewConfiguration.class.isAssignableFrom(configuration.getClass());
     }
 
-    private Predicate<DataSetRow> isIndexWanted(List<Long> indexes) {
+    private Predicate<DataSetRow> isIndexWanted(Set<Long> indexes) {
         return row -> indexes.contains(row.getTdpId());
     }
 }
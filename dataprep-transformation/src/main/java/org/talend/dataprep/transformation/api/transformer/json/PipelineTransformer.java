@@ -15,6 +15,7 @@ package org.talend.dataprep.transformation.api.transformer.json;
 import static org.talend.dataprep.cache.ContentCache.TimeToLive.DEFAULT;
 import static org.talend.dataprep.transformation.api.transformer.configuration.Configuration.Volume.SMALL;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -32,9 +33,11 @@ import org.talend.dataprep.cache.ContentCache;
 import org.talend.dataprep.cache.TransformationMetadataCacheKey;
 import org.talend.dataprep.dataset.StatisticsAdapter;
 import org.talend.dataprep.quality.AnalyzerService;
+import org.talend.dataprep.transformation.actions.common.RunnableAction;
 import org.talend.dataprep.transformation.api.action.ActionParser;
 import org.talend.dataprep.transformation.api.transformer.ConfiguredCacheWriter;
 import org.talend.dataprep.transformation.api.transformer.ExecutableTransformer;
+import org.talend.dataprep.transformation.api.transformer.RowsCacheWriter;
 import org.talend.dataprep.transformation.api.transformer.Transformer;
 import org.talend.dataprep.transformation.api.transformer.TransformerWriter;
 import org.talend.dataprep.transformation.api.transformer.configuration.Configuration;
@@ -83,8 +86,7 @@ public class PipelineTransformer implements Transformer {
 
         final RowMetadata rowMetadata = input.getMetadata().getRowMetadata();
 
-        final TransformerWriter writer = writerRegistrationService.getWriter(configuration.formatId(),
-                configuration.output(), configuration.getArguments());
+        final TransformerWriter writer = getWriter(configuration);
         final ConfiguredCacheWriter metadataWriter = new ConfiguredCacheWriter(contentCache, DEFAULT);
         final TransformationMetadataCacheKey metadataKey = cacheKeyGenerator.generateMetadataKey(
                 configuration.getPreparationId(), configuration.stepId(), configuration.getSourceType());
@@ -94,19 +96,22 @@ public class PipelineTransformer implements Transformer {
                 .ofNullable(s) //
                 .map(id -> stepMetadataRepository.get(id)) //
                 .orElse(null);
+        final List<RunnableAction> actions = actionParser.parse(configuration.getActions());
+        final RowMetadata expectedRowMetadata =
+                writer.isSchemaFirst() ? getExpectedRowMetadata(configuration, actions, rowMetadata) : null;
 
         final Pipeline pipeline = Pipeline.Builder
                 .builder() //
                 .withAnalyzerService(analyzerService) //
                 .withActionRegistry(actionRegistry) //
                 .withPreparation(preparation) //
-                .withActions(actionParser.parse(configuration.getActions())) //
+                .withActions(actions) //
                 .withInitialMetadata(rowMetadata, configuration.volume() == SMALL) //
                 .withMonitor(configuration.getMonitor()) //
                 .withFilter(configuration.getFilter()) //
                 .withLimit(configuration.getLimit()) //
                 .withFilterOut(configuration.getOutFilter()) //
-                .withOutput(() -> new WriterNode(writer, metadataWriter, metadataKey)) //
+                .withOutput(() -> new WriterNode(writer, metadataWriter, metadataKey, null, expectedRowMetadata)) //
                 .withStatisticsAdapter(adapter) //
                 .withStepMetadataSupplier(stepRowMetadataSupplier) //
                 .withGlobalStatistics(configuration.isGlobalStatistics()) //
@@ -148,6 +153,36 @@ public class PipelineTransformer implements Transformer {
         };
     }
 
+    /**
+     * @return The writer for the configured format, that also caches format-neutral rows if configuration asks for it.
+     */
+    private TransformerWriter getWriter(Configuration configuration) {
+        final TransformerWriter writer = writerRegistrationService.getWriter(configuration.formatId(),
+                configuration.output(), configuration.getArguments());
+        if (configuration.getRowsKey() == null) {
+            return writer;
+        }
+        return new RowsCacheWriter(writer, contentCache, DEFAULT, configuration.getRowsKey(),
+                configuration.getRowsMetadataKey());
+    }
+
+    /**
+     * Returns the row metadata of the transformation result when it is known before execution: input metadata when
+     * there's no action, or metadata previously computed for the step.
+     *
+     * @return the expected row metadata or <code>null</code> if unknown.
+     */
+    private RowMetadata getExpectedRowMetadata(Configuration configuration, List<RunnableAction> actions,
+            RowMetadata input) {
+        if (actions.isEmpty()) {
+            return input;
+        }
+        if (configuration.stepId() != null) {
+            return stepMetadataRepository.get(configuration.stepId());
+        }
+        return null;
+    }
+
     @Override
     public boolean accept(Configuration configuration) {
         return Configuration.class.equals(configuration.getClass());
@@ -0,0 +1,189 @@
+// ============================================================================
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.transformation.format;
+
+import static java.util.Spliterators.spliteratorUnknownSize;
+import static java.util.stream.StreamSupport.stream;
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.readString;
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.readVarLong;
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.writeString;
+import static org.talend.dataprep.dataset.store.content.BinaryFormats.writeVarLong;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+
+import org.talend.dataprep.dataset.store.content.BinaryFormats;
+import org.talend.dataprep.util.FilesHelper;
+
+/**
+ * Buffer for objects on a file, using a compact binary encoding.
+ *
+ * This class creates a temporary file to buffer objects written with a {@link Codec}. Unlike {@link ObjectBuffer}, no
+ * JSON is involved: writers that buffer records until they know the columns spill them with this class.
+ *
+ * This is not intended to be thread-safe. Read is intended to be done after all writes are done.
+ *
+ * @param <T> the type to store.
+ */
+public class BinaryObjectBuffer<T> implements AutoCloseable {
+
+    /** A codec for arrays of strings (<code>null</code> values are supported). */
+    public static final Codec<String[]> STRING_ARRAY = new Codec<String[]>() {
+
+        @Override
+        public void write(DataOutputStream output, String[] value) throws IOException {
+            writeStrings(output, value);
+        }
+
+        @Override
+        public String[] read(DataInputStream input) throws IOException {
+            return readStrings(input);
+        }
+    };
+
+    private final Codec<T> codec;
+
+    private final DataOutputStream output;
+
+    private Path tempFile;
+
+    private DataInputStream input;
+
+    private boolean closed = false;
+
+    public BinaryObjectBuffer(Codec<T> codec) throws IOException {
+        this.codec = codec;
+        tempFile = Files.createTempFile("buffered-object", ".bin");
+        output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile.toFile()), 64 * 1024));
+    }
+
+    /** Append an object to the buffer. */
+    public void appendRow(T entity) throws IOException {
+        output.writeBoolean(true);
+        codec.write(output, entity);
+    }
+
+    /**
+     * Read all data of the buffer, prevent any further writings.
+     */
+    public Stream<T> readAll() throws IOException {
+        if (closed) {
+            throw new IOException("The BinaryObjectBuffer is closed");
+        }
+        output.writeBoolean(false); // end marker
+        output.close();
+        input = new DataInputStream(new BufferedInputStream(new FileInputStream(tempFile.toFile()), 64 * 1024));
+        final Iterator<T> objectIterator = new Iterator<T>() {
+
+            private Boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (hasNext == null) {
+                    try {
+                        hasNext = input.readBoolean();
+                    } catch (EOFException e) {
+                        hasNext = false;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return hasNext;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                hasNext = null;
+                try {
+                    return codec.read(input);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return stream(spliteratorUnknownSize(objectIterator, Spliterator.ORDERED), false);
+    }
+
+    /**
+     * Close the buffer and delete underlying resources.
+     */
+    @Override
+    public void close() throws IOException {
+        output.close();
+        if (input != null) {
+            input.close();
+        }
+        FilesHelper.deleteQuietly(tempFile.toFile());
+        closed = true;
+    }
+
+    /**
+     * Writes an array of strings (<code>null</code> array and values are supported) as its length + 1 (0 meaning
+     * <code>null</code>) followed by its values, using the encoding of binary data set content.
+     *
+     * @see BinaryFormats
+     */
+    static void writeStrings(DataOutputStream output, String[] values) throws IOException {
+        if (values == null) {
+            writeVarLong(output, 0);
+            return;
+        }
+        writeVarLong(output, values.length + 1L);
+        for (String value : values) {
+            writeString(output, value);
+        }
+    }
+
+    /**
+     * Reads an array of strings written by {@link #writeStrings(DataOutputStream, String[])}.
+     */
+    static String[] readStrings(DataInputStream input) throws IOException {
+        final long length = readVarLong(input);
+        if (length == 0) {
+            return null;
+        }
+        final String[] values = new String[(int) (length - 1)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readString(input);
+        }
+        return values;
+    }
+
+    /**
+     * Writes and reads buffered objects.
+     *
+     * @param <T> the type to store.
+     */
+    public interface Codec<T> {
+
+        void write(DataOutputStream output, T value) throws IOException;
+
+        T read(DataInputStream input) throws IOException;
+    }
+}
@@ -16,6 +16,8 @@ package org.talend.dataprep.transformation.format;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.talend.dataprep.transformation.format.CSVFormat.CSV;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
@@ -41,9 +43,8 @@ import org.talend.dataprep.transformation.api.transformer.AbstractTransformerWri
 /**
  * Write datasets in CSV.
  *
- * <strong>Warning</strong>: implementation does not support sending records after metadata. Metadata MUST be sent last
- * or will
- * not be written.
+ * Records sent before metadata are buffered on disk until metadata is sent, records sent after metadata are streamed
+ * directly. Only the first metadata is written.
  */
 @Scope("prototype")
 @Component("writer#" + CSV)
@@ -64,7 +65,7 @@ public class CSVWriter extends AbstractTransformerWriter {
 
     private char escapeCharacter;
 
-    private ObjectBuffer<BufferedDatasetRow> objectBuffer;
+    private BinaryObjectBuffer<BufferedDatasetRow> objectBuffer;
 
     /** The default separator. */
     @Value("${default.text.separator:;}")
@@ -188,7 +189,7 @@ public class CSVWriter extends AbstractTransformerWriter {
 
         if (csvWriter == null) {
             if (objectBuffer == null) {
-                objectBuffer = new ObjectBuffer<>(BufferedDatasetRow.class);
+                objectBuffer = new BinaryObjectBuffer<>(BufferedDatasetRow.CODEC);
             }
             objectBuffer.appendRow(new BufferedDatasetRow(row));
         } else {
@@ -203,6 +204,11 @@ public class CSVWriter extends AbstractTransformerWriter {
      */
     @Override
     public void write(final RowMetadata rowMetadata) throws IOException {
+        if (csvWriter != null) {
+            // header already written (metadata was sent before records)
+            csvWriter.flush();
+            return;
+        }
         csvWriter = new CSVWriterCustom(new OutputStreamWriter(output, encoding), separator, enclosureCharacter,
                 escapeCharacter);
 
@@ -236,6 +242,11 @@ public class CSVWriter extends AbstractTransformerWriter {
         }
     }
 
+    @Override
+    public boolean isSchemaFirst() {
+        return true;
+    }
+
     @Override
     public void flush() throws IOException {
         if (csvWriter != null) {
@@ -260,12 +271,36 @@ public class CSVWriter extends AbstractTransformerWriter {
 
     private static final class BufferedDatasetRow {
 
+        /** Binary encoding of buffered rows. */
+        private static final BinaryObjectBuffer.Codec<BufferedDatasetRow> CODEC =
+                new BinaryObjectBuffer.Codec<BufferedDatasetRow>() {
+
+                    @Override
+                    public void write(DataOutputStream output, BufferedDatasetRow row) throws IOException {
+                        BinaryObjectBuffer.writeStrings(output, row.nextLine);
+                        output.writeInt(row.isEnclosedTypeValues.length);
+                        for (Boolean isEnclosed : row.isEnclosedTypeValues) {
+                            output.writeBoolean(Boolean.TRUE.equals(isEnclosed));
+                        }
+                    }
+
+                    @Override
+                    public BufferedDatasetRow read(DataInputStream input) throws IOException {
+                        final BufferedDatasetRow row = new BufferedDatasetRow();
+                        row.nextLine = BinaryObjectBuffer.readStrings(input);
+                        row.isEnclosedTypeValues = new Boolean[input.readInt()];
+                        for (int i = 0; i < row.isEnclosedTypeValues.length; i++) {
+                            row.isEnclosedTypeValues[i] = input.readBoolean();
+                        }
+                        return row;
+                    }
+                };
+
         public String[] nextLine;
 
         public Boolean[] isEnclosedTypeValues;
 
-        // for jackson serialization
-        public BufferedDatasetRow() {
+        private BufferedDatasetRow() {
         }
 
         public BufferedDatasetRow(RowMetadata rowMetadata) {
@@ -56,7 +56,7 @@ public class XlsWriter implements TransformerWriter {
     private final Sheet sheet;
 
     // Holds a temporary buffer on disk of records to be written
-    private ObjectBuffer<String[]> rowsBuffer;
+    private BinaryObjectBuffer<String[]> rowsBuffer;
 
     private RowMetadata writtenMetadata;
 
@@ -69,16 +69,11 @@ public class XlsWriter implements TransformerWriter {
     }
 
     public XlsWriter(final OutputStream output, Map<String, String> parameters) {
-        try {
-            this.outputStream = output;
-            // we limit to only 50 rows in memory
-            this.workbook = new SXSSFWorkbook(50);
-            // TODO sheet name as an option?
-            this.sheet = this.workbook.createSheet("sheet1");
-            rowsBuffer = new ObjectBuffer<>(String[].class);
-        } catch (IOException e) {
-            throw new TDPException(TransformationErrorCodes.UNABLE_TO_USE_EXPORT, e);
-        }
+        this.outputStream = output;
+        // we limit to only 50 rows in memory
+        this.workbook = new SXSSFWorkbook(50);
+        // TODO sheet name as an option?
+        this.sheet = this.workbook.createSheet("sheet1");
     }
 
     @Override
@@ -90,6 +85,13 @@ public class XlsWriter implements TransformerWriter {
         // values need to be written in the same order as the columns
         String[] rowValues = row.order().toArray(DataSetRow.SKIP_TDP_ID);
         if (writtenMetadata == null) {
+            if (rowsBuffer == null) {
+                try {
+                    rowsBuffer = new BinaryObjectBuffer<>(BinaryObjectBuffer.STRING_ARRAY);
+                } catch (IOException e) {
+                    throw new TDPException(TransformationErrorCodes.UNABLE_TO_USE_EXPORT, e);
+                }
+            }
             rowsBuffer.appendRow(rowValues);
         } else {
             internalWriteRow(writtenMetadata, rowValues);
@@ -99,16 +101,27 @@ public class XlsWriter implements TransformerWriter {
     @Override
     public void write(RowMetadata metadata) throws IOException {
         LOGGER.debug("write RowMetadata: {}", metadata);
+        if (writtenMetadata != null) {
+            LOGGER.debug("header already written (metadata was sent before records)");
+            return;
+        }
         if (!metadata.getColumns().isEmpty()) {
             writeHeader(metadata);
             writtenMetadata = metadata;
 
             // Empty buffer
-            rowsBuffer.readAll().forEach(row -> internalWriteRow(metadata, row));
-            safeCloseObjectBuffer();
+            if (rowsBuffer != null) {
+                rowsBuffer.readAll().forEach(row -> internalWriteRow(metadata, row));
+                safeCloseObjectBuffer();
+            }
         }
     }
 
+    @Override
+    public boolean isSchemaFirst() {
+        return true;
+    }
+
     /** writing headers so first row. */
     private void writeHeader(RowMetadata metadata) {
         CreationHelper createHelper = this.workbook.getCreationHelper();
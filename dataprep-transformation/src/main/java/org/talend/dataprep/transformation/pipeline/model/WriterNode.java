@@ -15,10 +15,13 @@ package org.talend.dataprep.transformation.pipeline.model;
 import static org.talend.dataprep.transformation.pipeline.Signal.END_OF_STREAM;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.talend.dataprep.api.dataset.ColumnMetadata;
 import org.talend.dataprep.api.dataset.RowMetadata;
 import org.talend.dataprep.api.dataset.row.DataSetRow;
 import org.talend.dataprep.cache.ContentCacheKey;
@@ -47,6 +50,12 @@ public class WriterNode extends BasicNode implements Monitored {
 
     private RowMetadata lastRowMetadata;
 
+    /**
+     * Row metadata expected at the end of the stream when known up front (<code>null</code> otherwise). Schema first
+     * writers receive it before the first record, so they don't need to buffer records.
+     */
+    private final RowMetadata expectedRowMetadata;
+
     private boolean startRecords = false;
 
     private long totalTime;
@@ -67,18 +76,33 @@ public class WriterNode extends BasicNode implements Monitored {
      */
     public WriterNode(final TransformerWriter writer, final ConfiguredCacheWriter metadataCacheWriter,
             final ContentCacheKey metadataKey, RowMetadata fallBackRowMetadata) {
+        this(writer, metadataCacheWriter, metadataKey, fallBackRowMetadata, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param writer the transformer writer.
+     * @param metadataCacheWriter the metadata cache writer.
+     * @param metadataKey the transformation metadata cache key to use.
+     * @param fallBackRowMetadata fallback row metadata to be able to write an empty content even if no row/rowMetadata
+     * was received.
+     * @param expectedRowMetadata the row metadata expected at the end of the stream if known up front (may be
+     * <code>null</code>).
+     */
+    public WriterNode(final TransformerWriter writer, final ConfiguredCacheWriter metadataCacheWriter,
+            final ContentCacheKey metadataKey, RowMetadata fallBackRowMetadata, RowMetadata expectedRowMetadata) {
         this.writer = writer;
         this.metadataCacheWriter = metadataCacheWriter;
         this.metadataKey = metadataKey;
         this.fallBackRowMetadata = fallBackRowMetadata;
         this.lastRowMetadata = fallBackRowMetadata;
+        this.expectedRowMetadata = expectedRowMetadata;
     }
 
     public WriterNode(TransformerWriter writer, ConfiguredCacheWriter metadataCacheWriter,
             TransformationMetadataCacheKey metadataKey) {
-        this.writer = writer;
-        this.metadataCacheWriter = metadataCacheWriter;
-        this.metadataKey = metadataKey;
+        this(writer, metadataCacheWriter, metadataKey, null, null);
     }
 
     /**
@@ -99,6 +123,7 @@ public class WriterNode extends BasicNode implements Monitored {
         try {
             if (!startRecords) {
                 startRecords = true;
+                writeExpectedRowMetadata(metadata);
             }
             lastRowMetadata = metadata;
             if (row.shouldWrite()) {
@@ -113,6 +138,50 @@ public class WriterNode extends BasicNode implements Monitored {
         }
     }
 
+    /**
+     * Writes the expected row metadata before the first record if writer needs it and if it matches the columns of the
+     * records: writer can then stream records instead of buffering them until the end of the stream.
+     *
+     * @param metadata the row metadata of the first record.
+     */
+    private void writeExpectedRowMetadata(RowMetadata metadata) throws IOException {
+        if (expectedRowMetadata == null || !writer.isSchemaFirst()) {
+            return;
+        }
+        if (sameColumns(expectedRowMetadata, metadata)) {
+            LOGGER.debug("Columns known before first record, writer streams records.");
+            writer.write(expectedRowMetadata);
+        } else {
+            LOGGER.debug("Expected columns don't match records, writer buffers records.");
+        }
+    }
+
+    /**
+     * @return <code>true</code> if expected columns are the ones of the records (same ids, names, types and domains):
+     * on any difference, records are buffered until the actual metadata is known.
+     */
+    private static boolean sameColumns(RowMetadata expected, RowMetadata actual) {
+        if (actual == null) {
+            return false;
+        }
+        final List<ColumnMetadata> expectedColumns = expected.getColumns();
+        final List<ColumnMetadata> actualColumns = actual.getColumns();
+        if (expectedColumns.isEmpty() || expectedColumns.size() != actualColumns.size()) {
+            return false;
+        }
+        for (int i = 0; i < expectedColumns.size(); i++) {
+            final ColumnMetadata expectedColumn = expectedColumns.get(i);
+            final ColumnMetadata actualColumn = actualColumns.get(i);
+            if (!Objects.equals(expectedColumn.getId(), actualColumn.getId())
+                    || !Objects.equals(expectedColumn.getName(), actualColumn.getName())
+                    || !Objects.equals(expectedColumn.getType(), actualColumn.getType())
+                    || !Objects.equals(expectedColumn.getDomain(), actualColumn.getDomain())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Synchronized method not to clash with the receive method.
      *
@@ -193,7 +262,7 @@ public class WriterNode extends BasicNode implements Monitored {
 
     @Override
     public Node copyShallow() {
-        return new WriterNode(writer, metadataCacheWriter, metadataKey, fallBackRowMetadata);
+        return new WriterNode(writer, metadataCacheWriter, metadataKey, fallBackRowMetadata, expectedRowMetadata);
     }
 
     @Override
@@ -31,6 +31,7 @@ import org.talend.dataprep.api.preparation.PreparationDTO;
 import org.talend.dataprep.api.preparation.PreparationDetailsDTO;
 import org.talend.dataprep.api.preparation.Step;
 import org.talend.dataprep.cache.ContentCache;
+import org.talend.dataprep.cache.ContentCacheSingleFlight;
 import org.talend.dataprep.command.preparation.PreparationDetailsGet;
 import org.talend.dataprep.command.preparation.PreparationGetActions;
 import org.talend.dataprep.command.preparation.PreparationSummaryGet;
@@ -59,6 +60,10 @@ public abstract class BaseExportStrategy {
     @Autowired
     protected ContentCache contentCache;
 
+    /** Shares the computation of identical concurrent exports (see {@link ContentCacheSingleFlight}). */
+    @Autowired
+    protected ContentCacheSingleFlight singleFlight;
+
     @Autowired
     protected FilterService filterService;
 
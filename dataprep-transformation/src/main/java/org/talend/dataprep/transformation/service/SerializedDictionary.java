@@ -0,0 +1,212 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.transformation.service;
+
+import static org.talend.dataprep.exception.error.TransformationErrorCodes.UNEXPECTED_EXCEPTION;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.talend.dataprep.exception.TDPException;
+import org.talend.dataquality.semantic.broadcast.TdqCategories;
+import org.talend.dataquality.semantic.broadcast.TdqCategoriesFactory;
+
+/**
+ * The DQ dictionary ({@link TdqCategories}) as served to other services: Java serialized and GZIP-ed once per
+ * dictionary version in a file that is memory mapped to serve it.
+ * <p>
+ * Dictionary version is the last modification of the DQ indexes (see <code>dataquality.indexes.file.location</code>),
+ * the ETag of the serialized content is its SHA-1.
+ */
+@Component
+public class SerializedDictionary {
+
+    /** This class' logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SerializedDictionary.class);
+
+    /** Where DQ indexes are stored (used to detect dictionary updates). */
+    @Value("${dataquality.indexes.file.location:}")
+    private String indexesLocation;
+
+    /** Where the serialized dictionary is stored. */
+    @Value("${transformation.dictionary.path:${java.io.tmpdir}/dataprep/dictionary}")
+    private String path;
+
+    /** How long (in ms) the dictionary version is kept before DQ indexes are checked again. */
+    @Value("${transformation.dictionary.version.check.period:10000}")
+    private long versionCheckPeriod;
+
+    /** The last known dictionary version. */
+    private volatile long version;
+
+    /** When (in ms) the dictionary version must be checked again. */
+    private volatile long nextVersionCheck;
+
+    /** Lock for version checks (so they do not wait for a dictionary serialization). */
+    private final Object versionLock = new Object();
+
+    /** The current serialized dictionary (null until first request). */
+    private Content content;
+
+    /**
+     * @return The serialized dictionary of the current dictionary version (serialized on first call for a version).
+     */
+    public synchronized Content get() {
+        final long currentVersion = getVersion();
+        if (content == null || content.version != currentVersion) {
+            final Content previous = content;
+            content = serialize(currentVersion);
+            if (previous != null && !previous.file.equals(content.file)) {
+                deleteQuietly(previous.file);
+            }
+        }
+        return content;
+    }
+
+    /**
+     * @return The current dictionary version: the last modification of DQ indexes (or 0 if unknown). Version is checked
+     * at most once per <code>transformation.dictionary.version.check.period</code>, the last known version is returned
+     * in between.
+     */
+    public long getVersion() {
+        if (System.currentTimeMillis() >= nextVersionCheck) {
+            synchronized (versionLock) {
+                if (System.currentTimeMillis() >= nextVersionCheck) {
+                    version = readVersion();
+                    nextVersionCheck = System.currentTimeMillis() + versionCheckPeriod;
+                }
+            }
+        }
+        return version;
+    }
+
+    private long readVersion() {
+        if (StringUtils.isEmpty(indexesLocation)) {
+            return 0;
+        }
+        final Path indexes = Paths.get(indexesLocation);
+        if (!Files.exists(indexes)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.walk(indexes)) {
+            return files.mapToLong(file -> file.toFile().lastModified()).max().orElse(0);
+        } catch (IOException e) {
+            LOGGER.debug("Unable to read last modification of DQ indexes in '{}'.", indexesLocation, e);
+            return 0;
+        }
+    }
+
+    private Content serialize(long version) {
+        LOGGER.debug("Serializing DQ dictionary (version {})...", version);
+        try {
+            final Path directory = Files.createDirectories(Paths.get(path));
+            final Path temp = Files.createTempFile(directory, "dictionary", ".tmp");
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            try (ObjectOutputStream oos = new ObjectOutputStream(
+                    new GZIPOutputStream(new DigestOutputStream(Files.newOutputStream(temp), digest)))) {
+                oos.writeObject(TdqCategoriesFactory.createFullTdqCategories());
+            }
+            final String etag = Hex.encodeHexString(digest.digest());
+            final Path file = directory.resolve("dictionary-" + etag + ".ser.gz");
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                LOGGER.debug("Serialized DQ dictionary (version {}, {} bytes) to '{}'.", version, channel.size(), file);
+                return new Content(version, '"' + etag + '"', file, buffer);
+            }
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new TDPException(UNEXPECTED_EXCEPTION, e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.debug("Unable to delete previous serialized dictionary '{}'.", file, e);
+        }
+    }
+
+    /**
+     * A serialized dictionary.
+     */
+    public static class Content {
+
+        private final long version;
+
+        private final String etag;
+
+        private final Path file;
+
+        private final MappedByteBuffer buffer;
+
+        private Content(long version, String etag, Path file, MappedByteBuffer buffer) {
+            this.version = version;
+            this.etag = etag;
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        /**
+         * @return The (quoted) entity tag of the serialized dictionary.
+         */
+        public String getETag() {
+            return etag;
+        }
+
+        /**
+         * @return The size of the serialized dictionary (in bytes).
+         */
+        public long getSize() {
+            return buffer.capacity();
+        }
+
+        /**
+         * Writes the serialized dictionary from the mapped file (not read nor copied in heap).
+         *
+         * @param output Where to write the serialized dictionary.
+         * @throws IOException In case of write error.
+         */
+        public void writeTo(OutputStream output) throws IOException {
+            final ByteBuffer content = buffer.duplicate();
+            final WritableByteChannel channel = Channels.newChannel(output);
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+            output.flush();
+        }
+    }
+}
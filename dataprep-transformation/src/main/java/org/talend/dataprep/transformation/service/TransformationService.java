@@ -32,7 +32,6 @@ import static org.talend.dataprep.transformation.format.JsonFormat.JSON;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
@@ -40,24 +39,32 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.zip.GZIPOutputStream;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 import javax.validation.Valid;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.output.NullOutputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -86,18 +93,23 @@ import org.talend.dataprep.async.conditional.GetPrepContentAsyncCondition;
 import org.talend.dataprep.async.conditional.GetPrepMetadataAsyncCondition;
 import org.talend.dataprep.async.generator.ExportParametersExecutionIdGenerator;
 import org.talend.dataprep.async.generator.PrepMetadataExecutionIdGenerator;
+import org.talend.dataprep.async.priority.ExportPriorityClassifier;
+import org.talend.dataprep.async.priority.InteractivePriorityClassifier;
 import org.talend.dataprep.async.result.PrepMetadataGetContentUrlGenerator;
 import org.talend.dataprep.async.result.PreparationGetContentUrlGenerator;
 import org.talend.dataprep.cache.CacheKeyGenerator;
 import org.talend.dataprep.cache.ContentCache;
 import org.talend.dataprep.cache.ContentCacheKey;
+import org.talend.dataprep.cache.TransformationCacheKey;
 import org.talend.dataprep.cache.TransformationMetadataCacheKey;
 import org.talend.dataprep.command.preparation.PreparationSummaryGet;
 import org.talend.dataprep.conversions.BeanConversionService;
 import org.talend.dataprep.dataset.StatisticsAdapter;
 import org.talend.dataprep.dataset.adapter.DatasetClient;
+import org.talend.dataprep.dataset.store.content.BinaryRowReader;
 import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.exception.error.CommonErrorCodes;
+import org.talend.dataprep.exception.error.DataSetErrorCodes;
 import org.talend.dataprep.exception.error.TransformationErrorCodes;
 import org.talend.dataprep.exception.json.JsonErrorCodeDescription;
 import org.talend.dataprep.format.export.ExportFormat;
@@ -115,6 +127,7 @@ import org.talend.dataprep.transformation.aggregation.api.AggregationResult;
 import org.talend.dataprep.transformation.api.action.ActionParser;
 import org.talend.dataprep.transformation.api.action.context.ActionContext;
 import org.talend.dataprep.transformation.api.action.context.TransformationContext;
+import org.talend.dataprep.transformation.api.action.dynamic.DynamicParameters;
 import org.talend.dataprep.transformation.api.action.dynamic.DynamicType;
 import org.talend.dataprep.transformation.api.action.dynamic.GenericParameter;
 import org.talend.dataprep.transformation.api.transformer.TransformerFactory;
@@ -127,10 +140,14 @@ import org.talend.dataprep.transformation.preview.api.PreviewParameters;
 import org.talend.dataprep.transformation.service.export.PreparationExportStrategy;
 import org.talend.dataquality.common.inference.Analyzer;
 import org.talend.dataquality.common.inference.Analyzers;
-import org.talend.dataquality.semantic.broadcast.TdqCategories;
-import org.talend.dataquality.semantic.broadcast.TdqCategoriesFactory;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -214,13 +231,44 @@ public class TransformationService extends BaseTransformationService {
     @Autowired
     private DatasetClient datasetClient;
 
+    @Autowired
+    private SerializedDictionary serializedDictionary;
+
+    /** How many action dynamic parameters are kept in cache. */
+    @Value("${transformation.dynamic.params.cache.size:100}")
+    private long dynamicParamsCacheSize;
+
+    /** Action dynamic parameters, per content version, column and action (see {@link #dynamicParams}). */
+    private Cache<String, GenericParameter> dynamicParamsCache;
+
+    /** How many column semantic domains are kept in cache. */
+    @Value("${transformation.semantic.domains.cache.size:1000}")
+    private long semanticDomainsCacheSize;
+
+    /** How long (in minutes) column semantic domains are kept in cache. */
+    @Value("${transformation.semantic.domains.cache.expire:60}")
+    private long semanticDomainsCacheExpire;
+
+    /** Semantic domains of preparation columns, per preparation, step, column and dictionary version. */
+    private Cache<String, List<SemanticDomain>> semanticDomainsCache;
+
+    @PostConstruct
+    void initCaches() {
+        dynamicParamsCache = CacheBuilder.newBuilder().maximumSize(dynamicParamsCacheSize).build();
+        semanticDomainsCache = CacheBuilder.newBuilder() //
+                .maximumSize(semanticDomainsCacheSize) //
+                .expireAfterWrite(semanticDomainsCacheExpire, TimeUnit.MINUTES) //
+                .build();
+    }
+
     @RequestMapping(value = "/apply", method = POST)
     @ApiOperation(value = "Run the transformation given the provided export parameters",
             notes = "This operation transforms the dataset or preparation using parameters in export parameters.")
     @VolumeMetered
     @AsyncOperation(conditionalClass = GetPrepContentAsyncCondition.class, //
             resultUrlGenerator = PreparationGetContentUrlGenerator.class, //
-            executionIdGeneratorClass = ExportParametersExecutionIdGenerator.class //
+            executionIdGeneratorClass = ExportParametersExecutionIdGenerator.class, //
+            priorityClassifier = ExportPriorityClassifier.class //
     )
     public StreamingResponseBody
             execute(@ApiParam(
@@ -246,7 +294,8 @@ public class TransformationService extends BaseTransformationService {
     @VolumeMetered
     @AsyncOperation(conditionalClass = GetPrepMetadataAsyncCondition.class, //
             resultUrlGenerator = PrepMetadataGetContentUrlGenerator.class, //
-            executionIdGeneratorClass = PrepMetadataExecutionIdGenerator.class)
+            executionIdGeneratorClass = PrepMetadataExecutionIdGenerator.class, //
+            priorityClassifier = InteractivePriorityClassifier.class)
     public DataSetMetadata executeMetadata(@PathVariable("preparationId") @AsyncParameter String preparationId,
             @PathVariable("stepId") @AsyncParameter String stepId) {
 
@@ -433,13 +482,127 @@ public class TransformationService extends BaseTransformationService {
     public void transformPreview(@ApiParam(name = "body", value = "Preview parameters.") @RequestBody final PreviewParameters previewParameters,
                                  final OutputStream output) {
         //@formatter:on
-        if (shouldApplyDiffToSampleSource(previewParameters)) {
+        if (executeDiffOnReferenceStep(previewParameters, output)) {
+            LOG.debug("Preview computed from cached content of step #{}.", previewParameters.getReferenceStepId());
+        } else if (shouldApplyDiffToSampleSource(previewParameters)) {
             executeDiffOnSample(previewParameters, output);
         } else {
             executeDiffOnDataset(previewParameters, output);
         }
     }
 
+    /**
+     * Returns the preview actions that follow the base actions when the preview can start from the content of the
+     * reference step (i.e. the base actions are the actions of the reference step and a prefix of the new actions).
+     *
+     * @param previewParameters The preview parameters.
+     * @return The json of the actions to apply on the reference step content, or <code>null</code> if the
+     * preview can't start from the reference step content.
+     */
+    private String getActionsAfterReference(final PreviewParameters previewParameters) {
+        try {
+            final JsonNode baseActions = readActions(previewParameters.getBaseActions());
+            final JsonNode newActions = readActions(previewParameters.getNewActions());
+            if (baseActions.size() > newActions.size()) {
+                return null;
+            }
+            final ArrayNode addedActions = mapper.createArrayNode();
+            for (int i = 0; i < newActions.size(); i++) {
+                if (i < baseActions.size()) {
+                    if (!baseActions.get(i).equals(newActions.get(i))) {
+                        // preview changes an action of the reference step, its content can't be used
+                        return null;
+                    }
+                } else {
+                    addedActions.add(newActions.get(i));
+                }
+            }
+            final ObjectNode result = mapper.createObjectNode();
+            result.set("actions", addedActions);
+            return mapper.writeValueAsString(result);
+        } catch (IOException e) {
+            throw new TDPException(TransformationErrorCodes.UNABLE_TO_PERFORM_PREVIEW, e);
+        }
+    }
+
+    private JsonNode readActions(final String actions) throws IOException {
+        if (StringUtils.isBlank(actions)) {
+            return mapper.createArrayNode();
+        }
+        final JsonNode json = mapper.readTree(actions);
+        // actions are usually wrapped in an "actions" root (see GenericCommand#serializeActions)
+        return json.has("actions") ? json.get("actions") : json;
+    }
+
+    /**
+     * Runs the preview on the cached content of the reference step: base content is the reference content as is, and
+     * only the added actions are applied to get the preview content.
+     *
+     * @return <code>true</code> if preview was written, <code>false</code> if it can't start from the reference step
+     * content (not cached, evicted or actions of the reference step changed by the preview).
+     */
+    private boolean executeDiffOnReferenceStep(final PreviewParameters previewParameters, final OutputStream output) {
+        final String referenceStepId = previewParameters.getReferenceStepId();
+        if (referenceStepId == null || previewParameters.getPreparationId() == null) {
+            return false;
+        }
+        final String addedActions = getActionsAfterReference(previewParameters);
+        if (addedActions == null) {
+            return false;
+        }
+        final TransformationCacheKey rowsKey = cacheKeyGenerator.generateRowsKey( //
+                previewParameters.getDataSetId(), //
+                previewParameters.getPreparationId(), //
+                referenceStepId, //
+                previewParameters.getSourceType(), //
+                "" // no filter for preview
+        );
+        final TransformationCacheKey rowsMetadataKey = cacheKeyGenerator.generateRowsMetadataKey( //
+                previewParameters.getDataSetId(), //
+                previewParameters.getPreparationId(), //
+                referenceStepId, //
+                previewParameters.getSourceType(), //
+                "" // no filter for preview
+        );
+        final InputStream metadata = contentCache.get(rowsMetadataKey);
+        final InputStream cachedRows = metadata == null ? null : contentCache.get(rowsKey);
+        if (cachedRows == null) {
+            // Not cached (or evicted since): preview starts from data set content.
+            IOUtils.closeQuietly(metadata);
+            LOG.debug("No cached content for reference step #{}, preview starts from data set content.",
+                    referenceStepId);
+            return false;
+        }
+        LOG.debug("Preview on cached content of step #{} of preparation #{}.", referenceStepId,
+                previewParameters.getPreparationId());
+        try (final InputStream ignored = metadata; //
+                final BinaryRowReader rows = new BinaryRowReader(cachedRows)) {
+
+            // build metadata
+            final RowMetadata rowMetadata = mapper.readerFor(RowMetadata.class).readValue(metadata);
+            final DataSetMetadata dataSetMetadata = new DataSetMetadata();
+            dataSetMetadata.setRowMetadata(rowMetadata);
+
+            // build dataset
+            rows.setRowMetadata(rowMetadata);
+            final DataSet dataSet = new DataSet();
+            dataSet.setMetadata(dataSetMetadata);
+            dataSet.setRecords(rows.stream());
+
+            // trigger diff: reference content is already transformed, apply only the added actions
+            executePreview( //
+                    addedActions, //
+                    "{\"actions\":[]}", //
+                    previewParameters.getTdpIds(), //
+                    dataSet, //
+                    output //
+            );
+            return true;
+        } catch (final IOException e) {
+            throw new TDPException(TransformationErrorCodes.UNABLE_TO_PERFORM_PREVIEW, e);
+        }
+    }
+
     private void executeDiffOnSample(final PreviewParameters previewParameters, final OutputStream output) {
         final TransformationMetadataCacheKey metadataKey = cacheKeyGenerator.generateMetadataKey( //
                 previewParameters.getPreparationId(), //
@@ -548,6 +711,7 @@ public class TransformationService extends BaseTransformationService {
         for (final ExportParameters.SourceType sourceType : ExportParameters.SourceType.values()) {
             evictCache(preparationId, sourceType);
         }
+        semanticDomainsCache.asMap().keySet().removeIf(key -> key.startsWith(preparationId + '/'));
     }
 
     private void evictCache(final String preparationId, final ExportParameters.SourceType sourceType) {
@@ -646,16 +810,122 @@ public class TransformationService extends BaseTransformationService {
             @ApiParam(value = "Data set content as JSON") final InputStream content) {
         //@formatter:on
 
+        final DynamicType actionType = getDynamicType(action);
+        try (JsonParser parser = mapper.getFactory().createParser(new InputStreamReader(content, UTF_8))) {
+            final DataSet dataSet = mapper.readerFor(DataSet.class).readValue(parser);
+            return actionType.getGenerator(context).getParameters(columnId, dataSet);
+        } catch (IOException e) {
+            throw new TDPException(CommonErrorCodes.UNABLE_TO_PARSE_JSON, e);
+        }
+    }
+
+    /**
+     * Get the action dynamic params of a data set or preparation column. Content is read by the transformation
+     * service and the parameters are cached per content version, column and action.
+     */
+    //@formatter:off
+    @RequestMapping(value = "/transform/suggest/{action}/params", method = GET)
+    @ApiOperation(value = "Get the transformation dynamic parameters of a data set or preparation column", notes = "Returns the transformation parameters.")
+    @Timed
+    public GenericParameter dynamicParams(
+            @ApiParam(value = "Action name.") @PathVariable("action") final String action,
+            @ApiParam(value = "The column id.") @RequestParam(value = "columnId") final String columnId,
+            @ApiParam(value = "The preparation id (if empty, data set id is used).") @RequestParam(value = "preparationId", required = false) final String preparationId,
+            @ApiParam(value = "The preparation version.") @RequestParam(value = "stepId", defaultValue = "head") final String stepId,
+            @ApiParam(value = "The data set id (if no preparation id).") @RequestParam(value = "datasetId", required = false) final String datasetId) {
+        //@formatter:on
+
+        final DynamicType actionType = getDynamicType(action);
+        final PreparationDTO preparation;
+        final String dataSetId;
+        final String version;
+        if (StringUtils.isNotBlank(preparationId)) {
+            preparation = getPreparation(preparationId);
+            dataSetId = preparation.getDataSetId();
+            version = StringUtils.equals("head", stepId) ? preparation.getHeadId() : stepId;
+        } else if (StringUtils.isNotBlank(datasetId)) {
+            preparation = null;
+            dataSetId = datasetId;
+            version = null;
+        } else {
+            throw new TDPException(CommonErrorCodes.UNABLE_TO_PARSE_REQUEST);
+        }
+
+        // content version: data set content update or any other preparation step gives other parameters
+        final DataSetMetadata dataSetMetadata = datasetClient.getDataSetMetadata(dataSetId);
+        if (dataSetMetadata == null) {
+            throw new TDPException(DataSetErrorCodes.DATASET_DOES_NOT_EXIST, build().put("id", dataSetId));
+        }
+        final String key = dataSetId + '@' + dataSetMetadata.getLastModificationDate() + '/' + preparationId + '@'
+                + version + '/' + columnId + '/' + actionType.getAction() + '/' + getLocale().toLanguageTag();
+        try {
+            return dynamicParamsCache.get(key, () -> {
+                LOG.debug("Computing {} parameters of column #{} (data set #{}, preparation #{}@{})", action,
+                        columnId, dataSetId, preparationId, version);
+                final DynamicParameters generator = actionType.getGenerator(context);
+                if (preparation == null) {
+                    try (DataSet dataSet = datasetClient.getDataSet(dataSetId, false, false)) {
+                        return generator.getParameters(columnId, dataSet);
+                    }
+                }
+                return getPreparationDynamicParams(generator, preparation, version, columnId);
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof TDPException) {
+                throw (TDPException) e.getCause();
+            }
+            throw new TDPException(UNEXPECTED_EXCEPTION, e.getCause());
+        }
+    }
+
+    private DynamicType getDynamicType(String action) {
         final DynamicType actionType = DynamicType.fromAction(action);
         if (actionType == null) {
             final ExceptionContext exceptionContext = build().put("name", action);
             throw new TDPException(TransformationErrorCodes.UNKNOWN_DYNAMIC_ACTION, exceptionContext);
         }
-        try (JsonParser parser = mapper.getFactory().createParser(new InputStreamReader(content, UTF_8))) {
+        return actionType;
+    }
+
+    /**
+     * Computes dynamic parameters on the content of a preparation step: the cached rows of the step are used if any,
+     * otherwise the step content is computed (and cached) first.
+     */
+    private GenericParameter getPreparationDynamicParams(DynamicParameters generator, PreparationDTO preparation,
+            String version, String columnId) throws IOException {
+        final String dataSetId = preparation.getDataSetId();
+        final TransformationCacheKey rowsKey =
+                cacheKeyGenerator.generateRowsKey(dataSetId, preparation.getId(), version, HEAD, "");
+        final TransformationCacheKey rowsMetadataKey =
+                cacheKeyGenerator.generateRowsMetadataKey(dataSetId, preparation.getId(), version, HEAD, "");
+        if (contentCache.has(rowsKey) && contentCache.has(rowsMetadataKey)) {
+            try (final InputStream metadata = contentCache.get(rowsMetadataKey); //
+                    final BinaryRowReader rows = new BinaryRowReader(contentCache.get(rowsKey))) {
+                final DataSetMetadata dataSetMetadata = new DataSetMetadata();
+                dataSetMetadata.setRowMetadata(mapper.readerFor(RowMetadata.class).readValue(metadata));
+                rows.setRowMetadata(dataSetMetadata.getRowMetadata());
+                final DataSet dataSet = new DataSet();
+                dataSet.setMetadata(dataSetMetadata);
+                dataSet.setRecords(rows.stream());
+                return generator.getParameters(columnId, dataSet);
+            }
+        }
+
+        final ContentCacheKey contentKey = cacheKeyGenerator
+                .contentBuilder() //
+                .datasetId(dataSetId)
+                .preparationId(preparation.getId())
+                .stepId(version) //
+                .format(JSON)
+                .sourceType(HEAD) //
+                .build();
+        if (!contentCache.has(contentKey)) {
+            addPreparationInCache(preparation, version);
+        }
+        try (final InputStream content = contentCache.get(contentKey);
+                final JsonParser parser = mapper.getFactory().createParser(new InputStreamReader(content, UTF_8))) {
             final DataSet dataSet = mapper.readerFor(DataSet.class).readValue(parser);
-            return actionType.getGenerator(context).getParameters(columnId, dataSet);
-        } catch (IOException e) {
-            throw new TDPException(CommonErrorCodes.UNABLE_TO_PARSE_JSON, e);
+            return generator.getParameters(columnId, dataSet);
         }
     }
 
@@ -807,17 +1077,21 @@ public class TransformationService extends BaseTransformationService {
     }
 
     @RequestMapping(value = "/dictionary", method = GET, produces = APPLICATION_OCTET_STREAM_VALUE)
-    @ApiOperation(value = "Get current dictionary (as serialized object).")
+    @ApiOperation(value = "Get current dictionary (as serialized object).",
+            notes = "Returns 304 (not modified) if the dictionary matches the If-None-Match header.")
     @Timed
-    public StreamingResponseBody getDictionary() {
-        return outputStream -> {
-            // Serialize it to output
-            LOG.debug("Returning DQ dictionaries");
-            TdqCategories result = TdqCategoriesFactory.createFullTdqCategories();
-            try (ObjectOutputStream oos = new ObjectOutputStream(new GZIPOutputStream(outputStream))) {
-                oos.writeObject(result);
-            }
-        };
+    public ResponseEntity<StreamingResponseBody> getDictionary(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        final SerializedDictionary.Content dictionary = serializedDictionary.get();
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setETag(dictionary.getETag());
+        if (StringUtils.equals(ifNoneMatch, dictionary.getETag())) {
+            LOG.debug("DQ dictionary not modified ({})", dictionary.getETag());
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        LOG.debug("Returning DQ dictionaries ({})", dictionary.getETag());
+        headers.setContentLength(dictionary.getSize());
+        return new ResponseEntity<>(dictionary::writeTo, headers, HttpStatus.OK);
     }
 
     /**
@@ -848,6 +1122,23 @@ public class TransformationService extends BaseTransformationService {
         final String version = StringUtils.equals("head", stepId) ? //
                 preparation.getSteps().get(preparation.getSteps().size() - 1) : stepId;
 
+        // semantic types of a column do not change for a step and a dictionary version (cache is evicted on data set
+        // update and entries expire, so that no stale result outlives a change not seen here)
+        final String key = preparationId + '/' + version + '/' + columnId + '@' + serializedDictionary.getVersion();
+        try {
+            return semanticDomainsCache.get(key, () -> computeSemanticDomains(preparation, version, columnId));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof TDPException) {
+                throw (TDPException) e.getCause();
+            }
+            throw new TDPException(UNEXPECTED_EXCEPTION, e.getCause());
+        }
+    }
+
+    private List<SemanticDomain> computeSemanticDomains(PreparationDTO preparation, String version,
+            String columnId) {
+        final String preparationId = preparation.getId();
+
         /*
          * OK, this one is a bit tricky so pay attention.
          *
@@ -856,7 +1147,8 @@ public class TransformationService extends BaseTransformationService {
          * The result must be found in the cache, so if the preparation is not cached, the preparation is run so that
          * it gets cached.
          *
-         * Then, the analyzer service just gets the data from the cache. That's it.
+         * Then, the analyzer service just gets the data from the cache: the cached rows of the step (only the column
+         * values are decoded), or the cached JSON content if rows were not cached.
          */
 
         // generate the cache keys for both metadata & content
@@ -876,16 +1168,30 @@ public class TransformationService extends BaseTransformationService {
                 .sourceType(HEAD) //
                 .build();
 
-        // if the preparation is not cached, let's compute it to have some cache
-        if (!contentCache.has(metadataKey) || !contentCache.has(contentKey)) {
-            addPreparationInCache(preparation, stepId);
-        }
+        final TransformationCacheKey rowsKey =
+                cacheKeyGenerator.generateRowsKey(preparation.getDataSetId(), preparationId, version, HEAD, "");
+        final TransformationCacheKey rowsMetadataKey = cacheKeyGenerator
+                .generateRowsMetadataKey(preparation.getDataSetId(), preparationId, version, HEAD, "");
 
-        // run the analyzer service on the cached content
-        try (final InputStream metadataCache = contentCache.get(metadataKey);
-                final InputStream contentCacheStream = this.contentCache.get(contentKey)) {
-            final DataSetMetadata metadata = mapper.readerFor(DataSetMetadata.class).readValue(metadataCache);
-            final List<SemanticDomain> semanticDomains = getSemanticDomains(metadata, columnId, contentCacheStream);
+        try {
+            // run the analyzer service on the cached content (rows of the step first, JSON content otherwise)...
+            List<SemanticDomain> semanticDomains = getSemanticDomainsFromRows(rowsMetadataKey, rowsKey, columnId);
+            if (semanticDomains == null) {
+                semanticDomains = getSemanticDomainsFromContent(metadataKey, contentKey, columnId);
+            }
+            // ... and if the preparation is not cached (or was evicted in the meantime), let's compute it to have some
+            // cache
+            if (semanticDomains == null) {
+                addPreparationInCache(preparation, version);
+                semanticDomains = getSemanticDomainsFromRows(rowsMetadataKey, rowsKey, columnId);
+                if (semanticDomains == null) {
+                    semanticDomains = getSemanticDomainsFromContent(metadataKey, contentKey, columnId);
+                }
+            }
+            if (semanticDomains == null) {
+                throw new IOException("Content of step #" + version + " of preparation #" + preparationId
+                        + " is not available.");
+            }
             LOG.debug("found {} for preparation #{}, column #{}", semanticDomains, preparationId, columnId);
             return semanticDomains;
 
@@ -894,6 +1200,49 @@ public class TransformationService extends BaseTransformationService {
         }
     }
 
+    /**
+     * @return The semantic domains of the column in the cached rows of a step, or <code>null</code> if rows are not
+     * cached.
+     */
+    private List<SemanticDomain> getSemanticDomainsFromRows(ContentCacheKey rowsMetadataKey, ContentCacheKey rowsKey,
+            String columnId) throws IOException {
+        final InputStream metadataCache = contentCache.get(rowsMetadataKey);
+        final InputStream rowsCache = metadataCache == null ? null : contentCache.get(rowsKey);
+        if (rowsCache == null) {
+            IOUtils.closeQuietly(metadataCache);
+            return null;
+        }
+        try (final InputStream metadata = metadataCache;
+                final BinaryRowReader reader = new BinaryRowReader(rowsCache)) {
+            final RowMetadata rowMetadata = mapper.readerFor(RowMetadata.class).readValue(metadata);
+            try (final Stream<String> values = reader.values(columnId)) {
+                return getSemanticDomains(rowMetadata, columnId, values);
+            }
+        }
+    }
+
+    /**
+     * @return The semantic domains of the column in the cached JSON content of a step, or <code>null</code> if content
+     * is not cached.
+     */
+    private List<SemanticDomain> getSemanticDomainsFromContent(ContentCacheKey metadataKey, ContentCacheKey contentKey,
+            String columnId) throws IOException {
+        final InputStream metadataCache = contentCache.get(metadataKey);
+        final InputStream contentCacheStream = metadataCache == null ? null : contentCache.get(contentKey);
+        if (contentCacheStream == null) {
+            IOUtils.closeQuietly(metadataCache);
+            return null;
+        }
+        try (final InputStream metadataStream = metadataCache;
+                final JsonParser parser =
+                        mapper.getFactory().createParser(new InputStreamReader(contentCacheStream, UTF_8))) {
+            final DataSetMetadata metadata = mapper.readerFor(DataSetMetadata.class).readValue(metadataStream);
+            final DataSet dataSet = mapper.readerFor(DataSet.class).readValue(parser);
+            return getSemanticDomains(metadata.getRowMetadata(), columnId,
+                    dataSet.getRecords().map(r -> r.get(columnId)));
+        }
+    }
+
     /**
      * Get the preparation from the preparation service.
      *
@@ -908,34 +1257,25 @@ public class TransformationService extends BaseTransformationService {
     /**
      * Return the semantic domains for the given parameters.
      *
-     * @param metadata the dataset metadata.
+     * @param rowMetadata the content row metadata.
      * @param columnId the column id to analyze.
-     * @param records the dataset records.
+     * @param values the column values.
      * @return the semantic domains for the given parameters.
-     * @throws IOException can happen...
      */
-    private List<SemanticDomain> getSemanticDomains(DataSetMetadata metadata, String columnId, InputStream records)
-            throws IOException {
+    private List<SemanticDomain> getSemanticDomains(RowMetadata rowMetadata, String columnId, Stream<String> values) {
 
         // copy the column metadata and set the semantic domain forced flag to false to make sure the statistics adapter
         // set all
         // available domains
         final ColumnMetadata columnMetadata = column() //
-                .copy(metadata.getRowMetadata().getById(columnId)) //
+                .copy(rowMetadata.getById(columnId)) //
                 .semanticDomainForce(false) //
                 .build();
 
         final Analyzer<Analyzers.Result> analyzer = analyzerService.build(columnMetadata, SEMANTIC);
         analyzer.init();
-
-        try (final JsonParser parser = mapper.getFactory().createParser(new InputStreamReader(records, UTF_8))) {
-            final DataSet dataSet = mapper.readerFor(DataSet.class).readValue(parser);
-            dataSet
-                    .getRecords() //
-                    .map(r -> r.get(columnId)) //
-                    .forEach(analyzer::analyze);
-            analyzer.end();
-        }
+        values.forEach(analyzer::analyze);
+        analyzer.end();
 
         final List<Analyzers.Result> analyzerResult = analyzer.getResult();
         statisticsAdapter.adapt(singletonList(columnMetadata), analyzerResult);
@@ -12,28 +12,44 @@
 
 package org.talend.dataprep.transformation.service.export;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.util.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.talend.dataprep.api.dataset.RowMetadata;
 import org.talend.dataprep.api.export.ExportParameters;
 import org.talend.dataprep.api.preparation.PreparationDTO;
 import org.talend.dataprep.cache.CacheKeyGenerator;
 import org.talend.dataprep.cache.TransformationCacheKey;
+import org.talend.dataprep.dataset.store.content.BinaryRowReader;
 import org.talend.dataprep.exception.TDPException;
+import org.talend.dataprep.exception.error.TransformationErrorCodes;
 import org.talend.dataprep.format.export.ExportFormat;
+import org.talend.dataprep.http.HttpResponseContext;
+import org.talend.dataprep.transformation.api.transformer.TransformerWriter;
 import org.talend.dataprep.transformation.format.CSVFormat;
+import org.talend.dataprep.transformation.format.WriterRegistrationService;
 import org.talend.dataprep.transformation.service.BaseExportStrategy;
 import org.talend.dataprep.transformation.service.ExportUtils;
 
 /**
  * A {@link BaseExportStrategy strategy} to reuse previous preparation export if available (if no previous content found
  * {@link #test(ExportParameters)} returns <code>false</code>). This strategy works fine when from equals to FILTER.
+ * <p>
+ * When the client accepts gzip content and cache entry is stored gzip encoded, entry is served as is (with a
+ * <code>Content-Encoding: gzip</code> header) instead of being decompressed.
+ * <p>
+ * When no content is cached for the requested format but the format-neutral rows of the step are (see
+ * {@link CacheKeyGenerator#generateRowsKey}), this strategy only writes these rows in the requested format: a format
+ * (or format parameter) change does not need to run the preparation again.
  */
 @Component
 public class CachedExportStrategy extends BaseSampleExportStrategy {
@@ -43,6 +59,9 @@ public class CachedExportStrategy extends BaseSampleExportStrategy {
     @Autowired
     private CacheKeyGenerator cacheKeyGenerator;
 
+    @Autowired
+    private WriterRegistrationService writerRegistrationService;
+
     @Override
     public boolean test(ExportParameters parameters) {
         if (parameters == null) {
@@ -55,8 +74,9 @@ public class CachedExportStrategy extends BaseSampleExportStrategy {
             return false;
         }
         try {
-            final TransformationCacheKey contentKey = getCacheKey(parameters);
-            return contentCache.has(contentKey);
+            final CacheKeys keys = getCacheKeys(parameters);
+            return contentCache.has(keys.content) //
+                    || contentCache.has(keys.rowsMetadata) && contentCache.has(keys.rows);
         } catch (TDPException e) {
             LOGGER.debug("Unable to use cached export strategy.", e);
             return false;
@@ -65,28 +85,100 @@ public class CachedExportStrategy extends BaseSampleExportStrategy {
 
     @Override
     public StreamingResponseBody execute(ExportParameters parameters) {
-        final TransformationCacheKey contentKey = getCacheKey(parameters);
+        final CacheKeys keys = getCacheKeys(parameters);
+        final TransformationCacheKey contentKey = keys.content;
+        final ExportFormat format = getFormat(parameters.getExportType());
         ExportUtils.setExportHeaders(parameters.getExportName(), //
                 parameters.getArguments().get(ExportFormat.PREFIX + CSVFormat.ParametersCSV.ENCODING), //
-                getFormat(parameters.getExportType()));
+                format);
+        if (!contentCache.has(contentKey)) {
+            LOGGER.debug("Using '{}' cached rows for {} export.", keys.rows.getKey(), format.getName());
+            return outputStream -> transcode(parameters, format, keys, outputStream);
+        }
         LOGGER.debug("Using '{}' content cache entry.", contentKey.getKey());
+        final InputStream compressed =
+                HttpResponseContext.acceptsEncoding("gzip") ? contentCache.getCompressed(contentKey) : null;
+        if (compressed != null) {
+            LOGGER.debug("Serve gzip encoded content for '{}'.", contentKey.getKey());
+            HttpResponseContext.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            HttpResponseContext.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
         return outputStream -> {
-            try (InputStream cachedContent = contentCache.get(contentKey)) {
+            try (InputStream cachedContent = compressed != null ? compressed : contentCache.get(contentKey)) {
                 IOUtils.copy(cachedContent, outputStream);
             }
         };
     }
 
-    private TransformationCacheKey getCacheKey(ExportParameters parameters) {
+    /**
+     * Writes the cached format-neutral rows of a step in the requested format.
+     */
+    private void transcode(ExportParameters parameters, ExportFormat format, CacheKeys keys, OutputStream output)
+            throws IOException {
+        final RowMetadata rowMetadata;
+        try (InputStream metadata = contentCache.get(keys.rowsMetadata)) {
+            if (metadata == null) {
+                throw new TDPException(TransformationErrorCodes.UNABLE_TO_TRANSFORM_DATASET);
+            }
+            rowMetadata = mapper.readerFor(RowMetadata.class).readValue(metadata);
+        }
+        final InputStream rows = contentCache.get(keys.rows);
+        if (rows == null) {
+            throw new TDPException(TransformationErrorCodes.UNABLE_TO_TRANSFORM_DATASET);
+        }
+        final TransformerWriter writer =
+                writerRegistrationService.getWriter(format.getName(), output, parameters.getArguments());
+        try (BinaryRowReader reader = new BinaryRowReader(rows)) {
+            reader.setRowMetadata(rowMetadata);
+            if (writer.isSchemaFirst()) {
+                writer.write(rowMetadata);
+            }
+            while (reader.hasNext()) {
+                writer.write(reader.next());
+            }
+            writer.write(rowMetadata);
+            writer.flush();
+        } finally {
+            writer.close();
+        }
+    }
+
+    private CacheKeys getCacheKeys(ExportParameters parameters) {
         final PreparationDTO preparation = getPreparation(parameters.getPreparationId());
-        return cacheKeyGenerator.generateContentKey(preparation.getDataSetId(), //
+        final String dataSetId = preparation.getDataSetId();
+        final String stepId = getCleanStepId(preparation, parameters.getStepId());
+        final TransformationCacheKey content = cacheKeyGenerator.generateContentKey(dataSetId, //
                 parameters.getPreparationId(), //
-                getCleanStepId(preparation, parameters.getStepId()), //
+                stepId, //
                 parameters.getExportType(), //
                 parameters.getFrom(), //
                 parameters.getArguments(), //
                 parameters.getFilter() //
         );
+        final TransformationCacheKey rows = cacheKeyGenerator.generateRowsKey(dataSetId,
+                parameters.getPreparationId(), stepId, parameters.getFrom(), parameters.getFilter());
+        final TransformationCacheKey rowsMetadata = cacheKeyGenerator.generateRowsMetadataKey(dataSetId,
+                parameters.getPreparationId(), stepId, parameters.getFrom(), parameters.getFilter());
+        return new CacheKeys(content, rows, rowsMetadata);
+    }
+
+    /**
+     * The cache keys of an export: content in the requested format, and format-neutral rows and row metadata.
+     */
+    private static class CacheKeys {
+
+        private final TransformationCacheKey content;
+
+        private final TransformationCacheKey rows;
+
+        private final TransformationCacheKey rowsMetadata;
+
+        private CacheKeys(TransformationCacheKey content, TransformationCacheKey rows,
+                TransformationCacheKey rowsMetadata) {
+            this.content = content;
+            this.rows = rows;
+            this.rowsMetadata = rowsMetadata;
+        }
     }
 
 }
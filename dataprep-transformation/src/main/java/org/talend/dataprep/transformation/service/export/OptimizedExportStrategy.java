@@ -21,7 +21,6 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.commons.io.output.TeeOutputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,7 +48,8 @@ import com.fasterxml.jackson.core.JsonParser;
 
 /**
  * A {@link BaseExportStrategy strategy} to export a preparation (using its default data set), using any information
- * available in cache (metadata and content).
+ * available in cache (metadata and content): export resumes from the nearest previous step with both metadata and
+ * content in cache, and only the actions of the following steps are applied.
  */
 @Component
 public class OptimizedExportStrategy extends BaseSampleExportStrategy {
@@ -101,58 +101,62 @@ public class OptimizedExportStrategy extends BaseSampleExportStrategy {
         final String version = optimizedPreparationInput.getVersion();
         final ExportFormat format = getFormat(parameters.getExportType());
 
-        // Get content from previous step
-        LOGGER.debug("Before get cache content");
-        try (JsonParser parser = mapper
-                .getFactory()
-                .createParser(new InputStreamReader(contentCache.get(transformationCacheKey), UTF_8));
-                final DataSet dataSet = mapper.readerFor(DataSet.class).readValue(parser)) {
-            dataSet.setMetadata(metadata);
-
-            // get the actions to apply (no preparation ==> dataset export ==> no actions)
-            final String actions = getActions(preparationId, previousVersion, version);
-            final PreparationDTO preparation = getPreparation(preparationId);
-            preparation.setSteps(getMatchingSteps(preparation.getSteps(), previousVersion, version));
-
-            LOGGER.debug("Running optimized strategy for preparation {} @ step #{}", preparationId, version);
-
-            // create tee to broadcast to cache + service output
-            final TransformationCacheKey key = cacheKeyGenerator.generateContentKey( //
-                    dataSetId, //
-                    preparationId, //
-                    version, //
-                    parameters.getExportType(), //
-                    parameters.getFrom(), //
-                    parameters.getArguments(), //
-                    parameters.getFilter() //
-            );
-            LOGGER.debug("Cache key: " + key.getKey());
-            LOGGER.debug("Cache key details: " + key.toString());
-
-            try (final TeeOutputStream tee =
-                    new TeeOutputStream(outputStream, contentCache.put(key, ContentCache.TimeToLive.DEFAULT))) {
-                final Configuration configuration = Configuration
-                        .builder() //
-                        .args(parameters.getArguments()) //
-                        .outFilter(rm -> filterService.build(parameters.getFilter(), rm)) //
-                        .sourceType(parameters.getFrom())
-                        .format(format.getName()) //
-                        .actions(actions) //
-                        .preparation(preparation) //
-                        .stepId(version) //
-                        .volume(Configuration.Volume.SMALL) //
-                        .output(tee) //
-                        .limit(limit) //
-                        .build();
-                factory.get(configuration).buildExecutable(dataSet, configuration).execute();
-                tee.flush();
-            } catch (Throwable e) { // NOSONAR
-                contentCache.evict(key);
-                throw e;
-            }
-        } catch (TDPException e) {
-            throw e;
-        } catch (Exception e) {
+        final TransformationCacheKey key = cacheKeyGenerator.generateContentKey( //
+                dataSetId, //
+                preparationId, //
+                version, //
+                parameters.getExportType(), //
+                parameters.getFrom(), //
+                parameters.getArguments(), //
+                parameters.getFilter() //
+        );
+        LOGGER.debug("Cache key: " + key.getKey());
+        LOGGER.debug("Cache key details: " + key.toString());
+
+        try {
+            // Identical concurrent exports share the same transformation.
+            singleFlight.execute(key, ContentCache.TimeToLive.DEFAULT, outputStream, tee -> {
+                // Get content from previous step
+                LOGGER.debug("Before get cache content");
+                try (JsonParser parser = mapper
+                        .getFactory()
+                        .createParser(new InputStreamReader(contentCache.get(transformationCacheKey), UTF_8));
+                        final DataSet dataSet = mapper.readerFor(DataSet.class).readValue(parser)) {
+                    dataSet.setMetadata(metadata);
+
+                    // get the actions to apply (no preparation ==> dataset export ==> no actions)
+                    final String actions = getActions(preparationId, previousVersion, version);
+                    final PreparationDTO preparation = getPreparation(preparationId);
+                    preparation.setSteps(getMatchingSteps(preparation.getSteps(), previousVersion, version));
+
+                    LOGGER.debug("Running optimized strategy for preparation {} @ step #{}", preparationId, version);
+
+                    final Configuration configuration = Configuration
+                            .builder() //
+                            .args(parameters.getArguments()) //
+                            .outFilter(rm -> filterService.build(parameters.getFilter(), rm)) //
+                            .sourceType(parameters.getFrom())
+                            .format(format.getName()) //
+                            .actions(actions) //
+                            .preparation(preparation) //
+                            .stepId(version) //
+                            .volume(Configuration.Volume.SMALL) //
+                            .output(tee) //
+                            .limit(limit) //
+                            .cacheRows(cacheKeyGenerator.generateRowsKey(dataSetId, preparationId, version,
+                                    parameters.getFrom(), parameters.getFilter()),
+                                    cacheKeyGenerator.generateRowsMetadataKey(dataSetId, preparationId, version,
+                                            parameters.getFrom(), parameters.getFilter())) //
+                            .build();
+                    factory.get(configuration).buildExecutable(dataSet, configuration).execute();
+                    tee.flush();
+                } catch (TDPException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new TDPException(TransformationErrorCodes.UNABLE_TO_TRANSFORM_DATASET, e);
+                }
+            });
+        } catch (IOException e) {
             throw new TDPException(TransformationErrorCodes.UNABLE_TO_TRANSFORM_DATASET, e);
         }
     }
@@ -264,6 +268,7 @@ public class OptimizedExportStrategy extends BaseSampleExportStrategy {
         }
 
         // Extract information or returns null is not applicable.
+        // previousVersion is the nearest step before version with both metadata and content in cache.
         private OptimizedPreparationInput invoke() throws IOException {
             if (preparation == null) {
                 // Not applicable (need preparation to work on).
@@ -284,33 +289,57 @@ public class OptimizedExportStrategy extends BaseSampleExportStrategy {
                 version = stepId;
                 previousVersion = steps.get(preparation.getSteps().indexOf(version) - 1);
             }
-            // Get metadata of previous step
+            // Walk back to the nearest previous step with cached metadata and content (root step excluded: there's
+            // nothing to optimize when all actions must be applied).
+            final int versionIndex = steps.indexOf(version);
+            for (int i = versionIndex - 1; i >= 1; i--) {
+                if (isCached(steps.get(i))) {
+                    previousVersion = steps.get(i);
+                    LOGGER.debug("Resume from step '{}' ({} step(s) to apply).", previousVersion, versionIndex - i);
+                    return this;
+                }
+            }
+            LOGGER.debug("No metadata and content cached for steps before version '{}'", version);
+            return null;
+        }
+
+        /**
+         * Checks if both metadata and content are cached for a step, and reads metadata if so.
+         *
+         * @param candidate a step id.
+         * @return <code>true</code> if metadata and content are cached for <code>candidate</code>.
+         */
+        private boolean isCached(String candidate) throws IOException {
             final TransformationMetadataCacheKey transformationMetadataCacheKey =
-                    cacheKeyGenerator.generateMetadataKey(preparationId, previousVersion, sourceType);
+                    cacheKeyGenerator.generateMetadataKey(preparationId, candidate, sourceType);
             if (!contentCache.has(transformationMetadataCacheKey)) {
-                LOGGER.debug("No metadata cached for previous version '{}' (key for lookup: '{}')", previousVersion,
+                LOGGER.debug("No metadata cached for previous version '{}' (key for lookup: '{}')", candidate,
                         transformationMetadataCacheKey.getKey());
-                return null;
-            }
-            try (InputStream input = contentCache.get(transformationMetadataCacheKey)) {
-                metadata = mapper.readerFor(DataSetMetadata.class).readValue(input);
+                return false;
             }
-            transformationCacheKey = cacheKeyGenerator.generateContentKey( //
+            final TransformationCacheKey candidateCacheKey = cacheKeyGenerator.generateContentKey( //
                     dataSetId, //
                     preparationId, //
-                    previousVersion, //
+                    candidate, //
                     formatName, //
                     sourceType, //
                     filter //
             );
-            LOGGER.debug("Previous content cache key: {}", transformationCacheKey.getKey());
-            LOGGER.debug("Previous content cache key details: {}", transformationCacheKey);
+            LOGGER.debug("Previous content cache key: {}", candidateCacheKey.getKey());
+            LOGGER.debug("Previous content cache key details: {}", candidateCacheKey);
 
-            if (!contentCache.has(transformationCacheKey)) {
-                LOGGER.debug("No content cached for previous version '{}'", previousVersion);
-                return null;
+            if (!contentCache.has(candidateCacheKey)) {
+                LOGGER.debug("No content cached for previous version '{}'", candidate);
+                return false;
+            }
+            try (InputStream input = contentCache.get(transformationMetadataCacheKey)) {
+                if (input == null) {
+                    return false; // Evicted in the meantime.
+                }
+                metadata = mapper.readerFor(DataSetMetadata.class).readValue(input);
             }
-            return this;
+            transformationCacheKey = candidateCacheKey;
+            return true;
         }
     }
 
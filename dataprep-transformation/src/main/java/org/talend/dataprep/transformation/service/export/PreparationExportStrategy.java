@@ -14,9 +14,9 @@ package org.talend.dataprep.transformation.service.export;
 
 import static org.talend.dataprep.api.export.ExportParameters.SourceType.HEAD;
 
+import java.io.IOException;
 import java.io.OutputStream;
 
-import org.apache.commons.io.output.TeeOutputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -86,15 +86,43 @@ public class PreparationExportStrategy extends BaseSampleExportStrategy {
         final String formatName = parameters.getExportType();
         final PreparationDTO preparation = getPreparation(preparationId, stepId);
         final String dataSetId = preparation.getDataSetId();
+
+        // head is not allowed as step id
+        final String version = getCleanStepId(preparation, stepId);
+        final TransformationCacheKey key = cacheKeyGenerator.generateContentKey( //
+                dataSetId, //
+                preparationId, //
+                version, //
+                formatName, //
+                parameters.getFrom(), //
+                parameters.getArguments(), //
+                parameters.getFilter() //
+        );
+
+        LOGGER.debug("Cache key: {}", key.getKey());
+        LOGGER.debug("Cache key details: {}", key.toString());
+
+        try {
+            // Identical concurrent exports share the same transformation.
+            singleFlight.execute(key, ContentCache.TimeToLive.DEFAULT, outputStream,
+                    tee -> transform(parameters, preparation, version, tee));
+        } catch (TalendRuntimeException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new TDPException(TransformationErrorCodes.UNABLE_TO_TRANSFORM_DATASET, e);
+        }
+    }
+
+    private void transform(final ExportParameters parameters, final PreparationDTO preparation, final String version,
+            final OutputStream tee) {
+        final String preparationId = parameters.getPreparationId();
+        final String dataSetId = preparation.getDataSetId();
         final ExportFormat format = getFormat(parameters.getExportType());
 
         boolean releasedIdentity = false;
         // Allow get dataset and get dataset metadata access whatever share status is
         securityProxy.asTechnicalUserForDataSet();
         try (DataSet dataSet = datasetClient.getDataSet(dataSetId, false, true)) {
-            // head is not allowed as step id
-            final String version = getCleanStepId(preparation, stepId);
-
             // All good, can already release identity
             securityProxy.releaseIdentity();
             releasedIdentity = true;
@@ -102,40 +130,25 @@ public class PreparationExportStrategy extends BaseSampleExportStrategy {
             // get the actions to apply (no preparation ==> dataset export ==> no actions)
             final String actions = getActions(preparationId, version);
 
-            final TransformationCacheKey key = cacheKeyGenerator.generateContentKey( //
-                    dataSetId, //
-                    preparationId, //
-                    version, //
-                    formatName, //
-                    parameters.getFrom(), //
-                    parameters.getArguments(), //
-                    parameters.getFilter() //
-            );
-
-            LOGGER.debug("Cache key: {}", key.getKey());
-            LOGGER.debug("Cache key details: {}", key.toString());
-
-            try (final TeeOutputStream tee =
-                    new TeeOutputStream(outputStream, contentCache.put(key, ContentCache.TimeToLive.DEFAULT))) {
-                final Configuration configuration = Configuration
-                        .builder() //
-                        .args(parameters.getArguments()) //
-                        .outFilter(rm -> filterService.build(parameters.getFilter(), rm)) //
-                        .sourceType(parameters.getFrom())
-                        .format(format.getName()) //
-                        .actions(actions) //
-                        .preparation(preparation) //
-                        .stepId(version) //
-                        .volume(Configuration.Volume.SMALL) //
-                        .output(tee) //
-                        .limit(limit) //
-                        .build();
-                factory.get(configuration).buildExecutable(dataSet, configuration).execute();
-                tee.flush();
-            } catch (Throwable e) { // NOSONAR
-                contentCache.evict(key);
-                throw e;
-            }
+            final Configuration configuration = Configuration
+                    .builder() //
+                    .args(parameters.getArguments()) //
+                    .outFilter(rm -> filterService.build(parameters.getFilter(), rm)) //
+                    .sourceType(parameters.getFrom())
+                    .format(format.getName()) //
+                    .actions(actions) //
+                    .preparation(preparation) //
+                    .stepId(version) //
+                    .volume(Configuration.Volume.SMALL) //
+                    .output(tee) //
+                    .limit(limit) //
+                    .cacheRows(cacheKeyGenerator.generateRowsKey(dataSetId, preparationId, version,
+                            parameters.getFrom(), parameters.getFilter()),
+                            cacheKeyGenerator.generateRowsMetadataKey(dataSetId, preparationId, version,
+                                    parameters.getFrom(), parameters.getFilter())) //
+                    .build();
+            factory.get(configuration).buildExecutable(dataSet, configuration).execute();
+            tee.flush();
         } catch (TalendRuntimeException e) {
             throw e;
         } catch (Exception e) {
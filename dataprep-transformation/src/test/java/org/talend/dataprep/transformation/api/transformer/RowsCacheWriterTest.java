@@ -0,0 +1,167 @@
+// ============================================================================
+//
+// Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// https://github.com/Talend/data-prep/blob/master/LICENSE
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+// ============================================================================
+
+package org.talend.dataprep.transformation.api.transformer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.talend.dataprep.api.dataset.ColumnMetadata;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.api.dataset.row.DataSetRow;
+import org.talend.dataprep.api.type.Type;
+import org.talend.dataprep.cache.ContentCache;
+import org.talend.dataprep.cache.TransformationCacheKey;
+import org.talend.dataprep.dataset.store.content.BinaryRowReader;
+
+public class RowsCacheWriterTest {
+
+    private final TransformerWriter delegate = mock(TransformerWriter.class);
+
+    private final ContentCache contentCache = mock(ContentCache.class);
+
+    private final TransformationCacheKey rowsKey = mock(TransformationCacheKey.class);
+
+    private final TransformationCacheKey rowsMetadataKey = mock(TransformationCacheKey.class);
+
+    private final ByteArrayOutputStream rows = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream rowsMetadata = new ByteArrayOutputStream();
+
+    private RowMetadata rowMetadata;
+
+    @Before
+    public void setUp() {
+        when(rowsKey.getKey()).thenReturn("rows");
+        when(rowsMetadataKey.getKey()).thenReturn("rowsMetadata");
+        when(contentCache.put(eq(rowsKey), any())).thenReturn(rows);
+        when(contentCache.put(eq(rowsMetadataKey), any())).thenReturn(rowsMetadata);
+        rowMetadata = new RowMetadata();
+        rowMetadata.addColumn(ColumnMetadata.Builder.column().id(0).name("name").type(Type.STRING).build());
+    }
+
+    @Test
+    public void shouldCacheRowsAndMetadata() throws Exception {
+        // given
+        final RowsCacheWriter writer = new RowsCacheWriter(delegate, contentCache, ContentCache.TimeToLive.DEFAULT,
+                rowsKey, rowsMetadataKey);
+        final Map<String, String> values = new HashMap<>();
+        values.put("0000", "Lennon");
+        final DataSetRow row = new DataSetRow(rowMetadata, values);
+
+        // when
+        writer.write(row);
+        writer.write(rowMetadata);
+        writer.close();
+
+        // then
+        verify(delegate).write(row);
+        verify(delegate).write(rowMetadata);
+        verify(delegate).close();
+        try (BinaryRowReader reader = new BinaryRowReader(new ByteArrayInputStream(rows.toByteArray()))) {
+            assertEquals("Lennon", reader.next().get("0000"));
+            assertFalse(reader.hasNext());
+        }
+        assertTrue(rowsMetadata.size() > 0);
+    }
+
+    @Test
+    public void shouldEvictRowsOnCacheError() throws Exception {
+        // given
+        when(contentCache.put(eq(rowsMetadataKey), any())).thenThrow(new IllegalStateException("on purpose"));
+        final RowsCacheWriter writer = new RowsCacheWriter(delegate, contentCache, ContentCache.TimeToLive.DEFAULT,
+                rowsKey, rowsMetadataKey);
+
+        // when
+        writer.write(new DataSetRow(rowMetadata, new HashMap<>()));
+        writer.write(rowMetadata);
+        writer.close();
+
+        // then
+        verify(delegate).close();
+        verify(contentCache).evict(rowsKey);
+        verify(contentCache).evict(rowsMetadataKey);
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldEvictRowsOnWriterError() throws Exception {
+        // given
+        doThrow(new IOException("on purpose")).when(delegate).close();
+        final RowsCacheWriter writer = new RowsCacheWriter(delegate, contentCache, ContentCache.TimeToLive.DEFAULT,
+                rowsKey, rowsMetadataKey);
+
+        // when
+        try {
+            writer.write(rowMetadata);
+            writer.close();
+        } finally {
+            // then
+            verify(contentCache).evict(rowsKey);
+            verify(contentCache).evict(rowsMetadataKey);
+        }
+    }
+
+    @Test
+    public void shouldEvictPendingRowsBeforeClosingThem() throws Exception {
+        // given
+        final ByteArrayOutputStream pendingRows = spy(new ByteArrayOutputStream());
+        when(contentCache.put(eq(rowsKey), any())).thenReturn(pendingRows);
+        when(contentCache.put(eq(rowsMetadataKey), any())).thenThrow(new IllegalStateException("on purpose"));
+        final RowsCacheWriter writer = new RowsCacheWriter(delegate, contentCache, ContentCache.TimeToLive.DEFAULT,
+                rowsKey, rowsMetadataKey);
+
+        // when
+        writer.write(new DataSetRow(rowMetadata, new HashMap<>()));
+        writer.write(rowMetadata);
+        writer.close();
+
+        // then (closing an evicted entry does not publish it)
+        final InOrder inOrder = inOrder(contentCache, pendingRows);
+        inOrder.verify(contentCache).evict(rowsKey);
+        inOrder.verify(pendingRows).close();
+    }
+
+    @Test
+    public void shouldNotCacheWithoutRowMetadata() throws Exception {
+        // given
+        final RowsCacheWriter writer = new RowsCacheWriter(delegate, contentCache, ContentCache.TimeToLive.DEFAULT,
+                rowsKey, rowsMetadataKey);
+
+        // when
+        writer.close();
+
+        // then
+        verify(delegate).close();
+        verify(contentCache, never()).put(eq(rowsKey), any());
+        verify(contentCache, never()).put(eq(rowsMetadataKey), any());
+    }
+}
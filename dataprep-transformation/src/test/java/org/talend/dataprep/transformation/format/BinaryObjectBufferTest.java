@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+ *
+ * This source code is available under agreement available at
+ * https://github.com/Talend/data-prep/blob/master/LICENSE
+ *
+ * You should have received a copy of the agreement
+ * along with this program; if not, write to Talend SA
+ * 9 rue Pages 92150 Suresnes, France
+ */
+
+package org.talend.dataprep.transformation.format;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class BinaryObjectBufferTest {
+
+    @Test
+    public void testAdd() throws Exception {
+        // Given
+        try (BinaryObjectBuffer<String[]> buffer = new BinaryObjectBuffer<>(BinaryObjectBuffer.STRING_ARRAY)) {
+
+            // When
+            buffer.appendRow(new String[] { "David Bowie", null, "" });
+            buffer.appendRow(new String[] { "ça va 汉语" });
+            buffer.appendRow(new String[0]);
+
+            // Then
+            final List<String[]> rows = buffer.readAll().collect(Collectors.toList());
+            assertEquals(3, rows.size());
+            assertArrayEquals(new String[] { "David Bowie", null, "" }, rows.get(0));
+            assertArrayEquals(new String[] { "ça va 汉语" }, rows.get(1));
+            assertEquals(0, rows.get(2).length);
+        }
+    }
+
+    @Test
+    public void testCloseCleanUp() throws Exception {
+        // Given
+        BinaryObjectBuffer<String[]> buffer = new BinaryObjectBuffer<>(BinaryObjectBuffer.STRING_ARRAY);
+
+        Path tempFile = (Path) ReflectionTestUtils.getField(buffer, "tempFile");
+
+        // When
+        assertTrue(Files.exists(tempFile));
+        buffer.close();
+
+        // Then
+        assertFalse(Files.exists(tempFile));
+    }
+}
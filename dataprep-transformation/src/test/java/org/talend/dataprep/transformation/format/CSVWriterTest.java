@@ -374,6 +374,27 @@ public class CSVWriterTest extends AbstractTransformerWriterTest {
                 .isEqualTo("\"id\";\"firstname\";\"age\"\n\"64a5456ac148b64524ef165\";\"Superman\";\"10\"\n");
     }
 
+    @Test
+    public void write_shouldStreamRecordsWhenMetadataIsWrittenFirst() throws Exception {
+        // given
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final CSVWriter csvWriter = (CSVWriter) context.getBean("writer#CSV", out, emptyMap());
+        final DataSetRow row = buildSimpleRow();
+
+        // when
+        csvWriter.write(row.getRowMetadata());
+        csvWriter.write(row);
+        csvWriter.flush();
+        final String streamed = out.toString(UTF_8.name());
+        csvWriter.write(row.getRowMetadata());
+        csvWriter.flush();
+
+        // then
+        assertThat(csvWriter.isSchemaFirst()).isTrue();
+        assertThat(streamed).isEqualTo("\"id\";\"firstname\"\n\"64a5456ac148b64524ef165\";\"Superman\"\n");
+        assertThat(out.toString(UTF_8.name())).isEqualTo(streamed);
+    }
+
     private DataSetRow buildSimpleRow() {
         final List<ColumnMetadata> columns = new ArrayList<>();
         columns.add(column().id(1).name("id").type(Type.STRING).build());
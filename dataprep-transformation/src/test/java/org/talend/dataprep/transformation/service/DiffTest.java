@@ -22,12 +22,23 @@ import static org.talend.dataprep.test.SameJSONFile.sameJSONAsFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.talend.dataprep.api.dataset.ColumnMetadata;
+import org.talend.dataprep.api.dataset.DataSet;
+import org.talend.dataprep.api.dataset.RowMetadata;
+import org.talend.dataprep.cache.CacheKeyGenerator;
+import org.talend.dataprep.cache.ContentCache;
+import org.talend.dataprep.cache.TransformationCacheKey;
+import org.talend.dataprep.dataset.store.content.BinaryRowWriter;
 import org.talend.dataprep.transformation.preview.api.PreviewParameters;
 
 import com.jayway.restassured.http.ContentType;
@@ -37,6 +48,12 @@ import com.jayway.restassured.http.ContentType;
  */
 public class DiffTest extends TransformationServiceBaseTest {
 
+    @Autowired
+    private ContentCache contentCache;
+
+    @Autowired
+    private CacheKeyGenerator cacheKeyGenerator;
+
     @Test
     public void test_preview_should_return_only_wanted_rows() throws Exception {
         // given
@@ -66,6 +83,97 @@ public class DiffTest extends TransformationServiceBaseTest {
         assertEquals(expected, response, false);
     }
 
+    @Test
+    public void test_preview_should_start_from_cached_reference_step_content() throws Exception {
+        // given
+        final String dataSetId = createDataset("../preview/input.csv", "input4preview", "text/csv");
+        final DataSet reference = getDataset(dataSetId);
+        final RowMetadata rowMetadata = reference.getMetadata().getRowMetadata();
+        final List<String> columnIds =
+                rowMetadata.getColumns().stream().map(ColumnMetadata::getId).collect(Collectors.toList());
+        final TransformationCacheKey rowsKey =
+                cacheKeyGenerator.generateRowsKey(dataSetId, "prep-1", "step-1", HEAD, "");
+        final TransformationCacheKey rowsMetadataKey =
+                cacheKeyGenerator.generateRowsMetadataKey(dataSetId, "prep-1", "step-1", HEAD, "");
+        // reference step content is the content after the base actions (upper case on lastname)
+        final OutputStream rows = contentCache.put(rowsKey, ContentCache.TimeToLive.DEFAULT);
+        try (BinaryRowWriter writer = new BinaryRowWriter(rows, rowsKey.getKey(), columnIds)) {
+            reference.getRecords().forEach(row -> {
+                row.set("0002", row.get("0002").toUpperCase());
+                try {
+                    writer.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        try (OutputStream metadata = contentCache.put(rowsMetadataKey, ContentCache.TimeToLive.DEFAULT)) {
+            mapper.writeValue(metadata, rowMetadata);
+        }
+        final PreviewParameters input = new PreviewParameters( //
+                getSingleTransformation(), //
+                getMultipleTransformation(), //
+                dataSetId, //
+                "prep-1", //
+                "[2,4,5]", //
+                HEAD);
+        input.setReferenceStepId("step-1");
+
+        // when
+        final String response = given() //
+                .contentType(ContentType.JSON) //
+                .body(mapper.writer().writeValueAsString(input)) //
+                .when()
+                .expect()
+                .statusCode(200)
+                .log()
+                .ifError() //
+                .post("/transform/preview") //
+                .asString();
+
+        // then
+        final String expected =
+                IOUtils.toString(this.getClass().getResourceAsStream("../preview/expected_output.json"), UTF_8);
+        assertEquals(expected, response, false);
+    }
+
+    @Test
+    public void test_preview_should_start_from_dataset_when_reference_rows_are_missing() throws Exception {
+        // given reference step metadata is cached, but not its rows (e.g. evicted)
+        final String dataSetId = createDataset("../preview/input.csv", "input4preview", "text/csv");
+        final RowMetadata rowMetadata = getDataset(dataSetId).getMetadata().getRowMetadata();
+        final TransformationCacheKey rowsMetadataKey =
+                cacheKeyGenerator.generateRowsMetadataKey(dataSetId, "prep-1", "step-1", HEAD, "");
+        try (OutputStream metadata = contentCache.put(rowsMetadataKey, ContentCache.TimeToLive.DEFAULT)) {
+            mapper.writeValue(metadata, rowMetadata);
+        }
+        final PreviewParameters input = new PreviewParameters( //
+                getSingleTransformation(), //
+                getMultipleTransformation(), //
+                dataSetId, //
+                "prep-1", //
+                "[2,4,5]", //
+                HEAD);
+        input.setReferenceStepId("step-1");
+
+        // when
+        final String response = given() //
+                .contentType(ContentType.JSON) //
+                .body(mapper.writer().writeValueAsString(input)) //
+                .when()
+                .expect()
+                .statusCode(200)
+                .log()
+                .ifError() //
+                .post("/transform/preview") //
+                .asString();
+
+        // then
+        final String expected =
+                IOUtils.toString(this.getClass().getResourceAsStream("../preview/expected_output.json"), UTF_8);
+        assertEquals(expected, response, false);
+    }
+
     /**
      * After TDP-1184 fix, there is a problem on preview (regression?).
      * Use case is:
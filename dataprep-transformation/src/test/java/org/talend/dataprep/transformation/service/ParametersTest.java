@@ -50,6 +50,32 @@ public class ParametersTest extends TransformationServiceBaseTest {
         assertEquals(expectedParameters, response, false);
     }
 
+    @Test
+    public void testDynamicParams_should_return_data_set_textclustering_dynamic_params() throws Exception {
+        // given
+        final String dataSetId = createDataset("../parameters/cluster_dataset.csv", "clustering", "text/csv");
+        final String expectedParameters = IOUtils.toString(
+                this.getClass().getResourceAsStream("../parameters/expected_dataset_cluster_params.json"), UTF_8);
+
+        // when
+        final String response = given() //
+                .queryParam("datasetId", dataSetId) //
+                .queryParam("columnId", "0001") //
+                .when() //
+                .get("/transform/suggest/textclustering/params") //
+                .asString();
+        final String cachedResponse = given() //
+                .queryParam("datasetId", dataSetId) //
+                .queryParam("columnId", "0001") //
+                .when() //
+                .get("/transform/suggest/textclustering/params") //
+                .asString();
+
+        // then
+        assertEquals(expectedParameters, response, false);
+        assertEquals(response, cachedResponse, true);
+    }
+
     @Test
     public void testDynamicParams_should_throw_error() throws Exception {
         // when
@@ -19,6 +19,7 @@ import static java.util.Collections.emptyMap;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.talend.dataprep.api.export.ExportParameters.SourceType.FILTER;
@@ -355,6 +356,25 @@ public class TransformationServiceTest extends TransformationServiceBaseTest {
         assertEquals(TdqCategories.class, object.getClass());
     }
 
+    @Test
+    public void getDictionaryShouldNotReturnUnmodifiedDictionary() throws Exception {
+        // given
+        final Response first = when().get("dictionary");
+        final String etag = first.getHeader("ETag");
+
+        // when
+        final Response second = given() //
+                .header("If-None-Match", etag) //
+                .when() //
+                .get("dictionary");
+
+        // then
+        assertEquals(200, first.getStatusCode());
+        assertNotNull(etag);
+        assertEquals(304, second.getStatusCode());
+        assertEquals(etag, second.getHeader("ETag"));
+    }
+
     @Test
     public void shouldGetPreparationColumnTypes() throws Exception {
 
@@ -385,6 +405,29 @@ public class TransformationServiceTest extends TransformationServiceBaseTest {
         }
     }
 
+    @Test
+    public void shouldGetPreparationColumnTypesAfterCacheEviction() throws Exception {
+        // given
+        final String dataSetId = createDataset("communes_france.csv", "communes de France", "text/csv");
+        final String preparationId = createEmptyPreparationFromDataset(dataSetId, "get col types prep");
+        final String types = when()
+                .get("/preparations/{preparationId}/columns/{columnId}/types", preparationId, "0000")
+                .asString();
+
+        // when
+        final String cachedTypes = when()
+                .get("/preparations/{preparationId}/columns/{columnId}/types", preparationId, "0000")
+                .asString();
+        when().delete("/preparation/{preparationId}/cache", preparationId).then().statusCode(200);
+        final String computedTypes = when()
+                .get("/preparations/{preparationId}/columns/{columnId}/types", preparationId, "0000")
+                .asString();
+
+        // then
+        assertEquals(mapper.readTree(types), mapper.readTree(cachedTypes));
+        assertEquals(mapper.readTree(types), mapper.readTree(computedTypes));
+    }
+
     /**
      * see https://jira.talendforge.org/browse/TDP-3126
      */
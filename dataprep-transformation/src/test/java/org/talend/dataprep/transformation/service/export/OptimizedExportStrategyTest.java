@@ -12,23 +12,30 @@
 
 package org.talend.dataprep.transformation.service.export;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.talend.dataprep.api.dataset.ColumnMetadata.Builder.column;
 import static org.talend.dataprep.api.export.ExportParameters.SourceType.HEAD;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Ignore;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.talend.dataprep.api.dataset.DataSet;
+import org.talend.dataprep.api.dataset.DataSetMetadata;
+import org.talend.dataprep.api.dataset.RowMetadata;
 import org.talend.dataprep.api.export.ExportParameters;
 import org.talend.dataprep.api.preparation.Preparation;
 import org.talend.dataprep.api.preparation.PreparationDTO;
 import org.talend.dataprep.api.preparation.Step;
+import org.talend.dataprep.api.type.Type;
 import org.talend.dataprep.cache.CacheKeyGenerator;
 import org.talend.dataprep.cache.ContentCache;
 import org.talend.dataprep.cache.TransformationCacheKey;
@@ -36,6 +43,8 @@ import org.talend.dataprep.exception.TDPException;
 import org.talend.dataprep.preparation.store.PreparationRepository;
 import org.talend.dataprep.transformation.service.TransformationServiceBaseTest;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 public class OptimizedExportStrategyTest extends TransformationServiceBaseTest {
 
     @Autowired
@@ -208,6 +217,32 @@ public class OptimizedExportStrategyTest extends TransformationServiceBaseTest {
         assertTrue(optimizedExportStrategy.test(exportParameters));
     }
 
+    @Test
+    public void testAcceptOK_nearestCachedAncestor() throws Exception {
+        // Given
+        final String datasetId = "1234";
+        final String format = "";
+        final String preparation = createEmptyPreparationFromDataset(datasetId, "test");
+        applyAction(preparation, "[{}]");
+        applyAction(preparation, "[{}]");
+        applyAction(preparation, "[{}]");
+        applyAction(preparation, "[{}]");
+
+        // only first step (after root) is cached
+        final PreparationDTO preparationDetails = getPreparation(preparation);
+        putTransformationAndMetadataInCacheForSteps(preparationDetails.getSteps().subList(1, 2), preparation,
+                datasetId, format);
+
+        ExportParameters exportParameters = new ExportParameters();
+        exportParameters.setPreparationId(preparation);
+        exportParameters.setDatasetId(datasetId);
+        exportParameters.setExportType(format);
+        exportParameters.setFrom(HEAD);
+
+        // Then
+        assertTrue(optimizedExportStrategy.test(exportParameters));
+    }
+
     @Test
     public void testExecute() throws Exception {
         // Given
@@ -248,4 +283,71 @@ public class OptimizedExportStrategyTest extends TransformationServiceBaseTest {
         // Then
         optimizedExportStrategy.execute(exportParameters);
     }
+
+    @Test
+    public void testExecuteAppliesOnlyActionsAfterNearestCachedStep() throws Exception {
+        // Given
+        final String datasetId = "1234";
+        final String format = "JSON";
+        final String preparation = createEmptyPreparationFromDataset(datasetId, "test");
+        applyAction(preparation, replaceAction("a", "b"));
+        applyAction(preparation, replaceAction("b", "c"));
+        applyAction(preparation, replaceAction("c", "d"));
+
+        // first and second steps are cached, with content that tells which one export resumes from
+        final List<String> steps = getPreparation(preparation).getSteps();
+        putStepInCache(preparation, datasetId, format, steps.get(1), //
+                "{\"records\": [{\"0000\": \"b\", \"tdpId\": 1}]}");
+        putStepInCache(preparation, datasetId, format, steps.get(2),
+                "{\"records\": [{\"0000\": \"a\", \"tdpId\": 1}, {\"0000\": \"c\", \"tdpId\": 2}]}");
+
+        ExportParameters exportParameters = new ExportParameters();
+        exportParameters.setPreparationId(preparation);
+        exportParameters.setDatasetId(datasetId);
+        exportParameters.setExportType(format);
+        exportParameters.setFrom(HEAD);
+
+        // When
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        optimizedExportStrategy.execute(exportParameters).writeTo(output);
+
+        // Then
+        // resumed from second step: only last action (c -> d) is applied, previous ones (a -> b, b -> c) are not
+        final JsonNode records = mapper.readTree(output.toByteArray()).get("records");
+        assertEquals(2, records.size());
+        assertEquals("a", records.get(0).get("0000").asText());
+        assertEquals("d", records.get(1).get("0000").asText());
+    }
+
+    private void putStepInCache(String preparationId, String datasetId, String format, String step, String records)
+            throws IOException {
+        final DataSetMetadata metadata = new DataSetMetadata();
+        metadata.setId(datasetId);
+        metadata.setRowMetadata(
+                new RowMetadata(Collections.singletonList(column().id(0).name("value").type(Type.STRING).build())));
+        try (OutputStream content = contentCache.put(cacheKeyGenerator.generateMetadataKey(preparationId, step, HEAD),
+                ContentCache.TimeToLive.DEFAULT)) {
+            mapper.writeValue(content, metadata);
+        }
+
+        final TransformationCacheKey key = cacheKeyGenerator.generateContentKey( //
+                datasetId, //
+                preparationId, //
+                step, //
+                format, //
+                HEAD, //
+                "" // no filter
+        );
+        try (OutputStream content = contentCache.put(key, ContentCache.TimeToLive.DEFAULT)) {
+            content.write(records.getBytes());
+            content.flush();
+        }
+    }
+
+    private static String replaceAction(String from, String to) {
+        return "[{\"actions\": [{\"action\": \"replace_on_value\", \"parameters\": {" //
+                + "\"cell_value\": {\"token\": \"" + from + "\", \"operator\": \"equals\"}, " //
+                + "\"replace_value\": \"" + to + "\", " //
+                + "\"scope\": \"column\", \"column_id\": \"0000\", \"column_name\": \"value\"}}]}]";
+    }
 }
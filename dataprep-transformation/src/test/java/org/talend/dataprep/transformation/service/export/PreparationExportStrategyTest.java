@@ -36,10 +36,12 @@ import org.talend.dataprep.api.preparation.PreparationDTO;
 import org.talend.dataprep.api.preparation.Step;
 import org.talend.dataprep.cache.CacheKeyGenerator;
 import org.talend.dataprep.cache.ContentCache;
+import org.talend.dataprep.cache.ContentCacheSingleFlight;
 import org.talend.dataprep.cache.TransformationCacheKey;
 import org.talend.dataprep.command.preparation.PreparationGetActions;
 import org.talend.dataprep.command.preparation.PreparationSummaryGet;
 import org.talend.dataprep.dataset.adapter.DatasetClient;
+import org.talend.dataprep.lock.NoOpLockFactory;
 import org.talend.dataprep.security.SecurityProxy;
 import org.talend.dataprep.transformation.api.transformer.ExecutableTransformer;
 import org.talend.dataprep.transformation.api.transformer.Transformer;
@@ -92,6 +94,7 @@ public class PreparationExportStrategyTest {
         // Given
         mapper.registerModule(new Jdk8Module());
         injectObjectMapper(strategy);
+        injectSingleFlight(strategy);
 
         when(formatRegistrationService.getByName(eq("JSON"))).thenReturn(new JsonFormat());
 
@@ -129,6 +132,19 @@ public class PreparationExportStrategyTest {
         ReflectionUtils.setField(mapperField, exportStrategy, mapper);
     }
 
+    private void injectSingleFlight(SampleExportStrategy exportStrategy) {
+        final ContentCacheSingleFlight singleFlight = new ContentCacheSingleFlight();
+        setField(ContentCacheSingleFlight.class, singleFlight, "contentCache", contentCache);
+        setField(ContentCacheSingleFlight.class, singleFlight, "lockFactory", new NoOpLockFactory());
+        setField(BaseExportStrategy.class, exportStrategy, "singleFlight", singleFlight);
+    }
+
+    private static void setField(Class<?> type, Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(type, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
     private void configurePreparation(PreparationDTO preparation, String preparationId, String stepId) {
         when(preparationSummaryGet.execute()).thenReturn(preparation);
         when(applicationContext.getBean(eq(PreparationSummaryGet.class), eq(preparationId), eq(stepId)))
@@ -12,6 +12,7 @@ import org.talend.dataprep.api.preparation.PreparationActions;
 import org.talend.dataprep.api.preparation.Step;
 import org.talend.dataprep.preparation.store.PersistentStep;
 import org.talend.dataprep.preparation.store.PreparationRepository;
+import org.talend.dataprep.preparation.store.StepActions;
 import org.talend.tql.model.Expression;
 
 public final class ParameterMigration {
@@ -54,6 +55,18 @@ public final class ParameterMigration {
                     }
                 }) //
                 .forEach(repository::add); //
+
+        // Step contents stored as delta are not content addressed: steps remain the same.
+        final Stream<StepActions> stepActions;
+        if (filter != null) {
+            stepActions = repository.list(StepActions.class, filter);
+        } else {
+            stepActions = repository.list(StepActions.class);
+        }
+        stepActions
+                .filter(sa -> sa.getActions() != null && !sa.getActions().isEmpty()) //
+                .peek(sa -> sa.getActions().forEach(updater)) //
+                .forEach(repository::add);
     }
 
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+ *
+ * This source code is available under agreement available at
+ * https://github.com/Talend/data-prep/blob/master/LICENSE
+ *
+ * You should have received a copy of the agreement
+ * along with this program; if not, write to Talend SA
+ * 9 rue Pages 92150 Suresnes, France
+ */
+
+
+package org.talend.dataprep.upgrade.to_2_8_0_PE;
+
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.talend.dataprep.upgrade.model.UpgradeTask.target.VERSION;
+import static org.talend.tql.api.TqlBuilder.eq;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.talend.dataprep.api.preparation.Action;
+import org.talend.dataprep.api.preparation.PreparationActions;
+import org.talend.dataprep.api.preparation.Step;
+import org.talend.dataprep.preparation.store.PersistentPreparation;
+import org.talend.dataprep.preparation.store.PersistentStep;
+import org.talend.dataprep.preparation.store.PreparationRepository;
+import org.talend.dataprep.preparation.store.StepActions;
+import org.talend.dataprep.preparation.store.StepActionsResolver;
+import org.talend.dataprep.upgrade.model.UpgradeTask;
+
+/**
+ * Stores the content of preparation steps as delta: a step content only holds the actions the step adds to its parent
+ * step (instead of all the actions from root step). Steps that can't be converted are left unchanged (both contents
+ * are supported).
+ *
+ * @see StepActions
+ */
+@Component
+public class StoreStepActionsAsDelta extends BaseUpgradeTaskTo_2_8_0_PE {
+
+    /** This class' logger. */
+    private static final Logger LOGGER = getLogger(StoreStepActionsAsDelta.class);
+
+    @Autowired
+    private PreparationRepository preparationRepository;
+
+    @Autowired
+    private StepActionsResolver stepActionsResolver;
+
+    @Override
+    public void run() {
+        LOGGER.info("Migration of step contents to delta...");
+
+        final Set<String> previousContents = new HashSet<>();
+        preparationRepository
+                .list(PersistentPreparation.class) //
+                .forEach(p -> {
+                    LOGGER.info("Migration of preparation #{}", p.getId());
+                    // Steps are listed from root step: keep the actions of the previous (parent) step.
+                    String parentId = Step.ROOT_STEP.id();
+                    List<Action> parentActions = stepActionsResolver
+                            .getActions(preparationRepository.get(parentId, PersistentStep.class));
+                    for (String stepId : p.getSteps()) {
+                        final PersistentStep step = preparationRepository.get(stepId, PersistentStep.class);
+                        if (step == null || Step.ROOT_STEP.id().equals(stepId)) {
+                            continue;
+                        }
+                        if (!parentId.equals(step.getParentId())) {
+                            parentActions = stepActionsResolver
+                                    .getActions(preparationRepository.get(step.getParentId(), PersistentStep.class));
+                        }
+                        final List<Action> actions = stepActionsResolver.getActions(step);
+                        if (preparationRepository.get(step.getContent(), StepActions.class) == null
+                                && isPrefix(parentActions, actions)) {
+                            final StepActions delta =
+                                    new StepActions(actions.subList(parentActions.size(), actions.size()));
+                            previousContents.add(step.getContent());
+                            step.setContent(delta.id());
+                            preparationRepository.add(delta);
+                            preparationRepository.add(step);
+                        } else if (actions == null) {
+                            LOGGER.warn("Unable to find actions of step #{}, step is left unchanged.", stepId);
+                        }
+                        parentId = stepId;
+                        parentActions = actions;
+                    }
+                });
+
+        // Remove previous contents no longer used
+        final List<PreparationActions> unused = previousContents
+                .stream() //
+                .filter(contentId -> !preparationRepository.exist(PersistentStep.class, eq("contentId", contentId)))
+                .map(contentId -> preparationRepository.get(contentId, PreparationActions.class)) //
+                .filter(Objects::nonNull) //
+                .collect(Collectors.toList());
+        unused.forEach(preparationRepository::remove);
+
+        stepActionsResolver.clear();
+        LOGGER.info("Migration of step contents to delta done ({} contents removed).", unused.size());
+    }
+
+    private static boolean isPrefix(List<Action> parentActions, List<Action> actions) {
+        return parentActions != null && actions != null && parentActions.size() <= actions.size()
+                && parentActions.equals(actions.subList(0, parentActions.size()));
+    }
+
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    @Override
+    public UpgradeTask.target getTarget() {
+        return VERSION;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2006-2018 Talend Inc. - www.talend.com
+ *
+ * This source code is available under agreement available at
+ * https://github.com/Talend/data-prep/blob/master/LICENSE
+ *
+ * You should have received a copy of the agreement
+ * along with this program; if not, write to Talend SA
+ * 9 rue Pages 92150 Suresnes, France
+ */
+
+
+package org.talend.dataprep.upgrade.to_2_8_0_PE;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.talend.dataprep.api.preparation.Action;
+import org.talend.dataprep.api.preparation.PreparationActions;
+import org.talend.dataprep.api.preparation.Step;
+import org.talend.dataprep.preparation.store.PersistentPreparation;
+import org.talend.dataprep.preparation.store.PersistentStep;
+import org.talend.dataprep.preparation.store.PreparationRepository;
+import org.talend.dataprep.preparation.store.StepActions;
+import org.talend.dataprep.preparation.store.StepActionsResolver;
+import org.talend.dataprep.upgrade.model.UpgradeTaskId;
+
+public class StoreStepActionsAsDeltaTest extends Base_2_8_0_PE_Test {
+
+    /** Id of the preparation in the 2.3.0-PE store. */
+    private static final String PREPARATION_ID = "1ef4c418-befe-4c69-8e5b-585a93c2534d";
+
+    @Autowired
+    private StoreStepActionsAsDelta task;
+
+    @Autowired
+    private PreparationRepository preparationRepository;
+
+    @Autowired
+    private StepActionsResolver stepActionsResolver;
+
+    @Test
+    public void shouldStoreStepContentAsDelta() {
+        // given a datastore built with one preparation with 1 step
+        final PersistentPreparation preparation = preparationRepository.get(PREPARATION_ID, PersistentPreparation.class);
+        final PersistentStep head = preparationRepository.get(preparation.getHeadId(), PersistentStep.class);
+        final String previousContent = head.getContent();
+        final List<Action> expected = stepActionsResolver.getActions(head);
+
+        // when
+        task.run();
+
+        // then
+        final PersistentStep migrated = preparationRepository.get(preparation.getHeadId(), PersistentStep.class);
+        final StepActions delta = preparationRepository.get(migrated.getContent(), StepActions.class);
+        assertNotNull(delta);
+        assertEquals(expected, delta.getActions());
+        assertEquals(expected, stepActionsResolver.getActions(migrated));
+        assertNull(preparationRepository.get(previousContent, PreparationActions.class));
+    }
+
+    @Test
+    public void shouldStoreEachStepContentAsDelta() {
+        // given a preparation with 3 steps (all actions from root step in each step content)
+        final List<Action> actions = asList(action("uppercase"), action("lowercase"), action("delete_column"));
+        final PersistentStep step1 = step(Step.ROOT_STEP.id(), legacyContent(actions.subList(0, 1)));
+        final PersistentStep step2 = step(step1.id(), legacyContent(actions.subList(0, 2)));
+        final PersistentStep step3 = step(step2.id(), legacyContent(actions));
+        preparation(step1, step2, step3);
+
+        // when
+        task.run();
+
+        // then
+        assertDelta(step1, actions.subList(0, 1), actions.subList(0, 1));
+        assertDelta(step2, actions.subList(1, 2), actions.subList(0, 2));
+        assertDelta(step3, actions.subList(2, 3), actions);
+        assertNull(preparationRepository.get(step1.getContent(), PreparationActions.class));
+        assertNull(preparationRepository.get(step2.getContent(), PreparationActions.class));
+        assertNull(preparationRepository.get(step3.getContent(), PreparationActions.class));
+    }
+
+    @Test
+    public void shouldStoreStepsSharingContentAsDelta() {
+        // given 2 preparations whose steps share the same contents
+        final List<Action> actions = asList(action("trim"), action("fillemptywithdefault"));
+        final PreparationActions first = legacyContent(actions.subList(0, 1));
+        final PreparationActions second = legacyContent(actions);
+        final PersistentStep step1 = step(Step.ROOT_STEP.id(), first);
+        final PersistentStep step2 = step(step1.id(), second);
+        preparation(step1, step2);
+        final PersistentStep otherStep1 = step(Step.ROOT_STEP.id(), first);
+        final PersistentStep otherStep2 = step(otherStep1.id(), second);
+        preparation(otherStep1, otherStep2);
+
+        // when
+        task.run();
+
+        // then
+        assertDelta(step1, actions.subList(0, 1), actions.subList(0, 1));
+        assertDelta(step2, actions.subList(1, 2), actions);
+        assertDelta(otherStep1, actions.subList(0, 1), actions.subList(0, 1));
+        assertDelta(otherStep2, actions.subList(1, 2), actions);
+        assertNull(preparationRepository.get(first.id(), PreparationActions.class));
+        assertNull(preparationRepository.get(second.id(), PreparationActions.class));
+    }
+
+    private void assertDelta(PersistentStep step, List<Action> expectedDelta, List<Action> expectedActions) {
+        final PersistentStep migrated = preparationRepository.get(step.id(), PersistentStep.class);
+        assertNotEquals(step.getContent(), migrated.getContent());
+        final StepActions delta = preparationRepository.get(migrated.getContent(), StepActions.class);
+        assertNotNull(delta);
+        assertEquals(expectedDelta, delta.getActions());
+        assertEquals(expectedActions, stepActionsResolver.getActions(migrated));
+    }
+
+    private PreparationActions legacyContent(List<Action> actions) {
+        final PreparationActions content = new PreparationActions();
+        content.setActions(new ArrayList<>(actions));
+        preparationRepository.add(content);
+        return content;
+    }
+
+    private PersistentStep step(String parentId, PreparationActions content) {
+        final PersistentStep step = new PersistentStep();
+        step.setId(UUID.randomUUID().toString());
+        step.setParentId(parentId);
+        step.setContent(content.id());
+        preparationRepository.add(step);
+        return step;
+    }
+
+    private void preparation(PersistentStep... steps) {
+        final List<String> stepIds = new ArrayList<>();
+        stepIds.add(Step.ROOT_STEP.id());
+        for (PersistentStep step : steps) {
+            stepIds.add(step.id());
+        }
+        final PersistentPreparation preparation = new PersistentPreparation();
+        preparation.setId(UUID.randomUUID().toString());
+        preparation.setName("preparation");
+        preparation.setSteps(stepIds);
+        preparation.setHeadId(stepIds.get(stepIds.size() - 1));
+        preparationRepository.add(preparation);
+    }
+
+    private static Action action(String name) {
+        final Action action = new Action();
+        action.setName(name);
+        return action;
+    }
+
+    @Override
+    protected UpgradeTaskId getTaskId() {
+        return task.getId();
+    }
+
+    @Override
+    protected int getExpectedTaskOrder() {
+        return 0;
+    }
+
+}